@@ -0,0 +1,2350 @@
+// Generated by the protocol buffer compiler.  DO NOT EDIT!
+// source: Efi.proto
+
+package org.flexiblepower.benchmarks.proto;
+
+public final class EfiProto {
+  private EfiProto() {}
+  public static void registerAllExtensions(
+      com.google.protobuf.ExtensionRegistryLite registry) {
+  }
+
+  public static void registerAllExtensions(
+      com.google.protobuf.ExtensionRegistry registry) {
+    registerAllExtensions(
+        (com.google.protobuf.ExtensionRegistryLite) registry);
+  }
+  public interface UncontrolledForecastMessageOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:benchmarks.UncontrolledForecastMessage)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>required string efiVersion = 1;</code>
+     */
+    boolean hasEfiVersion();
+    /**
+     * <code>required string efiVersion = 1;</code>
+     */
+    java.lang.String getEfiVersion();
+    /**
+     * <code>required string efiVersion = 1;</code>
+     */
+    com.google.protobuf.ByteString
+        getEfiVersionBytes();
+
+    /**
+     * <code>required string flexibilityResourceId = 2;</code>
+     */
+    boolean hasFlexibilityResourceId();
+    /**
+     * <code>required string flexibilityResourceId = 2;</code>
+     */
+    java.lang.String getFlexibilityResourceId();
+    /**
+     * <code>required string flexibilityResourceId = 2;</code>
+     */
+    com.google.protobuf.ByteString
+        getFlexibilityResourceIdBytes();
+
+    /**
+     * <pre>
+     * Milliseconds since the epoch
+     * </pre>
+     *
+     * <code>required int64 timestamp = 3;</code>
+     */
+    boolean hasTimestamp();
+    /**
+     * <pre>
+     * Milliseconds since the epoch
+     * </pre>
+     *
+     * <code>required int64 timestamp = 3;</code>
+     */
+    long getTimestamp();
+
+    /**
+     * <code>required int64 validFrom = 4;</code>
+     */
+    boolean hasValidFrom();
+    /**
+     * <code>required int64 validFrom = 4;</code>
+     */
+    long getValidFrom();
+
+    /**
+     * <code>repeated .benchmarks.ForecastElement forecastElement = 5;</code>
+     */
+    java.util.List<org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement> 
+        getForecastElementList();
+    /**
+     * <code>repeated .benchmarks.ForecastElement forecastElement = 5;</code>
+     */
+    org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement getForecastElement(int index);
+    /**
+     * <code>repeated .benchmarks.ForecastElement forecastElement = 5;</code>
+     */
+    int getForecastElementCount();
+    /**
+     * <code>repeated .benchmarks.ForecastElement forecastElement = 5;</code>
+     */
+    java.util.List<? extends org.flexiblepower.benchmarks.proto.EfiProto.ForecastElementOrBuilder> 
+        getForecastElementOrBuilderList();
+    /**
+     * <code>repeated .benchmarks.ForecastElement forecastElement = 5;</code>
+     */
+    org.flexiblepower.benchmarks.proto.EfiProto.ForecastElementOrBuilder getForecastElementOrBuilder(
+        int index);
+  }
+  /**
+   * <pre>
+   * The UncontrolledForecast of the Energy Flexibility Interface, with the same fields as the class that is used for
+   * the XSD and Java serializers
+   * </pre>
+   *
+   * Protobuf type {@code benchmarks.UncontrolledForecastMessage}
+   */
+  public  static final class UncontrolledForecastMessage extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:benchmarks.UncontrolledForecastMessage)
+      UncontrolledForecastMessageOrBuilder {
+    // Use UncontrolledForecastMessage.newBuilder() to construct.
+    private UncontrolledForecastMessage(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private UncontrolledForecastMessage() {
+      efiVersion_ = "";
+      flexibilityResourceId_ = "";
+      timestamp_ = 0L;
+      validFrom_ = 0L;
+      forecastElement_ = java.util.Collections.emptyList();
+    }
+
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+    getUnknownFields() {
+      return this.unknownFields;
+    }
+    private UncontrolledForecastMessage(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      this();
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 10: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000001;
+              efiVersion_ = bs;
+              break;
+            }
+            case 18: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000002;
+              flexibilityResourceId_ = bs;
+              break;
+            }
+            case 24: {
+              bitField0_ |= 0x00000004;
+              timestamp_ = input.readInt64();
+              break;
+            }
+            case 32: {
+              bitField0_ |= 0x00000008;
+              validFrom_ = input.readInt64();
+              break;
+            }
+            case 42: {
+              if (!((mutable_bitField0_ & 0x00000010) == 0x00000010)) {
+                forecastElement_ = new java.util.ArrayList<org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement>();
+                mutable_bitField0_ |= 0x00000010;
+              }
+              forecastElement_.add(
+                  input.readMessage(org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement.PARSER, extensionRegistry));
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000010) == 0x00000010)) {
+          forecastElement_ = java.util.Collections.unmodifiableList(forecastElement_);
+        }
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return org.flexiblepower.benchmarks.proto.EfiProto.internal_static_benchmarks_UncontrolledForecastMessage_descriptor;
+    }
+
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return org.flexiblepower.benchmarks.proto.EfiProto.internal_static_benchmarks_UncontrolledForecastMessage_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage.class, org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage.Builder.class);
+    }
+
+    private int bitField0_;
+    public static final int EFIVERSION_FIELD_NUMBER = 1;
+    private volatile java.lang.Object efiVersion_;
+    /**
+     * <code>required string efiVersion = 1;</code>
+     */
+    public boolean hasEfiVersion() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>required string efiVersion = 1;</code>
+     */
+    public java.lang.String getEfiVersion() {
+      java.lang.Object ref = efiVersion_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          efiVersion_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>required string efiVersion = 1;</code>
+     */
+    public com.google.protobuf.ByteString
+        getEfiVersionBytes() {
+      java.lang.Object ref = efiVersion_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        efiVersion_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int FLEXIBILITYRESOURCEID_FIELD_NUMBER = 2;
+    private volatile java.lang.Object flexibilityResourceId_;
+    /**
+     * <code>required string flexibilityResourceId = 2;</code>
+     */
+    public boolean hasFlexibilityResourceId() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>required string flexibilityResourceId = 2;</code>
+     */
+    public java.lang.String getFlexibilityResourceId() {
+      java.lang.Object ref = flexibilityResourceId_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          flexibilityResourceId_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>required string flexibilityResourceId = 2;</code>
+     */
+    public com.google.protobuf.ByteString
+        getFlexibilityResourceIdBytes() {
+      java.lang.Object ref = flexibilityResourceId_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        flexibilityResourceId_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int TIMESTAMP_FIELD_NUMBER = 3;
+    private long timestamp_;
+    /**
+     * <pre>
+     * Milliseconds since the epoch
+     * </pre>
+     *
+     * <code>required int64 timestamp = 3;</code>
+     */
+    public boolean hasTimestamp() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    /**
+     * <pre>
+     * Milliseconds since the epoch
+     * </pre>
+     *
+     * <code>required int64 timestamp = 3;</code>
+     */
+    public long getTimestamp() {
+      return timestamp_;
+    }
+
+    public static final int VALIDFROM_FIELD_NUMBER = 4;
+    private long validFrom_;
+    /**
+     * <code>required int64 validFrom = 4;</code>
+     */
+    public boolean hasValidFrom() {
+      return ((bitField0_ & 0x00000008) == 0x00000008);
+    }
+    /**
+     * <code>required int64 validFrom = 4;</code>
+     */
+    public long getValidFrom() {
+      return validFrom_;
+    }
+
+    public static final int FORECASTELEMENT_FIELD_NUMBER = 5;
+    private java.util.List<org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement> forecastElement_;
+    /**
+     * <code>repeated .benchmarks.ForecastElement forecastElement = 5;</code>
+     */
+    public java.util.List<org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement> getForecastElementList() {
+      return forecastElement_;
+    }
+    /**
+     * <code>repeated .benchmarks.ForecastElement forecastElement = 5;</code>
+     */
+    public java.util.List<? extends org.flexiblepower.benchmarks.proto.EfiProto.ForecastElementOrBuilder> 
+        getForecastElementOrBuilderList() {
+      return forecastElement_;
+    }
+    /**
+     * <code>repeated .benchmarks.ForecastElement forecastElement = 5;</code>
+     */
+    public int getForecastElementCount() {
+      return forecastElement_.size();
+    }
+    /**
+     * <code>repeated .benchmarks.ForecastElement forecastElement = 5;</code>
+     */
+    public org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement getForecastElement(int index) {
+      return forecastElement_.get(index);
+    }
+    /**
+     * <code>repeated .benchmarks.ForecastElement forecastElement = 5;</code>
+     */
+    public org.flexiblepower.benchmarks.proto.EfiProto.ForecastElementOrBuilder getForecastElementOrBuilder(
+        int index) {
+      return forecastElement_.get(index);
+    }
+
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      if (!hasEfiVersion()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasFlexibilityResourceId()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasTimestamp()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasValidFrom()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      for (int i = 0; i < getForecastElementCount(); i++) {
+        if (!getForecastElement(i).isInitialized()) {
+          memoizedIsInitialized = 0;
+          return false;
+        }
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 1, efiVersion_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 2, flexibilityResourceId_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeInt64(3, timestamp_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        output.writeInt64(4, validFrom_);
+      }
+      for (int i = 0; i < forecastElement_.size(); i++) {
+        output.writeMessage(5, forecastElement_.get(i));
+      }
+      unknownFields.writeTo(output);
+    }
+
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(1, efiVersion_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(2, flexibilityResourceId_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(3, timestamp_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(4, validFrom_);
+      }
+      for (int i = 0; i < forecastElement_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(5, forecastElement_.get(i));
+      }
+      size += unknownFields.getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage)) {
+        return super.equals(obj);
+      }
+      org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage other = (org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage) obj;
+
+      boolean result = true;
+      result = result && (hasEfiVersion() == other.hasEfiVersion());
+      if (hasEfiVersion()) {
+        result = result && getEfiVersion()
+            .equals(other.getEfiVersion());
+      }
+      result = result && (hasFlexibilityResourceId() == other.hasFlexibilityResourceId());
+      if (hasFlexibilityResourceId()) {
+        result = result && getFlexibilityResourceId()
+            .equals(other.getFlexibilityResourceId());
+      }
+      result = result && (hasTimestamp() == other.hasTimestamp());
+      if (hasTimestamp()) {
+        result = result && (getTimestamp()
+            == other.getTimestamp());
+      }
+      result = result && (hasValidFrom() == other.hasValidFrom());
+      if (hasValidFrom()) {
+        result = result && (getValidFrom()
+            == other.getValidFrom());
+      }
+      result = result && getForecastElementList()
+          .equals(other.getForecastElementList());
+      result = result && unknownFields.equals(other.unknownFields);
+      return result;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      if (hasEfiVersion()) {
+        hash = (37 * hash) + EFIVERSION_FIELD_NUMBER;
+        hash = (53 * hash) + getEfiVersion().hashCode();
+      }
+      if (hasFlexibilityResourceId()) {
+        hash = (37 * hash) + FLEXIBILITYRESOURCEID_FIELD_NUMBER;
+        hash = (53 * hash) + getFlexibilityResourceId().hashCode();
+      }
+      if (hasTimestamp()) {
+        hash = (37 * hash) + TIMESTAMP_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getTimestamp());
+      }
+      if (hasValidFrom()) {
+        hash = (37 * hash) + VALIDFROM_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getValidFrom());
+      }
+      if (getForecastElementCount() > 0) {
+        hash = (37 * hash) + FORECASTELEMENT_FIELD_NUMBER;
+        hash = (53 * hash) + getForecastElementList().hashCode();
+      }
+      hash = (29 * hash) + unknownFields.hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+    public static org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * <pre>
+     * The UncontrolledForecast of the Energy Flexibility Interface, with the same fields as the class that is used for
+     * the XSD and Java serializers
+     * </pre>
+     *
+     * Protobuf type {@code benchmarks.UncontrolledForecastMessage}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:benchmarks.UncontrolledForecastMessage)
+        org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessageOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return org.flexiblepower.benchmarks.proto.EfiProto.internal_static_benchmarks_UncontrolledForecastMessage_descriptor;
+      }
+
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return org.flexiblepower.benchmarks.proto.EfiProto.internal_static_benchmarks_UncontrolledForecastMessage_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage.class, org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage.Builder.class);
+      }
+
+      // Construct using org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessageV3
+                .alwaysUseFieldBuilders) {
+          getForecastElementFieldBuilder();
+        }
+      }
+      public Builder clear() {
+        super.clear();
+        efiVersion_ = "";
+        bitField0_ = (bitField0_ & ~0x00000001);
+        flexibilityResourceId_ = "";
+        bitField0_ = (bitField0_ & ~0x00000002);
+        timestamp_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000004);
+        validFrom_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000008);
+        if (forecastElementBuilder_ == null) {
+          forecastElement_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000010);
+        } else {
+          forecastElementBuilder_.clear();
+        }
+        return this;
+      }
+
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return org.flexiblepower.benchmarks.proto.EfiProto.internal_static_benchmarks_UncontrolledForecastMessage_descriptor;
+      }
+
+      public org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage getDefaultInstanceForType() {
+        return org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage.getDefaultInstance();
+      }
+
+      public org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage build() {
+        org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage buildPartial() {
+        org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage result = new org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.efiVersion_ = efiVersion_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.flexibilityResourceId_ = flexibilityResourceId_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        result.timestamp_ = timestamp_;
+        if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
+          to_bitField0_ |= 0x00000008;
+        }
+        result.validFrom_ = validFrom_;
+        if (forecastElementBuilder_ == null) {
+          if (((bitField0_ & 0x00000010) == 0x00000010)) {
+            forecastElement_ = java.util.Collections.unmodifiableList(forecastElement_);
+            bitField0_ = (bitField0_ & ~0x00000010);
+          }
+          result.forecastElement_ = forecastElement_;
+        } else {
+          result.forecastElement_ = forecastElementBuilder_.build();
+        }
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder clone() {
+        return (Builder) super.clone();
+      }
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          Object value) {
+        return (Builder) super.setField(field, value);
+      }
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return (Builder) super.clearField(field);
+      }
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return (Builder) super.clearOneof(oneof);
+      }
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, Object value) {
+        return (Builder) super.setRepeatedField(field, index, value);
+      }
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          Object value) {
+        return (Builder) super.addRepeatedField(field, value);
+      }
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage) {
+          return mergeFrom((org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage other) {
+        if (other == org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage.getDefaultInstance()) return this;
+        if (other.hasEfiVersion()) {
+          bitField0_ |= 0x00000001;
+          efiVersion_ = other.efiVersion_;
+          onChanged();
+        }
+        if (other.hasFlexibilityResourceId()) {
+          bitField0_ |= 0x00000002;
+          flexibilityResourceId_ = other.flexibilityResourceId_;
+          onChanged();
+        }
+        if (other.hasTimestamp()) {
+          setTimestamp(other.getTimestamp());
+        }
+        if (other.hasValidFrom()) {
+          setValidFrom(other.getValidFrom());
+        }
+        if (forecastElementBuilder_ == null) {
+          if (!other.forecastElement_.isEmpty()) {
+            if (forecastElement_.isEmpty()) {
+              forecastElement_ = other.forecastElement_;
+              bitField0_ = (bitField0_ & ~0x00000010);
+            } else {
+              ensureForecastElementIsMutable();
+              forecastElement_.addAll(other.forecastElement_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.forecastElement_.isEmpty()) {
+            if (forecastElementBuilder_.isEmpty()) {
+              forecastElementBuilder_.dispose();
+              forecastElementBuilder_ = null;
+              forecastElement_ = other.forecastElement_;
+              bitField0_ = (bitField0_ & ~0x00000010);
+              forecastElementBuilder_ = 
+                com.google.protobuf.GeneratedMessageV3.alwaysUseFieldBuilders ?
+                   getForecastElementFieldBuilder() : null;
+            } else {
+              forecastElementBuilder_.addAllMessages(other.forecastElement_);
+            }
+          }
+        }
+        this.mergeUnknownFields(other.unknownFields);
+        onChanged();
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        if (!hasEfiVersion()) {
+          return false;
+        }
+        if (!hasFlexibilityResourceId()) {
+          return false;
+        }
+        if (!hasTimestamp()) {
+          return false;
+        }
+        if (!hasValidFrom()) {
+          return false;
+        }
+        for (int i = 0; i < getForecastElementCount(); i++) {
+          if (!getForecastElement(i).isInitialized()) {
+            return false;
+          }
+        }
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage) e.getUnfinishedMessage();
+          throw e.unwrapIOException();
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private java.lang.Object efiVersion_ = "";
+      /**
+       * <code>required string efiVersion = 1;</code>
+       */
+      public boolean hasEfiVersion() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>required string efiVersion = 1;</code>
+       */
+      public java.lang.String getEfiVersion() {
+        java.lang.Object ref = efiVersion_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            efiVersion_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>required string efiVersion = 1;</code>
+       */
+      public com.google.protobuf.ByteString
+          getEfiVersionBytes() {
+        java.lang.Object ref = efiVersion_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          efiVersion_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>required string efiVersion = 1;</code>
+       */
+      public Builder setEfiVersion(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        efiVersion_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string efiVersion = 1;</code>
+       */
+      public Builder clearEfiVersion() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        efiVersion_ = getDefaultInstance().getEfiVersion();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string efiVersion = 1;</code>
+       */
+      public Builder setEfiVersionBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        efiVersion_ = value;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object flexibilityResourceId_ = "";
+      /**
+       * <code>required string flexibilityResourceId = 2;</code>
+       */
+      public boolean hasFlexibilityResourceId() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>required string flexibilityResourceId = 2;</code>
+       */
+      public java.lang.String getFlexibilityResourceId() {
+        java.lang.Object ref = flexibilityResourceId_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            flexibilityResourceId_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>required string flexibilityResourceId = 2;</code>
+       */
+      public com.google.protobuf.ByteString
+          getFlexibilityResourceIdBytes() {
+        java.lang.Object ref = flexibilityResourceId_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          flexibilityResourceId_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>required string flexibilityResourceId = 2;</code>
+       */
+      public Builder setFlexibilityResourceId(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        flexibilityResourceId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string flexibilityResourceId = 2;</code>
+       */
+      public Builder clearFlexibilityResourceId() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        flexibilityResourceId_ = getDefaultInstance().getFlexibilityResourceId();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string flexibilityResourceId = 2;</code>
+       */
+      public Builder setFlexibilityResourceIdBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        flexibilityResourceId_ = value;
+        onChanged();
+        return this;
+      }
+
+      private long timestamp_ ;
+      /**
+       * <pre>
+       * Milliseconds since the epoch
+       * </pre>
+       *
+       * <code>required int64 timestamp = 3;</code>
+       */
+      public boolean hasTimestamp() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <pre>
+       * Milliseconds since the epoch
+       * </pre>
+       *
+       * <code>required int64 timestamp = 3;</code>
+       */
+      public long getTimestamp() {
+        return timestamp_;
+      }
+      /**
+       * <pre>
+       * Milliseconds since the epoch
+       * </pre>
+       *
+       * <code>required int64 timestamp = 3;</code>
+       */
+      public Builder setTimestamp(long value) {
+        bitField0_ |= 0x00000004;
+        timestamp_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Milliseconds since the epoch
+       * </pre>
+       *
+       * <code>required int64 timestamp = 3;</code>
+       */
+      public Builder clearTimestamp() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        timestamp_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private long validFrom_ ;
+      /**
+       * <code>required int64 validFrom = 4;</code>
+       */
+      public boolean hasValidFrom() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
+      }
+      /**
+       * <code>required int64 validFrom = 4;</code>
+       */
+      public long getValidFrom() {
+        return validFrom_;
+      }
+      /**
+       * <code>required int64 validFrom = 4;</code>
+       */
+      public Builder setValidFrom(long value) {
+        bitField0_ |= 0x00000008;
+        validFrom_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required int64 validFrom = 4;</code>
+       */
+      public Builder clearValidFrom() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        validFrom_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private java.util.List<org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement> forecastElement_ =
+        java.util.Collections.emptyList();
+      private void ensureForecastElementIsMutable() {
+        if (!((bitField0_ & 0x00000010) == 0x00000010)) {
+          forecastElement_ = new java.util.ArrayList<org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement>(forecastElement_);
+          bitField0_ |= 0x00000010;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement, org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement.Builder, org.flexiblepower.benchmarks.proto.EfiProto.ForecastElementOrBuilder> forecastElementBuilder_;
+
+      /**
+       * <code>repeated .benchmarks.ForecastElement forecastElement = 5;</code>
+       */
+      public java.util.List<org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement> getForecastElementList() {
+        if (forecastElementBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(forecastElement_);
+        } else {
+          return forecastElementBuilder_.getMessageList();
+        }
+      }
+      /**
+       * <code>repeated .benchmarks.ForecastElement forecastElement = 5;</code>
+       */
+      public int getForecastElementCount() {
+        if (forecastElementBuilder_ == null) {
+          return forecastElement_.size();
+        } else {
+          return forecastElementBuilder_.getCount();
+        }
+      }
+      /**
+       * <code>repeated .benchmarks.ForecastElement forecastElement = 5;</code>
+       */
+      public org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement getForecastElement(int index) {
+        if (forecastElementBuilder_ == null) {
+          return forecastElement_.get(index);
+        } else {
+          return forecastElementBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <code>repeated .benchmarks.ForecastElement forecastElement = 5;</code>
+       */
+      public Builder setForecastElement(
+          int index, org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement value) {
+        if (forecastElementBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureForecastElementIsMutable();
+          forecastElement_.set(index, value);
+          onChanged();
+        } else {
+          forecastElementBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .benchmarks.ForecastElement forecastElement = 5;</code>
+       */
+      public Builder setForecastElement(
+          int index, org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement.Builder builderForValue) {
+        if (forecastElementBuilder_ == null) {
+          ensureForecastElementIsMutable();
+          forecastElement_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          forecastElementBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .benchmarks.ForecastElement forecastElement = 5;</code>
+       */
+      public Builder addForecastElement(org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement value) {
+        if (forecastElementBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureForecastElementIsMutable();
+          forecastElement_.add(value);
+          onChanged();
+        } else {
+          forecastElementBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .benchmarks.ForecastElement forecastElement = 5;</code>
+       */
+      public Builder addForecastElement(
+          int index, org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement value) {
+        if (forecastElementBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureForecastElementIsMutable();
+          forecastElement_.add(index, value);
+          onChanged();
+        } else {
+          forecastElementBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .benchmarks.ForecastElement forecastElement = 5;</code>
+       */
+      public Builder addForecastElement(
+          org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement.Builder builderForValue) {
+        if (forecastElementBuilder_ == null) {
+          ensureForecastElementIsMutable();
+          forecastElement_.add(builderForValue.build());
+          onChanged();
+        } else {
+          forecastElementBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .benchmarks.ForecastElement forecastElement = 5;</code>
+       */
+      public Builder addForecastElement(
+          int index, org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement.Builder builderForValue) {
+        if (forecastElementBuilder_ == null) {
+          ensureForecastElementIsMutable();
+          forecastElement_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          forecastElementBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .benchmarks.ForecastElement forecastElement = 5;</code>
+       */
+      public Builder addAllForecastElement(
+          java.lang.Iterable<? extends org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement> values) {
+        if (forecastElementBuilder_ == null) {
+          ensureForecastElementIsMutable();
+          com.google.protobuf.AbstractMessageLite.Builder.addAll(
+              values, forecastElement_);
+          onChanged();
+        } else {
+          forecastElementBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .benchmarks.ForecastElement forecastElement = 5;</code>
+       */
+      public Builder clearForecastElement() {
+        if (forecastElementBuilder_ == null) {
+          forecastElement_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000010);
+          onChanged();
+        } else {
+          forecastElementBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .benchmarks.ForecastElement forecastElement = 5;</code>
+       */
+      public Builder removeForecastElement(int index) {
+        if (forecastElementBuilder_ == null) {
+          ensureForecastElementIsMutable();
+          forecastElement_.remove(index);
+          onChanged();
+        } else {
+          forecastElementBuilder_.remove(index);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .benchmarks.ForecastElement forecastElement = 5;</code>
+       */
+      public org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement.Builder getForecastElementBuilder(
+          int index) {
+        return getForecastElementFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <code>repeated .benchmarks.ForecastElement forecastElement = 5;</code>
+       */
+      public org.flexiblepower.benchmarks.proto.EfiProto.ForecastElementOrBuilder getForecastElementOrBuilder(
+          int index) {
+        if (forecastElementBuilder_ == null) {
+          return forecastElement_.get(index);  } else {
+          return forecastElementBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <code>repeated .benchmarks.ForecastElement forecastElement = 5;</code>
+       */
+      public java.util.List<? extends org.flexiblepower.benchmarks.proto.EfiProto.ForecastElementOrBuilder> 
+           getForecastElementOrBuilderList() {
+        if (forecastElementBuilder_ != null) {
+          return forecastElementBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(forecastElement_);
+        }
+      }
+      /**
+       * <code>repeated .benchmarks.ForecastElement forecastElement = 5;</code>
+       */
+      public org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement.Builder addForecastElementBuilder() {
+        return getForecastElementFieldBuilder().addBuilder(
+            org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .benchmarks.ForecastElement forecastElement = 5;</code>
+       */
+      public org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement.Builder addForecastElementBuilder(
+          int index) {
+        return getForecastElementFieldBuilder().addBuilder(
+            index, org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .benchmarks.ForecastElement forecastElement = 5;</code>
+       */
+      public java.util.List<org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement.Builder> 
+           getForecastElementBuilderList() {
+        return getForecastElementFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement, org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement.Builder, org.flexiblepower.benchmarks.proto.EfiProto.ForecastElementOrBuilder> 
+          getForecastElementFieldBuilder() {
+        if (forecastElementBuilder_ == null) {
+          forecastElementBuilder_ = new com.google.protobuf.RepeatedFieldBuilderV3<
+              org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement, org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement.Builder, org.flexiblepower.benchmarks.proto.EfiProto.ForecastElementOrBuilder>(
+                  forecastElement_,
+                  ((bitField0_ & 0x00000010) == 0x00000010),
+                  getParentForChildren(),
+                  isClean());
+          forecastElement_ = null;
+        }
+        return forecastElementBuilder_;
+      }
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.setUnknownFields(unknownFields);
+      }
+
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.mergeUnknownFields(unknownFields);
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:benchmarks.UncontrolledForecastMessage)
+    }
+
+    // @@protoc_insertion_point(class_scope:benchmarks.UncontrolledForecastMessage)
+    private static final org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage();
+    }
+
+    public static org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    @java.lang.Deprecated public static final com.google.protobuf.Parser<UncontrolledForecastMessage>
+        PARSER = new com.google.protobuf.AbstractParser<UncontrolledForecastMessage>() {
+      public UncontrolledForecastMessage parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+          return new UncontrolledForecastMessage(input, extensionRegistry);
+      }
+    };
+
+    public static com.google.protobuf.Parser<UncontrolledForecastMessage> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<UncontrolledForecastMessage> getParserForType() {
+      return PARSER;
+    }
+
+    public org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface ForecastElementOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:benchmarks.ForecastElement)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <pre>
+     * The length of the period as an ISO 8601 duration
+     * </pre>
+     *
+     * <code>required string duration = 1;</code>
+     */
+    boolean hasDuration();
+    /**
+     * <pre>
+     * The length of the period as an ISO 8601 duration
+     * </pre>
+     *
+     * <code>required string duration = 1;</code>
+     */
+    java.lang.String getDuration();
+    /**
+     * <pre>
+     * The length of the period as an ISO 8601 duration
+     * </pre>
+     *
+     * <code>required string duration = 1;</code>
+     */
+    com.google.protobuf.ByteString
+        getDurationBytes();
+
+    /**
+     * <pre>
+     * The expected power in watts
+     * </pre>
+     *
+     * <code>required double power = 2;</code>
+     */
+    boolean hasPower();
+    /**
+     * <pre>
+     * The expected power in watts
+     * </pre>
+     *
+     * <code>required double power = 2;</code>
+     */
+    double getPower();
+
+    /**
+     * <code>required double lowerBound = 3;</code>
+     */
+    boolean hasLowerBound();
+    /**
+     * <code>required double lowerBound = 3;</code>
+     */
+    double getLowerBound();
+
+    /**
+     * <code>required double upperBound = 4;</code>
+     */
+    boolean hasUpperBound();
+    /**
+     * <code>required double upperBound = 4;</code>
+     */
+    double getUpperBound();
+  }
+  /**
+   * Protobuf type {@code benchmarks.ForecastElement}
+   */
+  public  static final class ForecastElement extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:benchmarks.ForecastElement)
+      ForecastElementOrBuilder {
+    // Use ForecastElement.newBuilder() to construct.
+    private ForecastElement(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private ForecastElement() {
+      duration_ = "";
+      power_ = 0D;
+      lowerBound_ = 0D;
+      upperBound_ = 0D;
+    }
+
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+    getUnknownFields() {
+      return this.unknownFields;
+    }
+    private ForecastElement(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      this();
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 10: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000001;
+              duration_ = bs;
+              break;
+            }
+            case 17: {
+              bitField0_ |= 0x00000002;
+              power_ = input.readDouble();
+              break;
+            }
+            case 25: {
+              bitField0_ |= 0x00000004;
+              lowerBound_ = input.readDouble();
+              break;
+            }
+            case 33: {
+              bitField0_ |= 0x00000008;
+              upperBound_ = input.readDouble();
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e).setUnfinishedMessage(this);
+      } finally {
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return org.flexiblepower.benchmarks.proto.EfiProto.internal_static_benchmarks_ForecastElement_descriptor;
+    }
+
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return org.flexiblepower.benchmarks.proto.EfiProto.internal_static_benchmarks_ForecastElement_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement.class, org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement.Builder.class);
+    }
+
+    private int bitField0_;
+    public static final int DURATION_FIELD_NUMBER = 1;
+    private volatile java.lang.Object duration_;
+    /**
+     * <pre>
+     * The length of the period as an ISO 8601 duration
+     * </pre>
+     *
+     * <code>required string duration = 1;</code>
+     */
+    public boolean hasDuration() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <pre>
+     * The length of the period as an ISO 8601 duration
+     * </pre>
+     *
+     * <code>required string duration = 1;</code>
+     */
+    public java.lang.String getDuration() {
+      java.lang.Object ref = duration_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          duration_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <pre>
+     * The length of the period as an ISO 8601 duration
+     * </pre>
+     *
+     * <code>required string duration = 1;</code>
+     */
+    public com.google.protobuf.ByteString
+        getDurationBytes() {
+      java.lang.Object ref = duration_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        duration_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int POWER_FIELD_NUMBER = 2;
+    private double power_;
+    /**
+     * <pre>
+     * The expected power in watts
+     * </pre>
+     *
+     * <code>required double power = 2;</code>
+     */
+    public boolean hasPower() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <pre>
+     * The expected power in watts
+     * </pre>
+     *
+     * <code>required double power = 2;</code>
+     */
+    public double getPower() {
+      return power_;
+    }
+
+    public static final int LOWERBOUND_FIELD_NUMBER = 3;
+    private double lowerBound_;
+    /**
+     * <code>required double lowerBound = 3;</code>
+     */
+    public boolean hasLowerBound() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    /**
+     * <code>required double lowerBound = 3;</code>
+     */
+    public double getLowerBound() {
+      return lowerBound_;
+    }
+
+    public static final int UPPERBOUND_FIELD_NUMBER = 4;
+    private double upperBound_;
+    /**
+     * <code>required double upperBound = 4;</code>
+     */
+    public boolean hasUpperBound() {
+      return ((bitField0_ & 0x00000008) == 0x00000008);
+    }
+    /**
+     * <code>required double upperBound = 4;</code>
+     */
+    public double getUpperBound() {
+      return upperBound_;
+    }
+
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      if (!hasDuration()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasPower()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasLowerBound()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasUpperBound()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 1, duration_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeDouble(2, power_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeDouble(3, lowerBound_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        output.writeDouble(4, upperBound_);
+      }
+      unknownFields.writeTo(output);
+    }
+
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(1, duration_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeDoubleSize(2, power_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeDoubleSize(3, lowerBound_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeDoubleSize(4, upperBound_);
+      }
+      size += unknownFields.getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement)) {
+        return super.equals(obj);
+      }
+      org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement other = (org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement) obj;
+
+      boolean result = true;
+      result = result && (hasDuration() == other.hasDuration());
+      if (hasDuration()) {
+        result = result && getDuration()
+            .equals(other.getDuration());
+      }
+      result = result && (hasPower() == other.hasPower());
+      if (hasPower()) {
+        result = result && (
+            java.lang.Double.doubleToLongBits(getPower())
+            == java.lang.Double.doubleToLongBits(
+                other.getPower()));
+      }
+      result = result && (hasLowerBound() == other.hasLowerBound());
+      if (hasLowerBound()) {
+        result = result && (
+            java.lang.Double.doubleToLongBits(getLowerBound())
+            == java.lang.Double.doubleToLongBits(
+                other.getLowerBound()));
+      }
+      result = result && (hasUpperBound() == other.hasUpperBound());
+      if (hasUpperBound()) {
+        result = result && (
+            java.lang.Double.doubleToLongBits(getUpperBound())
+            == java.lang.Double.doubleToLongBits(
+                other.getUpperBound()));
+      }
+      result = result && unknownFields.equals(other.unknownFields);
+      return result;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      if (hasDuration()) {
+        hash = (37 * hash) + DURATION_FIELD_NUMBER;
+        hash = (53 * hash) + getDuration().hashCode();
+      }
+      if (hasPower()) {
+        hash = (37 * hash) + POWER_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            java.lang.Double.doubleToLongBits(getPower()));
+      }
+      if (hasLowerBound()) {
+        hash = (37 * hash) + LOWERBOUND_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            java.lang.Double.doubleToLongBits(getLowerBound()));
+      }
+      if (hasUpperBound()) {
+        hash = (37 * hash) + UPPERBOUND_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            java.lang.Double.doubleToLongBits(getUpperBound()));
+      }
+      hash = (29 * hash) + unknownFields.hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+    public static org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code benchmarks.ForecastElement}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:benchmarks.ForecastElement)
+        org.flexiblepower.benchmarks.proto.EfiProto.ForecastElementOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return org.flexiblepower.benchmarks.proto.EfiProto.internal_static_benchmarks_ForecastElement_descriptor;
+      }
+
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return org.flexiblepower.benchmarks.proto.EfiProto.internal_static_benchmarks_ForecastElement_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement.class, org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement.Builder.class);
+      }
+
+      // Construct using org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessageV3
+                .alwaysUseFieldBuilders) {
+        }
+      }
+      public Builder clear() {
+        super.clear();
+        duration_ = "";
+        bitField0_ = (bitField0_ & ~0x00000001);
+        power_ = 0D;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        lowerBound_ = 0D;
+        bitField0_ = (bitField0_ & ~0x00000004);
+        upperBound_ = 0D;
+        bitField0_ = (bitField0_ & ~0x00000008);
+        return this;
+      }
+
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return org.flexiblepower.benchmarks.proto.EfiProto.internal_static_benchmarks_ForecastElement_descriptor;
+      }
+
+      public org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement getDefaultInstanceForType() {
+        return org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement.getDefaultInstance();
+      }
+
+      public org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement build() {
+        org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement buildPartial() {
+        org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement result = new org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.duration_ = duration_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.power_ = power_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        result.lowerBound_ = lowerBound_;
+        if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
+          to_bitField0_ |= 0x00000008;
+        }
+        result.upperBound_ = upperBound_;
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder clone() {
+        return (Builder) super.clone();
+      }
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          Object value) {
+        return (Builder) super.setField(field, value);
+      }
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return (Builder) super.clearField(field);
+      }
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return (Builder) super.clearOneof(oneof);
+      }
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, Object value) {
+        return (Builder) super.setRepeatedField(field, index, value);
+      }
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          Object value) {
+        return (Builder) super.addRepeatedField(field, value);
+      }
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement) {
+          return mergeFrom((org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement other) {
+        if (other == org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement.getDefaultInstance()) return this;
+        if (other.hasDuration()) {
+          bitField0_ |= 0x00000001;
+          duration_ = other.duration_;
+          onChanged();
+        }
+        if (other.hasPower()) {
+          setPower(other.getPower());
+        }
+        if (other.hasLowerBound()) {
+          setLowerBound(other.getLowerBound());
+        }
+        if (other.hasUpperBound()) {
+          setUpperBound(other.getUpperBound());
+        }
+        this.mergeUnknownFields(other.unknownFields);
+        onChanged();
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        if (!hasDuration()) {
+          return false;
+        }
+        if (!hasPower()) {
+          return false;
+        }
+        if (!hasLowerBound()) {
+          return false;
+        }
+        if (!hasUpperBound()) {
+          return false;
+        }
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement) e.getUnfinishedMessage();
+          throw e.unwrapIOException();
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private java.lang.Object duration_ = "";
+      /**
+       * <pre>
+       * The length of the period as an ISO 8601 duration
+       * </pre>
+       *
+       * <code>required string duration = 1;</code>
+       */
+      public boolean hasDuration() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <pre>
+       * The length of the period as an ISO 8601 duration
+       * </pre>
+       *
+       * <code>required string duration = 1;</code>
+       */
+      public java.lang.String getDuration() {
+        java.lang.Object ref = duration_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            duration_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <pre>
+       * The length of the period as an ISO 8601 duration
+       * </pre>
+       *
+       * <code>required string duration = 1;</code>
+       */
+      public com.google.protobuf.ByteString
+          getDurationBytes() {
+        java.lang.Object ref = duration_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          duration_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <pre>
+       * The length of the period as an ISO 8601 duration
+       * </pre>
+       *
+       * <code>required string duration = 1;</code>
+       */
+      public Builder setDuration(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        duration_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The length of the period as an ISO 8601 duration
+       * </pre>
+       *
+       * <code>required string duration = 1;</code>
+       */
+      public Builder clearDuration() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        duration_ = getDefaultInstance().getDuration();
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The length of the period as an ISO 8601 duration
+       * </pre>
+       *
+       * <code>required string duration = 1;</code>
+       */
+      public Builder setDurationBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        duration_ = value;
+        onChanged();
+        return this;
+      }
+
+      private double power_ ;
+      /**
+       * <pre>
+       * The expected power in watts
+       * </pre>
+       *
+       * <code>required double power = 2;</code>
+       */
+      public boolean hasPower() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <pre>
+       * The expected power in watts
+       * </pre>
+       *
+       * <code>required double power = 2;</code>
+       */
+      public double getPower() {
+        return power_;
+      }
+      /**
+       * <pre>
+       * The expected power in watts
+       * </pre>
+       *
+       * <code>required double power = 2;</code>
+       */
+      public Builder setPower(double value) {
+        bitField0_ |= 0x00000002;
+        power_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The expected power in watts
+       * </pre>
+       *
+       * <code>required double power = 2;</code>
+       */
+      public Builder clearPower() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        power_ = 0D;
+        onChanged();
+        return this;
+      }
+
+      private double lowerBound_ ;
+      /**
+       * <code>required double lowerBound = 3;</code>
+       */
+      public boolean hasLowerBound() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <code>required double lowerBound = 3;</code>
+       */
+      public double getLowerBound() {
+        return lowerBound_;
+      }
+      /**
+       * <code>required double lowerBound = 3;</code>
+       */
+      public Builder setLowerBound(double value) {
+        bitField0_ |= 0x00000004;
+        lowerBound_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required double lowerBound = 3;</code>
+       */
+      public Builder clearLowerBound() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        lowerBound_ = 0D;
+        onChanged();
+        return this;
+      }
+
+      private double upperBound_ ;
+      /**
+       * <code>required double upperBound = 4;</code>
+       */
+      public boolean hasUpperBound() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
+      }
+      /**
+       * <code>required double upperBound = 4;</code>
+       */
+      public double getUpperBound() {
+        return upperBound_;
+      }
+      /**
+       * <code>required double upperBound = 4;</code>
+       */
+      public Builder setUpperBound(double value) {
+        bitField0_ |= 0x00000008;
+        upperBound_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required double upperBound = 4;</code>
+       */
+      public Builder clearUpperBound() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        upperBound_ = 0D;
+        onChanged();
+        return this;
+      }
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.setUnknownFields(unknownFields);
+      }
+
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.mergeUnknownFields(unknownFields);
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:benchmarks.ForecastElement)
+    }
+
+    // @@protoc_insertion_point(class_scope:benchmarks.ForecastElement)
+    private static final org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement();
+    }
+
+    public static org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    @java.lang.Deprecated public static final com.google.protobuf.Parser<ForecastElement>
+        PARSER = new com.google.protobuf.AbstractParser<ForecastElement>() {
+      public ForecastElement parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+          return new ForecastElement(input, extensionRegistry);
+      }
+    };
+
+    public static com.google.protobuf.Parser<ForecastElement> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<ForecastElement> getParserForType() {
+      return PARSER;
+    }
+
+    public org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_benchmarks_UncontrolledForecastMessage_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_benchmarks_UncontrolledForecastMessage_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_benchmarks_ForecastElement_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_benchmarks_ForecastElement_fieldAccessorTable;
+
+  public static com.google.protobuf.Descriptors.FileDescriptor
+      getDescriptor() {
+    return descriptor;
+  }
+  private static  com.google.protobuf.Descriptors.FileDescriptor
+      descriptor;
+  static {
+    java.lang.String[] descriptorData = {
+      "\n\tEfi.proto\022\nbenchmarks\"\254\001\n\033Uncontrolled" +
+      "ForecastMessage\022\022\n\nefiVersion\030\001 \002(\t\022\035\n\025f" +
+      "lexibilityResourceId\030\002 \002(\t\022\021\n\ttimestamp\030" +
+      "\003 \002(\003\022\021\n\tvalidFrom\030\004 \002(\003\0224\n\017forecastElem" +
+      "ent\030\005 \003(\0132\033.benchmarks.ForecastElement\"Z" +
+      "\n\017ForecastElement\022\020\n\010duration\030\001 \002(\t\022\r\n\005p" +
+      "ower\030\002 \002(\001\022\022\n\nlowerBound\030\003 \002(\001\022\022\n\nupperB" +
+      "ound\030\004 \002(\001B.\n\"org.flexiblepower.benchmar" +
+      "ks.protoB\010EfiProto"
+    };
+    com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
+        new com.google.protobuf.Descriptors.FileDescriptor.    InternalDescriptorAssigner() {
+          public com.google.protobuf.ExtensionRegistry assignDescriptors(
+              com.google.protobuf.Descriptors.FileDescriptor root) {
+            descriptor = root;
+            return null;
+          }
+        };
+    com.google.protobuf.Descriptors.FileDescriptor
+      .internalBuildGeneratedFileFrom(descriptorData,
+        new com.google.protobuf.Descriptors.FileDescriptor[] {
+        }, assigner);
+    internal_static_benchmarks_UncontrolledForecastMessage_descriptor =
+      getDescriptor().getMessageTypes().get(0);
+    internal_static_benchmarks_UncontrolledForecastMessage_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_benchmarks_UncontrolledForecastMessage_descriptor,
+        new java.lang.String[] { "EfiVersion", "FlexibilityResourceId", "Timestamp", "ValidFrom", "ForecastElement", });
+    internal_static_benchmarks_ForecastElement_descriptor =
+      getDescriptor().getMessageTypes().get(1);
+    internal_static_benchmarks_ForecastElement_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_benchmarks_ForecastElement_descriptor,
+        new java.lang.String[] { "Duration", "Power", "LowerBound", "UpperBound", });
+  }
+
+  // @@protoc_insertion_point(outer_class_scope)
+}
@@ -0,0 +1,69 @@
+/*-
+ * #%L
+ * dEF-Pi benchmarks
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.benchmarks;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, so the allocation rate is reported next to the throughput and the latency
+ * percentiles. It takes the same arguments as the JMH runner, for instance a regular expression to select benchmarks,
+ * or "-l" to list them. When profilers are selected with "-prof", those are used instead of the GC profiler.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+        // Only the main method is used
+    }
+
+    /**
+     * @param args The command line arguments of the JMH runner
+     * @throws RunnerException when a benchmark fails
+     * @throws CommandLineOptionException when the arguments cannot be parsed
+     * @throws IOException when the help cannot be printed
+     */
+    public static void main(final String[] args) throws RunnerException,
+            CommandLineOptionException,
+            IOException {
+        final CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp()) {
+            commandLine.showHelp();
+        } else if (commandLine.shouldList()) {
+            new Runner(commandLine).list();
+        } else {
+            // The profiler may only be added once, so leave it to the command line when that selects any profilers
+            final Options options = commandLine.getProfilers().isEmpty()
+                    ? new OptionsBuilder().parent(commandLine).addProfiler(GCProfiler.class).build()
+                    : commandLine;
+            new Runner(options).run();
+        }
+    }
+
+}
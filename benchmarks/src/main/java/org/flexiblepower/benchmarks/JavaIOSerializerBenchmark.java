@@ -0,0 +1,117 @@
+/*-
+ * #%L
+ * dEF-Pi benchmarks
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+import org.flexiblepower.exceptions.SerializationException;
+import org.flexiblepower.serializers.JavaIOSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the JavaIOSerializer on forecasts of an hour, a day and a week, both as a message and in the compressed
+ * form that is used for the state of suspended processes.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ * @see UncontrolledForecast
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JavaIOSerializerBenchmark {
+
+    @Param({"1", "24", "672"})
+    private int elements;
+
+    private final JavaIOSerializer serializer = new JavaIOSerializer();
+    private final ByteArrayOutputStream compressedOutput = new ByteArrayOutputStream();
+    private UncontrolledForecast message;
+    private byte[] data;
+    private byte[] compressed;
+
+    /**
+     * Build the message, and serialize it once for the benchmarks that deserialize it
+     *
+     * @throws SerializationException when the message cannot be serialized
+     */
+    @Setup
+    public void setup() throws SerializationException {
+        this.message = UncontrolledForecast.create(this.elements);
+        this.data = this.serializer.serialize(this.message);
+        this.serializer.serializeCompressed(this.message, this.compressedOutput);
+        this.compressed = this.compressedOutput.toByteArray();
+    }
+
+    /**
+     * @return the serialized message
+     * @throws SerializationException when the message cannot be serialized
+     */
+    @Benchmark
+    public byte[] serialize() throws SerializationException {
+        return this.serializer.serialize(this.message);
+    }
+
+    /**
+     * @return the deserialized message
+     * @throws SerializationException when the message cannot be deserialized
+     */
+    @Benchmark
+    public Serializable deserialize() throws SerializationException {
+        return this.serializer.deserialize(this.data);
+    }
+
+    /**
+     * @return the number of bytes of the compressed message
+     * @throws SerializationException when the message cannot be serialized
+     */
+    @Benchmark
+    public int serializeCompressed() throws SerializationException {
+        this.compressedOutput.reset();
+        this.serializer.serializeCompressed(this.message, this.compressedOutput);
+        return this.compressedOutput.size();
+    }
+
+    /**
+     * @return the message that was decompressed and deserialized
+     * @throws SerializationException when the message cannot be deserialized
+     */
+    @Benchmark
+    public Serializable deserializeCompressed() throws SerializationException {
+        return this.serializer.deserializeCompressed(new ByteArrayInputStream(this.compressed));
+    }
+
+}
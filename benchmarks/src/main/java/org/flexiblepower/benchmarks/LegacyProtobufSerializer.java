@@ -0,0 +1,103 @@
+/*-
+ * #%L
+ * dEF-Pi benchmarks
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.flexiblepower.exceptions.SerializationException;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.protobuf.Parser;
+
+/**
+ * The ProtobufMessageSerializer as it was before its parsers were cached, as a baseline for the benchmarks. Every
+ * received message is matched to its type by building a String of its name, and its parser is looked up with
+ * reflection. Every message is serialized by copying the name and the encoded message through a ByteArrayOutputStream.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ * @see org.flexiblepower.serializers.ProtobufMessageSerializer
+ */
+final class LegacyProtobufSerializer {
+
+    private final Map<String, Class<? extends Message>> messageTypes = new HashMap<>();
+
+    /**
+     * @param cls the type of message to serialize and deserialize
+     */
+    void addMessageClass(final Class<? extends Message> cls) {
+        this.messageTypes.put(cls.getSimpleName(), cls);
+    }
+
+    /**
+     * @param msg the message to serialize
+     * @return the name of the type of the message followed by the encoded message
+     * @throws SerializationException when the message could not be written
+     */
+    @SuppressWarnings("static-method")
+    byte[] serialize(final Message msg) throws SerializationException {
+        final String msgTypeName = msg.getClass().getSimpleName();
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try {
+            baos.write((byte) msgTypeName.length());
+            baos.write(msgTypeName.getBytes());
+            baos.write(msg.toByteArray());
+        } catch (final IOException e) {
+            throw new SerializationException(e);
+        }
+        return baos.toByteArray();
+    }
+
+    /**
+     * @param data the name of the type of the message followed by the encoded message
+     * @return the message
+     * @throws SerializationException when the type is unknown or the message could not be parsed
+     */
+    Message deserialize(final byte[] data) throws SerializationException {
+        final int msgTypeNameLength = data[0];
+        if ((msgTypeNameLength <= 0) || (data.length < (msgTypeNameLength + 2))) {
+            throw new SerializationException("Received data is not a valid message: " + Arrays.toString(data));
+        }
+        final String msgTypeName = new String(data, 1, msgTypeNameLength);
+        try {
+            if (!this.messageTypes.containsKey(msgTypeName)) {
+                throw new SerializationException("Unable to find parser for message type '" + msgTypeName
+                        + "', message type was not registered");
+            }
+            final Parser<?> parser = (Parser<?>) this.messageTypes.get(msgTypeName).getMethod("parser").invoke(null);
+            return (Message) parser.parseFrom(data, 1 + msgTypeNameLength, data.length - 1 - msgTypeNameLength);
+        } catch (final InvalidProtocolBufferException
+                | IllegalAccessException
+                | IllegalArgumentException
+                | InvocationTargetException
+                | NoSuchMethodException
+                | SecurityException e) {
+            throw new SerializationException(
+                    "Unable to find parser for message type '" + msgTypeName + "', problem during parsing");
+        }
+    }
+
+}
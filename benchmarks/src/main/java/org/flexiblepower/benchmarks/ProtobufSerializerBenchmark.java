@@ -0,0 +1,126 @@
+/*-
+ * #%L
+ * dEF-Pi benchmarks
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage;
+import org.flexiblepower.exceptions.SerializationException;
+import org.flexiblepower.serializers.ProtobufMessageSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the ProtobufMessageSerializer on forecasts of a single element, of six hours and of a week, which are
+ * messages of about 100 bytes, 1 kilobyte and 24 kilobytes. The legacy benchmarks measure the same messages with the
+ * {@link LegacyProtobufSerializer}, as a baseline.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ * @see UncontrolledForecast
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProtobufSerializerBenchmark {
+
+    @Param({"1", "24", "672"})
+    private int elements;
+
+    private final ProtobufMessageSerializer serializer = new ProtobufMessageSerializer();
+    private final LegacyProtobufSerializer legacySerializer = new LegacyProtobufSerializer();
+    private UncontrolledForecastMessage message;
+    private byte[] data;
+    private ByteBuffer buffer;
+
+    /**
+     * Build the message, and serialize it once for the benchmarks that deserialize it
+     *
+     * @throws SerializationException when the message cannot be serialized
+     */
+    @Setup
+    public void setup() throws SerializationException {
+        this.serializer.addMessageClass(UncontrolledForecastMessage.class);
+        this.legacySerializer.addMessageClass(UncontrolledForecastMessage.class);
+        this.message = UncontrolledForecast.create(this.elements).toMessage();
+        this.data = this.serializer.serialize(this.message);
+        this.buffer = ByteBuffer.wrap(this.data);
+    }
+
+    /**
+     * @return the serialized message
+     * @throws SerializationException when the message cannot be serialized
+     */
+    @Benchmark
+    public byte[] serialize() throws SerializationException {
+        return this.serializer.serialize(this.message);
+    }
+
+    /**
+     * @return the message that was parsed from an array
+     * @throws SerializationException when the message cannot be parsed
+     */
+    @Benchmark
+    public Object deserialize() throws SerializationException {
+        return this.serializer.deserialize(this.data);
+    }
+
+    /**
+     * @return the message that was parsed from a buffer, as it is received from a socket
+     * @throws SerializationException when the message cannot be parsed
+     */
+    @Benchmark
+    public Object deserializeBuffer() throws SerializationException {
+        this.buffer.rewind();
+        return this.serializer.deserialize(this.buffer);
+    }
+
+    /**
+     * @return the serialized message, written through a ByteArrayOutputStream
+     * @throws SerializationException when the message cannot be serialized
+     */
+    @Benchmark
+    public byte[] serializeLegacy() throws SerializationException {
+        return this.legacySerializer.serialize(this.message);
+    }
+
+    /**
+     * @return the message that was parsed from an array, with a parser that is looked up by reflection
+     * @throws SerializationException when the message cannot be parsed
+     */
+    @Benchmark
+    public Object deserializeLegacy() throws SerializationException {
+        return this.legacySerializer.deserialize(this.data);
+    }
+
+}
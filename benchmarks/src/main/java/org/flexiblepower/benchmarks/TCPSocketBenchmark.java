@@ -0,0 +1,128 @@
+/*-
+ * #%L
+ * dEF-Pi benchmarks
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.flexiblepower.commons.FrameListener;
+import org.flexiblepower.commons.TCPSocket;
+import org.flexiblepower.exceptions.SerializationException;
+import org.flexiblepower.serializers.ProtobufMessageSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures sending a frame over a TCPSocket on the loopback interface until it is received on the other side. The
+ * receiving side either reads the frame itself, or is attached to the SocketEngine, which reads frames for all sockets
+ * that are attached to it.
+ * <p>
+ * The frame is a forecast of the Energy Flexibility Interface as the ProtobufMessageSerializer writes it, of a single
+ * element, of six hours or of a week, which is a frame of about 100 bytes, 1 kilobyte or 24 kilobytes.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TCPSocketBenchmark {
+
+    private static final int PORT = 5101;
+
+    @Param({"1", "24", "672"})
+    private int elements;
+
+    @Param({"false", "true"})
+    private boolean attached;
+
+    private final BlockingQueue<byte[]> received = new LinkedBlockingQueue<>();
+    private TCPSocket client;
+    private TCPSocket server;
+    private byte[] frame;
+
+    /**
+     * Connect the sockets, and attach the receiving side if requested
+     *
+     * @throws IOException when the sockets cannot be connected
+     * @throws SerializationException when the message cannot be serialized
+     */
+    @Setup
+    public void setup() throws IOException, SerializationException {
+        this.frame = new ProtobufMessageSerializer().serialize(UncontrolledForecast.create(this.elements).toMessage());
+
+        this.server = TCPSocket.asServer(TCPSocketBenchmark.PORT);
+        this.client = TCPSocket.asClient("127.0.0.1", TCPSocketBenchmark.PORT);
+        this.client.waitUntilConnected();
+        this.server.waitUntilConnected();
+
+        if (this.attached) {
+            this.server.attach(new FrameListener() {
+
+                @Override
+                public void onFrame(final byte[] data) {
+                    TCPSocketBenchmark.this.received.add(data);
+                }
+
+                @Override
+                public void onClose() {
+                    // Nothing to clean up, the sockets are closed by the tear down
+                }
+
+            });
+        }
+    }
+
+    /**
+     * Close both sockets
+     */
+    @TearDown
+    public void tearDown() {
+        this.client.close();
+        this.server.close();
+    }
+
+    /**
+     * @return the frame as it was received
+     * @throws IOException when the frame cannot be sent or received
+     * @throws InterruptedException when interrupted while waiting for the frame
+     */
+    @Benchmark
+    public byte[] sendAndReceive() throws IOException, InterruptedException {
+        this.client.send(this.frame);
+        return this.attached ? this.received.take() : this.server.read();
+    }
+
+}
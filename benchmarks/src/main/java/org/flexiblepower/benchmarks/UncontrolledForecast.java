@@ -0,0 +1,149 @@
+/*-
+ * #%L
+ * dEF-Pi benchmarks
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.benchmarks;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage;
+
+/**
+ * A forecast of the power of a device that cannot be controlled, shaped after the UncontrolledForecast of the Energy
+ * Flexibility Interface. It is used as a representative message for the serializers; a single element is a small
+ * update, 24 elements of 15 minutes are a forecast for six hours, and 672 elements are one for a week. The ProtoBuf
+ * serializer uses the same forecast as an {@link UncontrolledForecastMessage}.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+@XmlRootElement
+public class UncontrolledForecast implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The version of the interface the message belongs to
+     */
+    @XmlAttribute
+    public String efiVersion;
+
+    /**
+     * The identifier of the device that the forecast is about
+     */
+    public String flexibilityResourceId;
+
+    /**
+     * The moment the forecast was made
+     */
+    public Date timestamp;
+
+    /**
+     * The moment the first element of the forecast starts
+     */
+    public Date validFrom;
+
+    /**
+     * The consecutive periods of the forecast
+     */
+    @XmlElement(name = "forecastElement")
+    public List<ForecastElement> elements = new ArrayList<>();
+
+    /**
+     * Create a forecast with the provided number of elements of 15 minutes
+     *
+     * @param size the number of elements of the forecast
+     * @return a forecast with slightly varying power values
+     */
+    public static UncontrolledForecast create(final int size) {
+        final UncontrolledForecast forecast = new UncontrolledForecast();
+        forecast.efiVersion = "2.0";
+        forecast.flexibilityResourceId = "pv-inverter-3f2a9c";
+        forecast.timestamp = new Date(1539856800000L);
+        forecast.validFrom = new Date(1539860400000L);
+        for (int i = 0; i < size; i++) {
+            final ForecastElement element = new ForecastElement();
+            element.duration = "PT15M";
+            element.power = 2500 * Math.sin((Math.PI * (i % 96)) / 96);
+            element.lowerBound = element.power * 0.9;
+            element.upperBound = element.power * 1.1;
+            forecast.elements.add(element);
+        }
+        return forecast;
+    }
+
+    /**
+     * @return the same forecast as a ProtoBuf message
+     */
+    public UncontrolledForecastMessage toMessage() {
+        final UncontrolledForecastMessage.Builder message = UncontrolledForecastMessage.newBuilder()
+                .setEfiVersion(this.efiVersion)
+                .setFlexibilityResourceId(this.flexibilityResourceId)
+                .setTimestamp(this.timestamp.getTime())
+                .setValidFrom(this.validFrom.getTime());
+        for (final ForecastElement element : this.elements) {
+            message.addForecastElement(org.flexiblepower.benchmarks.proto.EfiProto.ForecastElement.newBuilder()
+                    .setDuration(element.duration)
+                    .setPower(element.power)
+                    .setLowerBound(element.lowerBound)
+                    .setUpperBound(element.upperBound));
+        }
+        return message.build();
+    }
+
+    /**
+     * A period of the forecast, with the expected power and its uncertainty
+     *
+     * @version 0.1
+     * @since Oct 18, 2018
+     */
+    public static class ForecastElement implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The length of the period as an ISO 8601 duration
+         */
+        @XmlAttribute
+        public String duration;
+
+        /**
+         * The expected power in watts
+         */
+        public double power;
+
+        /**
+         * The power in watts that will be exceeded with a probability of 95%
+         */
+        public double lowerBound;
+
+        /**
+         * The power in watts that will not be exceeded with a probability of 95%
+         */
+        public double upperBound;
+
+    }
+
+}
@@ -0,0 +1,240 @@
+/*-
+ * #%L
+ * dEF-Pi benchmarks
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.flexiblepower.benchmarks.UncontrolledForecast;
+import org.flexiblepower.benchmarks.proto.EfiProto.UncontrolledForecastMessage;
+import org.flexiblepower.serializers.ProtobufMessageSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how long it takes until a received message is handled by the ConnectionHandler. The handleMessage benchmark
+ * starts at {@link TCPConnection#handleMessage(ByteBuffer, org.flexiblepower.commons.PooledFrame, long)}, so it covers
+ * deserializing the message, handing it to the user thread and invoking the handler method. The send benchmark covers
+ * the whole path from {@link Connection#send(Object)} on the other side of the connection.
+ * <p>
+ * The dispatch benchmark only invokes the handler method through the {@link MessageDispatcher}, and the
+ * dispatchReflective benchmark does the same the way messages were dispatched before there was a dispatcher: by
+ * searching the methods of the handler for every message and calling {@link Method#invoke(Object, Object...)}. Both
+ * use the same handler and message, and run in the benchmark thread.
+ * <p>
+ * The message is a forecast of the Energy Flexibility Interface, of a single element, of six hours or of a week.
+ * <p>
+ * Since the handleMessage benchmark hands messages to the connection that were never sent, the remote side is granted
+ * credits for them that it does not use.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageDispatchBenchmark {
+
+    private static final int PORT = 5103;
+    private static final long CONNECT_TIMEOUT_MILLIS = 10000;
+
+    /**
+     * Released by the handler for every message it handled
+     */
+    static final Semaphore handled = new Semaphore(0);
+
+    @Param({"1", "24", "672"})
+    private int elements;
+
+    private TCPConnection sender;
+    private TCPConnection receiver;
+    private UncontrolledForecastMessage message;
+    private ByteBuffer serialized;
+    private BenchmarkHandler handler;
+
+    /**
+     * Connect both sides of the connection, and serialize the message the way the sending side does
+     *
+     * @throws Exception when the connection could not be established
+     */
+    @Setup
+    public void setup() throws Exception {
+        ConnectionManager.registerConnectionHandlerFactory(BenchmarkHandler.class, new BenchmarkHandlerManager());
+        final InterfaceInfo info = BenchmarkHandler.class.getAnnotation(InterfaceInfo.class);
+        this.receiver = new TCPConnection("benchmark", MessageDispatchBenchmark.PORT, "", info, "", "", "");
+        this.sender = new TCPConnection("benchmark", MessageDispatchBenchmark.PORT, "localhost", info, "", "", "");
+
+        final long deadline = System.currentTimeMillis() + MessageDispatchBenchmark.CONNECT_TIMEOUT_MILLIS;
+        while (!this.sender.isConnected() || !this.receiver.isConnected()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("Unable to connect within the timeout");
+            }
+            Thread.sleep(10);
+        }
+
+        this.message = UncontrolledForecast.create(this.elements).toMessage();
+        this.serialized = ByteBuffer.wrap(this.sender.serialize(this.message));
+
+        // The handler is built after the connection is established, wait until it handled a message
+        this.sender.send(this.message);
+        MessageDispatchBenchmark.handled.acquire();
+
+        this.handler = new BenchmarkHandler();
+    }
+
+    /**
+     * Close the connection and stop the user thread
+     */
+    @TearDown
+    public void tearDown() {
+        this.sender.close();
+        this.receiver.close();
+        ServiceExecutor.getInstance().shutDown();
+    }
+
+    /**
+     * @throws InterruptedException when interrupted while waiting for the handler
+     */
+    @Benchmark
+    public void handleMessage() throws InterruptedException {
+        this.receiver.handleMessage(this.serialized, null, System.nanoTime());
+        MessageDispatchBenchmark.handled.acquire();
+    }
+
+    /**
+     * @throws Exception when the message could not be sent, or when interrupted while waiting for the handler
+     */
+    @Benchmark
+    public void send() throws Exception {
+        this.sender.send(this.message);
+        MessageDispatchBenchmark.handled.acquire();
+    }
+
+    /**
+     * @throws Throwable anything the handler method throws
+     */
+    @Benchmark
+    public void dispatch() throws Throwable {
+        MessageDispatcher.forHandler(this.handler.getClass()).get(this.message.getClass()).invoke(this.handler,
+                this.message);
+        MessageDispatchBenchmark.handled.acquire();
+    }
+
+    /**
+     * @throws Exception when the handler method could not be invoked
+     */
+    @Benchmark
+    public void dispatchReflective() throws Exception {
+        final Class<?> messageType = this.message.getClass();
+        for (final Method method : this.handler.getClass().getMethods()) {
+            if ((method.getName().startsWith("handle")) && (method.getName().endsWith("Message"))
+                    && (method.getParameterCount() == 1) && method.getParameterTypes()[0].equals(messageType)) {
+                method.invoke(this.handler, this.message);
+                MessageDispatchBenchmark.handled.acquire();
+                return;
+            }
+        }
+        throw new IllegalStateException("Unable to find handler method for message of type " + messageType);
+    }
+
+    /**
+     * The ConnectionHandler on both sides of the connection
+     *
+     * @version 0.1
+     * @since Oct 18, 2018
+     */
+    @InterfaceInfo(name = "Benchmark",
+                   version = "1",
+                   serializer = ProtobufMessageSerializer.class,
+                   receivesHash = "benchmark",
+                   receiveTypes = {UncontrolledForecastMessage.class},
+                   sendsHash = "benchmark",
+                   sendTypes = {UncontrolledForecastMessage.class})
+    public static class BenchmarkHandler implements ConnectionHandler {
+
+        /**
+         * @param message the message that was received
+         */
+        public void handleUncontrolledForecastMessage(final UncontrolledForecastMessage message) {
+            MessageDispatchBenchmark.handled.release();
+        }
+
+        @Override
+        public void onSuspend() {
+            // Not used in the benchmark
+        }
+
+        @Override
+        public void resumeAfterSuspend() {
+            // Not used in the benchmark
+        }
+
+        @Override
+        public void onInterrupt() {
+            // Not used in the benchmark
+        }
+
+        @Override
+        public void resumeAfterInterrupt() {
+            // Not used in the benchmark
+        }
+
+        @Override
+        public void terminated() {
+            // Not used in the benchmark
+        }
+
+    }
+
+    /**
+     * Builds the handler for the connection
+     *
+     * @version 0.1
+     * @since Oct 18, 2018
+     */
+    public static class BenchmarkHandlerManager implements ConnectionHandlerManager {
+
+        /**
+         * @param connection the connection to build the handler for
+         * @return the handler
+         */
+        @SuppressWarnings("static-method")
+        public BenchmarkHandler build1(final Connection connection) {
+            return new BenchmarkHandler();
+        }
+
+    }
+
+}
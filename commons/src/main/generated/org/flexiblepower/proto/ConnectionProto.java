@@ -250,6 +250,32 @@ public final class ConnectionProto {
      */
     com.google.protobuf.ByteString
         getRemoteServiceIdBytes();
+
+    /**
+     * <pre>
+     * When set, the endpoints run on the same host and exchange frames through ring buffers in this directory
+     * </pre>
+     *
+     * <code>optional string sharedMemoryPath = 10;</code>
+     */
+    boolean hasSharedMemoryPath();
+    /**
+     * <pre>
+     * When set, the endpoints run on the same host and exchange frames through ring buffers in this directory
+     * </pre>
+     *
+     * <code>optional string sharedMemoryPath = 10;</code>
+     */
+    java.lang.String getSharedMemoryPath();
+    /**
+     * <pre>
+     * When set, the endpoints run on the same host and exchange frames through ring buffers in this directory
+     * </pre>
+     *
+     * <code>optional string sharedMemoryPath = 10;</code>
+     */
+    com.google.protobuf.ByteString
+        getSharedMemoryPathBytes();
   }
   /**
    * Protobuf type {@code connection.ConnectionMessage}
@@ -272,6 +298,7 @@ public final class ConnectionProto {
       remoteInterfaceId_ = "";
       remoteProcessId_ = "";
       remoteServiceId_ = "";
+      sharedMemoryPath_ = "";
     }
 
     @java.lang.Override
@@ -360,6 +387,12 @@ public final class ConnectionProto {
               remoteServiceId_ = bs;
               break;
             }
+            case 82: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000200;
+              sharedMemoryPath_ = bs;
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -818,6 +851,60 @@ public final class ConnectionProto {
       }
     }
 
+    public static final int SHAREDMEMORYPATH_FIELD_NUMBER = 10;
+    private volatile java.lang.Object sharedMemoryPath_;
+    /**
+     * <pre>
+     * When set, the endpoints run on the same host and exchange frames through ring buffers in this directory
+     * </pre>
+     *
+     * <code>optional string sharedMemoryPath = 10;</code>
+     */
+    public boolean hasSharedMemoryPath() {
+      return ((bitField0_ & 0x00000200) == 0x00000200);
+    }
+    /**
+     * <pre>
+     * When set, the endpoints run on the same host and exchange frames through ring buffers in this directory
+     * </pre>
+     *
+     * <code>optional string sharedMemoryPath = 10;</code>
+     */
+    public java.lang.String getSharedMemoryPath() {
+      java.lang.Object ref = sharedMemoryPath_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          sharedMemoryPath_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <pre>
+     * When set, the endpoints run on the same host and exchange frames through ring buffers in this directory
+     * </pre>
+     *
+     * <code>optional string sharedMemoryPath = 10;</code>
+     */
+    public com.google.protobuf.ByteString
+        getSharedMemoryPathBytes() {
+      java.lang.Object ref = sharedMemoryPath_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        sharedMemoryPath_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
       byte isInitialized = memoizedIsInitialized;
@@ -865,6 +952,9 @@ public final class ConnectionProto {
       if (((bitField0_ & 0x00000100) == 0x00000100)) {
         com.google.protobuf.GeneratedMessageV3.writeString(output, 9, remoteServiceId_);
       }
+      if (((bitField0_ & 0x00000200) == 0x00000200)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 10, sharedMemoryPath_);
+      }
       unknownFields.writeTo(output);
     }
 
@@ -902,6 +992,9 @@ public final class ConnectionProto {
       if (((bitField0_ & 0x00000100) == 0x00000100)) {
         size += com.google.protobuf.GeneratedMessageV3.computeStringSize(9, remoteServiceId_);
       }
+      if (((bitField0_ & 0x00000200) == 0x00000200)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(10, sharedMemoryPath_);
+      }
       size += unknownFields.getSerializedSize();
       memoizedSize = size;
       return size;
@@ -963,6 +1056,11 @@ public final class ConnectionProto {
         result = result && getRemoteServiceId()
             .equals(other.getRemoteServiceId());
       }
+      result = result && (hasSharedMemoryPath() == other.hasSharedMemoryPath());
+      if (hasSharedMemoryPath()) {
+        result = result && getSharedMemoryPath()
+            .equals(other.getSharedMemoryPath());
+      }
       result = result && unknownFields.equals(other.unknownFields);
       return result;
     }
@@ -1010,6 +1108,10 @@ public final class ConnectionProto {
         hash = (37 * hash) + REMOTESERVICEID_FIELD_NUMBER;
         hash = (53 * hash) + getRemoteServiceId().hashCode();
       }
+      if (hasSharedMemoryPath()) {
+        hash = (37 * hash) + SHAREDMEMORYPATH_FIELD_NUMBER;
+        hash = (53 * hash) + getSharedMemoryPath().hashCode();
+      }
       hash = (29 * hash) + unknownFields.hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -1157,6 +1259,8 @@ public final class ConnectionProto {
         bitField0_ = (bitField0_ & ~0x00000080);
         remoteServiceId_ = "";
         bitField0_ = (bitField0_ & ~0x00000100);
+        sharedMemoryPath_ = "";
+        bitField0_ = (bitField0_ & ~0x00000200);
         return this;
       }
 
@@ -1217,6 +1321,10 @@ public final class ConnectionProto {
           to_bitField0_ |= 0x00000100;
         }
         result.remoteServiceId_ = remoteServiceId_;
+        if (((from_bitField0_ & 0x00000200) == 0x00000200)) {
+          to_bitField0_ |= 0x00000200;
+        }
+        result.sharedMemoryPath_ = sharedMemoryPath_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -1300,6 +1408,11 @@ public final class ConnectionProto {
           remoteServiceId_ = other.remoteServiceId_;
           onChanged();
         }
+        if (other.hasSharedMemoryPath()) {
+          bitField0_ |= 0x00000200;
+          sharedMemoryPath_ = other.sharedMemoryPath_;
+          onChanged();
+        }
         this.mergeUnknownFields(other.unknownFields);
         onChanged();
         return this;
@@ -1933,6 +2046,106 @@ public final class ConnectionProto {
         onChanged();
         return this;
       }
+
+      private java.lang.Object sharedMemoryPath_ = "";
+      /**
+       * <pre>
+       * When set, the endpoints run on the same host and exchange frames through ring buffers in this directory
+       * </pre>
+       *
+       * <code>optional string sharedMemoryPath = 10;</code>
+       */
+      public boolean hasSharedMemoryPath() {
+        return ((bitField0_ & 0x00000200) == 0x00000200);
+      }
+      /**
+       * <pre>
+       * When set, the endpoints run on the same host and exchange frames through ring buffers in this directory
+       * </pre>
+       *
+       * <code>optional string sharedMemoryPath = 10;</code>
+       */
+      public java.lang.String getSharedMemoryPath() {
+        java.lang.Object ref = sharedMemoryPath_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            sharedMemoryPath_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <pre>
+       * When set, the endpoints run on the same host and exchange frames through ring buffers in this directory
+       * </pre>
+       *
+       * <code>optional string sharedMemoryPath = 10;</code>
+       */
+      public com.google.protobuf.ByteString
+          getSharedMemoryPathBytes() {
+        java.lang.Object ref = sharedMemoryPath_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          sharedMemoryPath_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <pre>
+       * When set, the endpoints run on the same host and exchange frames through ring buffers in this directory
+       * </pre>
+       *
+       * <code>optional string sharedMemoryPath = 10;</code>
+       */
+      public Builder setSharedMemoryPath(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000200;
+        sharedMemoryPath_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * When set, the endpoints run on the same host and exchange frames through ring buffers in this directory
+       * </pre>
+       *
+       * <code>optional string sharedMemoryPath = 10;</code>
+       */
+      public Builder clearSharedMemoryPath() {
+        bitField0_ = (bitField0_ & ~0x00000200);
+        sharedMemoryPath_ = getDefaultInstance().getSharedMemoryPath();
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * When set, the endpoints run on the same host and exchange frames through ring buffers in this directory
+       * </pre>
+       *
+       * <code>optional string sharedMemoryPath = 10;</code>
+       */
+      public Builder setSharedMemoryPathBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000200;
+        sharedMemoryPath_ = value;
+        onChanged();
+        return this;
+      }
       public final Builder setUnknownFields(
           final com.google.protobuf.UnknownFieldSet unknownFields) {
         return super.setUnknownFields(unknownFields);
@@ -2036,6 +2249,213 @@ public final class ConnectionProto {
      */
     com.google.protobuf.ByteString
         getSendHashBytes();
+
+    /**
+     * <pre>
+     * Whether the sender is able to unpack frames that contain multiple messages
+     * </pre>
+     *
+     * <code>optional bool acceptsBatches = 5;</code>
+     */
+    boolean hasAcceptsBatches();
+    /**
+     * <pre>
+     * Whether the sender is able to unpack frames that contain multiple messages
+     * </pre>
+     *
+     * <code>optional bool acceptsBatches = 5;</code>
+     */
+    boolean getAcceptsBatches();
+
+    /**
+     * <pre>
+     * The compression codecs the sender is able to decompress, in order of preference
+     * </pre>
+     *
+     * <code>repeated string compressionCodecs = 6;</code>
+     */
+    java.util.List<java.lang.String>
+        getCompressionCodecsList();
+    /**
+     * <pre>
+     * The compression codecs the sender is able to decompress, in order of preference
+     * </pre>
+     *
+     * <code>repeated string compressionCodecs = 6;</code>
+     */
+    int getCompressionCodecsCount();
+    /**
+     * <pre>
+     * The compression codecs the sender is able to decompress, in order of preference
+     * </pre>
+     *
+     * <code>repeated string compressionCodecs = 6;</code>
+     */
+    java.lang.String getCompressionCodecs(int index);
+    /**
+     * <pre>
+     * The compression codecs the sender is able to decompress, in order of preference
+     * </pre>
+     *
+     * <code>repeated string compressionCodecs = 6;</code>
+     */
+    com.google.protobuf.ByteString
+        getCompressionCodecsBytes(int index);
+
+    /**
+     * <pre>
+     * The number of messages the sender is willing to receive before it grants more credits, or 0 without flow control
+     * </pre>
+     *
+     * <code>optional int32 receiveWindow = 7;</code>
+     */
+    boolean hasReceiveWindow();
+    /**
+     * <pre>
+     * The number of messages the sender is willing to receive before it grants more credits, or 0 without flow control
+     * </pre>
+     *
+     * <code>optional int32 receiveWindow = 7;</code>
+     */
+    int getReceiveWindow();
+
+    /**
+     * <pre>
+     * Identifies the sending endpoint for as long as it runs, so the remote side can tell whether it may resume a session
+     * </pre>
+     *
+     * <code>optional string sessionId = 8;</code>
+     */
+    boolean hasSessionId();
+    /**
+     * <pre>
+     * Identifies the sending endpoint for as long as it runs, so the remote side can tell whether it may resume a session
+     * </pre>
+     *
+     * <code>optional string sessionId = 8;</code>
+     */
+    java.lang.String getSessionId();
+    /**
+     * <pre>
+     * Identifies the sending endpoint for as long as it runs, so the remote side can tell whether it may resume a session
+     * </pre>
+     *
+     * <code>optional string sessionId = 8;</code>
+     */
+    com.google.protobuf.ByteString
+        getSessionIdBytes();
+
+    /**
+     * <pre>
+     * The session of the remote endpoint the sender last received data frames from
+     * </pre>
+     *
+     * <code>optional string resumeSessionId = 9;</code>
+     */
+    boolean hasResumeSessionId();
+    /**
+     * <pre>
+     * The session of the remote endpoint the sender last received data frames from
+     * </pre>
+     *
+     * <code>optional string resumeSessionId = 9;</code>
+     */
+    java.lang.String getResumeSessionId();
+    /**
+     * <pre>
+     * The session of the remote endpoint the sender last received data frames from
+     * </pre>
+     *
+     * <code>optional string resumeSessionId = 9;</code>
+     */
+    com.google.protobuf.ByteString
+        getResumeSessionIdBytes();
+
+    /**
+     * <pre>
+     * The number of data frames the sender received in that session, which is where the remote side resumes sending
+     * </pre>
+     *
+     * <code>optional int64 receivedFrames = 10;</code>
+     */
+    boolean hasReceivedFrames();
+    /**
+     * <pre>
+     * The number of data frames the sender received in that session, which is where the remote side resumes sending
+     * </pre>
+     *
+     * <code>optional int64 receivedFrames = 10;</code>
+     */
+    long getReceivedFrames();
+
+    /**
+     * <pre>
+     * Whether the sender is able to reassemble large frames that were split into fragments
+     * </pre>
+     *
+     * <code>optional bool acceptsFragments = 11;</code>
+     */
+    boolean hasAcceptsFragments();
+    /**
+     * <pre>
+     * Whether the sender is able to reassemble large frames that were split into fragments
+     * </pre>
+     *
+     * <code>optional bool acceptsFragments = 11;</code>
+     */
+    boolean getAcceptsFragments();
+
+    /**
+     * <pre>
+     * Whether the sender is able to receive messages that are streamed in chunks
+     * </pre>
+     *
+     * <code>optional bool acceptsStreams = 12;</code>
+     */
+    boolean hasAcceptsStreams();
+    /**
+     * <pre>
+     * Whether the sender is able to receive messages that are streamed in chunks
+     * </pre>
+     *
+     * <code>optional bool acceptsStreams = 12;</code>
+     */
+    boolean getAcceptsStreams();
+
+    /**
+     * <pre>
+     * The names of the message types the sender knows, where the position of a name is the id the sender accepts instead
+     * </pre>
+     *
+     * <code>repeated string typeNames = 13;</code>
+     */
+    java.util.List<java.lang.String>
+        getTypeNamesList();
+    /**
+     * <pre>
+     * The names of the message types the sender knows, where the position of a name is the id the sender accepts instead
+     * </pre>
+     *
+     * <code>repeated string typeNames = 13;</code>
+     */
+    int getTypeNamesCount();
+    /**
+     * <pre>
+     * The names of the message types the sender knows, where the position of a name is the id the sender accepts instead
+     * </pre>
+     *
+     * <code>repeated string typeNames = 13;</code>
+     */
+    java.lang.String getTypeNames(int index);
+    /**
+     * <pre>
+     * The names of the message types the sender knows, where the position of a name is the id the sender accepts instead
+     * </pre>
+     *
+     * <code>repeated string typeNames = 13;</code>
+     */
+    com.google.protobuf.ByteString
+        getTypeNamesBytes(int index);
   }
   /**
    * Protobuf type {@code connection.ConnectionHandshake}
@@ -2053,6 +2473,15 @@ public final class ConnectionProto {
       connectionId_ = "";
       receiveHash_ = "";
       sendHash_ = "";
+      acceptsBatches_ = false;
+      compressionCodecs_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+      receiveWindow_ = 0;
+      sessionId_ = "";
+      resumeSessionId_ = "";
+      receivedFrames_ = 0L;
+      acceptsFragments_ = false;
+      acceptsStreams_ = false;
+      typeNames_ = com.google.protobuf.LazyStringArrayList.EMPTY;
     }
 
     @java.lang.Override
@@ -2112,6 +2541,61 @@ public final class ConnectionProto {
               sendHash_ = bs;
               break;
             }
+            case 40: {
+              bitField0_ |= 0x00000010;
+              acceptsBatches_ = input.readBool();
+              break;
+            }
+            case 50: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              if (!((mutable_bitField0_ & 0x00000020) == 0x00000020)) {
+                compressionCodecs_ = new com.google.protobuf.LazyStringArrayList();
+                mutable_bitField0_ |= 0x00000020;
+              }
+              compressionCodecs_.add(bs);
+              break;
+            }
+            case 56: {
+              bitField0_ |= 0x00000020;
+              receiveWindow_ = input.readInt32();
+              break;
+            }
+            case 66: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000040;
+              sessionId_ = bs;
+              break;
+            }
+            case 74: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000080;
+              resumeSessionId_ = bs;
+              break;
+            }
+            case 80: {
+              bitField0_ |= 0x00000100;
+              receivedFrames_ = input.readInt64();
+              break;
+            }
+            case 88: {
+              bitField0_ |= 0x00000200;
+              acceptsFragments_ = input.readBool();
+              break;
+            }
+            case 96: {
+              bitField0_ |= 0x00000400;
+              acceptsStreams_ = input.readBool();
+              break;
+            }
+            case 106: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              if (!((mutable_bitField0_ & 0x00001000) == 0x00001000)) {
+                typeNames_ = new com.google.protobuf.LazyStringArrayList();
+                mutable_bitField0_ |= 0x00001000;
+              }
+              typeNames_.add(bs);
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -2120,6 +2604,12 @@ public final class ConnectionProto {
         throw new com.google.protobuf.InvalidProtocolBufferException(
             e).setUnfinishedMessage(this);
       } finally {
+        if (((mutable_bitField0_ & 0x00000020) == 0x00000020)) {
+          compressionCodecs_ = compressionCodecs_.getUnmodifiableView();
+        }
+        if (((mutable_bitField0_ & 0x00001000) == 0x00001000)) {
+          typeNames_ = typeNames_.getUnmodifiableView();
+        }
         this.unknownFields = unknownFields.build();
         makeExtensionsImmutable();
       }
@@ -2279,48 +2769,388 @@ public final class ConnectionProto {
       }
     }
 
-    private byte memoizedIsInitialized = -1;
-    public final boolean isInitialized() {
-      byte isInitialized = memoizedIsInitialized;
-      if (isInitialized == 1) return true;
-      if (isInitialized == 0) return false;
-
-      if (!hasConnectionState()) {
-        memoizedIsInitialized = 0;
-        return false;
-      }
-      if (!hasConnectionId()) {
-        memoizedIsInitialized = 0;
-        return false;
-      }
-      memoizedIsInitialized = 1;
-      return true;
+    public static final int ACCEPTSBATCHES_FIELD_NUMBER = 5;
+    private boolean acceptsBatches_;
+    /**
+     * <pre>
+     * Whether the sender is able to unpack frames that contain multiple messages
+     * </pre>
+     *
+     * <code>optional bool acceptsBatches = 5;</code>
+     */
+    public boolean hasAcceptsBatches() {
+      return ((bitField0_ & 0x00000010) == 0x00000010);
+    }
+    /**
+     * <pre>
+     * Whether the sender is able to unpack frames that contain multiple messages
+     * </pre>
+     *
+     * <code>optional bool acceptsBatches = 5;</code>
+     */
+    public boolean getAcceptsBatches() {
+      return acceptsBatches_;
     }
 
-    public void writeTo(com.google.protobuf.CodedOutputStream output)
-                        throws java.io.IOException {
-      if (((bitField0_ & 0x00000001) == 0x00000001)) {
-        output.writeEnum(1, connectionState_);
-      }
-      if (((bitField0_ & 0x00000002) == 0x00000002)) {
-        com.google.protobuf.GeneratedMessageV3.writeString(output, 2, connectionId_);
-      }
-      if (((bitField0_ & 0x00000004) == 0x00000004)) {
-        com.google.protobuf.GeneratedMessageV3.writeString(output, 3, receiveHash_);
-      }
-      if (((bitField0_ & 0x00000008) == 0x00000008)) {
-        com.google.protobuf.GeneratedMessageV3.writeString(output, 4, sendHash_);
-      }
-      unknownFields.writeTo(output);
+    public static final int COMPRESSIONCODECS_FIELD_NUMBER = 6;
+    private com.google.protobuf.LazyStringList compressionCodecs_;
+    /**
+     * <pre>
+     * The compression codecs the sender is able to decompress, in order of preference
+     * </pre>
+     *
+     * <code>repeated string compressionCodecs = 6;</code>
+     */
+    public com.google.protobuf.ProtocolStringList
+        getCompressionCodecsList() {
+      return compressionCodecs_;
+    }
+    /**
+     * <pre>
+     * The compression codecs the sender is able to decompress, in order of preference
+     * </pre>
+     *
+     * <code>repeated string compressionCodecs = 6;</code>
+     */
+    public int getCompressionCodecsCount() {
+      return compressionCodecs_.size();
+    }
+    /**
+     * <pre>
+     * The compression codecs the sender is able to decompress, in order of preference
+     * </pre>
+     *
+     * <code>repeated string compressionCodecs = 6;</code>
+     */
+    public java.lang.String getCompressionCodecs(int index) {
+      return compressionCodecs_.get(index);
+    }
+    /**
+     * <pre>
+     * The compression codecs the sender is able to decompress, in order of preference
+     * </pre>
+     *
+     * <code>repeated string compressionCodecs = 6;</code>
+     */
+    public com.google.protobuf.ByteString
+        getCompressionCodecsBytes(int index) {
+      return compressionCodecs_.getByteString(index);
     }
 
-    public int getSerializedSize() {
-      int size = memoizedSize;
-      if (size != -1) return size;
+    public static final int RECEIVEWINDOW_FIELD_NUMBER = 7;
+    private int receiveWindow_;
+    /**
+     * <pre>
+     * The number of messages the sender is willing to receive before it grants more credits, or 0 without flow control
+     * </pre>
+     *
+     * <code>optional int32 receiveWindow = 7;</code>
+     */
+    public boolean hasReceiveWindow() {
+      return ((bitField0_ & 0x00000020) == 0x00000020);
+    }
+    /**
+     * <pre>
+     * The number of messages the sender is willing to receive before it grants more credits, or 0 without flow control
+     * </pre>
+     *
+     * <code>optional int32 receiveWindow = 7;</code>
+     */
+    public int getReceiveWindow() {
+      return receiveWindow_;
+    }
 
-      size = 0;
-      if (((bitField0_ & 0x00000001) == 0x00000001)) {
-        size += com.google.protobuf.CodedOutputStream
+    public static final int SESSIONID_FIELD_NUMBER = 8;
+    private volatile java.lang.Object sessionId_;
+    /**
+     * <pre>
+     * Identifies the sending endpoint for as long as it runs, so the remote side can tell whether it may resume a session
+     * </pre>
+     *
+     * <code>optional string sessionId = 8;</code>
+     */
+    public boolean hasSessionId() {
+      return ((bitField0_ & 0x00000040) == 0x00000040);
+    }
+    /**
+     * <pre>
+     * Identifies the sending endpoint for as long as it runs, so the remote side can tell whether it may resume a session
+     * </pre>
+     *
+     * <code>optional string sessionId = 8;</code>
+     */
+    public java.lang.String getSessionId() {
+      java.lang.Object ref = sessionId_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          sessionId_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <pre>
+     * Identifies the sending endpoint for as long as it runs, so the remote side can tell whether it may resume a session
+     * </pre>
+     *
+     * <code>optional string sessionId = 8;</code>
+     */
+    public com.google.protobuf.ByteString
+        getSessionIdBytes() {
+      java.lang.Object ref = sessionId_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        sessionId_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int RESUMESESSIONID_FIELD_NUMBER = 9;
+    private volatile java.lang.Object resumeSessionId_;
+    /**
+     * <pre>
+     * The session of the remote endpoint the sender last received data frames from
+     * </pre>
+     *
+     * <code>optional string resumeSessionId = 9;</code>
+     */
+    public boolean hasResumeSessionId() {
+      return ((bitField0_ & 0x00000080) == 0x00000080);
+    }
+    /**
+     * <pre>
+     * The session of the remote endpoint the sender last received data frames from
+     * </pre>
+     *
+     * <code>optional string resumeSessionId = 9;</code>
+     */
+    public java.lang.String getResumeSessionId() {
+      java.lang.Object ref = resumeSessionId_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          resumeSessionId_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <pre>
+     * The session of the remote endpoint the sender last received data frames from
+     * </pre>
+     *
+     * <code>optional string resumeSessionId = 9;</code>
+     */
+    public com.google.protobuf.ByteString
+        getResumeSessionIdBytes() {
+      java.lang.Object ref = resumeSessionId_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        resumeSessionId_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int RECEIVEDFRAMES_FIELD_NUMBER = 10;
+    private long receivedFrames_;
+    /**
+     * <pre>
+     * The number of data frames the sender received in that session, which is where the remote side resumes sending
+     * </pre>
+     *
+     * <code>optional int64 receivedFrames = 10;</code>
+     */
+    public boolean hasReceivedFrames() {
+      return ((bitField0_ & 0x00000100) == 0x00000100);
+    }
+    /**
+     * <pre>
+     * The number of data frames the sender received in that session, which is where the remote side resumes sending
+     * </pre>
+     *
+     * <code>optional int64 receivedFrames = 10;</code>
+     */
+    public long getReceivedFrames() {
+      return receivedFrames_;
+    }
+
+    public static final int ACCEPTSFRAGMENTS_FIELD_NUMBER = 11;
+    private boolean acceptsFragments_;
+    /**
+     * <pre>
+     * Whether the sender is able to reassemble large frames that were split into fragments
+     * </pre>
+     *
+     * <code>optional bool acceptsFragments = 11;</code>
+     */
+    public boolean hasAcceptsFragments() {
+      return ((bitField0_ & 0x00000200) == 0x00000200);
+    }
+    /**
+     * <pre>
+     * Whether the sender is able to reassemble large frames that were split into fragments
+     * </pre>
+     *
+     * <code>optional bool acceptsFragments = 11;</code>
+     */
+    public boolean getAcceptsFragments() {
+      return acceptsFragments_;
+    }
+
+    public static final int ACCEPTSSTREAMS_FIELD_NUMBER = 12;
+    private boolean acceptsStreams_;
+    /**
+     * <pre>
+     * Whether the sender is able to receive messages that are streamed in chunks
+     * </pre>
+     *
+     * <code>optional bool acceptsStreams = 12;</code>
+     */
+    public boolean hasAcceptsStreams() {
+      return ((bitField0_ & 0x00000400) == 0x00000400);
+    }
+    /**
+     * <pre>
+     * Whether the sender is able to receive messages that are streamed in chunks
+     * </pre>
+     *
+     * <code>optional bool acceptsStreams = 12;</code>
+     */
+    public boolean getAcceptsStreams() {
+      return acceptsStreams_;
+    }
+
+    public static final int TYPENAMES_FIELD_NUMBER = 13;
+    private com.google.protobuf.LazyStringList typeNames_;
+    /**
+     * <pre>
+     * The names of the message types the sender knows, where the position of a name is the id the sender accepts instead
+     * </pre>
+     *
+     * <code>repeated string typeNames = 13;</code>
+     */
+    public com.google.protobuf.ProtocolStringList
+        getTypeNamesList() {
+      return typeNames_;
+    }
+    /**
+     * <pre>
+     * The names of the message types the sender knows, where the position of a name is the id the sender accepts instead
+     * </pre>
+     *
+     * <code>repeated string typeNames = 13;</code>
+     */
+    public int getTypeNamesCount() {
+      return typeNames_.size();
+    }
+    /**
+     * <pre>
+     * The names of the message types the sender knows, where the position of a name is the id the sender accepts instead
+     * </pre>
+     *
+     * <code>repeated string typeNames = 13;</code>
+     */
+    public java.lang.String getTypeNames(int index) {
+      return typeNames_.get(index);
+    }
+    /**
+     * <pre>
+     * The names of the message types the sender knows, where the position of a name is the id the sender accepts instead
+     * </pre>
+     *
+     * <code>repeated string typeNames = 13;</code>
+     */
+    public com.google.protobuf.ByteString
+        getTypeNamesBytes(int index) {
+      return typeNames_.getByteString(index);
+    }
+
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      if (!hasConnectionState()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasConnectionId()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeEnum(1, connectionState_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 2, connectionId_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 3, receiveHash_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 4, sendHash_);
+      }
+      if (((bitField0_ & 0x00000010) == 0x00000010)) {
+        output.writeBool(5, acceptsBatches_);
+      }
+      for (int i = 0; i < compressionCodecs_.size(); i++) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 6, compressionCodecs_.getRaw(i));
+      }
+      if (((bitField0_ & 0x00000020) == 0x00000020)) {
+        output.writeInt32(7, receiveWindow_);
+      }
+      if (((bitField0_ & 0x00000040) == 0x00000040)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 8, sessionId_);
+      }
+      if (((bitField0_ & 0x00000080) == 0x00000080)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 9, resumeSessionId_);
+      }
+      if (((bitField0_ & 0x00000100) == 0x00000100)) {
+        output.writeInt64(10, receivedFrames_);
+      }
+      if (((bitField0_ & 0x00000200) == 0x00000200)) {
+        output.writeBool(11, acceptsFragments_);
+      }
+      if (((bitField0_ & 0x00000400) == 0x00000400)) {
+        output.writeBool(12, acceptsStreams_);
+      }
+      for (int i = 0; i < typeNames_.size(); i++) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 13, typeNames_.getRaw(i));
+      }
+      unknownFields.writeTo(output);
+    }
+
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.CodedOutputStream
           .computeEnumSize(1, connectionState_);
       }
       if (((bitField0_ & 0x00000002) == 0x00000002)) {
@@ -2332,6 +3162,48 @@ public final class ConnectionProto {
       if (((bitField0_ & 0x00000008) == 0x00000008)) {
         size += com.google.protobuf.GeneratedMessageV3.computeStringSize(4, sendHash_);
       }
+      if (((bitField0_ & 0x00000010) == 0x00000010)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBoolSize(5, acceptsBatches_);
+      }
+      {
+        int dataSize = 0;
+        for (int i = 0; i < compressionCodecs_.size(); i++) {
+          dataSize += computeStringSizeNoTag(compressionCodecs_.getRaw(i));
+        }
+        size += dataSize;
+        size += 1 * getCompressionCodecsList().size();
+      }
+      if (((bitField0_ & 0x00000020) == 0x00000020)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(7, receiveWindow_);
+      }
+      if (((bitField0_ & 0x00000040) == 0x00000040)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(8, sessionId_);
+      }
+      if (((bitField0_ & 0x00000080) == 0x00000080)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(9, resumeSessionId_);
+      }
+      if (((bitField0_ & 0x00000100) == 0x00000100)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(10, receivedFrames_);
+      }
+      if (((bitField0_ & 0x00000200) == 0x00000200)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBoolSize(11, acceptsFragments_);
+      }
+      if (((bitField0_ & 0x00000400) == 0x00000400)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBoolSize(12, acceptsStreams_);
+      }
+      {
+        int dataSize = 0;
+        for (int i = 0; i < typeNames_.size(); i++) {
+          dataSize += computeStringSizeNoTag(typeNames_.getRaw(i));
+        }
+        size += dataSize;
+        size += 1 * getTypeNamesList().size();
+      }
       size += unknownFields.getSerializedSize();
       memoizedSize = size;
       return size;
@@ -2368,6 +3240,45 @@ public final class ConnectionProto {
         result = result && getSendHash()
             .equals(other.getSendHash());
       }
+      result = result && (hasAcceptsBatches() == other.hasAcceptsBatches());
+      if (hasAcceptsBatches()) {
+        result = result && (getAcceptsBatches()
+            == other.getAcceptsBatches());
+      }
+      result = result && getCompressionCodecsList()
+          .equals(other.getCompressionCodecsList());
+      result = result && (hasReceiveWindow() == other.hasReceiveWindow());
+      if (hasReceiveWindow()) {
+        result = result && (getReceiveWindow()
+            == other.getReceiveWindow());
+      }
+      result = result && (hasSessionId() == other.hasSessionId());
+      if (hasSessionId()) {
+        result = result && getSessionId()
+            .equals(other.getSessionId());
+      }
+      result = result && (hasResumeSessionId() == other.hasResumeSessionId());
+      if (hasResumeSessionId()) {
+        result = result && getResumeSessionId()
+            .equals(other.getResumeSessionId());
+      }
+      result = result && (hasReceivedFrames() == other.hasReceivedFrames());
+      if (hasReceivedFrames()) {
+        result = result && (getReceivedFrames()
+            == other.getReceivedFrames());
+      }
+      result = result && (hasAcceptsFragments() == other.hasAcceptsFragments());
+      if (hasAcceptsFragments()) {
+        result = result && (getAcceptsFragments()
+            == other.getAcceptsFragments());
+      }
+      result = result && (hasAcceptsStreams() == other.hasAcceptsStreams());
+      if (hasAcceptsStreams()) {
+        result = result && (getAcceptsStreams()
+            == other.getAcceptsStreams());
+      }
+      result = result && getTypeNamesList()
+          .equals(other.getTypeNamesList());
       result = result && unknownFields.equals(other.unknownFields);
       return result;
     }
@@ -2395,6 +3306,46 @@ public final class ConnectionProto {
         hash = (37 * hash) + SENDHASH_FIELD_NUMBER;
         hash = (53 * hash) + getSendHash().hashCode();
       }
+      if (hasAcceptsBatches()) {
+        hash = (37 * hash) + ACCEPTSBATCHES_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashBoolean(
+            getAcceptsBatches());
+      }
+      if (getCompressionCodecsCount() > 0) {
+        hash = (37 * hash) + COMPRESSIONCODECS_FIELD_NUMBER;
+        hash = (53 * hash) + getCompressionCodecsList().hashCode();
+      }
+      if (hasReceiveWindow()) {
+        hash = (37 * hash) + RECEIVEWINDOW_FIELD_NUMBER;
+        hash = (53 * hash) + getReceiveWindow();
+      }
+      if (hasSessionId()) {
+        hash = (37 * hash) + SESSIONID_FIELD_NUMBER;
+        hash = (53 * hash) + getSessionId().hashCode();
+      }
+      if (hasResumeSessionId()) {
+        hash = (37 * hash) + RESUMESESSIONID_FIELD_NUMBER;
+        hash = (53 * hash) + getResumeSessionId().hashCode();
+      }
+      if (hasReceivedFrames()) {
+        hash = (37 * hash) + RECEIVEDFRAMES_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getReceivedFrames());
+      }
+      if (hasAcceptsFragments()) {
+        hash = (37 * hash) + ACCEPTSFRAGMENTS_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashBoolean(
+            getAcceptsFragments());
+      }
+      if (hasAcceptsStreams()) {
+        hash = (37 * hash) + ACCEPTSSTREAMS_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashBoolean(
+            getAcceptsStreams());
+      }
+      if (getTypeNamesCount() > 0) {
+        hash = (37 * hash) + TYPENAMES_FIELD_NUMBER;
+        hash = (53 * hash) + getTypeNamesList().hashCode();
+      }
       hash = (29 * hash) + unknownFields.hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -2532,6 +3483,24 @@ public final class ConnectionProto {
         bitField0_ = (bitField0_ & ~0x00000004);
         sendHash_ = "";
         bitField0_ = (bitField0_ & ~0x00000008);
+        acceptsBatches_ = false;
+        bitField0_ = (bitField0_ & ~0x00000010);
+        compressionCodecs_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000020);
+        receiveWindow_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000040);
+        sessionId_ = "";
+        bitField0_ = (bitField0_ & ~0x00000080);
+        resumeSessionId_ = "";
+        bitField0_ = (bitField0_ & ~0x00000100);
+        receivedFrames_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000200);
+        acceptsFragments_ = false;
+        bitField0_ = (bitField0_ & ~0x00000400);
+        acceptsStreams_ = false;
+        bitField0_ = (bitField0_ & ~0x00000800);
+        typeNames_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00001000);
         return this;
       }
 
@@ -2572,6 +3541,44 @@ public final class ConnectionProto {
           to_bitField0_ |= 0x00000008;
         }
         result.sendHash_ = sendHash_;
+        if (((from_bitField0_ & 0x00000010) == 0x00000010)) {
+          to_bitField0_ |= 0x00000010;
+        }
+        result.acceptsBatches_ = acceptsBatches_;
+        if (((bitField0_ & 0x00000020) == 0x00000020)) {
+          compressionCodecs_ = compressionCodecs_.getUnmodifiableView();
+          bitField0_ = (bitField0_ & ~0x00000020);
+        }
+        result.compressionCodecs_ = compressionCodecs_;
+        if (((from_bitField0_ & 0x00000040) == 0x00000040)) {
+          to_bitField0_ |= 0x00000020;
+        }
+        result.receiveWindow_ = receiveWindow_;
+        if (((from_bitField0_ & 0x00000080) == 0x00000080)) {
+          to_bitField0_ |= 0x00000040;
+        }
+        result.sessionId_ = sessionId_;
+        if (((from_bitField0_ & 0x00000100) == 0x00000100)) {
+          to_bitField0_ |= 0x00000080;
+        }
+        result.resumeSessionId_ = resumeSessionId_;
+        if (((from_bitField0_ & 0x00000200) == 0x00000200)) {
+          to_bitField0_ |= 0x00000100;
+        }
+        result.receivedFrames_ = receivedFrames_;
+        if (((from_bitField0_ & 0x00000400) == 0x00000400)) {
+          to_bitField0_ |= 0x00000200;
+        }
+        result.acceptsFragments_ = acceptsFragments_;
+        if (((from_bitField0_ & 0x00000800) == 0x00000800)) {
+          to_bitField0_ |= 0x00000400;
+        }
+        result.acceptsStreams_ = acceptsStreams_;
+        if (((bitField0_ & 0x00001000) == 0x00001000)) {
+          typeNames_ = typeNames_.getUnmodifiableView();
+          bitField0_ = (bitField0_ & ~0x00001000);
+        }
+        result.typeNames_ = typeNames_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -2632,6 +3639,51 @@ public final class ConnectionProto {
           sendHash_ = other.sendHash_;
           onChanged();
         }
+        if (other.hasAcceptsBatches()) {
+          setAcceptsBatches(other.getAcceptsBatches());
+        }
+        if (!other.compressionCodecs_.isEmpty()) {
+          if (compressionCodecs_.isEmpty()) {
+            compressionCodecs_ = other.compressionCodecs_;
+            bitField0_ = (bitField0_ & ~0x00000020);
+          } else {
+            ensureCompressionCodecsIsMutable();
+            compressionCodecs_.addAll(other.compressionCodecs_);
+          }
+          onChanged();
+        }
+        if (other.hasReceiveWindow()) {
+          setReceiveWindow(other.getReceiveWindow());
+        }
+        if (other.hasSessionId()) {
+          bitField0_ |= 0x00000080;
+          sessionId_ = other.sessionId_;
+          onChanged();
+        }
+        if (other.hasResumeSessionId()) {
+          bitField0_ |= 0x00000100;
+          resumeSessionId_ = other.resumeSessionId_;
+          onChanged();
+        }
+        if (other.hasReceivedFrames()) {
+          setReceivedFrames(other.getReceivedFrames());
+        }
+        if (other.hasAcceptsFragments()) {
+          setAcceptsFragments(other.getAcceptsFragments());
+        }
+        if (other.hasAcceptsStreams()) {
+          setAcceptsStreams(other.getAcceptsStreams());
+        }
+        if (!other.typeNames_.isEmpty()) {
+          if (typeNames_.isEmpty()) {
+            typeNames_ = other.typeNames_;
+            bitField0_ = (bitField0_ & ~0x00001000);
+          } else {
+            ensureTypeNamesIsMutable();
+            typeNames_.addAll(other.typeNames_);
+          }
+          onChanged();
+        }
         this.mergeUnknownFields(other.unknownFields);
         onChanged();
         return this;
@@ -2929,6 +3981,704 @@ public final class ConnectionProto {
         onChanged();
         return this;
       }
+
+      private boolean acceptsBatches_ ;
+      /**
+       * <pre>
+       * Whether the sender is able to unpack frames that contain multiple messages
+       * </pre>
+       *
+       * <code>optional bool acceptsBatches = 5;</code>
+       */
+      public boolean hasAcceptsBatches() {
+        return ((bitField0_ & 0x00000010) == 0x00000010);
+      }
+      /**
+       * <pre>
+       * Whether the sender is able to unpack frames that contain multiple messages
+       * </pre>
+       *
+       * <code>optional bool acceptsBatches = 5;</code>
+       */
+      public boolean getAcceptsBatches() {
+        return acceptsBatches_;
+      }
+      /**
+       * <pre>
+       * Whether the sender is able to unpack frames that contain multiple messages
+       * </pre>
+       *
+       * <code>optional bool acceptsBatches = 5;</code>
+       */
+      public Builder setAcceptsBatches(boolean value) {
+        bitField0_ |= 0x00000010;
+        acceptsBatches_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Whether the sender is able to unpack frames that contain multiple messages
+       * </pre>
+       *
+       * <code>optional bool acceptsBatches = 5;</code>
+       */
+      public Builder clearAcceptsBatches() {
+        bitField0_ = (bitField0_ & ~0x00000010);
+        acceptsBatches_ = false;
+        onChanged();
+        return this;
+      }
+
+      private com.google.protobuf.LazyStringList compressionCodecs_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+      private void ensureCompressionCodecsIsMutable() {
+        if (!((bitField0_ & 0x00000020) == 0x00000020)) {
+          compressionCodecs_ = new com.google.protobuf.LazyStringArrayList(compressionCodecs_);
+          bitField0_ |= 0x00000020;
+         }
+      }
+      /**
+       * <pre>
+       * The compression codecs the sender is able to decompress, in order of preference
+       * </pre>
+       *
+       * <code>repeated string compressionCodecs = 6;</code>
+       */
+      public com.google.protobuf.ProtocolStringList
+          getCompressionCodecsList() {
+        return compressionCodecs_.getUnmodifiableView();
+      }
+      /**
+       * <pre>
+       * The compression codecs the sender is able to decompress, in order of preference
+       * </pre>
+       *
+       * <code>repeated string compressionCodecs = 6;</code>
+       */
+      public int getCompressionCodecsCount() {
+        return compressionCodecs_.size();
+      }
+      /**
+       * <pre>
+       * The compression codecs the sender is able to decompress, in order of preference
+       * </pre>
+       *
+       * <code>repeated string compressionCodecs = 6;</code>
+       */
+      public java.lang.String getCompressionCodecs(int index) {
+        return compressionCodecs_.get(index);
+      }
+      /**
+       * <pre>
+       * The compression codecs the sender is able to decompress, in order of preference
+       * </pre>
+       *
+       * <code>repeated string compressionCodecs = 6;</code>
+       */
+      public com.google.protobuf.ByteString
+          getCompressionCodecsBytes(int index) {
+        return compressionCodecs_.getByteString(index);
+      }
+      /**
+       * <pre>
+       * The compression codecs the sender is able to decompress, in order of preference
+       * </pre>
+       *
+       * <code>repeated string compressionCodecs = 6;</code>
+       */
+      public Builder setCompressionCodecs(
+          int index, java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureCompressionCodecsIsMutable();
+        compressionCodecs_.set(index, value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The compression codecs the sender is able to decompress, in order of preference
+       * </pre>
+       *
+       * <code>repeated string compressionCodecs = 6;</code>
+       */
+      public Builder addCompressionCodecs(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureCompressionCodecsIsMutable();
+        compressionCodecs_.add(value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The compression codecs the sender is able to decompress, in order of preference
+       * </pre>
+       *
+       * <code>repeated string compressionCodecs = 6;</code>
+       */
+      public Builder addAllCompressionCodecs(
+          java.lang.Iterable<java.lang.String> values) {
+        ensureCompressionCodecsIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, compressionCodecs_);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The compression codecs the sender is able to decompress, in order of preference
+       * </pre>
+       *
+       * <code>repeated string compressionCodecs = 6;</code>
+       */
+      public Builder clearCompressionCodecs() {
+        compressionCodecs_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000020);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The compression codecs the sender is able to decompress, in order of preference
+       * </pre>
+       *
+       * <code>repeated string compressionCodecs = 6;</code>
+       */
+      public Builder addCompressionCodecsBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureCompressionCodecsIsMutable();
+        compressionCodecs_.add(value);
+        onChanged();
+        return this;
+      }
+
+      private int receiveWindow_ ;
+      /**
+       * <pre>
+       * The number of messages the sender is willing to receive before it grants more credits, or 0 without flow control
+       * </pre>
+       *
+       * <code>optional int32 receiveWindow = 7;</code>
+       */
+      public boolean hasReceiveWindow() {
+        return ((bitField0_ & 0x00000040) == 0x00000040);
+      }
+      /**
+       * <pre>
+       * The number of messages the sender is willing to receive before it grants more credits, or 0 without flow control
+       * </pre>
+       *
+       * <code>optional int32 receiveWindow = 7;</code>
+       */
+      public int getReceiveWindow() {
+        return receiveWindow_;
+      }
+      /**
+       * <pre>
+       * The number of messages the sender is willing to receive before it grants more credits, or 0 without flow control
+       * </pre>
+       *
+       * <code>optional int32 receiveWindow = 7;</code>
+       */
+      public Builder setReceiveWindow(int value) {
+        bitField0_ |= 0x00000040;
+        receiveWindow_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The number of messages the sender is willing to receive before it grants more credits, or 0 without flow control
+       * </pre>
+       *
+       * <code>optional int32 receiveWindow = 7;</code>
+       */
+      public Builder clearReceiveWindow() {
+        bitField0_ = (bitField0_ & ~0x00000040);
+        receiveWindow_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object sessionId_ = "";
+      /**
+       * <pre>
+       * Identifies the sending endpoint for as long as it runs, so the remote side can tell whether it may resume a session
+       * </pre>
+       *
+       * <code>optional string sessionId = 8;</code>
+       */
+      public boolean hasSessionId() {
+        return ((bitField0_ & 0x00000080) == 0x00000080);
+      }
+      /**
+       * <pre>
+       * Identifies the sending endpoint for as long as it runs, so the remote side can tell whether it may resume a session
+       * </pre>
+       *
+       * <code>optional string sessionId = 8;</code>
+       */
+      public java.lang.String getSessionId() {
+        java.lang.Object ref = sessionId_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            sessionId_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <pre>
+       * Identifies the sending endpoint for as long as it runs, so the remote side can tell whether it may resume a session
+       * </pre>
+       *
+       * <code>optional string sessionId = 8;</code>
+       */
+      public com.google.protobuf.ByteString
+          getSessionIdBytes() {
+        java.lang.Object ref = sessionId_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          sessionId_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <pre>
+       * Identifies the sending endpoint for as long as it runs, so the remote side can tell whether it may resume a session
+       * </pre>
+       *
+       * <code>optional string sessionId = 8;</code>
+       */
+      public Builder setSessionId(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000080;
+        sessionId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Identifies the sending endpoint for as long as it runs, so the remote side can tell whether it may resume a session
+       * </pre>
+       *
+       * <code>optional string sessionId = 8;</code>
+       */
+      public Builder clearSessionId() {
+        bitField0_ = (bitField0_ & ~0x00000080);
+        sessionId_ = getDefaultInstance().getSessionId();
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Identifies the sending endpoint for as long as it runs, so the remote side can tell whether it may resume a session
+       * </pre>
+       *
+       * <code>optional string sessionId = 8;</code>
+       */
+      public Builder setSessionIdBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000080;
+        sessionId_ = value;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object resumeSessionId_ = "";
+      /**
+       * <pre>
+       * The session of the remote endpoint the sender last received data frames from
+       * </pre>
+       *
+       * <code>optional string resumeSessionId = 9;</code>
+       */
+      public boolean hasResumeSessionId() {
+        return ((bitField0_ & 0x00000100) == 0x00000100);
+      }
+      /**
+       * <pre>
+       * The session of the remote endpoint the sender last received data frames from
+       * </pre>
+       *
+       * <code>optional string resumeSessionId = 9;</code>
+       */
+      public java.lang.String getResumeSessionId() {
+        java.lang.Object ref = resumeSessionId_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            resumeSessionId_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <pre>
+       * The session of the remote endpoint the sender last received data frames from
+       * </pre>
+       *
+       * <code>optional string resumeSessionId = 9;</code>
+       */
+      public com.google.protobuf.ByteString
+          getResumeSessionIdBytes() {
+        java.lang.Object ref = resumeSessionId_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          resumeSessionId_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <pre>
+       * The session of the remote endpoint the sender last received data frames from
+       * </pre>
+       *
+       * <code>optional string resumeSessionId = 9;</code>
+       */
+      public Builder setResumeSessionId(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000100;
+        resumeSessionId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The session of the remote endpoint the sender last received data frames from
+       * </pre>
+       *
+       * <code>optional string resumeSessionId = 9;</code>
+       */
+      public Builder clearResumeSessionId() {
+        bitField0_ = (bitField0_ & ~0x00000100);
+        resumeSessionId_ = getDefaultInstance().getResumeSessionId();
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The session of the remote endpoint the sender last received data frames from
+       * </pre>
+       *
+       * <code>optional string resumeSessionId = 9;</code>
+       */
+      public Builder setResumeSessionIdBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000100;
+        resumeSessionId_ = value;
+        onChanged();
+        return this;
+      }
+
+      private long receivedFrames_ ;
+      /**
+       * <pre>
+       * The number of data frames the sender received in that session, which is where the remote side resumes sending
+       * </pre>
+       *
+       * <code>optional int64 receivedFrames = 10;</code>
+       */
+      public boolean hasReceivedFrames() {
+        return ((bitField0_ & 0x00000200) == 0x00000200);
+      }
+      /**
+       * <pre>
+       * The number of data frames the sender received in that session, which is where the remote side resumes sending
+       * </pre>
+       *
+       * <code>optional int64 receivedFrames = 10;</code>
+       */
+      public long getReceivedFrames() {
+        return receivedFrames_;
+      }
+      /**
+       * <pre>
+       * The number of data frames the sender received in that session, which is where the remote side resumes sending
+       * </pre>
+       *
+       * <code>optional int64 receivedFrames = 10;</code>
+       */
+      public Builder setReceivedFrames(long value) {
+        bitField0_ |= 0x00000200;
+        receivedFrames_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The number of data frames the sender received in that session, which is where the remote side resumes sending
+       * </pre>
+       *
+       * <code>optional int64 receivedFrames = 10;</code>
+       */
+      public Builder clearReceivedFrames() {
+        bitField0_ = (bitField0_ & ~0x00000200);
+        receivedFrames_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private boolean acceptsFragments_ ;
+      /**
+       * <pre>
+       * Whether the sender is able to reassemble large frames that were split into fragments
+       * </pre>
+       *
+       * <code>optional bool acceptsFragments = 11;</code>
+       */
+      public boolean hasAcceptsFragments() {
+        return ((bitField0_ & 0x00000400) == 0x00000400);
+      }
+      /**
+       * <pre>
+       * Whether the sender is able to reassemble large frames that were split into fragments
+       * </pre>
+       *
+       * <code>optional bool acceptsFragments = 11;</code>
+       */
+      public boolean getAcceptsFragments() {
+        return acceptsFragments_;
+      }
+      /**
+       * <pre>
+       * Whether the sender is able to reassemble large frames that were split into fragments
+       * </pre>
+       *
+       * <code>optional bool acceptsFragments = 11;</code>
+       */
+      public Builder setAcceptsFragments(boolean value) {
+        bitField0_ |= 0x00000400;
+        acceptsFragments_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Whether the sender is able to reassemble large frames that were split into fragments
+       * </pre>
+       *
+       * <code>optional bool acceptsFragments = 11;</code>
+       */
+      public Builder clearAcceptsFragments() {
+        bitField0_ = (bitField0_ & ~0x00000400);
+        acceptsFragments_ = false;
+        onChanged();
+        return this;
+      }
+
+      private boolean acceptsStreams_ ;
+      /**
+       * <pre>
+       * Whether the sender is able to receive messages that are streamed in chunks
+       * </pre>
+       *
+       * <code>optional bool acceptsStreams = 12;</code>
+       */
+      public boolean hasAcceptsStreams() {
+        return ((bitField0_ & 0x00000800) == 0x00000800);
+      }
+      /**
+       * <pre>
+       * Whether the sender is able to receive messages that are streamed in chunks
+       * </pre>
+       *
+       * <code>optional bool acceptsStreams = 12;</code>
+       */
+      public boolean getAcceptsStreams() {
+        return acceptsStreams_;
+      }
+      /**
+       * <pre>
+       * Whether the sender is able to receive messages that are streamed in chunks
+       * </pre>
+       *
+       * <code>optional bool acceptsStreams = 12;</code>
+       */
+      public Builder setAcceptsStreams(boolean value) {
+        bitField0_ |= 0x00000800;
+        acceptsStreams_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Whether the sender is able to receive messages that are streamed in chunks
+       * </pre>
+       *
+       * <code>optional bool acceptsStreams = 12;</code>
+       */
+      public Builder clearAcceptsStreams() {
+        bitField0_ = (bitField0_ & ~0x00000800);
+        acceptsStreams_ = false;
+        onChanged();
+        return this;
+      }
+
+      private com.google.protobuf.LazyStringList typeNames_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+      private void ensureTypeNamesIsMutable() {
+        if (!((bitField0_ & 0x00001000) == 0x00001000)) {
+          typeNames_ = new com.google.protobuf.LazyStringArrayList(typeNames_);
+          bitField0_ |= 0x00001000;
+         }
+      }
+      /**
+       * <pre>
+       * The names of the message types the sender knows, where the position of a name is the id the sender accepts instead
+       * </pre>
+       *
+       * <code>repeated string typeNames = 13;</code>
+       */
+      public com.google.protobuf.ProtocolStringList
+          getTypeNamesList() {
+        return typeNames_.getUnmodifiableView();
+      }
+      /**
+       * <pre>
+       * The names of the message types the sender knows, where the position of a name is the id the sender accepts instead
+       * </pre>
+       *
+       * <code>repeated string typeNames = 13;</code>
+       */
+      public int getTypeNamesCount() {
+        return typeNames_.size();
+      }
+      /**
+       * <pre>
+       * The names of the message types the sender knows, where the position of a name is the id the sender accepts instead
+       * </pre>
+       *
+       * <code>repeated string typeNames = 13;</code>
+       */
+      public java.lang.String getTypeNames(int index) {
+        return typeNames_.get(index);
+      }
+      /**
+       * <pre>
+       * The names of the message types the sender knows, where the position of a name is the id the sender accepts instead
+       * </pre>
+       *
+       * <code>repeated string typeNames = 13;</code>
+       */
+      public com.google.protobuf.ByteString
+          getTypeNamesBytes(int index) {
+        return typeNames_.getByteString(index);
+      }
+      /**
+       * <pre>
+       * The names of the message types the sender knows, where the position of a name is the id the sender accepts instead
+       * </pre>
+       *
+       * <code>repeated string typeNames = 13;</code>
+       */
+      public Builder setTypeNames(
+          int index, java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureTypeNamesIsMutable();
+        typeNames_.set(index, value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The names of the message types the sender knows, where the position of a name is the id the sender accepts instead
+       * </pre>
+       *
+       * <code>repeated string typeNames = 13;</code>
+       */
+      public Builder addTypeNames(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureTypeNamesIsMutable();
+        typeNames_.add(value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The names of the message types the sender knows, where the position of a name is the id the sender accepts instead
+       * </pre>
+       *
+       * <code>repeated string typeNames = 13;</code>
+       */
+      public Builder addAllTypeNames(
+          java.lang.Iterable<java.lang.String> values) {
+        ensureTypeNamesIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, typeNames_);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The names of the message types the sender knows, where the position of a name is the id the sender accepts instead
+       * </pre>
+       *
+       * <code>repeated string typeNames = 13;</code>
+       */
+      public Builder clearTypeNames() {
+        typeNames_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00001000);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The names of the message types the sender knows, where the position of a name is the id the sender accepts instead
+       * </pre>
+       *
+       * <code>repeated string typeNames = 13;</code>
+       */
+      public Builder addTypeNamesBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureTypeNamesIsMutable();
+        typeNames_.add(value);
+        onChanged();
+        return this;
+      }
       public final Builder setUnknownFields(
           final com.google.protobuf.UnknownFieldSet unknownFields) {
         return super.setUnknownFields(unknownFields);
@@ -2997,22 +4747,28 @@ public final class ConnectionProto {
       descriptor;
   static {
     java.lang.String[] descriptorData = {
-      "\n\020Connection.proto\022\nconnection\"\276\002\n\021Conne" +
+      "\n\020Connection.proto\022\nconnection\"\330\002\n\021Conne" +
       "ctionMessage\0224\n\004mode\030\001 \002(\0162&.connection." +
       "ConnectionMessage.ModeType\022\024\n\014connection" +
       "Id\030\002 \002(\t\022\025\n\rtargetAddress\030\003 \001(\t\022\022\n\nliste" +
       "nPort\030\004 \001(\005\022\023\n\013receiveHash\030\005 \001(\t\022\020\n\010send" +
       "Hash\030\006 \001(\t\022\031\n\021remoteInterfaceId\030\007 \001(\t\022\027\n" +
       "\017remoteProcessId\030\010 \001(\t\022\027\n\017remoteServiceI" +
-      "d\030\t \001(\t\">\n\010ModeType\022\n\n\006CREATE\020\000\022\013\n\007SUSPE" +
-      "ND\020\001\022\n\n\006RESUME\020\002\022\r\n\tTERMINATE\020\003\"\210\001\n\023Conn" +
-      "ectionHandshake\0224\n\017connectionState\030\001 \002(\016",
-      "2\033.connection.ConnectionState\022\024\n\014connect" +
-      "ionId\030\002 \002(\t\022\023\n\013receiveHash\030\003 \001(\t\022\020\n\010send" +
-      "Hash\030\004 \001(\t*^\n\017ConnectionState\022\014\n\010STARTIN" +
-      "G\020\000\022\r\n\tCONNECTED\020\001\022\r\n\tSUSPENDED\020\002\022\017\n\013INT" +
-      "ERRUPTED\020\003\022\016\n\nTERMINATED\020\004B*\n\027org.flexib" +
-      "lepower.protoB\017ConnectionProto"
+      "d\030\t \001(\t\022\030\n\020sharedMemoryPath\030\n \001(\t\">\n\010Mod" +
+      "eType\022\n\n\006CREATE\020\000\022\013\n\007SUSPEND\020\001\022\n\n\006RESUME" +
+      "\020\002\022\r\n\tTERMINATE\020\003\"\333\002\n\023ConnectionHandshak",
+      "e\0224\n\017connectionState\030\001 \002(\0162\033.connection." +
+      "ConnectionState\022\024\n\014connectionId\030\002 \002(\t\022\023\n" +
+      "\013receiveHash\030\003 \001(\t\022\020\n\010sendHash\030\004 \001(\t\022\026\n\016" +
+      "acceptsBatches\030\005 \001(\010\022\031\n\021compressionCodec" +
+      "s\030\006 \003(\t\022\025\n\rreceiveWindow\030\007 \001(\005\022\021\n\tsessio" +
+      "nId\030\010 \001(\t\022\027\n\017resumeSessionId\030\t \001(\t\022\026\n\016re" +
+      "ceivedFrames\030\n \001(\003\022\030\n\020acceptsFragments\030\013" +
+      " \001(\010\022\026\n\016acceptsStreams\030\014 \001(\010\022\021\n\ttypeName" +
+      "s\030\r \003(\t*^\n\017ConnectionState\022\014\n\010STARTING\020\000" +
+      "\022\r\n\tCONNECTED\020\001\022\r\n\tSUSPENDED\020\002\022\017\n\013INTERR",
+      "UPTED\020\003\022\016\n\nTERMINATED\020\004B*\n\027org.flexiblep" +
+      "ower.protoB\017ConnectionProto"
     };
     com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
         new com.google.protobuf.Descriptors.FileDescriptor.    InternalDescriptorAssigner() {
@@ -3031,13 +4787,13 @@ public final class ConnectionProto {
     internal_static_connection_ConnectionMessage_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_connection_ConnectionMessage_descriptor,
-        new java.lang.String[] { "Mode", "ConnectionId", "TargetAddress", "ListenPort", "ReceiveHash", "SendHash", "RemoteInterfaceId", "RemoteProcessId", "RemoteServiceId", });
+        new java.lang.String[] { "Mode", "ConnectionId", "TargetAddress", "ListenPort", "ReceiveHash", "SendHash", "RemoteInterfaceId", "RemoteProcessId", "RemoteServiceId", "SharedMemoryPath", });
     internal_static_connection_ConnectionHandshake_descriptor =
       getDescriptor().getMessageTypes().get(1);
     internal_static_connection_ConnectionHandshake_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_connection_ConnectionHandshake_descriptor,
-        new java.lang.String[] { "ConnectionState", "ConnectionId", "ReceiveHash", "SendHash", });
+        new java.lang.String[] { "ConnectionState", "ConnectionId", "ReceiveHash", "SendHash", "AcceptsBatches", "CompressionCodecs", "ReceiveWindow", "SessionId", "ResumeSessionId", "ReceivedFrames", "AcceptsFragments", "AcceptsStreams", "TypeNames", });
   }
 
   // @@protoc_insertion_point(outer_class_scope)
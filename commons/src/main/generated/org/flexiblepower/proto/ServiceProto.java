@@ -157,6 +157,23 @@ public final class ServiceProto {
      * <code>required .process.ProcessState targetState = 2;</code>
      */
     org.flexiblepower.proto.ServiceProto.ProcessState getTargetState();
+
+    /**
+     * <pre>
+     * Whether the process should send its state as chunks before the response when it is suspended, instead of in it
+     * </pre>
+     *
+     * <code>optional bool streamState = 3;</code>
+     */
+    boolean hasStreamState();
+    /**
+     * <pre>
+     * Whether the process should send its state as chunks before the response when it is suspended, instead of in it
+     * </pre>
+     *
+     * <code>optional bool streamState = 3;</code>
+     */
+    boolean getStreamState();
   }
   /**
    * Protobuf type {@code process.GoToProcessStateMessage}
@@ -172,6 +189,7 @@ public final class ServiceProto {
     private GoToProcessStateMessage() {
       processId_ = "";
       targetState_ = 0;
+      streamState_ = false;
     }
 
     @java.lang.Override
@@ -219,6 +237,11 @@ public final class ServiceProto {
               }
               break;
             }
+            case 24: {
+              bitField0_ |= 0x00000004;
+              streamState_ = input.readBool();
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -302,6 +325,29 @@ public final class ServiceProto {
       return result == null ? org.flexiblepower.proto.ServiceProto.ProcessState.STARTING : result;
     }
 
+    public static final int STREAMSTATE_FIELD_NUMBER = 3;
+    private boolean streamState_;
+    /**
+     * <pre>
+     * Whether the process should send its state as chunks before the response when it is suspended, instead of in it
+     * </pre>
+     *
+     * <code>optional bool streamState = 3;</code>
+     */
+    public boolean hasStreamState() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    /**
+     * <pre>
+     * Whether the process should send its state as chunks before the response when it is suspended, instead of in it
+     * </pre>
+     *
+     * <code>optional bool streamState = 3;</code>
+     */
+    public boolean getStreamState() {
+      return streamState_;
+    }
+
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
       byte isInitialized = memoizedIsInitialized;
@@ -328,6 +374,9 @@ public final class ServiceProto {
       if (((bitField0_ & 0x00000002) == 0x00000002)) {
         output.writeEnum(2, targetState_);
       }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeBool(3, streamState_);
+      }
       unknownFields.writeTo(output);
     }
 
@@ -343,6 +392,10 @@ public final class ServiceProto {
         size += com.google.protobuf.CodedOutputStream
           .computeEnumSize(2, targetState_);
       }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBoolSize(3, streamState_);
+      }
       size += unknownFields.getSerializedSize();
       memoizedSize = size;
       return size;
@@ -369,6 +422,11 @@ public final class ServiceProto {
       if (hasTargetState()) {
         result = result && targetState_ == other.targetState_;
       }
+      result = result && (hasStreamState() == other.hasStreamState());
+      if (hasStreamState()) {
+        result = result && (getStreamState()
+            == other.getStreamState());
+      }
       result = result && unknownFields.equals(other.unknownFields);
       return result;
     }
@@ -388,6 +446,11 @@ public final class ServiceProto {
         hash = (37 * hash) + TARGETSTATE_FIELD_NUMBER;
         hash = (53 * hash) + targetState_;
       }
+      if (hasStreamState()) {
+        hash = (37 * hash) + STREAMSTATE_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashBoolean(
+            getStreamState());
+      }
       hash = (29 * hash) + unknownFields.hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -521,6 +584,8 @@ public final class ServiceProto {
         bitField0_ = (bitField0_ & ~0x00000001);
         targetState_ = 0;
         bitField0_ = (bitField0_ & ~0x00000002);
+        streamState_ = false;
+        bitField0_ = (bitField0_ & ~0x00000004);
         return this;
       }
 
@@ -553,6 +618,10 @@ public final class ServiceProto {
           to_bitField0_ |= 0x00000002;
         }
         result.targetState_ = targetState_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        result.streamState_ = streamState_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -603,6 +672,9 @@ public final class ServiceProto {
         if (other.hasTargetState()) {
           setTargetState(other.getTargetState());
         }
+        if (other.hasStreamState()) {
+          setStreamState(other.getStreamState());
+        }
         this.mergeUnknownFields(other.unknownFields);
         onChanged();
         return this;
@@ -748,6 +820,54 @@ public final class ServiceProto {
         onChanged();
         return this;
       }
+
+      private boolean streamState_ ;
+      /**
+       * <pre>
+       * Whether the process should send its state as chunks before the response when it is suspended, instead of in it
+       * </pre>
+       *
+       * <code>optional bool streamState = 3;</code>
+       */
+      public boolean hasStreamState() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <pre>
+       * Whether the process should send its state as chunks before the response when it is suspended, instead of in it
+       * </pre>
+       *
+       * <code>optional bool streamState = 3;</code>
+       */
+      public boolean getStreamState() {
+        return streamState_;
+      }
+      /**
+       * <pre>
+       * Whether the process should send its state as chunks before the response when it is suspended, instead of in it
+       * </pre>
+       *
+       * <code>optional bool streamState = 3;</code>
+       */
+      public Builder setStreamState(boolean value) {
+        bitField0_ |= 0x00000004;
+        streamState_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Whether the process should send its state as chunks before the response when it is suspended, instead of in it
+       * </pre>
+       *
+       * <code>optional bool streamState = 3;</code>
+       */
+      public Builder clearStreamState() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        streamState_ = false;
+        onChanged();
+        return this;
+      }
       public final Builder setUnknownFields(
           final com.google.protobuf.UnknownFieldSet unknownFields) {
         return super.setUnknownFields(unknownFields);
@@ -823,6 +943,23 @@ public final class ServiceProto {
      * <code>required bytes stateData = 2;</code>
      */
     com.google.protobuf.ByteString getStateData();
+
+    /**
+     * <pre>
+     * Whether the state follows this message as chunks, in which case stateData is empty
+     * </pre>
+     *
+     * <code>optional bool stateFollows = 3;</code>
+     */
+    boolean hasStateFollows();
+    /**
+     * <pre>
+     * Whether the state follows this message as chunks, in which case stateData is empty
+     * </pre>
+     *
+     * <code>optional bool stateFollows = 3;</code>
+     */
+    boolean getStateFollows();
   }
   /**
    * Protobuf type {@code process.ResumeProcessMessage}
@@ -838,6 +975,7 @@ public final class ServiceProto {
     private ResumeProcessMessage() {
       processId_ = "";
       stateData_ = com.google.protobuf.ByteString.EMPTY;
+      stateFollows_ = false;
     }
 
     @java.lang.Override
@@ -879,6 +1017,11 @@ public final class ServiceProto {
               stateData_ = input.readBytes();
               break;
             }
+            case 24: {
+              bitField0_ |= 0x00000004;
+              stateFollows_ = input.readBool();
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -961,6 +1104,29 @@ public final class ServiceProto {
       return stateData_;
     }
 
+    public static final int STATEFOLLOWS_FIELD_NUMBER = 3;
+    private boolean stateFollows_;
+    /**
+     * <pre>
+     * Whether the state follows this message as chunks, in which case stateData is empty
+     * </pre>
+     *
+     * <code>optional bool stateFollows = 3;</code>
+     */
+    public boolean hasStateFollows() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    /**
+     * <pre>
+     * Whether the state follows this message as chunks, in which case stateData is empty
+     * </pre>
+     *
+     * <code>optional bool stateFollows = 3;</code>
+     */
+    public boolean getStateFollows() {
+      return stateFollows_;
+    }
+
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
       byte isInitialized = memoizedIsInitialized;
@@ -987,6 +1153,9 @@ public final class ServiceProto {
       if (((bitField0_ & 0x00000002) == 0x00000002)) {
         output.writeBytes(2, stateData_);
       }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeBool(3, stateFollows_);
+      }
       unknownFields.writeTo(output);
     }
 
@@ -1002,6 +1171,10 @@ public final class ServiceProto {
         size += com.google.protobuf.CodedOutputStream
           .computeBytesSize(2, stateData_);
       }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBoolSize(3, stateFollows_);
+      }
       size += unknownFields.getSerializedSize();
       memoizedSize = size;
       return size;
@@ -1029,6 +1202,11 @@ public final class ServiceProto {
         result = result && getStateData()
             .equals(other.getStateData());
       }
+      result = result && (hasStateFollows() == other.hasStateFollows());
+      if (hasStateFollows()) {
+        result = result && (getStateFollows()
+            == other.getStateFollows());
+      }
       result = result && unknownFields.equals(other.unknownFields);
       return result;
     }
@@ -1048,6 +1226,11 @@ public final class ServiceProto {
         hash = (37 * hash) + STATEDATA_FIELD_NUMBER;
         hash = (53 * hash) + getStateData().hashCode();
       }
+      if (hasStateFollows()) {
+        hash = (37 * hash) + STATEFOLLOWS_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashBoolean(
+            getStateFollows());
+      }
       hash = (29 * hash) + unknownFields.hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -1181,6 +1364,8 @@ public final class ServiceProto {
         bitField0_ = (bitField0_ & ~0x00000001);
         stateData_ = com.google.protobuf.ByteString.EMPTY;
         bitField0_ = (bitField0_ & ~0x00000002);
+        stateFollows_ = false;
+        bitField0_ = (bitField0_ & ~0x00000004);
         return this;
       }
 
@@ -1213,6 +1398,10 @@ public final class ServiceProto {
           to_bitField0_ |= 0x00000002;
         }
         result.stateData_ = stateData_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        result.stateFollows_ = stateFollows_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -1263,6 +1452,9 @@ public final class ServiceProto {
         if (other.hasStateData()) {
           setStateData(other.getStateData());
         }
+        if (other.hasStateFollows()) {
+          setStateFollows(other.getStateFollows());
+        }
         this.mergeUnknownFields(other.unknownFields);
         onChanged();
         return this;
@@ -1407,6 +1599,54 @@ public final class ServiceProto {
         onChanged();
         return this;
       }
+
+      private boolean stateFollows_ ;
+      /**
+       * <pre>
+       * Whether the state follows this message as chunks, in which case stateData is empty
+       * </pre>
+       *
+       * <code>optional bool stateFollows = 3;</code>
+       */
+      public boolean hasStateFollows() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <pre>
+       * Whether the state follows this message as chunks, in which case stateData is empty
+       * </pre>
+       *
+       * <code>optional bool stateFollows = 3;</code>
+       */
+      public boolean getStateFollows() {
+        return stateFollows_;
+      }
+      /**
+       * <pre>
+       * Whether the state follows this message as chunks, in which case stateData is empty
+       * </pre>
+       *
+       * <code>optional bool stateFollows = 3;</code>
+       */
+      public Builder setStateFollows(boolean value) {
+        bitField0_ |= 0x00000004;
+        stateFollows_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Whether the state follows this message as chunks, in which case stateData is empty
+       * </pre>
+       *
+       * <code>optional bool stateFollows = 3;</code>
+       */
+      public Builder clearStateFollows() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        stateFollows_ = false;
+        onChanged();
+        return this;
+      }
       public final Builder setUnknownFields(
           final com.google.protobuf.UnknownFieldSet unknownFields) {
         return super.setUnknownFields(unknownFields);
@@ -3909,110 +4149,5846 @@ public final class ServiceProto {
 
   }
 
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_process_GoToProcessStateMessage_descriptor;
-  private static final 
-    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
-      internal_static_process_GoToProcessStateMessage_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_process_ResumeProcessMessage_descriptor;
-  private static final 
-    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
-      internal_static_process_ResumeProcessMessage_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_process_ProcessStateUpdateMessage_descriptor;
-  private static final 
-    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
-      internal_static_process_ProcessStateUpdateMessage_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_process_SetConfigMessage_descriptor;
-  private static final 
-    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
-      internal_static_process_SetConfigMessage_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_process_SetConfigMessage_ConfigEntry_descriptor;
-  private static final 
-    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
-      internal_static_process_SetConfigMessage_ConfigEntry_fieldAccessorTable;
-  private static final com.google.protobuf.Descriptors.Descriptor
-    internal_static_process_ErrorMessage_descriptor;
-  private static final 
-    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
-      internal_static_process_ErrorMessage_fieldAccessorTable;
+  public interface MetricsRequestMessageOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:process.MetricsRequestMessage)
+      com.google.protobuf.MessageOrBuilder {
 
-  public static com.google.protobuf.Descriptors.FileDescriptor
-      getDescriptor() {
-    return descriptor;
+    /**
+     * <code>required string processId = 1;</code>
+     */
+    boolean hasProcessId();
+    /**
+     * <code>required string processId = 1;</code>
+     */
+    java.lang.String getProcessId();
+    /**
+     * <code>required string processId = 1;</code>
+     */
+    com.google.protobuf.ByteString
+        getProcessIdBytes();
   }
-  private static  com.google.protobuf.Descriptors.FileDescriptor
-      descriptor;
-  static {
-    java.lang.String[] descriptorData = {
-      "\n\rService.proto\022\007process\"X\n\027GoToProcessS" +
-      "tateMessage\022\021\n\tprocessId\030\001 \002(\t\022*\n\013target" +
-      "State\030\002 \002(\0162\025.process.ProcessState\"<\n\024Re" +
-      "sumeProcessMessage\022\021\n\tprocessId\030\001 \002(\t\022\021\n" +
-      "\tstateData\030\002 \002(\014\"g\n\031ProcessStateUpdateMe" +
-      "ssage\022\021\n\tprocessId\030\001 \002(\t\022$\n\005state\030\002 \002(\0162" +
-      "\025.process.ProcessState\022\021\n\tstateData\030\003 \001(" +
-      "\014\"\235\001\n\020SetConfigMessage\022\021\n\tprocessId\030\001 \002(" +
-      "\t\022\020\n\010isUpdate\030\002 \002(\010\0225\n\006config\030\003 \003(\0132%.pr" +
-      "ocess.SetConfigMessage.ConfigEntry\032-\n\013Co",
-      "nfigEntry\022\013\n\003key\030\001 \001(\t\022\r\n\005value\030\002 \001(\t:\0028" +
-      "\001\";\n\014ErrorMessage\022\021\n\tprocessId\030\001 \002(\t\022\030\n\020" +
-      "debugInformation\030\002 \002(\t*Z\n\014ProcessState\022\014" +
-      "\n\010STARTING\020\000\022\020\n\014INITIALIZING\020\001\022\013\n\007RUNNIN" +
-      "G\020\002\022\r\n\tSUSPENDED\020\003\022\016\n\nTERMINATED\020\004B\'\n\027or" +
-      "g.flexiblepower.protoB\014ServiceProto"
-    };
-    com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
-        new com.google.protobuf.Descriptors.FileDescriptor.    InternalDescriptorAssigner() {
-          public com.google.protobuf.ExtensionRegistry assignDescriptors(
-              com.google.protobuf.Descriptors.FileDescriptor root) {
-            descriptor = root;
-            return null;
+  /**
+   * Protobuf type {@code process.MetricsRequestMessage}
+   */
+  public  static final class MetricsRequestMessage extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:process.MetricsRequestMessage)
+      MetricsRequestMessageOrBuilder {
+    // Use MetricsRequestMessage.newBuilder() to construct.
+    private MetricsRequestMessage(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private MetricsRequestMessage() {
+      processId_ = "";
+    }
+
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+    getUnknownFields() {
+      return this.unknownFields;
+    }
+    private MetricsRequestMessage(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      this();
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 10: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000001;
+              processId_ = bs;
+              break;
+            }
           }
-        };
-    com.google.protobuf.Descriptors.FileDescriptor
-      .internalBuildGeneratedFileFrom(descriptorData,
-        new com.google.protobuf.Descriptors.FileDescriptor[] {
-        }, assigner);
-    internal_static_process_GoToProcessStateMessage_descriptor =
-      getDescriptor().getMessageTypes().get(0);
-    internal_static_process_GoToProcessStateMessage_fieldAccessorTable = new
-      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
-        internal_static_process_GoToProcessStateMessage_descriptor,
-        new java.lang.String[] { "ProcessId", "TargetState", });
-    internal_static_process_ResumeProcessMessage_descriptor =
-      getDescriptor().getMessageTypes().get(1);
-    internal_static_process_ResumeProcessMessage_fieldAccessorTable = new
-      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
-        internal_static_process_ResumeProcessMessage_descriptor,
-        new java.lang.String[] { "ProcessId", "StateData", });
-    internal_static_process_ProcessStateUpdateMessage_descriptor =
-      getDescriptor().getMessageTypes().get(2);
-    internal_static_process_ProcessStateUpdateMessage_fieldAccessorTable = new
-      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
-        internal_static_process_ProcessStateUpdateMessage_descriptor,
-        new java.lang.String[] { "ProcessId", "State", "StateData", });
-    internal_static_process_SetConfigMessage_descriptor =
-      getDescriptor().getMessageTypes().get(3);
-    internal_static_process_SetConfigMessage_fieldAccessorTable = new
-      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
-        internal_static_process_SetConfigMessage_descriptor,
-        new java.lang.String[] { "ProcessId", "IsUpdate", "Config", });
-    internal_static_process_SetConfigMessage_ConfigEntry_descriptor =
-      internal_static_process_SetConfigMessage_descriptor.getNestedTypes().get(0);
-    internal_static_process_SetConfigMessage_ConfigEntry_fieldAccessorTable = new
-      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
-        internal_static_process_SetConfigMessage_ConfigEntry_descriptor,
-        new java.lang.String[] { "Key", "Value", });
-    internal_static_process_ErrorMessage_descriptor =
-      getDescriptor().getMessageTypes().get(4);
-    internal_static_process_ErrorMessage_fieldAccessorTable = new
-      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
-        internal_static_process_ErrorMessage_descriptor,
-        new java.lang.String[] { "ProcessId", "DebugInformation", });
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e).setUnfinishedMessage(this);
+      } finally {
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return org.flexiblepower.proto.ServiceProto.internal_static_process_MetricsRequestMessage_descriptor;
+    }
+
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return org.flexiblepower.proto.ServiceProto.internal_static_process_MetricsRequestMessage_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              org.flexiblepower.proto.ServiceProto.MetricsRequestMessage.class, org.flexiblepower.proto.ServiceProto.MetricsRequestMessage.Builder.class);
+    }
+
+    private int bitField0_;
+    public static final int PROCESSID_FIELD_NUMBER = 1;
+    private volatile java.lang.Object processId_;
+    /**
+     * <code>required string processId = 1;</code>
+     */
+    public boolean hasProcessId() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>required string processId = 1;</code>
+     */
+    public java.lang.String getProcessId() {
+      java.lang.Object ref = processId_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          processId_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>required string processId = 1;</code>
+     */
+    public com.google.protobuf.ByteString
+        getProcessIdBytes() {
+      java.lang.Object ref = processId_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        processId_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      if (!hasProcessId()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 1, processId_);
+      }
+      unknownFields.writeTo(output);
+    }
+
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(1, processId_);
+      }
+      size += unknownFields.getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof org.flexiblepower.proto.ServiceProto.MetricsRequestMessage)) {
+        return super.equals(obj);
+      }
+      org.flexiblepower.proto.ServiceProto.MetricsRequestMessage other = (org.flexiblepower.proto.ServiceProto.MetricsRequestMessage) obj;
+
+      boolean result = true;
+      result = result && (hasProcessId() == other.hasProcessId());
+      if (hasProcessId()) {
+        result = result && getProcessId()
+            .equals(other.getProcessId());
+      }
+      result = result && unknownFields.equals(other.unknownFields);
+      return result;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      if (hasProcessId()) {
+        hash = (37 * hash) + PROCESSID_FIELD_NUMBER;
+        hash = (53 * hash) + getProcessId().hashCode();
+      }
+      hash = (29 * hash) + unknownFields.hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static org.flexiblepower.proto.ServiceProto.MetricsRequestMessage parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MetricsRequestMessage parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MetricsRequestMessage parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MetricsRequestMessage parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MetricsRequestMessage parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MetricsRequestMessage parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MetricsRequestMessage parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MetricsRequestMessage parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MetricsRequestMessage parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MetricsRequestMessage parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MetricsRequestMessage parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MetricsRequestMessage parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(org.flexiblepower.proto.ServiceProto.MetricsRequestMessage prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code process.MetricsRequestMessage}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:process.MetricsRequestMessage)
+        org.flexiblepower.proto.ServiceProto.MetricsRequestMessageOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return org.flexiblepower.proto.ServiceProto.internal_static_process_MetricsRequestMessage_descriptor;
+      }
+
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return org.flexiblepower.proto.ServiceProto.internal_static_process_MetricsRequestMessage_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                org.flexiblepower.proto.ServiceProto.MetricsRequestMessage.class, org.flexiblepower.proto.ServiceProto.MetricsRequestMessage.Builder.class);
+      }
+
+      // Construct using org.flexiblepower.proto.ServiceProto.MetricsRequestMessage.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessageV3
+                .alwaysUseFieldBuilders) {
+        }
+      }
+      public Builder clear() {
+        super.clear();
+        processId_ = "";
+        bitField0_ = (bitField0_ & ~0x00000001);
+        return this;
+      }
+
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return org.flexiblepower.proto.ServiceProto.internal_static_process_MetricsRequestMessage_descriptor;
+      }
+
+      public org.flexiblepower.proto.ServiceProto.MetricsRequestMessage getDefaultInstanceForType() {
+        return org.flexiblepower.proto.ServiceProto.MetricsRequestMessage.getDefaultInstance();
+      }
+
+      public org.flexiblepower.proto.ServiceProto.MetricsRequestMessage build() {
+        org.flexiblepower.proto.ServiceProto.MetricsRequestMessage result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public org.flexiblepower.proto.ServiceProto.MetricsRequestMessage buildPartial() {
+        org.flexiblepower.proto.ServiceProto.MetricsRequestMessage result = new org.flexiblepower.proto.ServiceProto.MetricsRequestMessage(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.processId_ = processId_;
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder clone() {
+        return (Builder) super.clone();
+      }
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          Object value) {
+        return (Builder) super.setField(field, value);
+      }
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return (Builder) super.clearField(field);
+      }
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return (Builder) super.clearOneof(oneof);
+      }
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, Object value) {
+        return (Builder) super.setRepeatedField(field, index, value);
+      }
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          Object value) {
+        return (Builder) super.addRepeatedField(field, value);
+      }
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof org.flexiblepower.proto.ServiceProto.MetricsRequestMessage) {
+          return mergeFrom((org.flexiblepower.proto.ServiceProto.MetricsRequestMessage)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(org.flexiblepower.proto.ServiceProto.MetricsRequestMessage other) {
+        if (other == org.flexiblepower.proto.ServiceProto.MetricsRequestMessage.getDefaultInstance()) return this;
+        if (other.hasProcessId()) {
+          bitField0_ |= 0x00000001;
+          processId_ = other.processId_;
+          onChanged();
+        }
+        this.mergeUnknownFields(other.unknownFields);
+        onChanged();
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        if (!hasProcessId()) {
+          return false;
+        }
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        org.flexiblepower.proto.ServiceProto.MetricsRequestMessage parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (org.flexiblepower.proto.ServiceProto.MetricsRequestMessage) e.getUnfinishedMessage();
+          throw e.unwrapIOException();
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private java.lang.Object processId_ = "";
+      /**
+       * <code>required string processId = 1;</code>
+       */
+      public boolean hasProcessId() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>required string processId = 1;</code>
+       */
+      public java.lang.String getProcessId() {
+        java.lang.Object ref = processId_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            processId_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>required string processId = 1;</code>
+       */
+      public com.google.protobuf.ByteString
+          getProcessIdBytes() {
+        java.lang.Object ref = processId_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          processId_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>required string processId = 1;</code>
+       */
+      public Builder setProcessId(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        processId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string processId = 1;</code>
+       */
+      public Builder clearProcessId() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        processId_ = getDefaultInstance().getProcessId();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string processId = 1;</code>
+       */
+      public Builder setProcessIdBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        processId_ = value;
+        onChanged();
+        return this;
+      }
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.setUnknownFields(unknownFields);
+      }
+
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.mergeUnknownFields(unknownFields);
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:process.MetricsRequestMessage)
+    }
+
+    // @@protoc_insertion_point(class_scope:process.MetricsRequestMessage)
+    private static final org.flexiblepower.proto.ServiceProto.MetricsRequestMessage DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new org.flexiblepower.proto.ServiceProto.MetricsRequestMessage();
+    }
+
+    public static org.flexiblepower.proto.ServiceProto.MetricsRequestMessage getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    @java.lang.Deprecated public static final com.google.protobuf.Parser<MetricsRequestMessage>
+        PARSER = new com.google.protobuf.AbstractParser<MetricsRequestMessage>() {
+      public MetricsRequestMessage parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+          return new MetricsRequestMessage(input, extensionRegistry);
+      }
+    };
+
+    public static com.google.protobuf.Parser<MetricsRequestMessage> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<MetricsRequestMessage> getParserForType() {
+      return PARSER;
+    }
+
+    public org.flexiblepower.proto.ServiceProto.MetricsRequestMessage getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface LatencySnapshotOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:process.LatencySnapshot)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <pre>
+     * The stage that was timed: send, serialize, receive, deserialize or dispatch
+     * </pre>
+     *
+     * <code>required string stage = 1;</code>
+     */
+    boolean hasStage();
+    /**
+     * <pre>
+     * The stage that was timed: send, serialize, receive, deserialize or dispatch
+     * </pre>
+     *
+     * <code>required string stage = 1;</code>
+     */
+    java.lang.String getStage();
+    /**
+     * <pre>
+     * The stage that was timed: send, serialize, receive, deserialize or dispatch
+     * </pre>
+     *
+     * <code>required string stage = 1;</code>
+     */
+    com.google.protobuf.ByteString
+        getStageBytes();
+
+    /**
+     * <pre>
+     * The simple name of the message type, or empty for all message types together
+     * </pre>
+     *
+     * <code>optional string messageType = 2;</code>
+     */
+    boolean hasMessageType();
+    /**
+     * <pre>
+     * The simple name of the message type, or empty for all message types together
+     * </pre>
+     *
+     * <code>optional string messageType = 2;</code>
+     */
+    java.lang.String getMessageType();
+    /**
+     * <pre>
+     * The simple name of the message type, or empty for all message types together
+     * </pre>
+     *
+     * <code>optional string messageType = 2;</code>
+     */
+    com.google.protobuf.ByteString
+        getMessageTypeBytes();
+
+    /**
+     * <code>required int64 count = 3;</code>
+     */
+    boolean hasCount();
+    /**
+     * <code>required int64 count = 3;</code>
+     */
+    long getCount();
+
+    /**
+     * <code>required int64 totalNanos = 4;</code>
+     */
+    boolean hasTotalNanos();
+    /**
+     * <code>required int64 totalNanos = 4;</code>
+     */
+    long getTotalNanos();
+
+    /**
+     * <code>required int64 maxNanos = 5;</code>
+     */
+    boolean hasMaxNanos();
+    /**
+     * <code>required int64 maxNanos = 5;</code>
+     */
+    long getMaxNanos();
+
+    /**
+     * <pre>
+     * The number of samples per bucket, where bucket i holds the samples below 2^i nanoseconds that are not in bucket i-1
+     * </pre>
+     *
+     * <code>repeated int64 buckets = 6 [packed = true];</code>
+     */
+    java.util.List<java.lang.Long> getBucketsList();
+    /**
+     * <pre>
+     * The number of samples per bucket, where bucket i holds the samples below 2^i nanoseconds that are not in bucket i-1
+     * </pre>
+     *
+     * <code>repeated int64 buckets = 6 [packed = true];</code>
+     */
+    int getBucketsCount();
+    /**
+     * <pre>
+     * The number of samples per bucket, where bucket i holds the samples below 2^i nanoseconds that are not in bucket i-1
+     * </pre>
+     *
+     * <code>repeated int64 buckets = 6 [packed = true];</code>
+     */
+    long getBuckets(int index);
+  }
+  /**
+   * Protobuf type {@code process.LatencySnapshot}
+   */
+  public  static final class LatencySnapshot extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:process.LatencySnapshot)
+      LatencySnapshotOrBuilder {
+    // Use LatencySnapshot.newBuilder() to construct.
+    private LatencySnapshot(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private LatencySnapshot() {
+      stage_ = "";
+      messageType_ = "";
+      count_ = 0L;
+      totalNanos_ = 0L;
+      maxNanos_ = 0L;
+      buckets_ = java.util.Collections.emptyList();
+    }
+
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+    getUnknownFields() {
+      return this.unknownFields;
+    }
+    private LatencySnapshot(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      this();
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 10: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000001;
+              stage_ = bs;
+              break;
+            }
+            case 18: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000002;
+              messageType_ = bs;
+              break;
+            }
+            case 24: {
+              bitField0_ |= 0x00000004;
+              count_ = input.readInt64();
+              break;
+            }
+            case 32: {
+              bitField0_ |= 0x00000008;
+              totalNanos_ = input.readInt64();
+              break;
+            }
+            case 40: {
+              bitField0_ |= 0x00000010;
+              maxNanos_ = input.readInt64();
+              break;
+            }
+            case 48: {
+              if (!((mutable_bitField0_ & 0x00000020) == 0x00000020)) {
+                buckets_ = new java.util.ArrayList<java.lang.Long>();
+                mutable_bitField0_ |= 0x00000020;
+              }
+              buckets_.add(input.readInt64());
+              break;
+            }
+            case 50: {
+              int length = input.readRawVarint32();
+              int limit = input.pushLimit(length);
+              if (!((mutable_bitField0_ & 0x00000020) == 0x00000020) && input.getBytesUntilLimit() > 0) {
+                buckets_ = new java.util.ArrayList<java.lang.Long>();
+                mutable_bitField0_ |= 0x00000020;
+              }
+              while (input.getBytesUntilLimit() > 0) {
+                buckets_.add(input.readInt64());
+              }
+              input.popLimit(limit);
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000020) == 0x00000020)) {
+          buckets_ = java.util.Collections.unmodifiableList(buckets_);
+        }
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return org.flexiblepower.proto.ServiceProto.internal_static_process_LatencySnapshot_descriptor;
+    }
+
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return org.flexiblepower.proto.ServiceProto.internal_static_process_LatencySnapshot_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              org.flexiblepower.proto.ServiceProto.LatencySnapshot.class, org.flexiblepower.proto.ServiceProto.LatencySnapshot.Builder.class);
+    }
+
+    private int bitField0_;
+    public static final int STAGE_FIELD_NUMBER = 1;
+    private volatile java.lang.Object stage_;
+    /**
+     * <pre>
+     * The stage that was timed: send, serialize, receive, deserialize or dispatch
+     * </pre>
+     *
+     * <code>required string stage = 1;</code>
+     */
+    public boolean hasStage() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <pre>
+     * The stage that was timed: send, serialize, receive, deserialize or dispatch
+     * </pre>
+     *
+     * <code>required string stage = 1;</code>
+     */
+    public java.lang.String getStage() {
+      java.lang.Object ref = stage_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          stage_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <pre>
+     * The stage that was timed: send, serialize, receive, deserialize or dispatch
+     * </pre>
+     *
+     * <code>required string stage = 1;</code>
+     */
+    public com.google.protobuf.ByteString
+        getStageBytes() {
+      java.lang.Object ref = stage_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        stage_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int MESSAGETYPE_FIELD_NUMBER = 2;
+    private volatile java.lang.Object messageType_;
+    /**
+     * <pre>
+     * The simple name of the message type, or empty for all message types together
+     * </pre>
+     *
+     * <code>optional string messageType = 2;</code>
+     */
+    public boolean hasMessageType() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <pre>
+     * The simple name of the message type, or empty for all message types together
+     * </pre>
+     *
+     * <code>optional string messageType = 2;</code>
+     */
+    public java.lang.String getMessageType() {
+      java.lang.Object ref = messageType_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          messageType_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <pre>
+     * The simple name of the message type, or empty for all message types together
+     * </pre>
+     *
+     * <code>optional string messageType = 2;</code>
+     */
+    public com.google.protobuf.ByteString
+        getMessageTypeBytes() {
+      java.lang.Object ref = messageType_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        messageType_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int COUNT_FIELD_NUMBER = 3;
+    private long count_;
+    /**
+     * <code>required int64 count = 3;</code>
+     */
+    public boolean hasCount() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    /**
+     * <code>required int64 count = 3;</code>
+     */
+    public long getCount() {
+      return count_;
+    }
+
+    public static final int TOTALNANOS_FIELD_NUMBER = 4;
+    private long totalNanos_;
+    /**
+     * <code>required int64 totalNanos = 4;</code>
+     */
+    public boolean hasTotalNanos() {
+      return ((bitField0_ & 0x00000008) == 0x00000008);
+    }
+    /**
+     * <code>required int64 totalNanos = 4;</code>
+     */
+    public long getTotalNanos() {
+      return totalNanos_;
+    }
+
+    public static final int MAXNANOS_FIELD_NUMBER = 5;
+    private long maxNanos_;
+    /**
+     * <code>required int64 maxNanos = 5;</code>
+     */
+    public boolean hasMaxNanos() {
+      return ((bitField0_ & 0x00000010) == 0x00000010);
+    }
+    /**
+     * <code>required int64 maxNanos = 5;</code>
+     */
+    public long getMaxNanos() {
+      return maxNanos_;
+    }
+
+    public static final int BUCKETS_FIELD_NUMBER = 6;
+    private java.util.List<java.lang.Long> buckets_;
+    /**
+     * <pre>
+     * The number of samples per bucket, where bucket i holds the samples below 2^i nanoseconds that are not in bucket i-1
+     * </pre>
+     *
+     * <code>repeated int64 buckets = 6 [packed = true];</code>
+     */
+    public java.util.List<java.lang.Long>
+        getBucketsList() {
+      return buckets_;
+    }
+    /**
+     * <pre>
+     * The number of samples per bucket, where bucket i holds the samples below 2^i nanoseconds that are not in bucket i-1
+     * </pre>
+     *
+     * <code>repeated int64 buckets = 6 [packed = true];</code>
+     */
+    public int getBucketsCount() {
+      return buckets_.size();
+    }
+    /**
+     * <pre>
+     * The number of samples per bucket, where bucket i holds the samples below 2^i nanoseconds that are not in bucket i-1
+     * </pre>
+     *
+     * <code>repeated int64 buckets = 6 [packed = true];</code>
+     */
+    public long getBuckets(int index) {
+      return buckets_.get(index);
+    }
+    private int bucketsMemoizedSerializedSize = -1;
+
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      if (!hasStage()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasCount()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasTotalNanos()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasMaxNanos()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 1, stage_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 2, messageType_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeInt64(3, count_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        output.writeInt64(4, totalNanos_);
+      }
+      if (((bitField0_ & 0x00000010) == 0x00000010)) {
+        output.writeInt64(5, maxNanos_);
+      }
+      if (getBucketsList().size() > 0) {
+        output.writeUInt32NoTag(50);
+        output.writeUInt32NoTag(bucketsMemoizedSerializedSize);
+      }
+      for (int i = 0; i < buckets_.size(); i++) {
+        output.writeInt64NoTag(buckets_.get(i));
+      }
+      unknownFields.writeTo(output);
+    }
+
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(1, stage_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(2, messageType_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(3, count_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(4, totalNanos_);
+      }
+      if (((bitField0_ & 0x00000010) == 0x00000010)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(5, maxNanos_);
+      }
+      {
+        int dataSize = 0;
+        for (int i = 0; i < buckets_.size(); i++) {
+          dataSize += com.google.protobuf.CodedOutputStream
+            .computeInt64SizeNoTag(buckets_.get(i));
+        }
+        size += dataSize;
+        if (!getBucketsList().isEmpty()) {
+          size += 1;
+          size += com.google.protobuf.CodedOutputStream
+              .computeInt32SizeNoTag(dataSize);
+        }
+        bucketsMemoizedSerializedSize = dataSize;
+      }
+      size += unknownFields.getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof org.flexiblepower.proto.ServiceProto.LatencySnapshot)) {
+        return super.equals(obj);
+      }
+      org.flexiblepower.proto.ServiceProto.LatencySnapshot other = (org.flexiblepower.proto.ServiceProto.LatencySnapshot) obj;
+
+      boolean result = true;
+      result = result && (hasStage() == other.hasStage());
+      if (hasStage()) {
+        result = result && getStage()
+            .equals(other.getStage());
+      }
+      result = result && (hasMessageType() == other.hasMessageType());
+      if (hasMessageType()) {
+        result = result && getMessageType()
+            .equals(other.getMessageType());
+      }
+      result = result && (hasCount() == other.hasCount());
+      if (hasCount()) {
+        result = result && (getCount()
+            == other.getCount());
+      }
+      result = result && (hasTotalNanos() == other.hasTotalNanos());
+      if (hasTotalNanos()) {
+        result = result && (getTotalNanos()
+            == other.getTotalNanos());
+      }
+      result = result && (hasMaxNanos() == other.hasMaxNanos());
+      if (hasMaxNanos()) {
+        result = result && (getMaxNanos()
+            == other.getMaxNanos());
+      }
+      result = result && getBucketsList()
+          .equals(other.getBucketsList());
+      result = result && unknownFields.equals(other.unknownFields);
+      return result;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      if (hasStage()) {
+        hash = (37 * hash) + STAGE_FIELD_NUMBER;
+        hash = (53 * hash) + getStage().hashCode();
+      }
+      if (hasMessageType()) {
+        hash = (37 * hash) + MESSAGETYPE_FIELD_NUMBER;
+        hash = (53 * hash) + getMessageType().hashCode();
+      }
+      if (hasCount()) {
+        hash = (37 * hash) + COUNT_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getCount());
+      }
+      if (hasTotalNanos()) {
+        hash = (37 * hash) + TOTALNANOS_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getTotalNanos());
+      }
+      if (hasMaxNanos()) {
+        hash = (37 * hash) + MAXNANOS_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getMaxNanos());
+      }
+      if (getBucketsCount() > 0) {
+        hash = (37 * hash) + BUCKETS_FIELD_NUMBER;
+        hash = (53 * hash) + getBucketsList().hashCode();
+      }
+      hash = (29 * hash) + unknownFields.hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static org.flexiblepower.proto.ServiceProto.LatencySnapshot parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.flexiblepower.proto.ServiceProto.LatencySnapshot parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.flexiblepower.proto.ServiceProto.LatencySnapshot parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.flexiblepower.proto.ServiceProto.LatencySnapshot parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.flexiblepower.proto.ServiceProto.LatencySnapshot parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.flexiblepower.proto.ServiceProto.LatencySnapshot parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.flexiblepower.proto.ServiceProto.LatencySnapshot parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static org.flexiblepower.proto.ServiceProto.LatencySnapshot parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static org.flexiblepower.proto.ServiceProto.LatencySnapshot parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+    public static org.flexiblepower.proto.ServiceProto.LatencySnapshot parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static org.flexiblepower.proto.ServiceProto.LatencySnapshot parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static org.flexiblepower.proto.ServiceProto.LatencySnapshot parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(org.flexiblepower.proto.ServiceProto.LatencySnapshot prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code process.LatencySnapshot}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:process.LatencySnapshot)
+        org.flexiblepower.proto.ServiceProto.LatencySnapshotOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return org.flexiblepower.proto.ServiceProto.internal_static_process_LatencySnapshot_descriptor;
+      }
+
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return org.flexiblepower.proto.ServiceProto.internal_static_process_LatencySnapshot_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                org.flexiblepower.proto.ServiceProto.LatencySnapshot.class, org.flexiblepower.proto.ServiceProto.LatencySnapshot.Builder.class);
+      }
+
+      // Construct using org.flexiblepower.proto.ServiceProto.LatencySnapshot.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessageV3
+                .alwaysUseFieldBuilders) {
+        }
+      }
+      public Builder clear() {
+        super.clear();
+        stage_ = "";
+        bitField0_ = (bitField0_ & ~0x00000001);
+        messageType_ = "";
+        bitField0_ = (bitField0_ & ~0x00000002);
+        count_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000004);
+        totalNanos_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000008);
+        maxNanos_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000010);
+        buckets_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000020);
+        return this;
+      }
+
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return org.flexiblepower.proto.ServiceProto.internal_static_process_LatencySnapshot_descriptor;
+      }
+
+      public org.flexiblepower.proto.ServiceProto.LatencySnapshot getDefaultInstanceForType() {
+        return org.flexiblepower.proto.ServiceProto.LatencySnapshot.getDefaultInstance();
+      }
+
+      public org.flexiblepower.proto.ServiceProto.LatencySnapshot build() {
+        org.flexiblepower.proto.ServiceProto.LatencySnapshot result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public org.flexiblepower.proto.ServiceProto.LatencySnapshot buildPartial() {
+        org.flexiblepower.proto.ServiceProto.LatencySnapshot result = new org.flexiblepower.proto.ServiceProto.LatencySnapshot(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.stage_ = stage_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.messageType_ = messageType_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        result.count_ = count_;
+        if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
+          to_bitField0_ |= 0x00000008;
+        }
+        result.totalNanos_ = totalNanos_;
+        if (((from_bitField0_ & 0x00000010) == 0x00000010)) {
+          to_bitField0_ |= 0x00000010;
+        }
+        result.maxNanos_ = maxNanos_;
+        if (((bitField0_ & 0x00000020) == 0x00000020)) {
+          buckets_ = java.util.Collections.unmodifiableList(buckets_);
+          bitField0_ = (bitField0_ & ~0x00000020);
+        }
+        result.buckets_ = buckets_;
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder clone() {
+        return (Builder) super.clone();
+      }
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          Object value) {
+        return (Builder) super.setField(field, value);
+      }
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return (Builder) super.clearField(field);
+      }
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return (Builder) super.clearOneof(oneof);
+      }
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, Object value) {
+        return (Builder) super.setRepeatedField(field, index, value);
+      }
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          Object value) {
+        return (Builder) super.addRepeatedField(field, value);
+      }
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof org.flexiblepower.proto.ServiceProto.LatencySnapshot) {
+          return mergeFrom((org.flexiblepower.proto.ServiceProto.LatencySnapshot)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(org.flexiblepower.proto.ServiceProto.LatencySnapshot other) {
+        if (other == org.flexiblepower.proto.ServiceProto.LatencySnapshot.getDefaultInstance()) return this;
+        if (other.hasStage()) {
+          bitField0_ |= 0x00000001;
+          stage_ = other.stage_;
+          onChanged();
+        }
+        if (other.hasMessageType()) {
+          bitField0_ |= 0x00000002;
+          messageType_ = other.messageType_;
+          onChanged();
+        }
+        if (other.hasCount()) {
+          setCount(other.getCount());
+        }
+        if (other.hasTotalNanos()) {
+          setTotalNanos(other.getTotalNanos());
+        }
+        if (other.hasMaxNanos()) {
+          setMaxNanos(other.getMaxNanos());
+        }
+        if (!other.buckets_.isEmpty()) {
+          if (buckets_.isEmpty()) {
+            buckets_ = other.buckets_;
+            bitField0_ = (bitField0_ & ~0x00000020);
+          } else {
+            ensureBucketsIsMutable();
+            buckets_.addAll(other.buckets_);
+          }
+          onChanged();
+        }
+        this.mergeUnknownFields(other.unknownFields);
+        onChanged();
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        if (!hasStage()) {
+          return false;
+        }
+        if (!hasCount()) {
+          return false;
+        }
+        if (!hasTotalNanos()) {
+          return false;
+        }
+        if (!hasMaxNanos()) {
+          return false;
+        }
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        org.flexiblepower.proto.ServiceProto.LatencySnapshot parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (org.flexiblepower.proto.ServiceProto.LatencySnapshot) e.getUnfinishedMessage();
+          throw e.unwrapIOException();
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private java.lang.Object stage_ = "";
+      /**
+       * <pre>
+       * The stage that was timed: send, serialize, receive, deserialize or dispatch
+       * </pre>
+       *
+       * <code>required string stage = 1;</code>
+       */
+      public boolean hasStage() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <pre>
+       * The stage that was timed: send, serialize, receive, deserialize or dispatch
+       * </pre>
+       *
+       * <code>required string stage = 1;</code>
+       */
+      public java.lang.String getStage() {
+        java.lang.Object ref = stage_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            stage_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <pre>
+       * The stage that was timed: send, serialize, receive, deserialize or dispatch
+       * </pre>
+       *
+       * <code>required string stage = 1;</code>
+       */
+      public com.google.protobuf.ByteString
+          getStageBytes() {
+        java.lang.Object ref = stage_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          stage_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <pre>
+       * The stage that was timed: send, serialize, receive, deserialize or dispatch
+       * </pre>
+       *
+       * <code>required string stage = 1;</code>
+       */
+      public Builder setStage(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        stage_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The stage that was timed: send, serialize, receive, deserialize or dispatch
+       * </pre>
+       *
+       * <code>required string stage = 1;</code>
+       */
+      public Builder clearStage() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        stage_ = getDefaultInstance().getStage();
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The stage that was timed: send, serialize, receive, deserialize or dispatch
+       * </pre>
+       *
+       * <code>required string stage = 1;</code>
+       */
+      public Builder setStageBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        stage_ = value;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object messageType_ = "";
+      /**
+       * <pre>
+       * The simple name of the message type, or empty for all message types together
+       * </pre>
+       *
+       * <code>optional string messageType = 2;</code>
+       */
+      public boolean hasMessageType() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <pre>
+       * The simple name of the message type, or empty for all message types together
+       * </pre>
+       *
+       * <code>optional string messageType = 2;</code>
+       */
+      public java.lang.String getMessageType() {
+        java.lang.Object ref = messageType_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            messageType_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <pre>
+       * The simple name of the message type, or empty for all message types together
+       * </pre>
+       *
+       * <code>optional string messageType = 2;</code>
+       */
+      public com.google.protobuf.ByteString
+          getMessageTypeBytes() {
+        java.lang.Object ref = messageType_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          messageType_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <pre>
+       * The simple name of the message type, or empty for all message types together
+       * </pre>
+       *
+       * <code>optional string messageType = 2;</code>
+       */
+      public Builder setMessageType(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        messageType_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The simple name of the message type, or empty for all message types together
+       * </pre>
+       *
+       * <code>optional string messageType = 2;</code>
+       */
+      public Builder clearMessageType() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        messageType_ = getDefaultInstance().getMessageType();
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The simple name of the message type, or empty for all message types together
+       * </pre>
+       *
+       * <code>optional string messageType = 2;</code>
+       */
+      public Builder setMessageTypeBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        messageType_ = value;
+        onChanged();
+        return this;
+      }
+
+      private long count_ ;
+      /**
+       * <code>required int64 count = 3;</code>
+       */
+      public boolean hasCount() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <code>required int64 count = 3;</code>
+       */
+      public long getCount() {
+        return count_;
+      }
+      /**
+       * <code>required int64 count = 3;</code>
+       */
+      public Builder setCount(long value) {
+        bitField0_ |= 0x00000004;
+        count_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required int64 count = 3;</code>
+       */
+      public Builder clearCount() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        count_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private long totalNanos_ ;
+      /**
+       * <code>required int64 totalNanos = 4;</code>
+       */
+      public boolean hasTotalNanos() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
+      }
+      /**
+       * <code>required int64 totalNanos = 4;</code>
+       */
+      public long getTotalNanos() {
+        return totalNanos_;
+      }
+      /**
+       * <code>required int64 totalNanos = 4;</code>
+       */
+      public Builder setTotalNanos(long value) {
+        bitField0_ |= 0x00000008;
+        totalNanos_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required int64 totalNanos = 4;</code>
+       */
+      public Builder clearTotalNanos() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        totalNanos_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private long maxNanos_ ;
+      /**
+       * <code>required int64 maxNanos = 5;</code>
+       */
+      public boolean hasMaxNanos() {
+        return ((bitField0_ & 0x00000010) == 0x00000010);
+      }
+      /**
+       * <code>required int64 maxNanos = 5;</code>
+       */
+      public long getMaxNanos() {
+        return maxNanos_;
+      }
+      /**
+       * <code>required int64 maxNanos = 5;</code>
+       */
+      public Builder setMaxNanos(long value) {
+        bitField0_ |= 0x00000010;
+        maxNanos_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required int64 maxNanos = 5;</code>
+       */
+      public Builder clearMaxNanos() {
+        bitField0_ = (bitField0_ & ~0x00000010);
+        maxNanos_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private java.util.List<java.lang.Long> buckets_ = java.util.Collections.emptyList();
+      private void ensureBucketsIsMutable() {
+        if (!((bitField0_ & 0x00000020) == 0x00000020)) {
+          buckets_ = new java.util.ArrayList<java.lang.Long>(buckets_);
+          bitField0_ |= 0x00000020;
+         }
+      }
+      /**
+       * <pre>
+       * The number of samples per bucket, where bucket i holds the samples below 2^i nanoseconds that are not in bucket i-1
+       * </pre>
+       *
+       * <code>repeated int64 buckets = 6 [packed = true];</code>
+       */
+      public java.util.List<java.lang.Long>
+          getBucketsList() {
+        return java.util.Collections.unmodifiableList(buckets_);
+      }
+      /**
+       * <pre>
+       * The number of samples per bucket, where bucket i holds the samples below 2^i nanoseconds that are not in bucket i-1
+       * </pre>
+       *
+       * <code>repeated int64 buckets = 6 [packed = true];</code>
+       */
+      public int getBucketsCount() {
+        return buckets_.size();
+      }
+      /**
+       * <pre>
+       * The number of samples per bucket, where bucket i holds the samples below 2^i nanoseconds that are not in bucket i-1
+       * </pre>
+       *
+       * <code>repeated int64 buckets = 6 [packed = true];</code>
+       */
+      public long getBuckets(int index) {
+        return buckets_.get(index);
+      }
+      /**
+       * <pre>
+       * The number of samples per bucket, where bucket i holds the samples below 2^i nanoseconds that are not in bucket i-1
+       * </pre>
+       *
+       * <code>repeated int64 buckets = 6 [packed = true];</code>
+       */
+      public Builder setBuckets(
+          int index, long value) {
+        ensureBucketsIsMutable();
+        buckets_.set(index, value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The number of samples per bucket, where bucket i holds the samples below 2^i nanoseconds that are not in bucket i-1
+       * </pre>
+       *
+       * <code>repeated int64 buckets = 6 [packed = true];</code>
+       */
+      public Builder addBuckets(long value) {
+        ensureBucketsIsMutable();
+        buckets_.add(value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The number of samples per bucket, where bucket i holds the samples below 2^i nanoseconds that are not in bucket i-1
+       * </pre>
+       *
+       * <code>repeated int64 buckets = 6 [packed = true];</code>
+       */
+      public Builder addAllBuckets(
+          java.lang.Iterable<? extends java.lang.Long> values) {
+        ensureBucketsIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, buckets_);
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The number of samples per bucket, where bucket i holds the samples below 2^i nanoseconds that are not in bucket i-1
+       * </pre>
+       *
+       * <code>repeated int64 buckets = 6 [packed = true];</code>
+       */
+      public Builder clearBuckets() {
+        buckets_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000020);
+        onChanged();
+        return this;
+      }
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.setUnknownFields(unknownFields);
+      }
+
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.mergeUnknownFields(unknownFields);
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:process.LatencySnapshot)
+    }
+
+    // @@protoc_insertion_point(class_scope:process.LatencySnapshot)
+    private static final org.flexiblepower.proto.ServiceProto.LatencySnapshot DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new org.flexiblepower.proto.ServiceProto.LatencySnapshot();
+    }
+
+    public static org.flexiblepower.proto.ServiceProto.LatencySnapshot getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    @java.lang.Deprecated public static final com.google.protobuf.Parser<LatencySnapshot>
+        PARSER = new com.google.protobuf.AbstractParser<LatencySnapshot>() {
+      public LatencySnapshot parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+          return new LatencySnapshot(input, extensionRegistry);
+      }
+    };
+
+    public static com.google.protobuf.Parser<LatencySnapshot> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<LatencySnapshot> getParserForType() {
+      return PARSER;
+    }
+
+    public org.flexiblepower.proto.ServiceProto.LatencySnapshot getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface MessageTypeSnapshotOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:process.MessageTypeSnapshot)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>required string messageType = 1;</code>
+     */
+    boolean hasMessageType();
+    /**
+     * <code>required string messageType = 1;</code>
+     */
+    java.lang.String getMessageType();
+    /**
+     * <code>required string messageType = 1;</code>
+     */
+    com.google.protobuf.ByteString
+        getMessageTypeBytes();
+
+    /**
+     * <code>required int64 messagesSent = 2;</code>
+     */
+    boolean hasMessagesSent();
+    /**
+     * <code>required int64 messagesSent = 2;</code>
+     */
+    long getMessagesSent();
+
+    /**
+     * <code>required int64 bytesSent = 3;</code>
+     */
+    boolean hasBytesSent();
+    /**
+     * <code>required int64 bytesSent = 3;</code>
+     */
+    long getBytesSent();
+
+    /**
+     * <code>required int64 messagesReceived = 4;</code>
+     */
+    boolean hasMessagesReceived();
+    /**
+     * <code>required int64 messagesReceived = 4;</code>
+     */
+    long getMessagesReceived();
+
+    /**
+     * <code>required int64 bytesReceived = 5;</code>
+     */
+    boolean hasBytesReceived();
+    /**
+     * <code>required int64 bytesReceived = 5;</code>
+     */
+    long getBytesReceived();
+  }
+  /**
+   * Protobuf type {@code process.MessageTypeSnapshot}
+   */
+  public  static final class MessageTypeSnapshot extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:process.MessageTypeSnapshot)
+      MessageTypeSnapshotOrBuilder {
+    // Use MessageTypeSnapshot.newBuilder() to construct.
+    private MessageTypeSnapshot(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private MessageTypeSnapshot() {
+      messageType_ = "";
+      messagesSent_ = 0L;
+      bytesSent_ = 0L;
+      messagesReceived_ = 0L;
+      bytesReceived_ = 0L;
+    }
+
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+    getUnknownFields() {
+      return this.unknownFields;
+    }
+    private MessageTypeSnapshot(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      this();
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 10: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000001;
+              messageType_ = bs;
+              break;
+            }
+            case 16: {
+              bitField0_ |= 0x00000002;
+              messagesSent_ = input.readInt64();
+              break;
+            }
+            case 24: {
+              bitField0_ |= 0x00000004;
+              bytesSent_ = input.readInt64();
+              break;
+            }
+            case 32: {
+              bitField0_ |= 0x00000008;
+              messagesReceived_ = input.readInt64();
+              break;
+            }
+            case 40: {
+              bitField0_ |= 0x00000010;
+              bytesReceived_ = input.readInt64();
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e).setUnfinishedMessage(this);
+      } finally {
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return org.flexiblepower.proto.ServiceProto.internal_static_process_MessageTypeSnapshot_descriptor;
+    }
+
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return org.flexiblepower.proto.ServiceProto.internal_static_process_MessageTypeSnapshot_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot.class, org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot.Builder.class);
+    }
+
+    private int bitField0_;
+    public static final int MESSAGETYPE_FIELD_NUMBER = 1;
+    private volatile java.lang.Object messageType_;
+    /**
+     * <code>required string messageType = 1;</code>
+     */
+    public boolean hasMessageType() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>required string messageType = 1;</code>
+     */
+    public java.lang.String getMessageType() {
+      java.lang.Object ref = messageType_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          messageType_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>required string messageType = 1;</code>
+     */
+    public com.google.protobuf.ByteString
+        getMessageTypeBytes() {
+      java.lang.Object ref = messageType_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        messageType_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int MESSAGESSENT_FIELD_NUMBER = 2;
+    private long messagesSent_;
+    /**
+     * <code>required int64 messagesSent = 2;</code>
+     */
+    public boolean hasMessagesSent() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>required int64 messagesSent = 2;</code>
+     */
+    public long getMessagesSent() {
+      return messagesSent_;
+    }
+
+    public static final int BYTESSENT_FIELD_NUMBER = 3;
+    private long bytesSent_;
+    /**
+     * <code>required int64 bytesSent = 3;</code>
+     */
+    public boolean hasBytesSent() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    /**
+     * <code>required int64 bytesSent = 3;</code>
+     */
+    public long getBytesSent() {
+      return bytesSent_;
+    }
+
+    public static final int MESSAGESRECEIVED_FIELD_NUMBER = 4;
+    private long messagesReceived_;
+    /**
+     * <code>required int64 messagesReceived = 4;</code>
+     */
+    public boolean hasMessagesReceived() {
+      return ((bitField0_ & 0x00000008) == 0x00000008);
+    }
+    /**
+     * <code>required int64 messagesReceived = 4;</code>
+     */
+    public long getMessagesReceived() {
+      return messagesReceived_;
+    }
+
+    public static final int BYTESRECEIVED_FIELD_NUMBER = 5;
+    private long bytesReceived_;
+    /**
+     * <code>required int64 bytesReceived = 5;</code>
+     */
+    public boolean hasBytesReceived() {
+      return ((bitField0_ & 0x00000010) == 0x00000010);
+    }
+    /**
+     * <code>required int64 bytesReceived = 5;</code>
+     */
+    public long getBytesReceived() {
+      return bytesReceived_;
+    }
+
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      if (!hasMessageType()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasMessagesSent()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasBytesSent()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasMessagesReceived()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasBytesReceived()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 1, messageType_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeInt64(2, messagesSent_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeInt64(3, bytesSent_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        output.writeInt64(4, messagesReceived_);
+      }
+      if (((bitField0_ & 0x00000010) == 0x00000010)) {
+        output.writeInt64(5, bytesReceived_);
+      }
+      unknownFields.writeTo(output);
+    }
+
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(1, messageType_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(2, messagesSent_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(3, bytesSent_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(4, messagesReceived_);
+      }
+      if (((bitField0_ & 0x00000010) == 0x00000010)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(5, bytesReceived_);
+      }
+      size += unknownFields.getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot)) {
+        return super.equals(obj);
+      }
+      org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot other = (org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot) obj;
+
+      boolean result = true;
+      result = result && (hasMessageType() == other.hasMessageType());
+      if (hasMessageType()) {
+        result = result && getMessageType()
+            .equals(other.getMessageType());
+      }
+      result = result && (hasMessagesSent() == other.hasMessagesSent());
+      if (hasMessagesSent()) {
+        result = result && (getMessagesSent()
+            == other.getMessagesSent());
+      }
+      result = result && (hasBytesSent() == other.hasBytesSent());
+      if (hasBytesSent()) {
+        result = result && (getBytesSent()
+            == other.getBytesSent());
+      }
+      result = result && (hasMessagesReceived() == other.hasMessagesReceived());
+      if (hasMessagesReceived()) {
+        result = result && (getMessagesReceived()
+            == other.getMessagesReceived());
+      }
+      result = result && (hasBytesReceived() == other.hasBytesReceived());
+      if (hasBytesReceived()) {
+        result = result && (getBytesReceived()
+            == other.getBytesReceived());
+      }
+      result = result && unknownFields.equals(other.unknownFields);
+      return result;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      if (hasMessageType()) {
+        hash = (37 * hash) + MESSAGETYPE_FIELD_NUMBER;
+        hash = (53 * hash) + getMessageType().hashCode();
+      }
+      if (hasMessagesSent()) {
+        hash = (37 * hash) + MESSAGESSENT_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getMessagesSent());
+      }
+      if (hasBytesSent()) {
+        hash = (37 * hash) + BYTESSENT_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getBytesSent());
+      }
+      if (hasMessagesReceived()) {
+        hash = (37 * hash) + MESSAGESRECEIVED_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getMessagesReceived());
+      }
+      if (hasBytesReceived()) {
+        hash = (37 * hash) + BYTESRECEIVED_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getBytesReceived());
+      }
+      hash = (29 * hash) + unknownFields.hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code process.MessageTypeSnapshot}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:process.MessageTypeSnapshot)
+        org.flexiblepower.proto.ServiceProto.MessageTypeSnapshotOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return org.flexiblepower.proto.ServiceProto.internal_static_process_MessageTypeSnapshot_descriptor;
+      }
+
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return org.flexiblepower.proto.ServiceProto.internal_static_process_MessageTypeSnapshot_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot.class, org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot.Builder.class);
+      }
+
+      // Construct using org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessageV3
+                .alwaysUseFieldBuilders) {
+        }
+      }
+      public Builder clear() {
+        super.clear();
+        messageType_ = "";
+        bitField0_ = (bitField0_ & ~0x00000001);
+        messagesSent_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        bytesSent_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000004);
+        messagesReceived_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000008);
+        bytesReceived_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000010);
+        return this;
+      }
+
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return org.flexiblepower.proto.ServiceProto.internal_static_process_MessageTypeSnapshot_descriptor;
+      }
+
+      public org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot getDefaultInstanceForType() {
+        return org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot.getDefaultInstance();
+      }
+
+      public org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot build() {
+        org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot buildPartial() {
+        org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot result = new org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.messageType_ = messageType_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.messagesSent_ = messagesSent_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        result.bytesSent_ = bytesSent_;
+        if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
+          to_bitField0_ |= 0x00000008;
+        }
+        result.messagesReceived_ = messagesReceived_;
+        if (((from_bitField0_ & 0x00000010) == 0x00000010)) {
+          to_bitField0_ |= 0x00000010;
+        }
+        result.bytesReceived_ = bytesReceived_;
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder clone() {
+        return (Builder) super.clone();
+      }
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          Object value) {
+        return (Builder) super.setField(field, value);
+      }
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return (Builder) super.clearField(field);
+      }
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return (Builder) super.clearOneof(oneof);
+      }
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, Object value) {
+        return (Builder) super.setRepeatedField(field, index, value);
+      }
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          Object value) {
+        return (Builder) super.addRepeatedField(field, value);
+      }
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot) {
+          return mergeFrom((org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot other) {
+        if (other == org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot.getDefaultInstance()) return this;
+        if (other.hasMessageType()) {
+          bitField0_ |= 0x00000001;
+          messageType_ = other.messageType_;
+          onChanged();
+        }
+        if (other.hasMessagesSent()) {
+          setMessagesSent(other.getMessagesSent());
+        }
+        if (other.hasBytesSent()) {
+          setBytesSent(other.getBytesSent());
+        }
+        if (other.hasMessagesReceived()) {
+          setMessagesReceived(other.getMessagesReceived());
+        }
+        if (other.hasBytesReceived()) {
+          setBytesReceived(other.getBytesReceived());
+        }
+        this.mergeUnknownFields(other.unknownFields);
+        onChanged();
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        if (!hasMessageType()) {
+          return false;
+        }
+        if (!hasMessagesSent()) {
+          return false;
+        }
+        if (!hasBytesSent()) {
+          return false;
+        }
+        if (!hasMessagesReceived()) {
+          return false;
+        }
+        if (!hasBytesReceived()) {
+          return false;
+        }
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot) e.getUnfinishedMessage();
+          throw e.unwrapIOException();
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private java.lang.Object messageType_ = "";
+      /**
+       * <code>required string messageType = 1;</code>
+       */
+      public boolean hasMessageType() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>required string messageType = 1;</code>
+       */
+      public java.lang.String getMessageType() {
+        java.lang.Object ref = messageType_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            messageType_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>required string messageType = 1;</code>
+       */
+      public com.google.protobuf.ByteString
+          getMessageTypeBytes() {
+        java.lang.Object ref = messageType_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          messageType_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>required string messageType = 1;</code>
+       */
+      public Builder setMessageType(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        messageType_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string messageType = 1;</code>
+       */
+      public Builder clearMessageType() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        messageType_ = getDefaultInstance().getMessageType();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string messageType = 1;</code>
+       */
+      public Builder setMessageTypeBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        messageType_ = value;
+        onChanged();
+        return this;
+      }
+
+      private long messagesSent_ ;
+      /**
+       * <code>required int64 messagesSent = 2;</code>
+       */
+      public boolean hasMessagesSent() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>required int64 messagesSent = 2;</code>
+       */
+      public long getMessagesSent() {
+        return messagesSent_;
+      }
+      /**
+       * <code>required int64 messagesSent = 2;</code>
+       */
+      public Builder setMessagesSent(long value) {
+        bitField0_ |= 0x00000002;
+        messagesSent_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required int64 messagesSent = 2;</code>
+       */
+      public Builder clearMessagesSent() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        messagesSent_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private long bytesSent_ ;
+      /**
+       * <code>required int64 bytesSent = 3;</code>
+       */
+      public boolean hasBytesSent() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <code>required int64 bytesSent = 3;</code>
+       */
+      public long getBytesSent() {
+        return bytesSent_;
+      }
+      /**
+       * <code>required int64 bytesSent = 3;</code>
+       */
+      public Builder setBytesSent(long value) {
+        bitField0_ |= 0x00000004;
+        bytesSent_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required int64 bytesSent = 3;</code>
+       */
+      public Builder clearBytesSent() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        bytesSent_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private long messagesReceived_ ;
+      /**
+       * <code>required int64 messagesReceived = 4;</code>
+       */
+      public boolean hasMessagesReceived() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
+      }
+      /**
+       * <code>required int64 messagesReceived = 4;</code>
+       */
+      public long getMessagesReceived() {
+        return messagesReceived_;
+      }
+      /**
+       * <code>required int64 messagesReceived = 4;</code>
+       */
+      public Builder setMessagesReceived(long value) {
+        bitField0_ |= 0x00000008;
+        messagesReceived_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required int64 messagesReceived = 4;</code>
+       */
+      public Builder clearMessagesReceived() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        messagesReceived_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private long bytesReceived_ ;
+      /**
+       * <code>required int64 bytesReceived = 5;</code>
+       */
+      public boolean hasBytesReceived() {
+        return ((bitField0_ & 0x00000010) == 0x00000010);
+      }
+      /**
+       * <code>required int64 bytesReceived = 5;</code>
+       */
+      public long getBytesReceived() {
+        return bytesReceived_;
+      }
+      /**
+       * <code>required int64 bytesReceived = 5;</code>
+       */
+      public Builder setBytesReceived(long value) {
+        bitField0_ |= 0x00000010;
+        bytesReceived_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required int64 bytesReceived = 5;</code>
+       */
+      public Builder clearBytesReceived() {
+        bitField0_ = (bitField0_ & ~0x00000010);
+        bytesReceived_ = 0L;
+        onChanged();
+        return this;
+      }
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.setUnknownFields(unknownFields);
+      }
+
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.mergeUnknownFields(unknownFields);
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:process.MessageTypeSnapshot)
+    }
+
+    // @@protoc_insertion_point(class_scope:process.MessageTypeSnapshot)
+    private static final org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot();
+    }
+
+    public static org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    @java.lang.Deprecated public static final com.google.protobuf.Parser<MessageTypeSnapshot>
+        PARSER = new com.google.protobuf.AbstractParser<MessageTypeSnapshot>() {
+      public MessageTypeSnapshot parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+          return new MessageTypeSnapshot(input, extensionRegistry);
+      }
+    };
+
+    public static com.google.protobuf.Parser<MessageTypeSnapshot> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<MessageTypeSnapshot> getParserForType() {
+      return PARSER;
+    }
+
+    public org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface ConnectionMetricsSnapshotOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:process.ConnectionMetricsSnapshot)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>required string connectionId = 1;</code>
+     */
+    boolean hasConnectionId();
+    /**
+     * <code>required string connectionId = 1;</code>
+     */
+    java.lang.String getConnectionId();
+    /**
+     * <code>required string connectionId = 1;</code>
+     */
+    com.google.protobuf.ByteString
+        getConnectionIdBytes();
+
+    /**
+     * <code>required int64 messagesSent = 2;</code>
+     */
+    boolean hasMessagesSent();
+    /**
+     * <code>required int64 messagesSent = 2;</code>
+     */
+    long getMessagesSent();
+
+    /**
+     * <code>required int64 bytesSent = 3;</code>
+     */
+    boolean hasBytesSent();
+    /**
+     * <code>required int64 bytesSent = 3;</code>
+     */
+    long getBytesSent();
+
+    /**
+     * <code>required int64 messagesReceived = 4;</code>
+     */
+    boolean hasMessagesReceived();
+    /**
+     * <code>required int64 messagesReceived = 4;</code>
+     */
+    long getMessagesReceived();
+
+    /**
+     * <code>required int64 bytesReceived = 5;</code>
+     */
+    boolean hasBytesReceived();
+    /**
+     * <code>required int64 bytesReceived = 5;</code>
+     */
+    long getBytesReceived();
+
+    /**
+     * <code>required int32 sendQueueDepth = 6;</code>
+     */
+    boolean hasSendQueueDepth();
+    /**
+     * <code>required int32 sendQueueDepth = 6;</code>
+     */
+    int getSendQueueDepth();
+
+    /**
+     * <code>required int32 receiveQueueDepth = 7;</code>
+     */
+    boolean hasReceiveQueueDepth();
+    /**
+     * <code>required int32 receiveQueueDepth = 7;</code>
+     */
+    int getReceiveQueueDepth();
+
+    /**
+     * <code>repeated .process.MessageTypeSnapshot messageTypes = 8;</code>
+     */
+    java.util.List<org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot> 
+        getMessageTypesList();
+    /**
+     * <code>repeated .process.MessageTypeSnapshot messageTypes = 8;</code>
+     */
+    org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot getMessageTypes(int index);
+    /**
+     * <code>repeated .process.MessageTypeSnapshot messageTypes = 8;</code>
+     */
+    int getMessageTypesCount();
+    /**
+     * <code>repeated .process.MessageTypeSnapshot messageTypes = 8;</code>
+     */
+    java.util.List<? extends org.flexiblepower.proto.ServiceProto.MessageTypeSnapshotOrBuilder> 
+        getMessageTypesOrBuilderList();
+    /**
+     * <code>repeated .process.MessageTypeSnapshot messageTypes = 8;</code>
+     */
+    org.flexiblepower.proto.ServiceProto.MessageTypeSnapshotOrBuilder getMessageTypesOrBuilder(
+        int index);
+
+    /**
+     * <code>repeated .process.LatencySnapshot latencies = 9;</code>
+     */
+    java.util.List<org.flexiblepower.proto.ServiceProto.LatencySnapshot> 
+        getLatenciesList();
+    /**
+     * <code>repeated .process.LatencySnapshot latencies = 9;</code>
+     */
+    org.flexiblepower.proto.ServiceProto.LatencySnapshot getLatencies(int index);
+    /**
+     * <code>repeated .process.LatencySnapshot latencies = 9;</code>
+     */
+    int getLatenciesCount();
+    /**
+     * <code>repeated .process.LatencySnapshot latencies = 9;</code>
+     */
+    java.util.List<? extends org.flexiblepower.proto.ServiceProto.LatencySnapshotOrBuilder> 
+        getLatenciesOrBuilderList();
+    /**
+     * <code>repeated .process.LatencySnapshot latencies = 9;</code>
+     */
+    org.flexiblepower.proto.ServiceProto.LatencySnapshotOrBuilder getLatenciesOrBuilder(
+        int index);
+  }
+  /**
+   * Protobuf type {@code process.ConnectionMetricsSnapshot}
+   */
+  public  static final class ConnectionMetricsSnapshot extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:process.ConnectionMetricsSnapshot)
+      ConnectionMetricsSnapshotOrBuilder {
+    // Use ConnectionMetricsSnapshot.newBuilder() to construct.
+    private ConnectionMetricsSnapshot(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private ConnectionMetricsSnapshot() {
+      connectionId_ = "";
+      messagesSent_ = 0L;
+      bytesSent_ = 0L;
+      messagesReceived_ = 0L;
+      bytesReceived_ = 0L;
+      sendQueueDepth_ = 0;
+      receiveQueueDepth_ = 0;
+      messageTypes_ = java.util.Collections.emptyList();
+      latencies_ = java.util.Collections.emptyList();
+    }
+
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+    getUnknownFields() {
+      return this.unknownFields;
+    }
+    private ConnectionMetricsSnapshot(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      this();
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 10: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000001;
+              connectionId_ = bs;
+              break;
+            }
+            case 16: {
+              bitField0_ |= 0x00000002;
+              messagesSent_ = input.readInt64();
+              break;
+            }
+            case 24: {
+              bitField0_ |= 0x00000004;
+              bytesSent_ = input.readInt64();
+              break;
+            }
+            case 32: {
+              bitField0_ |= 0x00000008;
+              messagesReceived_ = input.readInt64();
+              break;
+            }
+            case 40: {
+              bitField0_ |= 0x00000010;
+              bytesReceived_ = input.readInt64();
+              break;
+            }
+            case 48: {
+              bitField0_ |= 0x00000020;
+              sendQueueDepth_ = input.readInt32();
+              break;
+            }
+            case 56: {
+              bitField0_ |= 0x00000040;
+              receiveQueueDepth_ = input.readInt32();
+              break;
+            }
+            case 66: {
+              if (!((mutable_bitField0_ & 0x00000080) == 0x00000080)) {
+                messageTypes_ = new java.util.ArrayList<org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot>();
+                mutable_bitField0_ |= 0x00000080;
+              }
+              messageTypes_.add(
+                  input.readMessage(org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot.PARSER, extensionRegistry));
+              break;
+            }
+            case 74: {
+              if (!((mutable_bitField0_ & 0x00000100) == 0x00000100)) {
+                latencies_ = new java.util.ArrayList<org.flexiblepower.proto.ServiceProto.LatencySnapshot>();
+                mutable_bitField0_ |= 0x00000100;
+              }
+              latencies_.add(
+                  input.readMessage(org.flexiblepower.proto.ServiceProto.LatencySnapshot.PARSER, extensionRegistry));
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000080) == 0x00000080)) {
+          messageTypes_ = java.util.Collections.unmodifiableList(messageTypes_);
+        }
+        if (((mutable_bitField0_ & 0x00000100) == 0x00000100)) {
+          latencies_ = java.util.Collections.unmodifiableList(latencies_);
+        }
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return org.flexiblepower.proto.ServiceProto.internal_static_process_ConnectionMetricsSnapshot_descriptor;
+    }
+
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return org.flexiblepower.proto.ServiceProto.internal_static_process_ConnectionMetricsSnapshot_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot.class, org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot.Builder.class);
+    }
+
+    private int bitField0_;
+    public static final int CONNECTIONID_FIELD_NUMBER = 1;
+    private volatile java.lang.Object connectionId_;
+    /**
+     * <code>required string connectionId = 1;</code>
+     */
+    public boolean hasConnectionId() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>required string connectionId = 1;</code>
+     */
+    public java.lang.String getConnectionId() {
+      java.lang.Object ref = connectionId_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          connectionId_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>required string connectionId = 1;</code>
+     */
+    public com.google.protobuf.ByteString
+        getConnectionIdBytes() {
+      java.lang.Object ref = connectionId_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        connectionId_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int MESSAGESSENT_FIELD_NUMBER = 2;
+    private long messagesSent_;
+    /**
+     * <code>required int64 messagesSent = 2;</code>
+     */
+    public boolean hasMessagesSent() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>required int64 messagesSent = 2;</code>
+     */
+    public long getMessagesSent() {
+      return messagesSent_;
+    }
+
+    public static final int BYTESSENT_FIELD_NUMBER = 3;
+    private long bytesSent_;
+    /**
+     * <code>required int64 bytesSent = 3;</code>
+     */
+    public boolean hasBytesSent() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    /**
+     * <code>required int64 bytesSent = 3;</code>
+     */
+    public long getBytesSent() {
+      return bytesSent_;
+    }
+
+    public static final int MESSAGESRECEIVED_FIELD_NUMBER = 4;
+    private long messagesReceived_;
+    /**
+     * <code>required int64 messagesReceived = 4;</code>
+     */
+    public boolean hasMessagesReceived() {
+      return ((bitField0_ & 0x00000008) == 0x00000008);
+    }
+    /**
+     * <code>required int64 messagesReceived = 4;</code>
+     */
+    public long getMessagesReceived() {
+      return messagesReceived_;
+    }
+
+    public static final int BYTESRECEIVED_FIELD_NUMBER = 5;
+    private long bytesReceived_;
+    /**
+     * <code>required int64 bytesReceived = 5;</code>
+     */
+    public boolean hasBytesReceived() {
+      return ((bitField0_ & 0x00000010) == 0x00000010);
+    }
+    /**
+     * <code>required int64 bytesReceived = 5;</code>
+     */
+    public long getBytesReceived() {
+      return bytesReceived_;
+    }
+
+    public static final int SENDQUEUEDEPTH_FIELD_NUMBER = 6;
+    private int sendQueueDepth_;
+    /**
+     * <code>required int32 sendQueueDepth = 6;</code>
+     */
+    public boolean hasSendQueueDepth() {
+      return ((bitField0_ & 0x00000020) == 0x00000020);
+    }
+    /**
+     * <code>required int32 sendQueueDepth = 6;</code>
+     */
+    public int getSendQueueDepth() {
+      return sendQueueDepth_;
+    }
+
+    public static final int RECEIVEQUEUEDEPTH_FIELD_NUMBER = 7;
+    private int receiveQueueDepth_;
+    /**
+     * <code>required int32 receiveQueueDepth = 7;</code>
+     */
+    public boolean hasReceiveQueueDepth() {
+      return ((bitField0_ & 0x00000040) == 0x00000040);
+    }
+    /**
+     * <code>required int32 receiveQueueDepth = 7;</code>
+     */
+    public int getReceiveQueueDepth() {
+      return receiveQueueDepth_;
+    }
+
+    public static final int MESSAGETYPES_FIELD_NUMBER = 8;
+    private java.util.List<org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot> messageTypes_;
+    /**
+     * <code>repeated .process.MessageTypeSnapshot messageTypes = 8;</code>
+     */
+    public java.util.List<org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot> getMessageTypesList() {
+      return messageTypes_;
+    }
+    /**
+     * <code>repeated .process.MessageTypeSnapshot messageTypes = 8;</code>
+     */
+    public java.util.List<? extends org.flexiblepower.proto.ServiceProto.MessageTypeSnapshotOrBuilder> 
+        getMessageTypesOrBuilderList() {
+      return messageTypes_;
+    }
+    /**
+     * <code>repeated .process.MessageTypeSnapshot messageTypes = 8;</code>
+     */
+    public int getMessageTypesCount() {
+      return messageTypes_.size();
+    }
+    /**
+     * <code>repeated .process.MessageTypeSnapshot messageTypes = 8;</code>
+     */
+    public org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot getMessageTypes(int index) {
+      return messageTypes_.get(index);
+    }
+    /**
+     * <code>repeated .process.MessageTypeSnapshot messageTypes = 8;</code>
+     */
+    public org.flexiblepower.proto.ServiceProto.MessageTypeSnapshotOrBuilder getMessageTypesOrBuilder(
+        int index) {
+      return messageTypes_.get(index);
+    }
+
+    public static final int LATENCIES_FIELD_NUMBER = 9;
+    private java.util.List<org.flexiblepower.proto.ServiceProto.LatencySnapshot> latencies_;
+    /**
+     * <code>repeated .process.LatencySnapshot latencies = 9;</code>
+     */
+    public java.util.List<org.flexiblepower.proto.ServiceProto.LatencySnapshot> getLatenciesList() {
+      return latencies_;
+    }
+    /**
+     * <code>repeated .process.LatencySnapshot latencies = 9;</code>
+     */
+    public java.util.List<? extends org.flexiblepower.proto.ServiceProto.LatencySnapshotOrBuilder> 
+        getLatenciesOrBuilderList() {
+      return latencies_;
+    }
+    /**
+     * <code>repeated .process.LatencySnapshot latencies = 9;</code>
+     */
+    public int getLatenciesCount() {
+      return latencies_.size();
+    }
+    /**
+     * <code>repeated .process.LatencySnapshot latencies = 9;</code>
+     */
+    public org.flexiblepower.proto.ServiceProto.LatencySnapshot getLatencies(int index) {
+      return latencies_.get(index);
+    }
+    /**
+     * <code>repeated .process.LatencySnapshot latencies = 9;</code>
+     */
+    public org.flexiblepower.proto.ServiceProto.LatencySnapshotOrBuilder getLatenciesOrBuilder(
+        int index) {
+      return latencies_.get(index);
+    }
+
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      if (!hasConnectionId()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasMessagesSent()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasBytesSent()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasMessagesReceived()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasBytesReceived()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasSendQueueDepth()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasReceiveQueueDepth()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      for (int i = 0; i < getMessageTypesCount(); i++) {
+        if (!getMessageTypes(i).isInitialized()) {
+          memoizedIsInitialized = 0;
+          return false;
+        }
+      }
+      for (int i = 0; i < getLatenciesCount(); i++) {
+        if (!getLatencies(i).isInitialized()) {
+          memoizedIsInitialized = 0;
+          return false;
+        }
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 1, connectionId_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeInt64(2, messagesSent_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeInt64(3, bytesSent_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        output.writeInt64(4, messagesReceived_);
+      }
+      if (((bitField0_ & 0x00000010) == 0x00000010)) {
+        output.writeInt64(5, bytesReceived_);
+      }
+      if (((bitField0_ & 0x00000020) == 0x00000020)) {
+        output.writeInt32(6, sendQueueDepth_);
+      }
+      if (((bitField0_ & 0x00000040) == 0x00000040)) {
+        output.writeInt32(7, receiveQueueDepth_);
+      }
+      for (int i = 0; i < messageTypes_.size(); i++) {
+        output.writeMessage(8, messageTypes_.get(i));
+      }
+      for (int i = 0; i < latencies_.size(); i++) {
+        output.writeMessage(9, latencies_.get(i));
+      }
+      unknownFields.writeTo(output);
+    }
+
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(1, connectionId_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(2, messagesSent_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(3, bytesSent_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(4, messagesReceived_);
+      }
+      if (((bitField0_ & 0x00000010) == 0x00000010)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(5, bytesReceived_);
+      }
+      if (((bitField0_ & 0x00000020) == 0x00000020)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(6, sendQueueDepth_);
+      }
+      if (((bitField0_ & 0x00000040) == 0x00000040)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(7, receiveQueueDepth_);
+      }
+      for (int i = 0; i < messageTypes_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(8, messageTypes_.get(i));
+      }
+      for (int i = 0; i < latencies_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(9, latencies_.get(i));
+      }
+      size += unknownFields.getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot)) {
+        return super.equals(obj);
+      }
+      org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot other = (org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot) obj;
+
+      boolean result = true;
+      result = result && (hasConnectionId() == other.hasConnectionId());
+      if (hasConnectionId()) {
+        result = result && getConnectionId()
+            .equals(other.getConnectionId());
+      }
+      result = result && (hasMessagesSent() == other.hasMessagesSent());
+      if (hasMessagesSent()) {
+        result = result && (getMessagesSent()
+            == other.getMessagesSent());
+      }
+      result = result && (hasBytesSent() == other.hasBytesSent());
+      if (hasBytesSent()) {
+        result = result && (getBytesSent()
+            == other.getBytesSent());
+      }
+      result = result && (hasMessagesReceived() == other.hasMessagesReceived());
+      if (hasMessagesReceived()) {
+        result = result && (getMessagesReceived()
+            == other.getMessagesReceived());
+      }
+      result = result && (hasBytesReceived() == other.hasBytesReceived());
+      if (hasBytesReceived()) {
+        result = result && (getBytesReceived()
+            == other.getBytesReceived());
+      }
+      result = result && (hasSendQueueDepth() == other.hasSendQueueDepth());
+      if (hasSendQueueDepth()) {
+        result = result && (getSendQueueDepth()
+            == other.getSendQueueDepth());
+      }
+      result = result && (hasReceiveQueueDepth() == other.hasReceiveQueueDepth());
+      if (hasReceiveQueueDepth()) {
+        result = result && (getReceiveQueueDepth()
+            == other.getReceiveQueueDepth());
+      }
+      result = result && getMessageTypesList()
+          .equals(other.getMessageTypesList());
+      result = result && getLatenciesList()
+          .equals(other.getLatenciesList());
+      result = result && unknownFields.equals(other.unknownFields);
+      return result;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      if (hasConnectionId()) {
+        hash = (37 * hash) + CONNECTIONID_FIELD_NUMBER;
+        hash = (53 * hash) + getConnectionId().hashCode();
+      }
+      if (hasMessagesSent()) {
+        hash = (37 * hash) + MESSAGESSENT_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getMessagesSent());
+      }
+      if (hasBytesSent()) {
+        hash = (37 * hash) + BYTESSENT_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getBytesSent());
+      }
+      if (hasMessagesReceived()) {
+        hash = (37 * hash) + MESSAGESRECEIVED_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getMessagesReceived());
+      }
+      if (hasBytesReceived()) {
+        hash = (37 * hash) + BYTESRECEIVED_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getBytesReceived());
+      }
+      if (hasSendQueueDepth()) {
+        hash = (37 * hash) + SENDQUEUEDEPTH_FIELD_NUMBER;
+        hash = (53 * hash) + getSendQueueDepth();
+      }
+      if (hasReceiveQueueDepth()) {
+        hash = (37 * hash) + RECEIVEQUEUEDEPTH_FIELD_NUMBER;
+        hash = (53 * hash) + getReceiveQueueDepth();
+      }
+      if (getMessageTypesCount() > 0) {
+        hash = (37 * hash) + MESSAGETYPES_FIELD_NUMBER;
+        hash = (53 * hash) + getMessageTypesList().hashCode();
+      }
+      if (getLatenciesCount() > 0) {
+        hash = (37 * hash) + LATENCIES_FIELD_NUMBER;
+        hash = (53 * hash) + getLatenciesList().hashCode();
+      }
+      hash = (29 * hash) + unknownFields.hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+    public static org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code process.ConnectionMetricsSnapshot}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:process.ConnectionMetricsSnapshot)
+        org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshotOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return org.flexiblepower.proto.ServiceProto.internal_static_process_ConnectionMetricsSnapshot_descriptor;
+      }
+
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return org.flexiblepower.proto.ServiceProto.internal_static_process_ConnectionMetricsSnapshot_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot.class, org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot.Builder.class);
+      }
+
+      // Construct using org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessageV3
+                .alwaysUseFieldBuilders) {
+          getMessageTypesFieldBuilder();
+          getLatenciesFieldBuilder();
+        }
+      }
+      public Builder clear() {
+        super.clear();
+        connectionId_ = "";
+        bitField0_ = (bitField0_ & ~0x00000001);
+        messagesSent_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        bytesSent_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000004);
+        messagesReceived_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000008);
+        bytesReceived_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000010);
+        sendQueueDepth_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000020);
+        receiveQueueDepth_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000040);
+        if (messageTypesBuilder_ == null) {
+          messageTypes_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000080);
+        } else {
+          messageTypesBuilder_.clear();
+        }
+        if (latenciesBuilder_ == null) {
+          latencies_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000100);
+        } else {
+          latenciesBuilder_.clear();
+        }
+        return this;
+      }
+
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return org.flexiblepower.proto.ServiceProto.internal_static_process_ConnectionMetricsSnapshot_descriptor;
+      }
+
+      public org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot getDefaultInstanceForType() {
+        return org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot.getDefaultInstance();
+      }
+
+      public org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot build() {
+        org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot buildPartial() {
+        org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot result = new org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.connectionId_ = connectionId_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.messagesSent_ = messagesSent_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        result.bytesSent_ = bytesSent_;
+        if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
+          to_bitField0_ |= 0x00000008;
+        }
+        result.messagesReceived_ = messagesReceived_;
+        if (((from_bitField0_ & 0x00000010) == 0x00000010)) {
+          to_bitField0_ |= 0x00000010;
+        }
+        result.bytesReceived_ = bytesReceived_;
+        if (((from_bitField0_ & 0x00000020) == 0x00000020)) {
+          to_bitField0_ |= 0x00000020;
+        }
+        result.sendQueueDepth_ = sendQueueDepth_;
+        if (((from_bitField0_ & 0x00000040) == 0x00000040)) {
+          to_bitField0_ |= 0x00000040;
+        }
+        result.receiveQueueDepth_ = receiveQueueDepth_;
+        if (messageTypesBuilder_ == null) {
+          if (((bitField0_ & 0x00000080) == 0x00000080)) {
+            messageTypes_ = java.util.Collections.unmodifiableList(messageTypes_);
+            bitField0_ = (bitField0_ & ~0x00000080);
+          }
+          result.messageTypes_ = messageTypes_;
+        } else {
+          result.messageTypes_ = messageTypesBuilder_.build();
+        }
+        if (latenciesBuilder_ == null) {
+          if (((bitField0_ & 0x00000100) == 0x00000100)) {
+            latencies_ = java.util.Collections.unmodifiableList(latencies_);
+            bitField0_ = (bitField0_ & ~0x00000100);
+          }
+          result.latencies_ = latencies_;
+        } else {
+          result.latencies_ = latenciesBuilder_.build();
+        }
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder clone() {
+        return (Builder) super.clone();
+      }
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          Object value) {
+        return (Builder) super.setField(field, value);
+      }
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return (Builder) super.clearField(field);
+      }
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return (Builder) super.clearOneof(oneof);
+      }
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, Object value) {
+        return (Builder) super.setRepeatedField(field, index, value);
+      }
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          Object value) {
+        return (Builder) super.addRepeatedField(field, value);
+      }
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot) {
+          return mergeFrom((org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot other) {
+        if (other == org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot.getDefaultInstance()) return this;
+        if (other.hasConnectionId()) {
+          bitField0_ |= 0x00000001;
+          connectionId_ = other.connectionId_;
+          onChanged();
+        }
+        if (other.hasMessagesSent()) {
+          setMessagesSent(other.getMessagesSent());
+        }
+        if (other.hasBytesSent()) {
+          setBytesSent(other.getBytesSent());
+        }
+        if (other.hasMessagesReceived()) {
+          setMessagesReceived(other.getMessagesReceived());
+        }
+        if (other.hasBytesReceived()) {
+          setBytesReceived(other.getBytesReceived());
+        }
+        if (other.hasSendQueueDepth()) {
+          setSendQueueDepth(other.getSendQueueDepth());
+        }
+        if (other.hasReceiveQueueDepth()) {
+          setReceiveQueueDepth(other.getReceiveQueueDepth());
+        }
+        if (messageTypesBuilder_ == null) {
+          if (!other.messageTypes_.isEmpty()) {
+            if (messageTypes_.isEmpty()) {
+              messageTypes_ = other.messageTypes_;
+              bitField0_ = (bitField0_ & ~0x00000080);
+            } else {
+              ensureMessageTypesIsMutable();
+              messageTypes_.addAll(other.messageTypes_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.messageTypes_.isEmpty()) {
+            if (messageTypesBuilder_.isEmpty()) {
+              messageTypesBuilder_.dispose();
+              messageTypesBuilder_ = null;
+              messageTypes_ = other.messageTypes_;
+              bitField0_ = (bitField0_ & ~0x00000080);
+              messageTypesBuilder_ = 
+                com.google.protobuf.GeneratedMessageV3.alwaysUseFieldBuilders ?
+                   getMessageTypesFieldBuilder() : null;
+            } else {
+              messageTypesBuilder_.addAllMessages(other.messageTypes_);
+            }
+          }
+        }
+        if (latenciesBuilder_ == null) {
+          if (!other.latencies_.isEmpty()) {
+            if (latencies_.isEmpty()) {
+              latencies_ = other.latencies_;
+              bitField0_ = (bitField0_ & ~0x00000100);
+            } else {
+              ensureLatenciesIsMutable();
+              latencies_.addAll(other.latencies_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.latencies_.isEmpty()) {
+            if (latenciesBuilder_.isEmpty()) {
+              latenciesBuilder_.dispose();
+              latenciesBuilder_ = null;
+              latencies_ = other.latencies_;
+              bitField0_ = (bitField0_ & ~0x00000100);
+              latenciesBuilder_ = 
+                com.google.protobuf.GeneratedMessageV3.alwaysUseFieldBuilders ?
+                   getLatenciesFieldBuilder() : null;
+            } else {
+              latenciesBuilder_.addAllMessages(other.latencies_);
+            }
+          }
+        }
+        this.mergeUnknownFields(other.unknownFields);
+        onChanged();
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        if (!hasConnectionId()) {
+          return false;
+        }
+        if (!hasMessagesSent()) {
+          return false;
+        }
+        if (!hasBytesSent()) {
+          return false;
+        }
+        if (!hasMessagesReceived()) {
+          return false;
+        }
+        if (!hasBytesReceived()) {
+          return false;
+        }
+        if (!hasSendQueueDepth()) {
+          return false;
+        }
+        if (!hasReceiveQueueDepth()) {
+          return false;
+        }
+        for (int i = 0; i < getMessageTypesCount(); i++) {
+          if (!getMessageTypes(i).isInitialized()) {
+            return false;
+          }
+        }
+        for (int i = 0; i < getLatenciesCount(); i++) {
+          if (!getLatencies(i).isInitialized()) {
+            return false;
+          }
+        }
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot) e.getUnfinishedMessage();
+          throw e.unwrapIOException();
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private java.lang.Object connectionId_ = "";
+      /**
+       * <code>required string connectionId = 1;</code>
+       */
+      public boolean hasConnectionId() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>required string connectionId = 1;</code>
+       */
+      public java.lang.String getConnectionId() {
+        java.lang.Object ref = connectionId_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            connectionId_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>required string connectionId = 1;</code>
+       */
+      public com.google.protobuf.ByteString
+          getConnectionIdBytes() {
+        java.lang.Object ref = connectionId_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          connectionId_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>required string connectionId = 1;</code>
+       */
+      public Builder setConnectionId(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        connectionId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string connectionId = 1;</code>
+       */
+      public Builder clearConnectionId() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        connectionId_ = getDefaultInstance().getConnectionId();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string connectionId = 1;</code>
+       */
+      public Builder setConnectionIdBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        connectionId_ = value;
+        onChanged();
+        return this;
+      }
+
+      private long messagesSent_ ;
+      /**
+       * <code>required int64 messagesSent = 2;</code>
+       */
+      public boolean hasMessagesSent() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>required int64 messagesSent = 2;</code>
+       */
+      public long getMessagesSent() {
+        return messagesSent_;
+      }
+      /**
+       * <code>required int64 messagesSent = 2;</code>
+       */
+      public Builder setMessagesSent(long value) {
+        bitField0_ |= 0x00000002;
+        messagesSent_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required int64 messagesSent = 2;</code>
+       */
+      public Builder clearMessagesSent() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        messagesSent_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private long bytesSent_ ;
+      /**
+       * <code>required int64 bytesSent = 3;</code>
+       */
+      public boolean hasBytesSent() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <code>required int64 bytesSent = 3;</code>
+       */
+      public long getBytesSent() {
+        return bytesSent_;
+      }
+      /**
+       * <code>required int64 bytesSent = 3;</code>
+       */
+      public Builder setBytesSent(long value) {
+        bitField0_ |= 0x00000004;
+        bytesSent_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required int64 bytesSent = 3;</code>
+       */
+      public Builder clearBytesSent() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        bytesSent_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private long messagesReceived_ ;
+      /**
+       * <code>required int64 messagesReceived = 4;</code>
+       */
+      public boolean hasMessagesReceived() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
+      }
+      /**
+       * <code>required int64 messagesReceived = 4;</code>
+       */
+      public long getMessagesReceived() {
+        return messagesReceived_;
+      }
+      /**
+       * <code>required int64 messagesReceived = 4;</code>
+       */
+      public Builder setMessagesReceived(long value) {
+        bitField0_ |= 0x00000008;
+        messagesReceived_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required int64 messagesReceived = 4;</code>
+       */
+      public Builder clearMessagesReceived() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        messagesReceived_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private long bytesReceived_ ;
+      /**
+       * <code>required int64 bytesReceived = 5;</code>
+       */
+      public boolean hasBytesReceived() {
+        return ((bitField0_ & 0x00000010) == 0x00000010);
+      }
+      /**
+       * <code>required int64 bytesReceived = 5;</code>
+       */
+      public long getBytesReceived() {
+        return bytesReceived_;
+      }
+      /**
+       * <code>required int64 bytesReceived = 5;</code>
+       */
+      public Builder setBytesReceived(long value) {
+        bitField0_ |= 0x00000010;
+        bytesReceived_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required int64 bytesReceived = 5;</code>
+       */
+      public Builder clearBytesReceived() {
+        bitField0_ = (bitField0_ & ~0x00000010);
+        bytesReceived_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private int sendQueueDepth_ ;
+      /**
+       * <code>required int32 sendQueueDepth = 6;</code>
+       */
+      public boolean hasSendQueueDepth() {
+        return ((bitField0_ & 0x00000020) == 0x00000020);
+      }
+      /**
+       * <code>required int32 sendQueueDepth = 6;</code>
+       */
+      public int getSendQueueDepth() {
+        return sendQueueDepth_;
+      }
+      /**
+       * <code>required int32 sendQueueDepth = 6;</code>
+       */
+      public Builder setSendQueueDepth(int value) {
+        bitField0_ |= 0x00000020;
+        sendQueueDepth_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required int32 sendQueueDepth = 6;</code>
+       */
+      public Builder clearSendQueueDepth() {
+        bitField0_ = (bitField0_ & ~0x00000020);
+        sendQueueDepth_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private int receiveQueueDepth_ ;
+      /**
+       * <code>required int32 receiveQueueDepth = 7;</code>
+       */
+      public boolean hasReceiveQueueDepth() {
+        return ((bitField0_ & 0x00000040) == 0x00000040);
+      }
+      /**
+       * <code>required int32 receiveQueueDepth = 7;</code>
+       */
+      public int getReceiveQueueDepth() {
+        return receiveQueueDepth_;
+      }
+      /**
+       * <code>required int32 receiveQueueDepth = 7;</code>
+       */
+      public Builder setReceiveQueueDepth(int value) {
+        bitField0_ |= 0x00000040;
+        receiveQueueDepth_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required int32 receiveQueueDepth = 7;</code>
+       */
+      public Builder clearReceiveQueueDepth() {
+        bitField0_ = (bitField0_ & ~0x00000040);
+        receiveQueueDepth_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private java.util.List<org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot> messageTypes_ =
+        java.util.Collections.emptyList();
+      private void ensureMessageTypesIsMutable() {
+        if (!((bitField0_ & 0x00000080) == 0x00000080)) {
+          messageTypes_ = new java.util.ArrayList<org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot>(messageTypes_);
+          bitField0_ |= 0x00000080;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot, org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot.Builder, org.flexiblepower.proto.ServiceProto.MessageTypeSnapshotOrBuilder> messageTypesBuilder_;
+
+      /**
+       * <code>repeated .process.MessageTypeSnapshot messageTypes = 8;</code>
+       */
+      public java.util.List<org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot> getMessageTypesList() {
+        if (messageTypesBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(messageTypes_);
+        } else {
+          return messageTypesBuilder_.getMessageList();
+        }
+      }
+      /**
+       * <code>repeated .process.MessageTypeSnapshot messageTypes = 8;</code>
+       */
+      public int getMessageTypesCount() {
+        if (messageTypesBuilder_ == null) {
+          return messageTypes_.size();
+        } else {
+          return messageTypesBuilder_.getCount();
+        }
+      }
+      /**
+       * <code>repeated .process.MessageTypeSnapshot messageTypes = 8;</code>
+       */
+      public org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot getMessageTypes(int index) {
+        if (messageTypesBuilder_ == null) {
+          return messageTypes_.get(index);
+        } else {
+          return messageTypesBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <code>repeated .process.MessageTypeSnapshot messageTypes = 8;</code>
+       */
+      public Builder setMessageTypes(
+          int index, org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot value) {
+        if (messageTypesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureMessageTypesIsMutable();
+          messageTypes_.set(index, value);
+          onChanged();
+        } else {
+          messageTypesBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .process.MessageTypeSnapshot messageTypes = 8;</code>
+       */
+      public Builder setMessageTypes(
+          int index, org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot.Builder builderForValue) {
+        if (messageTypesBuilder_ == null) {
+          ensureMessageTypesIsMutable();
+          messageTypes_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          messageTypesBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .process.MessageTypeSnapshot messageTypes = 8;</code>
+       */
+      public Builder addMessageTypes(org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot value) {
+        if (messageTypesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureMessageTypesIsMutable();
+          messageTypes_.add(value);
+          onChanged();
+        } else {
+          messageTypesBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .process.MessageTypeSnapshot messageTypes = 8;</code>
+       */
+      public Builder addMessageTypes(
+          int index, org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot value) {
+        if (messageTypesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureMessageTypesIsMutable();
+          messageTypes_.add(index, value);
+          onChanged();
+        } else {
+          messageTypesBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .process.MessageTypeSnapshot messageTypes = 8;</code>
+       */
+      public Builder addMessageTypes(
+          org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot.Builder builderForValue) {
+        if (messageTypesBuilder_ == null) {
+          ensureMessageTypesIsMutable();
+          messageTypes_.add(builderForValue.build());
+          onChanged();
+        } else {
+          messageTypesBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .process.MessageTypeSnapshot messageTypes = 8;</code>
+       */
+      public Builder addMessageTypes(
+          int index, org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot.Builder builderForValue) {
+        if (messageTypesBuilder_ == null) {
+          ensureMessageTypesIsMutable();
+          messageTypes_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          messageTypesBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .process.MessageTypeSnapshot messageTypes = 8;</code>
+       */
+      public Builder addAllMessageTypes(
+          java.lang.Iterable<? extends org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot> values) {
+        if (messageTypesBuilder_ == null) {
+          ensureMessageTypesIsMutable();
+          com.google.protobuf.AbstractMessageLite.Builder.addAll(
+              values, messageTypes_);
+          onChanged();
+        } else {
+          messageTypesBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .process.MessageTypeSnapshot messageTypes = 8;</code>
+       */
+      public Builder clearMessageTypes() {
+        if (messageTypesBuilder_ == null) {
+          messageTypes_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000080);
+          onChanged();
+        } else {
+          messageTypesBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .process.MessageTypeSnapshot messageTypes = 8;</code>
+       */
+      public Builder removeMessageTypes(int index) {
+        if (messageTypesBuilder_ == null) {
+          ensureMessageTypesIsMutable();
+          messageTypes_.remove(index);
+          onChanged();
+        } else {
+          messageTypesBuilder_.remove(index);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .process.MessageTypeSnapshot messageTypes = 8;</code>
+       */
+      public org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot.Builder getMessageTypesBuilder(
+          int index) {
+        return getMessageTypesFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <code>repeated .process.MessageTypeSnapshot messageTypes = 8;</code>
+       */
+      public org.flexiblepower.proto.ServiceProto.MessageTypeSnapshotOrBuilder getMessageTypesOrBuilder(
+          int index) {
+        if (messageTypesBuilder_ == null) {
+          return messageTypes_.get(index);  } else {
+          return messageTypesBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <code>repeated .process.MessageTypeSnapshot messageTypes = 8;</code>
+       */
+      public java.util.List<? extends org.flexiblepower.proto.ServiceProto.MessageTypeSnapshotOrBuilder> 
+           getMessageTypesOrBuilderList() {
+        if (messageTypesBuilder_ != null) {
+          return messageTypesBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(messageTypes_);
+        }
+      }
+      /**
+       * <code>repeated .process.MessageTypeSnapshot messageTypes = 8;</code>
+       */
+      public org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot.Builder addMessageTypesBuilder() {
+        return getMessageTypesFieldBuilder().addBuilder(
+            org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .process.MessageTypeSnapshot messageTypes = 8;</code>
+       */
+      public org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot.Builder addMessageTypesBuilder(
+          int index) {
+        return getMessageTypesFieldBuilder().addBuilder(
+            index, org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .process.MessageTypeSnapshot messageTypes = 8;</code>
+       */
+      public java.util.List<org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot.Builder> 
+           getMessageTypesBuilderList() {
+        return getMessageTypesFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot, org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot.Builder, org.flexiblepower.proto.ServiceProto.MessageTypeSnapshotOrBuilder> 
+          getMessageTypesFieldBuilder() {
+        if (messageTypesBuilder_ == null) {
+          messageTypesBuilder_ = new com.google.protobuf.RepeatedFieldBuilderV3<
+              org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot, org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot.Builder, org.flexiblepower.proto.ServiceProto.MessageTypeSnapshotOrBuilder>(
+                  messageTypes_,
+                  ((bitField0_ & 0x00000080) == 0x00000080),
+                  getParentForChildren(),
+                  isClean());
+          messageTypes_ = null;
+        }
+        return messageTypesBuilder_;
+      }
+
+      private java.util.List<org.flexiblepower.proto.ServiceProto.LatencySnapshot> latencies_ =
+        java.util.Collections.emptyList();
+      private void ensureLatenciesIsMutable() {
+        if (!((bitField0_ & 0x00000100) == 0x00000100)) {
+          latencies_ = new java.util.ArrayList<org.flexiblepower.proto.ServiceProto.LatencySnapshot>(latencies_);
+          bitField0_ |= 0x00000100;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          org.flexiblepower.proto.ServiceProto.LatencySnapshot, org.flexiblepower.proto.ServiceProto.LatencySnapshot.Builder, org.flexiblepower.proto.ServiceProto.LatencySnapshotOrBuilder> latenciesBuilder_;
+
+      /**
+       * <code>repeated .process.LatencySnapshot latencies = 9;</code>
+       */
+      public java.util.List<org.flexiblepower.proto.ServiceProto.LatencySnapshot> getLatenciesList() {
+        if (latenciesBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(latencies_);
+        } else {
+          return latenciesBuilder_.getMessageList();
+        }
+      }
+      /**
+       * <code>repeated .process.LatencySnapshot latencies = 9;</code>
+       */
+      public int getLatenciesCount() {
+        if (latenciesBuilder_ == null) {
+          return latencies_.size();
+        } else {
+          return latenciesBuilder_.getCount();
+        }
+      }
+      /**
+       * <code>repeated .process.LatencySnapshot latencies = 9;</code>
+       */
+      public org.flexiblepower.proto.ServiceProto.LatencySnapshot getLatencies(int index) {
+        if (latenciesBuilder_ == null) {
+          return latencies_.get(index);
+        } else {
+          return latenciesBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <code>repeated .process.LatencySnapshot latencies = 9;</code>
+       */
+      public Builder setLatencies(
+          int index, org.flexiblepower.proto.ServiceProto.LatencySnapshot value) {
+        if (latenciesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureLatenciesIsMutable();
+          latencies_.set(index, value);
+          onChanged();
+        } else {
+          latenciesBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .process.LatencySnapshot latencies = 9;</code>
+       */
+      public Builder setLatencies(
+          int index, org.flexiblepower.proto.ServiceProto.LatencySnapshot.Builder builderForValue) {
+        if (latenciesBuilder_ == null) {
+          ensureLatenciesIsMutable();
+          latencies_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          latenciesBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .process.LatencySnapshot latencies = 9;</code>
+       */
+      public Builder addLatencies(org.flexiblepower.proto.ServiceProto.LatencySnapshot value) {
+        if (latenciesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureLatenciesIsMutable();
+          latencies_.add(value);
+          onChanged();
+        } else {
+          latenciesBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .process.LatencySnapshot latencies = 9;</code>
+       */
+      public Builder addLatencies(
+          int index, org.flexiblepower.proto.ServiceProto.LatencySnapshot value) {
+        if (latenciesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureLatenciesIsMutable();
+          latencies_.add(index, value);
+          onChanged();
+        } else {
+          latenciesBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .process.LatencySnapshot latencies = 9;</code>
+       */
+      public Builder addLatencies(
+          org.flexiblepower.proto.ServiceProto.LatencySnapshot.Builder builderForValue) {
+        if (latenciesBuilder_ == null) {
+          ensureLatenciesIsMutable();
+          latencies_.add(builderForValue.build());
+          onChanged();
+        } else {
+          latenciesBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .process.LatencySnapshot latencies = 9;</code>
+       */
+      public Builder addLatencies(
+          int index, org.flexiblepower.proto.ServiceProto.LatencySnapshot.Builder builderForValue) {
+        if (latenciesBuilder_ == null) {
+          ensureLatenciesIsMutable();
+          latencies_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          latenciesBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .process.LatencySnapshot latencies = 9;</code>
+       */
+      public Builder addAllLatencies(
+          java.lang.Iterable<? extends org.flexiblepower.proto.ServiceProto.LatencySnapshot> values) {
+        if (latenciesBuilder_ == null) {
+          ensureLatenciesIsMutable();
+          com.google.protobuf.AbstractMessageLite.Builder.addAll(
+              values, latencies_);
+          onChanged();
+        } else {
+          latenciesBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .process.LatencySnapshot latencies = 9;</code>
+       */
+      public Builder clearLatencies() {
+        if (latenciesBuilder_ == null) {
+          latencies_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000100);
+          onChanged();
+        } else {
+          latenciesBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .process.LatencySnapshot latencies = 9;</code>
+       */
+      public Builder removeLatencies(int index) {
+        if (latenciesBuilder_ == null) {
+          ensureLatenciesIsMutable();
+          latencies_.remove(index);
+          onChanged();
+        } else {
+          latenciesBuilder_.remove(index);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .process.LatencySnapshot latencies = 9;</code>
+       */
+      public org.flexiblepower.proto.ServiceProto.LatencySnapshot.Builder getLatenciesBuilder(
+          int index) {
+        return getLatenciesFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <code>repeated .process.LatencySnapshot latencies = 9;</code>
+       */
+      public org.flexiblepower.proto.ServiceProto.LatencySnapshotOrBuilder getLatenciesOrBuilder(
+          int index) {
+        if (latenciesBuilder_ == null) {
+          return latencies_.get(index);  } else {
+          return latenciesBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <code>repeated .process.LatencySnapshot latencies = 9;</code>
+       */
+      public java.util.List<? extends org.flexiblepower.proto.ServiceProto.LatencySnapshotOrBuilder> 
+           getLatenciesOrBuilderList() {
+        if (latenciesBuilder_ != null) {
+          return latenciesBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(latencies_);
+        }
+      }
+      /**
+       * <code>repeated .process.LatencySnapshot latencies = 9;</code>
+       */
+      public org.flexiblepower.proto.ServiceProto.LatencySnapshot.Builder addLatenciesBuilder() {
+        return getLatenciesFieldBuilder().addBuilder(
+            org.flexiblepower.proto.ServiceProto.LatencySnapshot.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .process.LatencySnapshot latencies = 9;</code>
+       */
+      public org.flexiblepower.proto.ServiceProto.LatencySnapshot.Builder addLatenciesBuilder(
+          int index) {
+        return getLatenciesFieldBuilder().addBuilder(
+            index, org.flexiblepower.proto.ServiceProto.LatencySnapshot.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .process.LatencySnapshot latencies = 9;</code>
+       */
+      public java.util.List<org.flexiblepower.proto.ServiceProto.LatencySnapshot.Builder> 
+           getLatenciesBuilderList() {
+        return getLatenciesFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          org.flexiblepower.proto.ServiceProto.LatencySnapshot, org.flexiblepower.proto.ServiceProto.LatencySnapshot.Builder, org.flexiblepower.proto.ServiceProto.LatencySnapshotOrBuilder> 
+          getLatenciesFieldBuilder() {
+        if (latenciesBuilder_ == null) {
+          latenciesBuilder_ = new com.google.protobuf.RepeatedFieldBuilderV3<
+              org.flexiblepower.proto.ServiceProto.LatencySnapshot, org.flexiblepower.proto.ServiceProto.LatencySnapshot.Builder, org.flexiblepower.proto.ServiceProto.LatencySnapshotOrBuilder>(
+                  latencies_,
+                  ((bitField0_ & 0x00000100) == 0x00000100),
+                  getParentForChildren(),
+                  isClean());
+          latencies_ = null;
+        }
+        return latenciesBuilder_;
+      }
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.setUnknownFields(unknownFields);
+      }
+
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.mergeUnknownFields(unknownFields);
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:process.ConnectionMetricsSnapshot)
+    }
+
+    // @@protoc_insertion_point(class_scope:process.ConnectionMetricsSnapshot)
+    private static final org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot();
+    }
+
+    public static org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    @java.lang.Deprecated public static final com.google.protobuf.Parser<ConnectionMetricsSnapshot>
+        PARSER = new com.google.protobuf.AbstractParser<ConnectionMetricsSnapshot>() {
+      public ConnectionMetricsSnapshot parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+          return new ConnectionMetricsSnapshot(input, extensionRegistry);
+      }
+    };
+
+    public static com.google.protobuf.Parser<ConnectionMetricsSnapshot> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<ConnectionMetricsSnapshot> getParserForType() {
+      return PARSER;
+    }
+
+    public org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface MetricsSnapshotMessageOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:process.MetricsSnapshotMessage)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>required string processId = 1;</code>
+     */
+    boolean hasProcessId();
+    /**
+     * <code>required string processId = 1;</code>
+     */
+    java.lang.String getProcessId();
+    /**
+     * <code>required string processId = 1;</code>
+     */
+    com.google.protobuf.ByteString
+        getProcessIdBytes();
+
+    /**
+     * <code>repeated .process.ConnectionMetricsSnapshot connections = 2;</code>
+     */
+    java.util.List<org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot> 
+        getConnectionsList();
+    /**
+     * <code>repeated .process.ConnectionMetricsSnapshot connections = 2;</code>
+     */
+    org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot getConnections(int index);
+    /**
+     * <code>repeated .process.ConnectionMetricsSnapshot connections = 2;</code>
+     */
+    int getConnectionsCount();
+    /**
+     * <code>repeated .process.ConnectionMetricsSnapshot connections = 2;</code>
+     */
+    java.util.List<? extends org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshotOrBuilder> 
+        getConnectionsOrBuilderList();
+    /**
+     * <code>repeated .process.ConnectionMetricsSnapshot connections = 2;</code>
+     */
+    org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshotOrBuilder getConnectionsOrBuilder(
+        int index);
+  }
+  /**
+   * Protobuf type {@code process.MetricsSnapshotMessage}
+   */
+  public  static final class MetricsSnapshotMessage extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:process.MetricsSnapshotMessage)
+      MetricsSnapshotMessageOrBuilder {
+    // Use MetricsSnapshotMessage.newBuilder() to construct.
+    private MetricsSnapshotMessage(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private MetricsSnapshotMessage() {
+      processId_ = "";
+      connections_ = java.util.Collections.emptyList();
+    }
+
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+    getUnknownFields() {
+      return this.unknownFields;
+    }
+    private MetricsSnapshotMessage(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      this();
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 10: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000001;
+              processId_ = bs;
+              break;
+            }
+            case 18: {
+              if (!((mutable_bitField0_ & 0x00000002) == 0x00000002)) {
+                connections_ = new java.util.ArrayList<org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot>();
+                mutable_bitField0_ |= 0x00000002;
+              }
+              connections_.add(
+                  input.readMessage(org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot.PARSER, extensionRegistry));
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000002) == 0x00000002)) {
+          connections_ = java.util.Collections.unmodifiableList(connections_);
+        }
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return org.flexiblepower.proto.ServiceProto.internal_static_process_MetricsSnapshotMessage_descriptor;
+    }
+
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return org.flexiblepower.proto.ServiceProto.internal_static_process_MetricsSnapshotMessage_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage.class, org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage.Builder.class);
+    }
+
+    private int bitField0_;
+    public static final int PROCESSID_FIELD_NUMBER = 1;
+    private volatile java.lang.Object processId_;
+    /**
+     * <code>required string processId = 1;</code>
+     */
+    public boolean hasProcessId() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>required string processId = 1;</code>
+     */
+    public java.lang.String getProcessId() {
+      java.lang.Object ref = processId_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          processId_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>required string processId = 1;</code>
+     */
+    public com.google.protobuf.ByteString
+        getProcessIdBytes() {
+      java.lang.Object ref = processId_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        processId_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int CONNECTIONS_FIELD_NUMBER = 2;
+    private java.util.List<org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot> connections_;
+    /**
+     * <code>repeated .process.ConnectionMetricsSnapshot connections = 2;</code>
+     */
+    public java.util.List<org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot> getConnectionsList() {
+      return connections_;
+    }
+    /**
+     * <code>repeated .process.ConnectionMetricsSnapshot connections = 2;</code>
+     */
+    public java.util.List<? extends org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshotOrBuilder> 
+        getConnectionsOrBuilderList() {
+      return connections_;
+    }
+    /**
+     * <code>repeated .process.ConnectionMetricsSnapshot connections = 2;</code>
+     */
+    public int getConnectionsCount() {
+      return connections_.size();
+    }
+    /**
+     * <code>repeated .process.ConnectionMetricsSnapshot connections = 2;</code>
+     */
+    public org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot getConnections(int index) {
+      return connections_.get(index);
+    }
+    /**
+     * <code>repeated .process.ConnectionMetricsSnapshot connections = 2;</code>
+     */
+    public org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshotOrBuilder getConnectionsOrBuilder(
+        int index) {
+      return connections_.get(index);
+    }
+
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      if (!hasProcessId()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      for (int i = 0; i < getConnectionsCount(); i++) {
+        if (!getConnections(i).isInitialized()) {
+          memoizedIsInitialized = 0;
+          return false;
+        }
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 1, processId_);
+      }
+      for (int i = 0; i < connections_.size(); i++) {
+        output.writeMessage(2, connections_.get(i));
+      }
+      unknownFields.writeTo(output);
+    }
+
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(1, processId_);
+      }
+      for (int i = 0; i < connections_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(2, connections_.get(i));
+      }
+      size += unknownFields.getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage)) {
+        return super.equals(obj);
+      }
+      org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage other = (org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage) obj;
+
+      boolean result = true;
+      result = result && (hasProcessId() == other.hasProcessId());
+      if (hasProcessId()) {
+        result = result && getProcessId()
+            .equals(other.getProcessId());
+      }
+      result = result && getConnectionsList()
+          .equals(other.getConnectionsList());
+      result = result && unknownFields.equals(other.unknownFields);
+      return result;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      if (hasProcessId()) {
+        hash = (37 * hash) + PROCESSID_FIELD_NUMBER;
+        hash = (53 * hash) + getProcessId().hashCode();
+      }
+      if (getConnectionsCount() > 0) {
+        hash = (37 * hash) + CONNECTIONS_FIELD_NUMBER;
+        hash = (53 * hash) + getConnectionsList().hashCode();
+      }
+      hash = (29 * hash) + unknownFields.hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code process.MetricsSnapshotMessage}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:process.MetricsSnapshotMessage)
+        org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessageOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return org.flexiblepower.proto.ServiceProto.internal_static_process_MetricsSnapshotMessage_descriptor;
+      }
+
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return org.flexiblepower.proto.ServiceProto.internal_static_process_MetricsSnapshotMessage_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage.class, org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage.Builder.class);
+      }
+
+      // Construct using org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessageV3
+                .alwaysUseFieldBuilders) {
+          getConnectionsFieldBuilder();
+        }
+      }
+      public Builder clear() {
+        super.clear();
+        processId_ = "";
+        bitField0_ = (bitField0_ & ~0x00000001);
+        if (connectionsBuilder_ == null) {
+          connections_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000002);
+        } else {
+          connectionsBuilder_.clear();
+        }
+        return this;
+      }
+
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return org.flexiblepower.proto.ServiceProto.internal_static_process_MetricsSnapshotMessage_descriptor;
+      }
+
+      public org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage getDefaultInstanceForType() {
+        return org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage.getDefaultInstance();
+      }
+
+      public org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage build() {
+        org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage buildPartial() {
+        org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage result = new org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.processId_ = processId_;
+        if (connectionsBuilder_ == null) {
+          if (((bitField0_ & 0x00000002) == 0x00000002)) {
+            connections_ = java.util.Collections.unmodifiableList(connections_);
+            bitField0_ = (bitField0_ & ~0x00000002);
+          }
+          result.connections_ = connections_;
+        } else {
+          result.connections_ = connectionsBuilder_.build();
+        }
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder clone() {
+        return (Builder) super.clone();
+      }
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          Object value) {
+        return (Builder) super.setField(field, value);
+      }
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return (Builder) super.clearField(field);
+      }
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return (Builder) super.clearOneof(oneof);
+      }
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, Object value) {
+        return (Builder) super.setRepeatedField(field, index, value);
+      }
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          Object value) {
+        return (Builder) super.addRepeatedField(field, value);
+      }
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage) {
+          return mergeFrom((org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage other) {
+        if (other == org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage.getDefaultInstance()) return this;
+        if (other.hasProcessId()) {
+          bitField0_ |= 0x00000001;
+          processId_ = other.processId_;
+          onChanged();
+        }
+        if (connectionsBuilder_ == null) {
+          if (!other.connections_.isEmpty()) {
+            if (connections_.isEmpty()) {
+              connections_ = other.connections_;
+              bitField0_ = (bitField0_ & ~0x00000002);
+            } else {
+              ensureConnectionsIsMutable();
+              connections_.addAll(other.connections_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.connections_.isEmpty()) {
+            if (connectionsBuilder_.isEmpty()) {
+              connectionsBuilder_.dispose();
+              connectionsBuilder_ = null;
+              connections_ = other.connections_;
+              bitField0_ = (bitField0_ & ~0x00000002);
+              connectionsBuilder_ = 
+                com.google.protobuf.GeneratedMessageV3.alwaysUseFieldBuilders ?
+                   getConnectionsFieldBuilder() : null;
+            } else {
+              connectionsBuilder_.addAllMessages(other.connections_);
+            }
+          }
+        }
+        this.mergeUnknownFields(other.unknownFields);
+        onChanged();
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        if (!hasProcessId()) {
+          return false;
+        }
+        for (int i = 0; i < getConnectionsCount(); i++) {
+          if (!getConnections(i).isInitialized()) {
+            return false;
+          }
+        }
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage) e.getUnfinishedMessage();
+          throw e.unwrapIOException();
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private java.lang.Object processId_ = "";
+      /**
+       * <code>required string processId = 1;</code>
+       */
+      public boolean hasProcessId() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>required string processId = 1;</code>
+       */
+      public java.lang.String getProcessId() {
+        java.lang.Object ref = processId_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            processId_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>required string processId = 1;</code>
+       */
+      public com.google.protobuf.ByteString
+          getProcessIdBytes() {
+        java.lang.Object ref = processId_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          processId_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>required string processId = 1;</code>
+       */
+      public Builder setProcessId(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        processId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string processId = 1;</code>
+       */
+      public Builder clearProcessId() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        processId_ = getDefaultInstance().getProcessId();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string processId = 1;</code>
+       */
+      public Builder setProcessIdBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        processId_ = value;
+        onChanged();
+        return this;
+      }
+
+      private java.util.List<org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot> connections_ =
+        java.util.Collections.emptyList();
+      private void ensureConnectionsIsMutable() {
+        if (!((bitField0_ & 0x00000002) == 0x00000002)) {
+          connections_ = new java.util.ArrayList<org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot>(connections_);
+          bitField0_ |= 0x00000002;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot, org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot.Builder, org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshotOrBuilder> connectionsBuilder_;
+
+      /**
+       * <code>repeated .process.ConnectionMetricsSnapshot connections = 2;</code>
+       */
+      public java.util.List<org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot> getConnectionsList() {
+        if (connectionsBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(connections_);
+        } else {
+          return connectionsBuilder_.getMessageList();
+        }
+      }
+      /**
+       * <code>repeated .process.ConnectionMetricsSnapshot connections = 2;</code>
+       */
+      public int getConnectionsCount() {
+        if (connectionsBuilder_ == null) {
+          return connections_.size();
+        } else {
+          return connectionsBuilder_.getCount();
+        }
+      }
+      /**
+       * <code>repeated .process.ConnectionMetricsSnapshot connections = 2;</code>
+       */
+      public org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot getConnections(int index) {
+        if (connectionsBuilder_ == null) {
+          return connections_.get(index);
+        } else {
+          return connectionsBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <code>repeated .process.ConnectionMetricsSnapshot connections = 2;</code>
+       */
+      public Builder setConnections(
+          int index, org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot value) {
+        if (connectionsBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureConnectionsIsMutable();
+          connections_.set(index, value);
+          onChanged();
+        } else {
+          connectionsBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .process.ConnectionMetricsSnapshot connections = 2;</code>
+       */
+      public Builder setConnections(
+          int index, org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot.Builder builderForValue) {
+        if (connectionsBuilder_ == null) {
+          ensureConnectionsIsMutable();
+          connections_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          connectionsBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .process.ConnectionMetricsSnapshot connections = 2;</code>
+       */
+      public Builder addConnections(org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot value) {
+        if (connectionsBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureConnectionsIsMutable();
+          connections_.add(value);
+          onChanged();
+        } else {
+          connectionsBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .process.ConnectionMetricsSnapshot connections = 2;</code>
+       */
+      public Builder addConnections(
+          int index, org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot value) {
+        if (connectionsBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureConnectionsIsMutable();
+          connections_.add(index, value);
+          onChanged();
+        } else {
+          connectionsBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .process.ConnectionMetricsSnapshot connections = 2;</code>
+       */
+      public Builder addConnections(
+          org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot.Builder builderForValue) {
+        if (connectionsBuilder_ == null) {
+          ensureConnectionsIsMutable();
+          connections_.add(builderForValue.build());
+          onChanged();
+        } else {
+          connectionsBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .process.ConnectionMetricsSnapshot connections = 2;</code>
+       */
+      public Builder addConnections(
+          int index, org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot.Builder builderForValue) {
+        if (connectionsBuilder_ == null) {
+          ensureConnectionsIsMutable();
+          connections_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          connectionsBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .process.ConnectionMetricsSnapshot connections = 2;</code>
+       */
+      public Builder addAllConnections(
+          java.lang.Iterable<? extends org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot> values) {
+        if (connectionsBuilder_ == null) {
+          ensureConnectionsIsMutable();
+          com.google.protobuf.AbstractMessageLite.Builder.addAll(
+              values, connections_);
+          onChanged();
+        } else {
+          connectionsBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .process.ConnectionMetricsSnapshot connections = 2;</code>
+       */
+      public Builder clearConnections() {
+        if (connectionsBuilder_ == null) {
+          connections_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000002);
+          onChanged();
+        } else {
+          connectionsBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .process.ConnectionMetricsSnapshot connections = 2;</code>
+       */
+      public Builder removeConnections(int index) {
+        if (connectionsBuilder_ == null) {
+          ensureConnectionsIsMutable();
+          connections_.remove(index);
+          onChanged();
+        } else {
+          connectionsBuilder_.remove(index);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .process.ConnectionMetricsSnapshot connections = 2;</code>
+       */
+      public org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot.Builder getConnectionsBuilder(
+          int index) {
+        return getConnectionsFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <code>repeated .process.ConnectionMetricsSnapshot connections = 2;</code>
+       */
+      public org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshotOrBuilder getConnectionsOrBuilder(
+          int index) {
+        if (connectionsBuilder_ == null) {
+          return connections_.get(index);  } else {
+          return connectionsBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <code>repeated .process.ConnectionMetricsSnapshot connections = 2;</code>
+       */
+      public java.util.List<? extends org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshotOrBuilder> 
+           getConnectionsOrBuilderList() {
+        if (connectionsBuilder_ != null) {
+          return connectionsBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(connections_);
+        }
+      }
+      /**
+       * <code>repeated .process.ConnectionMetricsSnapshot connections = 2;</code>
+       */
+      public org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot.Builder addConnectionsBuilder() {
+        return getConnectionsFieldBuilder().addBuilder(
+            org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .process.ConnectionMetricsSnapshot connections = 2;</code>
+       */
+      public org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot.Builder addConnectionsBuilder(
+          int index) {
+        return getConnectionsFieldBuilder().addBuilder(
+            index, org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .process.ConnectionMetricsSnapshot connections = 2;</code>
+       */
+      public java.util.List<org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot.Builder> 
+           getConnectionsBuilderList() {
+        return getConnectionsFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot, org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot.Builder, org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshotOrBuilder> 
+          getConnectionsFieldBuilder() {
+        if (connectionsBuilder_ == null) {
+          connectionsBuilder_ = new com.google.protobuf.RepeatedFieldBuilderV3<
+              org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot, org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot.Builder, org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshotOrBuilder>(
+                  connections_,
+                  ((bitField0_ & 0x00000002) == 0x00000002),
+                  getParentForChildren(),
+                  isClean());
+          connections_ = null;
+        }
+        return connectionsBuilder_;
+      }
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.setUnknownFields(unknownFields);
+      }
+
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.mergeUnknownFields(unknownFields);
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:process.MetricsSnapshotMessage)
+    }
+
+    // @@protoc_insertion_point(class_scope:process.MetricsSnapshotMessage)
+    private static final org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage();
+    }
+
+    public static org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    @java.lang.Deprecated public static final com.google.protobuf.Parser<MetricsSnapshotMessage>
+        PARSER = new com.google.protobuf.AbstractParser<MetricsSnapshotMessage>() {
+      public MetricsSnapshotMessage parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+          return new MetricsSnapshotMessage(input, extensionRegistry);
+      }
+    };
+
+    public static com.google.protobuf.Parser<MetricsSnapshotMessage> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<MetricsSnapshotMessage> getParserForType() {
+      return PARSER;
+    }
+
+    public org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_process_GoToProcessStateMessage_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_process_GoToProcessStateMessage_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_process_ResumeProcessMessage_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_process_ResumeProcessMessage_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_process_ProcessStateUpdateMessage_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_process_ProcessStateUpdateMessage_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_process_SetConfigMessage_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_process_SetConfigMessage_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_process_SetConfigMessage_ConfigEntry_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_process_SetConfigMessage_ConfigEntry_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_process_ErrorMessage_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_process_ErrorMessage_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_process_MetricsRequestMessage_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_process_MetricsRequestMessage_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_process_LatencySnapshot_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_process_LatencySnapshot_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_process_MessageTypeSnapshot_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_process_MessageTypeSnapshot_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_process_ConnectionMetricsSnapshot_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_process_ConnectionMetricsSnapshot_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_process_MetricsSnapshotMessage_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_process_MetricsSnapshotMessage_fieldAccessorTable;
+
+  public static com.google.protobuf.Descriptors.FileDescriptor
+      getDescriptor() {
+    return descriptor;
+  }
+  private static  com.google.protobuf.Descriptors.FileDescriptor
+      descriptor;
+  static {
+    java.lang.String[] descriptorData = {
+      "\n\rService.proto\022\007process\"m\n\027GoToProcessS" +
+      "tateMessage\022\021\n\tprocessId\030\001 \002(\t\022*\n\013target" +
+      "State\030\002 \002(\0162\025.process.ProcessState\022\023\n\013st" +
+      "reamState\030\003 \001(\010\"R\n\024ResumeProcessMessage\022" +
+      "\021\n\tprocessId\030\001 \002(\t\022\021\n\tstateData\030\002 \002(\014\022\024\n" +
+      "\014stateFollows\030\003 \001(\010\"g\n\031ProcessStateUpdat" +
+      "eMessage\022\021\n\tprocessId\030\001 \002(\t\022$\n\005state\030\002 \002" +
+      "(\0162\025.process.ProcessState\022\021\n\tstateData\030\003" +
+      " \001(\014\"\235\001\n\020SetConfigMessage\022\021\n\tprocessId\030\001" +
+      " \002(\t\022\020\n\010isUpdate\030\002 \002(\010\0225\n\006config\030\003 \003(\0132%",
+      ".process.SetConfigMessage.ConfigEntry\032-\n" +
+      "\013ConfigEntry\022\013\n\003key\030\001 \001(\t\022\r\n\005value\030\002 \001(\t" +
+      ":\0028\001\";\n\014ErrorMessage\022\021\n\tprocessId\030\001 \002(\t\022" +
+      "\030\n\020debugInformation\030\002 \002(\t\"*\n\025MetricsRequ" +
+      "estMessage\022\021\n\tprocessId\030\001 \002(\t\"\177\n\017Latency" +
+      "Snapshot\022\r\n\005stage\030\001 \002(\t\022\023\n\013messageType\030\002" +
+      " \001(\t\022\r\n\005count\030\003 \002(\003\022\022\n\ntotalNanos\030\004 \002(\003\022" +
+      "\020\n\010maxNanos\030\005 \002(\003\022\023\n\007buckets\030\006 \003(\003B\002\020\001\"\204" +
+      "\001\n\023MessageTypeSnapshot\022\023\n\013messageType\030\001 " +
+      "\002(\t\022\024\n\014messagesSent\030\002 \002(\003\022\021\n\tbytesSent\030\003",
+      " \002(\003\022\030\n\020messagesReceived\030\004 \002(\003\022\025\n\rbytesR" +
+      "eceived\030\005 \002(\003\"\237\002\n\031ConnectionMetricsSnaps" +
+      "hot\022\024\n\014connectionId\030\001 \002(\t\022\024\n\014messagesSen" +
+      "t\030\002 \002(\003\022\021\n\tbytesSent\030\003 \002(\003\022\030\n\020messagesRe" +
+      "ceived\030\004 \002(\003\022\025\n\rbytesReceived\030\005 \002(\003\022\026\n\016s" +
+      "endQueueDepth\030\006 \002(\005\022\031\n\021receiveQueueDepth" +
+      "\030\007 \002(\005\0222\n\014messageTypes\030\010 \003(\0132\034.process.M" +
+      "essageTypeSnapshot\022+\n\tlatencies\030\t \003(\0132\030." +
+      "process.LatencySnapshot\"d\n\026MetricsSnapsh" +
+      "otMessage\022\021\n\tprocessId\030\001 \002(\t\0227\n\013connecti",
+      "ons\030\002 \003(\0132\".process.ConnectionMetricsSna" +
+      "pshot*Z\n\014ProcessState\022\014\n\010STARTING\020\000\022\020\n\014I" +
+      "NITIALIZING\020\001\022\013\n\007RUNNING\020\002\022\r\n\tSUSPENDED\020" +
+      "\003\022\016\n\nTERMINATED\020\004B\'\n\027org.flexiblepower.p" +
+      "rotoB\014ServiceProto"
+    };
+    com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
+        new com.google.protobuf.Descriptors.FileDescriptor.    InternalDescriptorAssigner() {
+          public com.google.protobuf.ExtensionRegistry assignDescriptors(
+              com.google.protobuf.Descriptors.FileDescriptor root) {
+            descriptor = root;
+            return null;
+          }
+        };
+    com.google.protobuf.Descriptors.FileDescriptor
+      .internalBuildGeneratedFileFrom(descriptorData,
+        new com.google.protobuf.Descriptors.FileDescriptor[] {
+        }, assigner);
+    internal_static_process_GoToProcessStateMessage_descriptor =
+      getDescriptor().getMessageTypes().get(0);
+    internal_static_process_GoToProcessStateMessage_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_process_GoToProcessStateMessage_descriptor,
+        new java.lang.String[] { "ProcessId", "TargetState", "StreamState", });
+    internal_static_process_ResumeProcessMessage_descriptor =
+      getDescriptor().getMessageTypes().get(1);
+    internal_static_process_ResumeProcessMessage_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_process_ResumeProcessMessage_descriptor,
+        new java.lang.String[] { "ProcessId", "StateData", "StateFollows", });
+    internal_static_process_ProcessStateUpdateMessage_descriptor =
+      getDescriptor().getMessageTypes().get(2);
+    internal_static_process_ProcessStateUpdateMessage_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_process_ProcessStateUpdateMessage_descriptor,
+        new java.lang.String[] { "ProcessId", "State", "StateData", });
+    internal_static_process_SetConfigMessage_descriptor =
+      getDescriptor().getMessageTypes().get(3);
+    internal_static_process_SetConfigMessage_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_process_SetConfigMessage_descriptor,
+        new java.lang.String[] { "ProcessId", "IsUpdate", "Config", });
+    internal_static_process_SetConfigMessage_ConfigEntry_descriptor =
+      internal_static_process_SetConfigMessage_descriptor.getNestedTypes().get(0);
+    internal_static_process_SetConfigMessage_ConfigEntry_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_process_SetConfigMessage_ConfigEntry_descriptor,
+        new java.lang.String[] { "Key", "Value", });
+    internal_static_process_ErrorMessage_descriptor =
+      getDescriptor().getMessageTypes().get(4);
+    internal_static_process_ErrorMessage_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_process_ErrorMessage_descriptor,
+        new java.lang.String[] { "ProcessId", "DebugInformation", });
+    internal_static_process_MetricsRequestMessage_descriptor =
+      getDescriptor().getMessageTypes().get(5);
+    internal_static_process_MetricsRequestMessage_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_process_MetricsRequestMessage_descriptor,
+        new java.lang.String[] { "ProcessId", });
+    internal_static_process_LatencySnapshot_descriptor =
+      getDescriptor().getMessageTypes().get(6);
+    internal_static_process_LatencySnapshot_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_process_LatencySnapshot_descriptor,
+        new java.lang.String[] { "Stage", "MessageType", "Count", "TotalNanos", "MaxNanos", "Buckets", });
+    internal_static_process_MessageTypeSnapshot_descriptor =
+      getDescriptor().getMessageTypes().get(7);
+    internal_static_process_MessageTypeSnapshot_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_process_MessageTypeSnapshot_descriptor,
+        new java.lang.String[] { "MessageType", "MessagesSent", "BytesSent", "MessagesReceived", "BytesReceived", });
+    internal_static_process_ConnectionMetricsSnapshot_descriptor =
+      getDescriptor().getMessageTypes().get(8);
+    internal_static_process_ConnectionMetricsSnapshot_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_process_ConnectionMetricsSnapshot_descriptor,
+        new java.lang.String[] { "ConnectionId", "MessagesSent", "BytesSent", "MessagesReceived", "BytesReceived", "SendQueueDepth", "ReceiveQueueDepth", "MessageTypes", "Latencies", });
+    internal_static_process_MetricsSnapshotMessage_descriptor =
+      getDescriptor().getMessageTypes().get(9);
+    internal_static_process_MetricsSnapshotMessage_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_process_MetricsSnapshotMessage_descriptor,
+        new java.lang.String[] { "ProcessId", "Connections", });
   }
 
   // @@protoc_insertion_point(outer_class_scope)
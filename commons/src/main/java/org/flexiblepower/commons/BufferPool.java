@@ -0,0 +1,151 @@
+/*-
+ * #%L
+ * dEF-Pi commons Library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.commons;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The BufferPool keeps a number of equally sized {@link ByteBuffer}s that can be reused, so that sending and receiving
+ * frames does not require a new buffer to be allocated every time. Buffers may be direct, in which case the channel
+ * does not have to copy them into a temporary direct buffer before writing.
+ * <p>
+ * Acquiring and releasing buffers does not create any garbage itself, the pool is a simple stack that is guarded by a
+ * lock.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+public final class BufferPool {
+
+    /**
+     * The size of the buffers in the shared pool, frames that are larger will not use the pool
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 16 * 1024;
+
+    /**
+     * The maximum number of buffers that are kept by the shared pool
+     */
+    private static final int DEFAULT_MAX_POOLED = 256;
+
+    private static BufferPool instance;
+
+    private final int bufferSize;
+    private final boolean direct;
+    private final ByteBuffer[] buffers;
+    private int available = 0;
+
+    /**
+     * @return the shared pool of direct buffers of {@value #DEFAULT_BUFFER_SIZE} bytes, which is created when it is
+     *         first needed
+     */
+    public static synchronized BufferPool getInstance() {
+        if (BufferPool.instance == null) {
+            BufferPool.instance = new BufferPool(BufferPool.DEFAULT_BUFFER_SIZE, BufferPool.DEFAULT_MAX_POOLED, true);
+        }
+        return BufferPool.instance;
+    }
+
+    /**
+     * Create a new pool of buffers. Buffers are only allocated when they are acquired, and are kept for reuse when they
+     * are released.
+     *
+     * @param bufferSize the capacity of every buffer in the pool
+     * @param maxPooled the maximum number of buffers that the pool will keep
+     * @param direct whether the pool should allocate direct buffers
+     */
+    public BufferPool(final int bufferSize, final int maxPooled, final boolean direct) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.direct = direct;
+        this.buffers = new ByteBuffer[maxPooled];
+    }
+
+    /**
+     * @return the capacity of the buffers in this pool
+     */
+    public int getBufferSize() {
+        return this.bufferSize;
+    }
+
+    /**
+     * @return whether the buffers in this pool are direct buffers
+     */
+    public boolean isDirect() {
+        return this.direct;
+    }
+
+    /**
+     * @return the number of buffers that are currently available for reuse
+     */
+    public synchronized int available() {
+        return this.available;
+    }
+
+    /**
+     * Get a buffer from the pool, or allocate a new one if no buffer is available. The buffer is cleared, so its
+     * position is 0 and its limit is equal to its capacity.
+     *
+     * @return a buffer of {@link #getBufferSize()} bytes
+     */
+    public ByteBuffer acquire() {
+        synchronized (this) {
+            if (this.available > 0) {
+                final ByteBuffer buffer = this.buffers[--this.available];
+                this.buffers[this.available] = null;
+                return buffer;
+            }
+        }
+        return this.allocate(this.bufferSize);
+    }
+
+    /**
+     * Return a buffer to the pool, so it can be reused. Buffers that were not acquired from this pool (i.e. that have
+     * a different capacity or type) are silently ignored, as are buffers that exceed the maximum size of the pool. The
+     * caller must not use the buffer after it was released.
+     *
+     * @param buffer the buffer to return to the pool
+     */
+    public void release(final ByteBuffer buffer) {
+        if ((buffer == null) || (buffer.capacity() != this.bufferSize) || (buffer.isDirect() != this.direct)
+                || buffer.isReadOnly()) {
+            return;
+        }
+        buffer.clear();
+        synchronized (this) {
+            if (this.available < this.buffers.length) {
+                this.buffers[this.available++] = buffer;
+            }
+        }
+    }
+
+    /**
+     * Allocate a buffer of the same type as the buffers of this pool, but which is not managed by the pool. Useful for
+     * data that exceeds the size of the pooled buffers.
+     *
+     * @param capacity the capacity of the buffer to allocate
+     * @return a new buffer
+     */
+    public ByteBuffer allocate(final int capacity) {
+        return this.direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+}
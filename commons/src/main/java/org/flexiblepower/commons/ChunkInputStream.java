@@ -0,0 +1,138 @@
+/*-
+ * #%L
+ * dEF-Pi commons Library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.commons;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketTimeoutException;
+
+/**
+ * A ChunkInputStream reads the {@link StreamFrame} chunks that a {@link ChunkOutputStream} sends to a socket, and
+ * provides the data they carry. Only one chunk is kept in memory at a time. Closing the stream reads and discards the
+ * chunks that were not read yet, so the next frame on the socket is the one after the stream. The socket stays open.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ * @see ChunkOutputStream
+ */
+public class ChunkInputStream extends InputStream {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final TCPSocket socket;
+    private final long timeout;
+    private byte[] pendingFrame;
+    private byte[] chunk = ChunkInputStream.EMPTY;
+    private int position = 0;
+    private boolean finished = false;
+
+    /**
+     * Create a stream that reads chunks from the provided socket
+     *
+     * @param socket The socket to read the chunks from. It must not be attached to the {@link SocketEngine}
+     * @param timeout The maximum number of milliseconds to wait for a chunk, or 0 to wait indefinitely
+     */
+    public ChunkInputStream(final TCPSocket socket, final long timeout) {
+        this(socket, timeout, null);
+    }
+
+    /**
+     * Create a stream that reads chunks from the provided socket, of which the first frame was already read
+     *
+     * @param socket The socket to read the chunks from. It must not be attached to the {@link SocketEngine}
+     * @param timeout The maximum number of milliseconds to wait for a chunk, or 0 to wait indefinitely
+     * @param firstFrame The first frame of the stream that was read from the socket, or null if it was not read yet
+     */
+    public ChunkInputStream(final TCPSocket socket, final long timeout, final byte[] firstFrame) {
+        this.socket = socket;
+        this.timeout = timeout;
+        this.pendingFrame = firstFrame;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!this.ensureAvailable()) {
+            return -1;
+        }
+        return this.chunk[this.position++] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        } else if (!this.ensureAvailable()) {
+            return -1;
+        }
+        final int length = Math.min(len, this.chunk.length - this.position);
+        System.arraycopy(this.chunk, this.position, b, off, length);
+        this.position += length;
+        return length;
+    }
+
+    @Override
+    public int available() {
+        return this.chunk.length - this.position;
+    }
+
+    /**
+     * Read the remaining chunks of the stream, so the socket can be used for the frames that follow it
+     */
+    @Override
+    public void close() throws IOException {
+        while (!this.finished) {
+            this.nextChunk();
+        }
+        this.chunk = ChunkInputStream.EMPTY;
+        this.position = 0;
+    }
+
+    /**
+     * @return whether there is data to read, false if the end of the stream is reached
+     * @throws IOException When the next chunk could not be read
+     */
+    private boolean ensureAvailable() throws IOException {
+        while (this.position == this.chunk.length) {
+            if (this.finished) {
+                return false;
+            }
+            this.nextChunk();
+        }
+        return true;
+    }
+
+    private void nextChunk() throws IOException {
+        final byte[] frame = this.pendingFrame != null ? this.pendingFrame : this.socket.read(this.timeout);
+        this.pendingFrame = null;
+        if (frame == null) {
+            throw new SocketTimeoutException("No chunk of the stream received within " + this.timeout + " ms");
+        } else if (!StreamFrame.isChunk(frame)) {
+            this.finished = true;
+            throw new IOException("Expected a chunk of the stream, but received another frame");
+        } else if (StreamFrame.isAborted(frame)) {
+            this.finished = true;
+            throw new IOException("The sender aborted the stream");
+        }
+        this.chunk = StreamFrame.decodeChunk(frame);
+        this.position = 0;
+        this.finished = StreamFrame.isLast(frame);
+    }
+
+}
@@ -0,0 +1,115 @@
+/*-
+ * #%L
+ * dEF-Pi commons Library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.commons;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A ChunkOutputStream writes a stream of bytes to a socket as a sequence of {@link StreamFrame} chunks, so the
+ * receiver can process the data while it arrives, without either side keeping all of it in memory. It is used to send
+ * the state of a suspended process over the management socket. Closing the stream sends the last chunk, but leaves
+ * the socket open.
+ * <p>
+ * The management socket is not attached to the {@link SocketEngine}, so a sender that gets ahead of the receiver is
+ * held back by TCP itself, and no credits are exchanged.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ * @see ChunkInputStream
+ */
+public class ChunkOutputStream extends OutputStream {
+
+    private final FrameSocket socket;
+    private final byte[] buffer = new byte[StreamFrame.CHUNK_SIZE];
+    private int count = 0;
+    private boolean closed = false;
+
+    /**
+     * Create a stream that writes chunks to the provided socket
+     *
+     * @param socket The socket to send the chunks to
+     */
+    public ChunkOutputStream(final FrameSocket socket) {
+        this.socket = socket;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        this.ensureOpen();
+        if (this.count == this.buffer.length) {
+            this.sendChunk(false);
+        }
+        this.buffer[this.count++] = (byte) b;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        this.ensureOpen();
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            if (this.count == this.buffer.length) {
+                this.sendChunk(false);
+            }
+            final int length = Math.min(remaining, this.buffer.length - this.count);
+            System.arraycopy(b, offset, this.buffer, this.count, length);
+            this.count += length;
+            offset += length;
+            remaining -= length;
+        }
+    }
+
+    /**
+     * Send the last chunk of the stream, which contains the data that was not sent yet. This does not close the socket.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!this.closed) {
+            this.closed = true;
+            this.sendChunk(true);
+        }
+    }
+
+    /**
+     * Tell the receiver that the stream will not be finished, for instance because the data could not be produced. The
+     * receiver will get an exception when it reads from the stream. Does nothing when the stream is already closed.
+     *
+     * @throws IOException When the frame could not be sent
+     */
+    public void abort() throws IOException {
+        if (!this.closed) {
+            this.closed = true;
+            this.socket.send(StreamFrame.encodeAbort());
+        }
+    }
+
+    private void sendChunk(final boolean last) throws IOException {
+        this.socket.send(StreamFrame.encodeChunk(this.buffer, this.count, last));
+        this.count = 0;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (this.closed) {
+            throw new IOException("Unable to write to a closed stream");
+        }
+    }
+
+}
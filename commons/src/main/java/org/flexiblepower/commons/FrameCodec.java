@@ -0,0 +1,278 @@
+/*-
+ * #%L
+ * dEF-Pi commons Library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.commons;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SocketChannel;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The FrameCodec translates between byte arrays and the frames that are sent over a {@link TCPSocket}. Every frame
+ * consists of four bytes indicating the length, the payload, and an END-OF-MESSAGE byte.
+ * <p>
+ * The encoding side prepares a frame for a single gathering write. The header and trailer buffers are reused, and the
+ * payload is copied into a buffer from the {@link BufferPool}, so sending does not create garbage. The encoding side is
+ * not thread safe, the owner must make sure only one frame is encoded and written at a time.
+ * <p>
+ * The decoding side reads from the channel in bulk into a pooled receive buffer, and reassembles the frames from it.
+ * {@link #decodeFrame()} returns a frame that fits in the receive buffer as a view on it, so nothing is allocated for
+ * its payload. As long as such frames are not released, the receive buffer is not overwritten; the codec continues in
+ * a fresh buffer from the pool instead. {@link #decode()} and frames that do not fit in the receive buffer allocate a
+ * byte array for the payload. A frame that announces a length above the maximum frame size is rejected before anything
+ * is allocated for it.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+final class FrameCodec {
+
+    private static final Logger log = LoggerFactory.getLogger(FrameCodec.class);
+
+    /**
+     * The number of bytes that precede the payload of every frame to indicate its length
+     */
+    static final int HEADER_LENGTH = 4;
+
+    /**
+     * The byte that is appended to every frame
+     */
+    static final int EOM = 0xFF;
+
+    private final BufferPool pool;
+
+    // Encoder state, guarded by the owner
+    private final ByteBuffer header;
+    private final ByteBuffer trailer;
+    private final ByteBuffer[] frame = new ByteBuffer[3];
+    private ByteBuffer pooledPayload;
+
+    // Decoder state, guarded by this
+    private ByteBuffer in;
+    private PooledFrame.Owner inOwner;
+    private byte[] payload;
+    private int payloadPosition;
+    private boolean released = false;
+    private volatile int maxFrameSize = FrameSocket.DEFAULT_MAX_FRAME_SIZE;
+
+    /**
+     * Create a FrameCodec that uses the provided pool for its payload and receive buffers
+     *
+     * @param pool the pool to acquire buffers from
+     */
+    FrameCodec(final BufferPool pool) {
+        this.pool = pool;
+        this.header = pool.allocate(FrameCodec.HEADER_LENGTH);
+        this.trailer = pool.allocate(1);
+        this.trailer.put(0, (byte) FrameCodec.EOM);
+    }
+
+    /**
+     * @param maxFrameSize the maximum length of a frame that is received, in bytes
+     */
+    void setMaxFrameSize(final int maxFrameSize) {
+        this.maxFrameSize = maxFrameSize;
+    }
+
+    /**
+     * Prepare a frame containing the provided data. The returned buffers must be written by a single gathering write,
+     * until the last buffer has no bytes remaining. Afterwards {@link #encodeComplete()} must be called, even if
+     * writing failed.
+     *
+     * @param data the payload of the frame
+     * @return the buffers that together form the frame
+     */
+    ByteBuffer[] encode(final byte[] data) {
+        this.header.clear();
+        this.header.putInt(0, data.length);
+        this.trailer.clear();
+
+        if (data.length <= this.pool.getBufferSize()) {
+            this.pooledPayload = this.pool.acquire();
+            this.pooledPayload.put(data).flip();
+            this.frame[1] = this.pooledPayload;
+        } else {
+            // Too large for the pool, this is the only case where sending allocates
+            this.frame[1] = ByteBuffer.wrap(data);
+        }
+
+        this.frame[0] = this.header;
+        this.frame[2] = this.trailer;
+        return this.frame;
+    }
+
+    /**
+     * Release the resources that were used to encode the last frame
+     */
+    void encodeComplete() {
+        if (this.pooledPayload != null) {
+            this.pool.release(this.pooledPayload);
+            this.pooledPayload = null;
+        }
+        this.frame[1] = null;
+    }
+
+    /**
+     * Take the next complete frame from the data that was read from the channel, without reading from the channel.
+     *
+     * @return the payload of the next frame, or null if no complete frame is available
+     * @throws IOException When the frame header contains an invalid length, or one that exceeds the maximum frame size
+     */
+    synchronized byte[] decode() throws IOException {
+        if ((this.in == null) || this.released) {
+            return null;
+        }
+
+        if (this.payload == null) {
+            if (this.in.remaining() < FrameCodec.HEADER_LENGTH) {
+                return null;
+            }
+
+            final int len = this.in.getInt();
+            if (len < 0) {
+                throw new IOException("Received invalid message length " + len);
+            } else if (len > this.maxFrameSize) {
+                throw new IOException(
+                        "Received frame of " + len + " bytes, which exceeds the maximum of " + this.maxFrameSize);
+            }
+            this.payload = new byte[len];
+            this.payloadPosition = 0;
+        }
+
+        final int n = Math.min(this.in.remaining(), this.payload.length - this.payloadPosition);
+        this.in.get(this.payload, this.payloadPosition, n);
+        this.payloadPosition += n;
+        if (this.payloadPosition < this.payload.length) {
+            return null;
+        }
+
+        // Read bytes until we find the END-OF-MESSAGE
+        while (this.in.hasRemaining()) {
+            final int eof = this.in.get() & 0xFF;
+            if (eof == FrameCodec.EOM) {
+                final byte[] data = this.payload;
+                this.payload = null;
+                return data;
+            }
+            FrameCodec.log.warn("Expected EOM, instead read {}, skipping stream", eof);
+        }
+        return null;
+    }
+
+    /**
+     * Take the next complete frame from the data that was read from the channel, without reading from the channel. If
+     * the frame fits in the receive buffer, it is a view on that buffer.
+     *
+     * @return the next frame, or null if no complete frame is available
+     * @throws IOException When the frame header contains an invalid length, or one that exceeds the maximum frame size
+     */
+    synchronized PooledFrame decodeFrame() throws IOException {
+        if ((this.in != null) && !this.released && (this.payload == null)
+                && (this.in.remaining() >= FrameCodec.HEADER_LENGTH)) {
+            final int start = this.in.position();
+            final int len = this.in.getInt(start);
+            if ((len >= 0) && (len <= this.maxFrameSize)
+                    && ((FrameCodec.HEADER_LENGTH + len) < this.in.capacity())) {
+                final int end = start + FrameCodec.HEADER_LENGTH + len;
+                if (end >= this.in.limit()) {
+                    // Wait until the rest of the frame is read, at the start of the buffer if necessary
+                    return null;
+                } else if ((this.in.get(end) & 0xFF) == FrameCodec.EOM) {
+                    final ByteBuffer view = this.in.duplicate();
+                    view.position(start + FrameCodec.HEADER_LENGTH).limit(end);
+                    this.in.position(end + 1);
+                    this.inOwner.retain();
+                    return new PooledFrame(view.slice(), this.inOwner);
+                }
+            }
+        }
+
+        // Too large for the receive buffer, invalid, or not followed by END-OF-MESSAGE
+        final byte[] data = this.decode();
+        return data == null ? null : new PooledFrame(ByteBuffer.wrap(data), null);
+    }
+
+    /**
+     * Read as many bytes as are available from the channel, without blocking. Large payloads are read directly into
+     * the array that will be returned by {@link #decode()}.
+     *
+     * @param ch the channel to read from
+     * @return whether any bytes were read
+     * @throws IOException When the end-of-stream is reached, or any exception occurs while reading
+     */
+    synchronized boolean fill(final SocketChannel ch) throws IOException {
+        if (this.released) {
+            throw new ClosedChannelException();
+        }
+
+        if (this.in == null) {
+            this.in = this.pool.acquire();
+            this.inOwner = new PooledFrame.Owner(this.pool, this.in);
+            this.in.flip();
+        }
+
+        final int n;
+        if ((this.payload != null) && !this.in.hasRemaining()
+                && ((this.payload.length - this.payloadPosition) >= this.in.capacity())) {
+            n = ch.read(ByteBuffer.wrap(this.payload, this.payloadPosition, this.payload.length - this.payloadPosition));
+            if (n > 0) {
+                this.payloadPosition += n;
+            }
+        } else {
+            if (this.inOwner.isShared()) {
+                // Frames that were not released yet are views on the buffer, so continue in a fresh one
+                final ByteBuffer next = this.pool.acquire();
+                next.put(this.in);
+                this.inOwner.release();
+                this.in = next;
+                this.inOwner = new PooledFrame.Owner(this.pool, next);
+            } else {
+                this.in.compact();
+            }
+            try {
+                n = ch.read(this.in);
+            } finally {
+                this.in.flip();
+            }
+        }
+
+        if (n < 0) {
+            throw new IOException("Reached end of stream");
+        }
+        return n > 0;
+    }
+
+    /**
+     * Return the receive buffer to the pool. After this, the codec can no longer be used for decoding.
+     */
+    synchronized void release() {
+        this.released = true;
+        if (this.in != null) {
+            this.inOwner.release();
+            this.in = null;
+            this.inOwner = null;
+        }
+        this.payload = null;
+    }
+
+}
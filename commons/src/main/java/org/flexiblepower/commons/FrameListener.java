@@ -0,0 +1,46 @@
+/*-
+ * #%L
+ * dEF-Pi commons Library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.commons;
+
+/**
+ * A FrameListener receives the complete byte arrays that are read from a {@link TCPSocket} once it is attached to the
+ * {@link SocketEngine}. The callbacks are invoked from one of the I/O threads of the engine, which are shared between
+ * many sockets. Implementations should therefore return quickly, and hand off any heavy work to another thread.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ * @see TCPSocket#attach(FrameListener)
+ */
+public interface FrameListener {
+
+    /**
+     * Called for every complete frame that was received by the socket, in the order they were received.
+     *
+     * @param data the payload of the frame, without the length prefix and END-OF-MESSAGE byte
+     */
+    public void onFrame(byte[] data);
+
+    /**
+     * Called exactly once when the socket is closed, either because {@link TCPSocket#close()} was called, or because
+     * the remote side hung up or an IOException occurred while reading.
+     */
+    public void onClose();
+
+}
@@ -0,0 +1,101 @@
+/*-
+ * #%L
+ * dEF-Pi commons Library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.commons;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+
+/**
+ * A FrameSocket is a connection between two processes that carries frames, i.e. byte arrays that arrive at the other
+ * side exactly as they were sent, in the same order. The {@link TCPSocket} is the common implementation, the
+ * {@link SharedMemorySocket} can be used when both processes run on the same host.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+public interface FrameSocket extends Closeable {
+
+    /**
+     * The default maximum length of a frame that is received, in bytes. A frame header that announces a longer frame
+     * is treated as corrupt, instead of allocating a buffer of that size.
+     */
+    public static final int DEFAULT_MAX_FRAME_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * @return whether the socket is connected to the remote side and not closed
+     */
+    public boolean isConnected();
+
+    /**
+     * @return whether the socket has been closed, either explicitly or because of a failure
+     */
+    public boolean isClosed();
+
+    /**
+     * Block until the socket is connected, or an exception occurs
+     *
+     * @throws IOException when the socket fails while waiting to connect
+     */
+    public void waitUntilConnected() throws IOException;
+
+    /**
+     * Block until the socket is connected, an exception occurs, or the timeout has passed
+     *
+     * @param millis the amount of milliseconds to wait, or 0 to wait forever
+     * @return whether the socket connected
+     * @throws IOException when the socket fails while waiting to connect
+     */
+    public boolean waitUntilConnected(long millis) throws IOException;
+
+    /**
+     * Have all incoming frames delivered to the provided listener. When the socket is closed for whatever reason, the
+     * listener is notified exactly once.
+     *
+     * @param frameListener the listener that will receive all incoming frames
+     * @throws ClosedChannelException when this socket has been closed
+     */
+    public void attach(FrameListener frameListener) throws ClosedChannelException;
+
+    /**
+     * Send a frame to the remote side
+     *
+     * @param data the payload of the frame
+     * @throws IOException when the socket is not connected, or fails to send the data
+     */
+    public void send(byte[] data) throws IOException;
+
+    /**
+     * Stop delivering frames to the attached listener until {@linkplain #resumeReading()} is called. Frames that are
+     * not read yet stay with the transport, so a remote side that keeps sending is eventually held back by it. This
+     * may be called from any thread, also from within the listener, and has no effect on a socket that is not
+     * attached.
+     */
+    public void pauseReading();
+
+    /**
+     * Continue delivering frames to the attached listener after {@linkplain #pauseReading()}
+     */
+    public void resumeReading();
+
+    @Override
+    public void close();
+
+}
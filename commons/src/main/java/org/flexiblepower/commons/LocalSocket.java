@@ -0,0 +1,325 @@
+/*-
+ * #%L
+ * dEF-Pi commons Library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.commons;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NotYetConnectedException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The LocalSocket connects two endpoints in the same JVM, for processes that are hosted together. Frames are handed
+ * over through a queue, without copying. When the receiving side is an {@link ObjectListener}, message objects can be
+ * handed over as well, without being serialized at all.
+ * <p>
+ * Like a TCP socket, the server side waits for a client with the same name. The processes that run in this JVM are
+ * registered with {@link #registerLocalProcess(String)}, so connections can find out whether the remote endpoint is
+ * local.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+public final class LocalSocket implements FrameSocket {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalSocket.class);
+
+    private static final Object CLOSED = new Object();
+    private static final Map<String, LocalSocket> waitingServers = new HashMap<>();
+    private static final Set<String> localProcesses = ConcurrentHashMap.newKeySet();
+    private static int threadCounter = 0;
+
+    private final String name;
+    private final boolean server;
+    private final BlockingQueue<Object> inbound = new LinkedBlockingQueue<>();
+    private final AtomicBoolean closeNotified = new AtomicBoolean(false);
+    private final Object pauseLock = new Object();
+
+    private volatile LocalSocket peer;
+    private volatile boolean closed = false;
+    private volatile FrameListener listener;
+    private volatile boolean readingPaused = false;
+
+    /**
+     * Create a socket that waits for a client with the same name
+     *
+     * @param name a name that uniquely identifies the connection in this JVM
+     * @return A LocalSocket that will wait for a client when it connects
+     */
+    public static LocalSocket asServer(final String name) {
+        return new LocalSocket(name, true);
+    }
+
+    /**
+     * Create a socket that connects to a server with the same name
+     *
+     * @param name a name that uniquely identifies the connection in this JVM
+     * @return A LocalSocket that will wait for a server when it connects
+     */
+    public static LocalSocket asClient(final String name) {
+        return new LocalSocket(name, false);
+    }
+
+    /**
+     * Register a process that runs in this JVM
+     *
+     * @param processId the id of the process
+     */
+    public static void registerLocalProcess(final String processId) {
+        LocalSocket.localProcesses.add(processId);
+    }
+
+    /**
+     * Remove a process that no longer runs in this JVM
+     *
+     * @param processId the id of the process
+     */
+    public static void unregisterLocalProcess(final String processId) {
+        LocalSocket.localProcesses.remove(processId);
+    }
+
+    /**
+     * @param processId the id of a process
+     * @return whether the process runs in this JVM, so it can be reached with a LocalSocket
+     */
+    public static boolean isLocalProcess(final String processId) {
+        return (processId != null) && LocalSocket.localProcesses.contains(processId);
+    }
+
+    private LocalSocket(final String name, final boolean server) {
+        this.name = name;
+        this.server = server;
+    }
+
+    @Override
+    public boolean isConnected() {
+        return (this.peer != null) && !this.closed;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    @Override
+    public void waitUntilConnected() throws IOException {
+        this.waitUntilConnected(0);
+    }
+
+    @Override
+    public boolean waitUntilConnected(final long millis) throws IOException {
+        final long deadline = millis > 0 ? System.currentTimeMillis() + millis : Long.MAX_VALUE;
+        synchronized (LocalSocket.class) {
+            while (this.peer == null) {
+                if (this.closed) {
+                    throw new ClosedChannelException();
+                }
+
+                if (this.server) {
+                    final LocalSocket other = LocalSocket.waitingServers.get(this.name);
+                    if ((other != this) && ((other == null) || other.closed)) {
+                        LocalSocket.waitingServers.put(this.name, this);
+                        LocalSocket.class.notifyAll();
+                    }
+                } else {
+                    final LocalSocket other = LocalSocket.waitingServers.get(this.name);
+                    if ((other != null) && !other.closed) {
+                        LocalSocket.waitingServers.remove(this.name);
+                        other.peer = this;
+                        this.peer = other;
+                        LocalSocket.class.notifyAll();
+                        break;
+                    }
+                }
+
+                final long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                try {
+                    LocalSocket.class.wait(remaining);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for " + this.name);
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized void attach(final FrameListener frameListener) throws ClosedChannelException {
+        if (this.closed) {
+            throw new ClosedChannelException();
+        } else if (this.peer == null) {
+            throw new NotYetConnectedException();
+        } else if (this.listener != null) {
+            throw new IllegalStateException("Socket is already attached");
+        }
+
+        this.listener = frameListener;
+        final Thread reader = new Thread(this::deliver, "dEF-Pi localThread-" + LocalSocket.nextThreadNumber());
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    private static synchronized int nextThreadNumber() {
+        return LocalSocket.threadCounter++;
+    }
+
+    /**
+     * Hand everything that arrives to the listener, until the socket is closed
+     */
+    private void deliver() {
+        try {
+            while (!this.closed) {
+                this.awaitReadingResumed();
+                final Object item = this.inbound.take();
+                if (item == LocalSocket.CLOSED) {
+                    break;
+                } else if (item instanceof ObjectFrame) {
+                    ((ObjectListener) this.listener).onObject(((ObjectFrame) item).message);
+                } else {
+                    this.listener.onFrame((byte[]) item);
+                }
+            }
+        } catch (final InterruptedException e) {
+            LocalSocket.log.debug("Interrupted while waiting for frames on {}", this.name);
+        } catch (final Exception e) {
+            LocalSocket.log.error("Exception while handling frame, closing socket: {}", e.getMessage());
+            LocalSocket.log.trace(e.getMessage(), e);
+        }
+        this.close();
+    }
+
+    private void awaitReadingResumed() throws InterruptedException {
+        synchronized (this.pauseLock) {
+            while (this.readingPaused && !this.closed) {
+                this.pauseLock.wait();
+            }
+        }
+    }
+
+    /**
+     * Stop handing frames to the listener. Since frames are handed over through a queue, the sending side is not held
+     * back, but the reader thread of this socket will no longer take them until {@linkplain #resumeReading()} is
+     * called.
+     */
+    @Override
+    public void pauseReading() {
+        this.readingPaused = true;
+    }
+
+    @Override
+    public void resumeReading() {
+        synchronized (this.pauseLock) {
+            this.readingPaused = false;
+            this.pauseLock.notifyAll();
+        }
+    }
+
+    @Override
+    public void send(final byte[] data) throws IOException {
+        this.connectedPeer().inbound.add(data);
+    }
+
+    /**
+     * Try to hand a message object to the remote side as it is. The sender must not modify the object afterwards.
+     *
+     * @param message the message to send
+     * @return true if the message was sent, or false if the remote side does not accept objects of this type, in
+     *         which case it should be serialized and sent as a frame
+     * @throws IOException when the socket is not connected
+     */
+    public boolean sendObject(final Object message) throws IOException {
+        final LocalSocket remote = this.connectedPeer();
+        final FrameListener remoteListener = remote.listener;
+        if ((remoteListener instanceof ObjectListener)
+                && ((ObjectListener) remoteListener).acceptsObject(message.getClass())) {
+            remote.inbound.add(new ObjectFrame(message));
+            return true;
+        }
+        return false;
+    }
+
+    private LocalSocket connectedPeer() throws IOException {
+        final LocalSocket remote = this.peer;
+        if (this.closed) {
+            throw new ClosedChannelException();
+        } else if (remote == null) {
+            throw new NotYetConnectedException();
+        } else if (remote.closed) {
+            throw new IOException("Remote side closed the connection");
+        }
+        return remote;
+    }
+
+    @Override
+    public void close() {
+        synchronized (LocalSocket.class) {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            if (LocalSocket.waitingServers.get(this.name) == this) {
+                LocalSocket.waitingServers.remove(this.name);
+            }
+            LocalSocket.class.notifyAll();
+        }
+
+        // Wake up our own reader, and let the remote side know after it has received everything
+        synchronized (this.pauseLock) {
+            this.pauseLock.notifyAll();
+        }
+        this.inbound.add(LocalSocket.CLOSED);
+        final LocalSocket remote = this.peer;
+        if (remote != null) {
+            remote.inbound.add(LocalSocket.CLOSED);
+        }
+
+        final FrameListener frameListener = this.listener;
+        if ((frameListener != null) && this.closeNotified.compareAndSet(false, true)) {
+            frameListener.onClose();
+        }
+    }
+
+    /**
+     * Wraps a message object, to tell it apart from a frame
+     */
+    private static final class ObjectFrame {
+
+        final Object message;
+
+        ObjectFrame(final Object message) {
+            this.message = message;
+        }
+
+    }
+
+}
@@ -0,0 +1,62 @@
+/*-
+ * #%L
+ * dEF-Pi commons Library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.commons;
+
+/**
+ * A ManagementHandler processes the messages of the management protocol for one process. A process normally listens
+ * for these messages itself, but when several processes share one JVM they are received by the host, which hands them
+ * to the handler of the right process.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+public interface ManagementHandler {
+
+    /**
+     * Handle a message from the orchestrator. When the process is resumed or suspended, its state is exchanged as
+     * chunks on the socket, right after the message or before the response respectively.
+     *
+     * @param message the serialized message
+     * @param socket the management socket the message was received on
+     * @return the serialized response to send back to the orchestrator
+     * @see ChunkInputStream
+     * @see ChunkOutputStream
+     */
+    public byte[] handleManagementMessage(byte[] message, TCPSocket socket);
+
+    /**
+     * @param connectionId the id of a connection
+     * @return whether the process currently maintains the connection with this id
+     */
+    public boolean hasConnection(String connectionId);
+
+    /**
+     * @param receiveHash the hash of the messages the process would receive over the connection
+     * @param sendHash the hash of the messages the process would send over the connection
+     * @return whether the process is able to create a connection for this interface
+     */
+    public boolean canCreateConnection(String receiveHash, String sendHash);
+
+    /**
+     * @return whether the process has stopped, and will not handle any more messages
+     */
+    public boolean isStopped();
+
+}
@@ -0,0 +1,45 @@
+/*-
+ * #%L
+ * dEF-Pi commons Library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.commons;
+
+/**
+ * An ObjectListener is a {@link FrameListener} that can also receive message objects directly, without them being
+ * serialized. This is only possible when both sides of the connection run in the same JVM.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ * @see LocalSocket#sendObject(Object)
+ */
+public interface ObjectListener extends FrameListener {
+
+    /**
+     * @param type the type of message object
+     * @return whether objects of this exact type can be handed to {@link #onObject(Object)}
+     */
+    public boolean acceptsObject(Class<?> type);
+
+    /**
+     * Called for every message object that was received, in the same order as the frames
+     *
+     * @param message the message object
+     */
+    public void onObject(Object message);
+
+}
@@ -0,0 +1,109 @@
+/*-
+ * #%L
+ * dEF-Pi commons Library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.commons;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A PooledFrame is a frame that was received by a {@link TCPSocket}, handed to a {@link PooledFrameListener}. Its data
+ * is usually a view on the pooled receive buffer of the socket, so no array is allocated for it. The receive buffer
+ * goes back to the {@link BufferPool} once every frame that was taken from it is released, so the listener must call
+ * {@link #release()} as soon as it no longer needs the data, typically right after it was deserialized.
+ * <p>
+ * Frames that do not fit in a receive buffer are delivered in a newly allocated array, releasing those has no effect.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+public final class PooledFrame {
+
+    private final ByteBuffer data;
+    private final Owner owner;
+    private boolean released = false;
+
+    /**
+     * @param data the payload of the frame
+     * @param owner the receive buffer the data is a view on, or null if it is not pooled
+     */
+    PooledFrame(final ByteBuffer data, final Owner owner) {
+        this.data = data;
+        this.owner = owner;
+    }
+
+    /**
+     * @return the payload of the frame, without the length prefix and END-OF-MESSAGE byte. It must not be used after
+     *         the frame was released.
+     */
+    public ByteBuffer getData() {
+        return this.data;
+    }
+
+    /**
+     * Tell the socket that the data is no longer used. Calling it more than once has no effect.
+     */
+    public void release() {
+        if (!this.released) {
+            this.released = true;
+            if (this.owner != null) {
+                this.owner.release();
+            }
+        }
+    }
+
+    /**
+     * The receive buffer that frames are taken from. It counts a reference for the {@link FrameCodec} that reads into
+     * it, and one for every frame that is a view on it, and is returned to the pool when all of them are released.
+     */
+    static final class Owner {
+
+        private final BufferPool pool;
+        private final ByteBuffer buffer;
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        Owner(final BufferPool pool, final ByteBuffer buffer) {
+            this.pool = pool;
+            this.buffer = buffer;
+        }
+
+        ByteBuffer getBuffer() {
+            return this.buffer;
+        }
+
+        /**
+         * @return whether any frames that are a view on the buffer were not released yet
+         */
+        boolean isShared() {
+            return this.references.get() > 1;
+        }
+
+        void retain() {
+            this.references.incrementAndGet();
+        }
+
+        void release() {
+            if (this.references.decrementAndGet() == 0) {
+                this.pool.release(this.buffer);
+            }
+        }
+
+    }
+
+}
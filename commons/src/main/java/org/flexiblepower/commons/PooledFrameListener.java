@@ -0,0 +1,42 @@
+/*-
+ * #%L
+ * dEF-Pi commons Library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.commons;
+
+/**
+ * A PooledFrameListener is a {@link FrameListener} that receives the frames of a {@link TCPSocket} as views on the
+ * pooled receive buffer of the socket, instead of in a newly allocated array for every frame. Sockets that do not read
+ * into a receive buffer keep calling {@link #onFrame(byte[])}.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ * @see TCPSocket#attach(FrameListener)
+ */
+public interface PooledFrameListener extends FrameListener {
+
+    /**
+     * Called by a {@link TCPSocket} for every complete frame that was received, in the order they were received. The
+     * listener must {@link PooledFrame#release() release} the frame when it no longer needs its data, which may be on
+     * another thread.
+     *
+     * @param frame the frame that was received
+     */
+    public void onFrame(PooledFrame frame);
+
+}
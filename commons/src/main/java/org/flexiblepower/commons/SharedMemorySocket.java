@@ -0,0 +1,627 @@
+/*-
+ * #%L
+ * dEF-Pi commons Library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.commons;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.NotYetConnectedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The SharedMemorySocket carries frames between two processes on the same host through a memory-mapped file, for
+ * instance on a volume that is shared by two containers. This keeps the payload out of the network stack.
+ * <p>
+ * The file contains a small header and two ring buffers, one for each direction. Frames are written as a four byte
+ * length followed by the payload, and may be larger than the ring buffer itself. The server side creates the file
+ * and removes it when it is closed, the client side waits for the file to appear.
+ * <p>
+ * Next to the file, the two sides keep a {@link TCPSocket} as a control channel, which acts as a doorbell: after
+ * copying bytes into a ring, the writer sends the new write position, and after taking bytes out of a ring, the
+ * reader sends the new read position. A side only ever uses the positions it received on the control channel, so
+ * the data it covers was written before the doorbell was sent, and that system call orders the stores for the other
+ * process; no access to the memory model of the JVM is needed. Since the control channel is attached to the
+ * {@link SocketEngine}, an idle connection costs no thread and no wakeups: the ring is drained by the I/O thread
+ * that receives the doorbell, and a writer that finds the ring full blocks until the reader reports space.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+public final class SharedMemorySocket implements FrameSocket {
+
+    private static final Logger log = LoggerFactory.getLogger(SharedMemorySocket.class);
+
+    /**
+     * The capacity of each of the two ring buffers in the file
+     */
+    public static final int DEFAULT_RING_CAPACITY = 1024 * 1024;
+
+    /**
+     * The extension of the files that contain the ring buffers
+     */
+    public static final String FILE_EXTENSION = ".ring";
+
+    private static final int MAGIC = 0x64655069;
+    private static final int VERSION = 2;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int SERVER_CLOSED_OFFSET = 12;
+    private static final int CLIENT_CONNECTED_OFFSET = 16;
+    private static final int HEADER_LENGTH = 64;
+
+    private static final byte DOORBELL_DATA = 1;
+    private static final byte DOORBELL_SPACE = 2;
+    private static final int DOORBELL_LENGTH = 5;
+
+    private static final long CONNECT_RETRY_MILLIS = 50;
+
+    private final Path file;
+    private final boolean server;
+    private final int capacity;
+    private final TCPSocket control;
+    private final Object writeLock = new Object();
+    private final Object spaceLock = new Object();
+    private final byte[] writeHeader = new byte[4];
+    private final AtomicBoolean closeNotified = new AtomicBoolean(false);
+
+    private volatile MappedByteBuffer mapped;
+    private volatile boolean connected = false;
+    private volatile boolean closed = false;
+    private volatile FrameListener listener;
+    private volatile boolean readingPaused = false;
+    private volatile int maxFrameSize = FrameSocket.DEFAULT_MAX_FRAME_SIZE;
+
+    private Ring out;
+    private Ring in;
+
+    // Only used by the writing thread, while holding the write lock
+    private int writePosition = 0;
+    // Updated by the I/O thread of the control channel
+    private volatile int remoteReadPosition = 0;
+
+    // Only used by the I/O thread of the control channel
+    private int readPosition = 0;
+    private int remoteWritePosition = 0;
+    private final byte[] readHeader = new byte[4];
+    private int headerRead = 0;
+    private byte[] readFrame;
+    private int frameRead = 0;
+
+    /**
+     * Create a socket that creates the ring buffer file, and waits for the client to connect to the control channel
+     *
+     * @param directory the directory to create the file in
+     * @param name a name that uniquely identifies the connection on this host
+     * @param port the port of the control channel to bind to
+     * @return A SharedMemorySocket that will create the ring buffers when it connects
+     */
+    public static SharedMemorySocket asServer(final Path directory, final String name, final int port) {
+        return new SharedMemorySocket(directory.resolve(name + SharedMemorySocket.FILE_EXTENSION),
+                TCPSocket.asServer(port),
+                true,
+                SharedMemorySocket.DEFAULT_RING_CAPACITY);
+    }
+
+    /**
+     * Create a socket that waits for the server to create the ring buffer file, opens it, and then connects to the
+     * control channel of the server
+     *
+     * @param directory the directory in which the server creates the file
+     * @param name a name that uniquely identifies the connection on this host
+     * @param host the host name of the server
+     * @param port the port of the control channel of the server
+     * @return A SharedMemorySocket that will open the ring buffers when it connects
+     */
+    public static SharedMemorySocket asClient(final Path directory,
+            final String name,
+            final String host,
+            final int port) {
+        return new SharedMemorySocket(directory.resolve(name + SharedMemorySocket.FILE_EXTENSION),
+                TCPSocket.asClient(host, port),
+                false,
+                SharedMemorySocket.DEFAULT_RING_CAPACITY);
+    }
+
+    /**
+     * Create a SharedMemorySocket. The capacity is only used by the server, the client uses the capacity that is
+     * recorded in the file.
+     *
+     * @param file the file that contains the ring buffers
+     * @param control the socket that carries the doorbells between the two sides
+     * @param server whether this side creates the file
+     * @param capacity the capacity of each ring buffer, must be a power of two
+     */
+    SharedMemorySocket(final Path file, final TCPSocket control, final boolean server, final int capacity) {
+        if ((capacity <= 0) || (Integer.bitCount(capacity) != 1)) {
+            throw new IllegalArgumentException("Ring capacity must be a power of two");
+        }
+        this.file = file;
+        this.control = control;
+        this.server = server;
+        this.capacity = capacity;
+    }
+
+    @Override
+    public boolean isConnected() {
+        return this.connected && !this.closed;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    @Override
+    public void waitUntilConnected() throws IOException {
+        this.waitUntilConnected(0);
+    }
+
+    @Override
+    public synchronized boolean waitUntilConnected(final long millis) throws IOException {
+        final long deadline = millis > 0 ? System.currentTimeMillis() + millis : Long.MAX_VALUE;
+        while (this.mapped == null) {
+            if (this.closed) {
+                this.removeFile();
+                throw new ClosedChannelException();
+            }
+
+            if (this.server) {
+                this.createFile();
+                break;
+            } else if (this.openFile()) {
+                this.mapped.putInt(SharedMemorySocket.CLIENT_CONNECTED_OFFSET, 1);
+                break;
+            }
+
+            final long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            LockSupport.parkNanos(
+                    TimeUnit.MILLISECONDS.toNanos(Math.min(remaining, SharedMemorySocket.CONNECT_RETRY_MILLIS)));
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Interrupted while waiting for " + this.file);
+            }
+        }
+
+        if (!this.connected) {
+            final long remaining = millis > 0 ? deadline - System.currentTimeMillis() : 0;
+            if ((millis > 0) && (remaining <= 0)) {
+                return false;
+            }
+            if (!this.control.waitUntilConnected(remaining)) {
+                return false;
+            }
+            this.control.attach(new Doorbell());
+            this.connected = true;
+        }
+
+        if (this.closed) {
+            throw new ClosedChannelException();
+        }
+        return true;
+    }
+
+    /**
+     * Create the file with the ring buffers, and only make it visible under its final name when it is completely
+     * initialized.
+     *
+     * @throws IOException when the file could not be created
+     */
+    private void createFile() throws IOException {
+        Files.createDirectories(this.file.getParent());
+        final Path tmp = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+        Files.deleteIfExists(tmp);
+
+        final MappedByteBuffer buffer;
+        try (
+                final RandomAccessFile raf = new RandomAccessFile(tmp.toFile(), "rw");
+                final FileChannel fc = raf.getChannel()) {
+            final long size = SharedMemorySocket.HEADER_LENGTH + (2L * this.capacity);
+            raf.setLength(size);
+            buffer = fc.map(MapMode.READ_WRITE, 0, size);
+        }
+        buffer.order(ByteOrder.nativeOrder());
+        buffer.putInt(SharedMemorySocket.VERSION_OFFSET, SharedMemorySocket.VERSION);
+        buffer.putInt(SharedMemorySocket.CAPACITY_OFFSET, this.capacity);
+        buffer.putInt(SharedMemorySocket.MAGIC_OFFSET, SharedMemorySocket.MAGIC);
+
+        // The client only finds the file after this move, so it never sees a file that is not completely initialized
+        Files.move(tmp, this.file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        this.map(buffer, this.capacity);
+        SharedMemorySocket.log.debug("Created ring buffers in {}", this.file);
+    }
+
+    /**
+     * Try to open the file that was created by the server
+     *
+     * @return whether the file exists and is ready to be used
+     * @throws IOException when the file exists, but could not be opened
+     */
+    private boolean openFile() throws IOException {
+        final MappedByteBuffer buffer;
+        try (
+                final RandomAccessFile raf = new RandomAccessFile(this.file.toFile(), "rw");
+                final FileChannel fc = raf.getChannel()) {
+            if (fc.size() < SharedMemorySocket.HEADER_LENGTH) {
+                return false;
+            }
+            buffer = fc.map(MapMode.READ_WRITE, 0, fc.size());
+        } catch (final FileNotFoundException e) {
+            return false;
+        }
+        buffer.order(ByteOrder.nativeOrder());
+
+        if (buffer.getInt(SharedMemorySocket.MAGIC_OFFSET) != SharedMemorySocket.MAGIC) {
+            return false;
+        }
+        if (buffer.getInt(SharedMemorySocket.VERSION_OFFSET) != SharedMemorySocket.VERSION) {
+            throw new IOException("Unsupported version of ring buffer file " + this.file);
+        }
+        if ((buffer.getInt(SharedMemorySocket.SERVER_CLOSED_OFFSET) != 0)
+                || (buffer.getInt(SharedMemorySocket.CLIENT_CONNECTED_OFFSET) != 0)) {
+            // This file is from an earlier connection, wait for the server to replace it
+            return false;
+        }
+
+        final int ringCapacity = buffer.getInt(SharedMemorySocket.CAPACITY_OFFSET);
+        if ((ringCapacity <= 0) || (Integer.bitCount(ringCapacity) != 1)
+                || (buffer.capacity() < (SharedMemorySocket.HEADER_LENGTH + (2L * ringCapacity)))) {
+            throw new IOException("Invalid ring buffer file " + this.file);
+        }
+        this.map(buffer, ringCapacity);
+        return true;
+    }
+
+    private void map(final MappedByteBuffer buffer, final int ringCapacity) {
+        final Ring serverRing = new Ring(buffer, SharedMemorySocket.HEADER_LENGTH, ringCapacity);
+        final Ring clientRing = new Ring(buffer, SharedMemorySocket.HEADER_LENGTH + ringCapacity, ringCapacity);
+        this.out = this.server ? serverRing : clientRing;
+        this.in = this.server ? clientRing : serverRing;
+        this.mapped = buffer;
+    }
+
+    /**
+     * Set the maximum length of a frame that this socket receives. When the remote side announces a longer frame, the
+     * socket is closed instead of allocating a buffer for it. The default is
+     * {@value FrameSocket#DEFAULT_MAX_FRAME_SIZE} bytes.
+     *
+     * @param maxFrameSize the maximum length of a received frame, in bytes
+     */
+    public void setMaxFrameSize(final int maxFrameSize) {
+        if (maxFrameSize <= 0) {
+            throw new IllegalArgumentException("Maximum frame size must be positive");
+        }
+        this.maxFrameSize = maxFrameSize;
+    }
+
+    /**
+     * Have all incoming frames delivered to the provided listener. The frames are delivered by the I/O thread of the
+     * {@link SocketEngine} that serves the control channel.
+     */
+    @Override
+    public synchronized void attach(final FrameListener frameListener) throws ClosedChannelException {
+        if (this.closed) {
+            throw new ClosedChannelException();
+        } else if (!this.connected) {
+            throw new NotYetConnectedException();
+        } else if (this.listener != null) {
+            throw new IllegalStateException("Socket is already attached");
+        }
+
+        this.listener = frameListener;
+        // Frames may have arrived before there was a listener to deliver them to
+        this.control.execute(this::drain);
+    }
+
+    /**
+     * Stop reading from the ring buffer. The remote side can keep writing until the ring buffer is full, and then
+     * waits until {@linkplain #resumeReading()} is called.
+     */
+    @Override
+    public void pauseReading() {
+        this.readingPaused = true;
+    }
+
+    @Override
+    public void resumeReading() {
+        this.readingPaused = false;
+        if (this.listener != null) {
+            this.control.execute(this::drain);
+        }
+    }
+
+    /**
+     * Deliver the frames up to the last write position that the remote side announced, and announce the new read
+     * position when anything was read. Only called by the I/O thread of the control channel.
+     */
+    private void drain() {
+        final int start = this.readPosition;
+        try {
+            while ((this.listener != null) && !this.readingPaused && !this.closed) {
+                if (this.readFrame == null) {
+                    final int n = Math.min(this.remoteWritePosition - this.readPosition,
+                            this.readHeader.length - this.headerRead);
+                    this.in.read(this.readPosition, this.readHeader, this.headerRead, n);
+                    this.readPosition += n;
+                    this.headerRead += n;
+                    if (this.headerRead < this.readHeader.length) {
+                        break;
+                    }
+
+                    final int len = ByteBuffer.wrap(this.readHeader).getInt();
+                    if (len < 0) {
+                        throw new IOException("Received invalid message length " + len);
+                    } else if (len > this.maxFrameSize) {
+                        throw new IOException("Received frame of " + len + " bytes, which exceeds the maximum of "
+                                + this.maxFrameSize);
+                    }
+                    this.readFrame = new byte[len];
+                    this.frameRead = 0;
+                }
+
+                final int n = Math.min(this.remoteWritePosition - this.readPosition,
+                        this.readFrame.length - this.frameRead);
+                this.in.read(this.readPosition, this.readFrame, this.frameRead, n);
+                this.readPosition += n;
+                this.frameRead += n;
+                if (this.frameRead < this.readFrame.length) {
+                    break;
+                }
+
+                final byte[] frame = this.readFrame;
+                this.readFrame = null;
+                this.headerRead = 0;
+                this.listener.onFrame(frame);
+            }
+
+            if (this.readPosition != start) {
+                this.ring(SharedMemorySocket.DOORBELL_SPACE, this.readPosition);
+            }
+        } catch (final IOException e) {
+            SharedMemorySocket.log.debug("Closing socket after read failure: {}", e.getMessage());
+            this.close();
+        } catch (final Exception e) {
+            SharedMemorySocket.log.error("Exception while handling frame, closing socket: {}", e.getMessage());
+            SharedMemorySocket.log.trace(e.getMessage(), e);
+            this.close();
+        }
+    }
+
+    @Override
+    public void send(final byte[] data) throws IOException {
+        if (this.closed) {
+            throw new ClosedChannelException();
+        } else if (!this.connected) {
+            throw new NotYetConnectedException();
+        }
+
+        IOException failure = null;
+        synchronized (this.writeLock) {
+            try {
+                ByteBuffer.wrap(this.writeHeader).putInt(0, data.length);
+                this.writeFully(this.writeHeader);
+                this.writeFully(data);
+                this.ring(SharedMemorySocket.DOORBELL_DATA, this.writePosition);
+            } catch (final IOException e) {
+                failure = e;
+            }
+        }
+
+        // Close outside of the lock, the listener may want to send something as well
+        if (failure != null) {
+            this.close();
+            throw failure;
+        }
+    }
+
+    /**
+     * Copy the bytes into the ring, and wait for the reader to make room whenever the ring is full. Only called while
+     * holding the write lock.
+     */
+    private void writeFully(final byte[] src) throws IOException {
+        int off = 0;
+        while (off < src.length) {
+            final int n = Math.min(src.length - off, this.waitForSpace());
+            this.out.write(this.writePosition, src, off, n);
+            this.writePosition += n;
+            off += n;
+        }
+    }
+
+    /**
+     * Block until there is room in the ring, without polling: the I/O thread wakes this thread when the reader
+     * reports a new read position, or when the socket is closed.
+     *
+     * @return the number of bytes that can be written
+     */
+    private int waitForSpace() throws IOException {
+        int space = this.out.capacity - (this.writePosition - this.remoteReadPosition);
+        if (space > 0) {
+            return space;
+        }
+
+        // Let the reader know what it can read, so it will eventually make room
+        this.ring(SharedMemorySocket.DOORBELL_DATA, this.writePosition);
+        synchronized (this.spaceLock) {
+            space = this.out.capacity - (this.writePosition - this.remoteReadPosition);
+            while ((space <= 0) && !this.closed) {
+                try {
+                    this.spaceLock.wait();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for space in " + this.file);
+                }
+                space = this.out.capacity - (this.writePosition - this.remoteReadPosition);
+            }
+        }
+        if (this.closed) {
+            throw new ClosedChannelException();
+        }
+        return space;
+    }
+
+    private void ring(final byte type, final int position) throws IOException {
+        final byte[] doorbell = new byte[SharedMemorySocket.DOORBELL_LENGTH];
+        doorbell[0] = type;
+        ByteBuffer.wrap(doorbell).putInt(1, position);
+        this.control.send(doorbell);
+    }
+
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        synchronized (this.spaceLock) {
+            this.spaceLock.notifyAll();
+        }
+
+        final MappedByteBuffer buffer = this.mapped;
+        if ((buffer != null) && this.server) {
+            buffer.putInt(SharedMemorySocket.SERVER_CLOSED_OFFSET, 1);
+        }
+        this.removeFile();
+        this.control.close();
+
+        final FrameListener frameListener = this.listener;
+        if ((frameListener != null) && this.closeNotified.compareAndSet(false, true)) {
+            frameListener.onClose();
+        }
+    }
+
+    private void removeFile() {
+        if (this.server) {
+            try {
+                Files.deleteIfExists(this.file);
+            } catch (final IOException e) {
+                SharedMemorySocket.log.warn("Exception while removing {}: {}", this.file, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Receives the doorbells of the remote side on the I/O thread of the control channel
+     */
+    private final class Doorbell implements FrameListener {
+
+        Doorbell() {
+            // Nothing to initialize
+        }
+
+        @Override
+        public void onFrame(final byte[] data) {
+            if (data.length != SharedMemorySocket.DOORBELL_LENGTH) {
+                SharedMemorySocket.log.error("Received invalid doorbell of {} bytes, closing socket", data.length);
+                SharedMemorySocket.this.close();
+                return;
+            }
+
+            final int position = ByteBuffer.wrap(data).getInt(1);
+            if (data[0] == SharedMemorySocket.DOORBELL_DATA) {
+                SharedMemorySocket.this.remoteWritePosition = position;
+                SharedMemorySocket.this.drain();
+            } else {
+                synchronized (SharedMemorySocket.this.spaceLock) {
+                    SharedMemorySocket.this.remoteReadPosition = position;
+                    SharedMemorySocket.this.spaceLock.notifyAll();
+                }
+            }
+        }
+
+        @Override
+        public void onClose() {
+            SharedMemorySocket.this.close();
+        }
+
+    }
+
+    /**
+     * One direction of the connection. The positions are kept by the two sides, and wrap around; the difference
+     * between the write and the read position is the number of bytes in the ring.
+     */
+    private static final class Ring {
+
+        // Keeps the memory mapped for as long as the ring is used
+        @SuppressWarnings("unused")
+        private final MappedByteBuffer buffer;
+        private final ByteBuffer data;
+        final int capacity;
+        private final int mask;
+
+        Ring(final MappedByteBuffer buffer, final int dataOffset, final int ringCapacity) {
+            this.buffer = buffer;
+            this.capacity = ringCapacity;
+            this.mask = ringCapacity - 1;
+
+            final ByteBuffer dup = buffer.duplicate();
+            dup.position(dataOffset).limit(dataOffset + ringCapacity);
+            this.data = dup.slice();
+        }
+
+        /**
+         * Copy bytes into the ring at the provided position, only called by the writing side
+         */
+        void write(final int position, final byte[] src, final int off, final int len) {
+            final int index = position & this.mask;
+            final int first = Math.min(len, this.capacity - index);
+            this.data.position(index);
+            this.data.put(src, off, first);
+            if (first < len) {
+                this.data.position(0);
+                this.data.put(src, off + first, len - first);
+            }
+        }
+
+        /**
+         * Copy bytes from the ring at the provided position, only called by the reading side
+         */
+        void read(final int position, final byte[] dst, final int off, final int len) {
+            final int index = position & this.mask;
+            final int first = Math.min(len, this.capacity - index);
+            this.data.position(index);
+            this.data.get(dst, off, first);
+            if (first < len) {
+                this.data.position(0);
+                this.data.get(dst, off + first, len - first);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,188 @@
+/*-
+ * #%L
+ * dEF-Pi commons Library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.commons;
+
+import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The SocketEngine multiplexes the reading of many {@link TCPSocket}s onto a small, fixed set of I/O threads. Each
+ * thread owns a {@link Selector}, and sockets that are attached to the engine are distributed over the threads in a
+ * round-robin fashion. Whenever a complete frame is read from a socket, it is delivered to the {@link FrameListener}
+ * of that socket.
+ * <p>
+ * This way a process that maintains many connections does not need a parked thread for every one of them.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ * @see TCPSocket#attach(FrameListener)
+ */
+public final class SocketEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(SocketEngine.class);
+
+    /**
+     * The number of I/O threads of the shared engine, which is at most 4
+     */
+    private static final int DEFAULT_IO_THREADS = Math.max(1,
+            Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    private static SocketEngine instance;
+    private static int threadCount = 0;
+
+    private final IOThread[] ioThreads;
+    private final AtomicInteger nextThread = new AtomicInteger();
+
+    /**
+     * @return the singleton instance of the SocketEngine, which is created when it is first needed
+     */
+    public static synchronized SocketEngine getInstance() {
+        if (SocketEngine.instance == null) {
+            SocketEngine.instance = new SocketEngine(SocketEngine.DEFAULT_IO_THREADS);
+        }
+        return SocketEngine.instance;
+    }
+
+    private SocketEngine(final int numThreads) {
+        this.ioThreads = new IOThread[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            try {
+                this.ioThreads[i] = new IOThread(Selector.open());
+            } catch (final IOException e) {
+                throw new RuntimeException("Unable to open selector for the socket engine", e);
+            }
+            this.ioThreads[i].start();
+        }
+        SocketEngine.log.debug("Started socket engine with {} I/O threads", numThreads);
+    }
+
+    /**
+     * @return the number of I/O threads that this engine uses to read from all attached sockets
+     */
+    public int getThreadCount() {
+        return this.ioThreads.length;
+    }
+
+    /**
+     * Register the channel of a socket with one of the I/O threads. From now on, whenever the channel is readable, the
+     * thread will call {@link TCPSocket#processReadable()}.
+     *
+     * @param socket the socket to register
+     * @return the I/O thread that reads from the socket, which should also be used to change its registration
+     */
+    IOThread register(final TCPSocket socket) {
+        final int index = Math.abs(this.nextThread.getAndIncrement() % this.ioThreads.length);
+        final IOThread ioThread = this.ioThreads[index];
+        ioThread.execute(() -> ioThread.processRegistration(socket));
+        return ioThread;
+    }
+
+    /**
+     * One of the threads of the engine, which owns a selector. Registrations with the selector are only changed by
+     * the thread itself, other threads hand it a task to do so.
+     */
+    static final class IOThread extends Thread {
+
+        private final Selector selector;
+        private final Queue<Runnable> pendingTasks = new ConcurrentLinkedQueue<>();
+
+        IOThread(final Selector selector) {
+            super("dEF-Pi ioThread-" + SocketEngine.threadCount++);
+            this.selector = selector;
+            this.setDaemon(true);
+        }
+
+        /**
+         * Run a task on this thread, immediately when called by the thread itself, or otherwise as soon as it is done
+         * with what it is doing.
+         *
+         * @param task the task to run
+         */
+        void execute(final Runnable task) {
+            if (Thread.currentThread() == this) {
+                task.run();
+            } else {
+                // Registering while the thread is in select() would block, so let the thread do it itself
+                this.pendingTasks.add(task);
+                this.selector.wakeup();
+            }
+        }
+
+        @Override
+        public void run() {
+            while (!this.isInterrupted()) {
+                try {
+                    this.selector.select();
+                    this.processTasks();
+
+                    final Iterator<SelectionKey> it = this.selector.selectedKeys().iterator();
+                    while (it.hasNext()) {
+                        final SelectionKey key = it.next();
+                        it.remove();
+                        try {
+                            if (key.isReadable()) {
+                                ((TCPSocket) key.attachment()).processReadable();
+                            }
+                        } catch (final CancelledKeyException e) {
+                            // The socket was closed in the mean time, it will no longer be selected
+                        }
+                    }
+                } catch (final Exception e) {
+                    SocketEngine.log.error("Unexpected exception in I/O thread: {}", e.getMessage());
+                    SocketEngine.log.trace(e.getMessage(), e);
+                }
+            }
+        }
+
+        private void processTasks() {
+            Runnable task;
+            while ((task = this.pendingTasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (final CancelledKeyException e) {
+                    // The socket was closed in the mean time, there is nothing left to change
+                }
+            }
+        }
+
+        private void processRegistration(final TCPSocket socket) {
+            final SocketChannel channel = socket.getChannel();
+            try {
+                socket.registered(channel.register(this.selector, SelectionKey.OP_READ, socket));
+            } catch (final ClosedChannelException e) {
+                SocketEngine.log.debug("Socket was closed before it could be registered");
+                socket.close();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,161 @@
+/*-
+ * #%L
+ * dEF-Pi commons Library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.commons;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A StreamFrame carries a chunk of a message that is streamed with {@code Connection.sendStream(InputStream)}, or a
+ * credit for the sender of a stream. Like the other frames a connection uses for itself, it starts with the envelope
+ * marker and a byte indicating the frame type.
+ * <p>
+ * A chunk is followed by a byte with flags that indicate whether it is the last chunk, or whether the sender aborted
+ * the stream, and the data. The first chunk that is received after the last chunk of the previous stream starts a new
+ * stream. A credit contains the number of chunks of the current stream the receiver has taken from its buffer, so the
+ * sender never gets more than {@link #WINDOW} chunks ahead of the handler that is reading the stream.
+ * <p>
+ * The same chunks carry the state of a suspended process over the management socket, see {@link ChunkInputStream}
+ * and {@link ChunkOutputStream}.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+public final class StreamFrame {
+
+    /**
+     * The second byte of a frame that contains a chunk of a stream
+     */
+    public static final byte CHUNK_TYPE = 0x06;
+
+    /**
+     * The second byte of a frame that contains a credit for the sender of a stream
+     */
+    public static final byte CREDIT_TYPE = 0x07;
+
+    /**
+     * The maximum number of bytes of a stream in one chunk, so a chunk fits in a single fragment of 64 KiB
+     */
+    public static final int CHUNK_SIZE = (64 * 1024) - 3;
+
+    /**
+     * The number of chunks the sender may send before the receiver has taken them from its buffer
+     */
+    public static final int WINDOW = 16;
+
+    /**
+     * The first byte of every frame that is not a user message, but carries information for the connection itself
+     */
+    private static final byte ENVELOPE_MARKER = 0x00;
+
+    private static final int PREFIX_LENGTH = 3;
+    private static final int CREDIT_LENGTH = 10;
+    private static final byte LAST_CHUNK = 0x01;
+    private static final byte ABORTED = 0x02;
+
+    private StreamFrame() {
+        // Private constructor for utility class
+    }
+
+    /**
+     * @param data the buffer that contains the data of the chunk
+     * @param length the number of bytes of the chunk, at the start of the buffer
+     * @param last whether this is the last chunk of the stream
+     * @return the frame that contains the chunk
+     */
+    public static byte[] encodeChunk(final byte[] data, final int length, final boolean last) {
+        return ByteBuffer.allocate(StreamFrame.PREFIX_LENGTH + length)
+                .put(StreamFrame.ENVELOPE_MARKER)
+                .put(StreamFrame.CHUNK_TYPE)
+                .put(last ? StreamFrame.LAST_CHUNK : 0)
+                .put(data, 0, length)
+                .array();
+    }
+
+    /**
+     * @return the frame that tells the receiver the sender could not finish the stream
+     */
+    public static byte[] encodeAbort() {
+        return new byte[] {StreamFrame.ENVELOPE_MARKER, StreamFrame.CHUNK_TYPE, StreamFrame.ABORTED};
+    }
+
+    /**
+     * @param data the received frame
+     * @return whether the frame contains a chunk of a stream
+     */
+    public static boolean isChunk(final byte[] data) {
+        return (data.length >= StreamFrame.PREFIX_LENGTH) && (data[0] == StreamFrame.ENVELOPE_MARKER)
+                && (data[1] == StreamFrame.CHUNK_TYPE);
+    }
+
+    /**
+     * @param data the received frame, for which {@link #isChunk(byte[])} is true
+     * @return whether it is the last chunk of the stream
+     */
+    public static boolean isLast(final byte[] data) {
+        return (data[2] & StreamFrame.LAST_CHUNK) != 0;
+    }
+
+    /**
+     * @param data the received frame, for which {@link #isChunk(byte[])} is true
+     * @return whether the sender aborted the stream
+     */
+    public static boolean isAborted(final byte[] data) {
+        return (data[2] & StreamFrame.ABORTED) != 0;
+    }
+
+    /**
+     * @param data the received frame, for which {@link #isChunk(byte[])} is true
+     * @return the data of the chunk
+     */
+    public static byte[] decodeChunk(final byte[] data) {
+        return Arrays.copyOfRange(data, StreamFrame.PREFIX_LENGTH, data.length);
+    }
+
+    /**
+     * @param consumed the number of chunks of the current stream that were taken from the buffer
+     * @return the frame that grants the sender credits
+     */
+    public static byte[] encodeCredit(final long consumed) {
+        return ByteBuffer.allocate(StreamFrame.CREDIT_LENGTH)
+                .put(StreamFrame.ENVELOPE_MARKER)
+                .put(StreamFrame.CREDIT_TYPE)
+                .putLong(consumed)
+                .array();
+    }
+
+    /**
+     * @param data the received frame
+     * @return whether the frame contains a credit for the sender of a stream
+     */
+    public static boolean isCredit(final byte[] data) {
+        return (data.length == StreamFrame.CREDIT_LENGTH) && (data[0] == StreamFrame.ENVELOPE_MARKER)
+                && (data[1] == StreamFrame.CREDIT_TYPE);
+    }
+
+    /**
+     * @param data the received frame, for which {@link #isCredit(byte[])} is true
+     * @return the number of chunks of the current stream the receiver took from its buffer
+     */
+    public static long decodeCredit(final byte[] data) {
+        return ByteBuffer.wrap(data, 2, 8).getLong();
+    }
+
+}
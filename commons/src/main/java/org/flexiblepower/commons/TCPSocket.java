@@ -21,32 +21,44 @@ package org.flexiblepower.commons;
 
 import java.io.Closeable;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.net.ServerSocket;
-import java.net.Socket;
-import java.net.SocketTimeoutException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
 import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
 import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ClosedSelectorException;
 import java.nio.channels.NotYetConnectedException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * The TCPSocket is a wrapper class around the {@linkplain java.net.Socket} to make sure that byte arrays are received
- * as a whole. (i.e. some checks are added to make sure byte arrays are sent with an additional four bytes indicating
- * the length, and an END-OF-MESSAGE byte is added at the end.)
+ * The TCPSocket is a wrapper class around the {@linkplain java.nio.channels.SocketChannel} to make sure that byte
+ * arrays are received as a whole. (i.e. some checks are added to make sure byte arrays are sent with an additional four
+ * bytes indicating the length, and an END-OF-MESSAGE byte is added at the end.)
  * <p>
  * TCPSockets are meant as disposable, they will function as long as the socket is alive, but when an IOException occurs
  * that is non-recoverable (i.e a remote hangup, end-of-stream) the socket is closed. The only iterative attempts to
  * connect the socket occur when initiating the connection, for example when calling {@linkplain #waitUntilConnected()}.
+ * <p>
+ * Data can be read from the socket either by calling one of the blocking {@linkplain #read()} functions, or by
+ * attaching it to the {@link SocketEngine} with {@linkplain #attach(FrameListener)}, after which all frames are
+ * delivered by callback from a shared I/O thread.
+ * <p>
+ * Frames are encoded and decoded by a {@link FrameCodec} using buffers from the shared {@link BufferPool}. Every frame
+ * is sent with a single gathering write, and Nagle's algorithm is disabled by default (see
+ * {@linkplain #setTcpNoDelay(boolean)}).
  *
  * @author Coen van Leeuwen
- * @version 0.3
+ * @version 0.4
  * @since Oct 11, 2017
  */
-public class TCPSocket implements Closeable {
+public class TCPSocket implements FrameSocket {
 
     /**
      * Logger for all TCPSocket events
@@ -54,14 +66,36 @@ public class TCPSocket implements Closeable {
     protected static final Logger log = LoggerFactory.getLogger(TCPSocket.class);
 
     private static final int CONNECT_ON_SEND_TIMEOUT = 10;
-    private static final int EOM = 0xFF;
+
+    /**
+     * Whether sockets disable Nagle's algorithm unless specified otherwise. Since every frame is sent with a single
+     * write, there is no need to wait for more data before sending a packet.
+     */
+    public static final boolean DEFAULT_TCP_NODELAY = true;
+
+    /**
+     * The maximum number of times the I/O thread reads from one socket before serving the others
+     */
+    private static final int MAX_READS_PER_EVENT = 16;
 
     private final SocketConnector connector;
+    private final FrameCodec codec = new FrameCodec(BufferPool.getInstance());
+    private final Object readLock = new Object();
+    private final Object writeLock = new Object();
+    private final AtomicBoolean closeNotified = new AtomicBoolean(false);
 
     /**
-     * The backing java.net.Socket that this class wraps around
+     * The backing java.nio.channels.SocketChannel that this class wraps around
      */
-    protected Socket socket;
+    protected volatile SocketChannel channel;
+
+    private volatile FrameListener listener;
+    private volatile boolean tcpNoDelay = TCPSocket.DEFAULT_TCP_NODELAY;
+    private volatile Selector readSelector;
+    private volatile Selector writeSelector;
+    private volatile SocketEngine.IOThread ioThread;
+    private volatile SelectionKey selectionKey;
+    private volatile boolean readingPaused = false;
 
     /**
      * Builder function to create a new TCP socket as a client, connecting to a Server socket
@@ -69,7 +103,7 @@ public class TCPSocket implements Closeable {
      * @param host the target host name of the server to connect to.
      * @param port the port of the remote server to connect to
      * @return A TCPSocket that will try to connect to the provided host and port
-     * @see java.net.Socket#Socket(String, int)
+     * @see java.nio.channels.SocketChannel#open(java.net.SocketAddress)
      */
     public static synchronized TCPSocket asClient(final String host, final int port) {
         return new TCPSocket(host, port);
@@ -80,7 +114,7 @@ public class TCPSocket implements Closeable {
      *
      * @param port the port of the socket to bind to
      * @return A TCPSocket that will try to bind to the provided port
-     * @see java.net.ServerSocket#ServerSocket(int)
+     * @see java.nio.channels.ServerSocketChannel#bind(java.net.SocketAddress)
      */
     public static synchronized TCPSocket asServer(final int port) {
         return new TCPSocket(port);
@@ -96,12 +130,14 @@ public class TCPSocket implements Closeable {
 
     /**
      * This function will check if the socket is connected or not. Contrary to
-     * {@linkplain java.net.Socket#isConnected()}, this function will return when the socket is closed.
+     * {@linkplain java.nio.channels.SocketChannel#isConnected()}, this function will return when the socket is closed.
      *
      * @return a boolean indicating whether the TCPSocket is connected or not.
      */
+    @Override
     public boolean isConnected() {
-        return (this.socket != null) && this.socket.isConnected() && !this.socket.isClosed();
+        final SocketChannel ch = this.channel;
+        return (ch != null) && ch.isConnected() && ch.isOpen();
     }
 
     /**
@@ -111,8 +147,18 @@ public class TCPSocket implements Closeable {
      *
      * @return a boolean indicating whether the TCPSocket has been closed.
      */
+    @Override
     public boolean isClosed() {
-        return (this.socket != null) && this.socket.isClosed();
+        final SocketChannel ch = this.channel;
+        return (ch != null) && !ch.isOpen();
+    }
+
+    /**
+     * @return whether this socket is attached to the {@link SocketEngine}
+     * @see #attach(FrameListener)
+     */
+    public boolean isAttached() {
+        return this.listener != null;
     }
 
     /**
@@ -123,6 +169,7 @@ public class TCPSocket implements Closeable {
      * @throws IOException when the underlying socket throws an exception while waiting to connect
      * @see #waitUntilConnected(long)
      */
+    @Override
     public synchronized void waitUntilConnected() throws IOException {
         this.waitUntilConnected(0);
     }
@@ -137,21 +184,158 @@ public class TCPSocket implements Closeable {
      * @return whether the socket connected
      * @throws IOException when the underlying socket throws an exception while waiting to connect
      */
+    @Override
     public synchronized boolean waitUntilConnected(final long millis) throws IOException {
-        if (this.socket != null) {
+        if (this.channel != null) {
             return true;
         }
 
-        this.socket = this.connector.connect(millis);
-        if (this.socket == null) {
+        final SocketChannel ch = this.connector.connect(millis);
+        if (ch == null) {
             return false;
-        } else {
-            // So we DID get a socket, but it somehow poofed away
-            if (!this.isConnected()) {
-                throw new ClosedChannelException();
-            }
-            this.socket.setKeepAlive(true);
-            return true;
+        }
+
+        // So we DID get a socket, but it somehow poofed away
+        if (!ch.isConnected() || !ch.isOpen()) {
+            ch.close();
+            throw new ClosedChannelException();
+        }
+        ch.setOption(StandardSocketOptions.SO_KEEPALIVE, true);
+        ch.setOption(StandardSocketOptions.TCP_NODELAY, this.tcpNoDelay);
+        ch.configureBlocking(false);
+        this.channel = ch;
+        return true;
+    }
+
+    /**
+     * Set whether Nagle's algorithm should be disabled for this socket, i.e. whether small frames are sent immediately
+     * instead of being held back until more data is available. The default is {@value #DEFAULT_TCP_NODELAY}. The
+     * setting may be changed at any time, also before the socket is connected.
+     *
+     * @param noDelay true to send every frame immediately, false to let the operating system coalesce small frames
+     * @throws IOException when the option could not be applied to the connected socket
+     * @see java.net.StandardSocketOptions#TCP_NODELAY
+     */
+    public synchronized void setTcpNoDelay(final boolean noDelay) throws IOException {
+        this.tcpNoDelay = noDelay;
+        final SocketChannel ch = this.channel;
+        if ((ch != null) && ch.isOpen()) {
+            ch.setOption(StandardSocketOptions.TCP_NODELAY, noDelay);
+        }
+    }
+
+    /**
+     * Set the maximum length of a frame that this socket receives. When the remote side announces a longer frame, the
+     * socket is closed instead of allocating a buffer for it. The default is
+     * {@value FrameSocket#DEFAULT_MAX_FRAME_SIZE} bytes.
+     *
+     * @param maxFrameSize the maximum length of a received frame, in bytes
+     */
+    public void setMaxFrameSize(final int maxFrameSize) {
+        if (maxFrameSize <= 0) {
+            throw new IllegalArgumentException("Maximum frame size must be positive");
+        }
+        this.codec.setMaxFrameSize(maxFrameSize);
+    }
+
+    /**
+     * @return whether Nagle's algorithm is disabled for this socket
+     * @see #setTcpNoDelay(boolean)
+     */
+    public boolean getTcpNoDelay() {
+        return this.tcpNoDelay;
+    }
+
+    /**
+     * Attach the socket to the {@link SocketEngine}. From this moment on, all frames that are received by this socket
+     * are delivered to the provided listener, and the blocking {@linkplain #read()} functions can no longer be used.
+     * When the socket is closed for whatever reason, the listener is notified exactly once.
+     *
+     * @param frameListener the listener that will receive all incoming frames
+     * @throws NotYetConnectedException when the socket is not yet connected
+     * @throws ClosedChannelException when this socket has been closed
+     * @throws IllegalStateException when the socket is already attached
+     */
+    @Override
+    public synchronized void attach(final FrameListener frameListener) throws ClosedChannelException {
+        if (this.isClosed()) {
+            throw new ClosedChannelException();
+        } else if (!this.isConnected()) {
+            throw new NotYetConnectedException();
+        } else if (this.listener != null) {
+            throw new IllegalStateException("Socket is already attached to the socket engine");
+        }
+
+        this.listener = frameListener;
+        this.ioThread = SocketEngine.getInstance().register(this);
+    }
+
+    /**
+     * @return the channel this socket wraps around, used by the {@link SocketEngine} to register for read events
+     */
+    SocketChannel getChannel() {
+        return this.channel;
+    }
+
+    /**
+     * Called by the I/O thread of the {@link SocketEngine} when the channel is registered with its selector
+     *
+     * @param key the key of the registration
+     */
+    void registered(final SelectionKey key) {
+        this.selectionKey = key;
+        this.updateInterest();
+    }
+
+    /**
+     * Stop reading from the channel until {@linkplain #resumeReading()} is called. The I/O thread no longer selects
+     * this socket, so it keeps serving the other sockets, while the data that is not read yet fills the TCP receive
+     * window, and eventually holds the remote side back.
+     */
+    @Override
+    public void pauseReading() {
+        this.readingPaused = true;
+        final SocketEngine.IOThread thread = this.ioThread;
+        if (thread != null) {
+            thread.execute(this::updateInterest);
+        }
+    }
+
+    @Override
+    public void resumeReading() {
+        this.readingPaused = false;
+        final SocketEngine.IOThread thread = this.ioThread;
+        if (thread != null) {
+            thread.execute(() -> {
+                this.updateInterest();
+                // Frames that were already read into the buffer will not make the channel readable
+                this.processReadable();
+            });
+        }
+    }
+
+    /**
+     * Run a task on the I/O thread that serves this socket, so it does not run concurrently with the delivery of its
+     * frames. Only used when the socket is attached.
+     *
+     * @param task the task to run
+     * @throws IllegalStateException when the socket is not attached to the {@link SocketEngine}
+     */
+    void execute(final Runnable task) {
+        final SocketEngine.IOThread thread = this.ioThread;
+        if (thread == null) {
+            throw new IllegalStateException("Socket is not attached to the socket engine");
+        }
+        thread.execute(task);
+    }
+
+    /**
+     * Select the channel for reading or not, depending on whether reading is paused. Only called by the I/O thread.
+     */
+    private void updateInterest() {
+        final SelectionKey key = this.selectionKey;
+        if ((key != null) && key.isValid()) {
+            key.interestOps(this.readingPaused ? 0 : SelectionKey.OP_READ);
         }
     }
 
@@ -182,13 +366,15 @@ public class TCPSocket implements Closeable {
      * @param timeout the amount of milliseconds to wait, before returning null
      * @return the data that was read from the socket or null if no data was read.
      * @throws ClosedChannelException when this socket has been closed
+     * @throws IllegalStateException when this socket is attached to the {@link SocketEngine}
      * @throws IOException When the underlying socket is closed before the data is received, the end-of-stream is
      *             reached, or any exception occurs while reading, or while waiting for the data.
      */
-    @SuppressWarnings("resource")
     public byte[] read(final long timeout) throws IOException {
         if (this.isClosed()) {
             throw new ClosedChannelException();
+        } else if (this.isAttached()) {
+            throw new IllegalStateException("Unable to read from socket that is attached to the socket engine");
         }
 
         final long t_start = System.currentTimeMillis();
@@ -201,50 +387,35 @@ public class TCPSocket implements Closeable {
             }
         }
 
-        synchronized (this.socket.getInputStream()) {
-            if (timeout == 0) {
-                this.socket.setSoTimeout(0);
-            } else {
-                final int newTimeout = (int) Math.max(1, timeout - (System.currentTimeMillis() - t_start));
-                this.socket.setSoTimeout(newTimeout);
-            }
-
-            // Read 4 bytes that will tell how long the message is
+        synchronized (this.readLock) {
+            // Like a blocking java.net.Socket, do not let an interrupt close the channel
+            boolean interrupted = false;
             try {
-                final InputStream is = this.socket.getInputStream();
-                final int len = ByteBuffer
-                        .wrap(new byte[] {(byte) is.read(), (byte) is.read(), (byte) is.read(), (byte) is.read()})
-                        .getInt();
-
-                if (len < 0) {
-                    this.close();
-                    throw new IOException("Reached end of stream");
-                }
-                final byte[] data = new byte[len];
-                int read = 0;
-                while (read < len) {
-                    read += is.read(data, read, len - read);
-                }
-                if (read != len) {
-                    TCPSocket.log.warn("Expected {} bytes, instead received {}", len, read);
-                }
+                while (true) {
+                    interrupted |= Thread.interrupted();
+                    final byte[] data = this.readFrame();
+                    if (data != null) {
+                        return data;
+                    }
 
-                int eof = is.read();
-                if (eof != TCPSocket.EOM) {
-                    TCPSocket.log.warn("Expected EOM, instead read {}, skipping stream", eof);
-                    while (eof != TCPSocket.EOM) {
-                        eof = is.read();
-                        if (eof < 0) {
-                            this.close();
-                            throw new IOException("Reached end of stream");
+                    long timeLeft = 0;
+                    if (timeout != 0) {
+                        timeLeft = timeout - (System.currentTimeMillis() - t_start);
+                        if (timeLeft <= 0) {
+                            TCPSocket.log.trace("Read timeout while waiting for data");
+                            return null;
                         }
                     }
+                    interrupted |= Thread.interrupted();
+                    this.awaitReadable(timeLeft);
+                }
+            } catch (final IOException e) {
+                this.close();
+                throw e;
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
                 }
-
-                return data;
-            } catch (final SocketTimeoutException e) {
-                TCPSocket.log.trace("Read timeout while waiting for data");
-                return null;
             }
         }
     }
@@ -262,6 +433,7 @@ public class TCPSocket implements Closeable {
      * @throws ClosedChannelException when this socket has been closed
      * @throws IOException When the underlying socket is closed before the data is sent, or while waiting for the data
      */
+    @Override
     public void send(final byte[] data) throws IOException {
         if (!this.waitUntilConnected(TCPSocket.CONNECT_ON_SEND_TIMEOUT)) {
             throw new NotYetConnectedException();
@@ -269,19 +441,149 @@ public class TCPSocket implements Closeable {
             throw new ClosedChannelException();
         }
 
-        synchronized (this.socket.getOutputStream()) {
+        IOException failure = null;
+        synchronized (this.writeLock) {
+            final ByteBuffer[] frame = this.codec.encode(data);
+            final ByteBuffer last = frame[frame.length - 1];
+
+            // Like a blocking java.net.Socket, do not let an interrupt close the channel
+            boolean interrupted = false;
             try {
-                // We should not close this stream, as it will also close the socket
-                @SuppressWarnings("resource")
-                final OutputStream os = this.socket.getOutputStream();
-                os.write(ByteBuffer.allocate(4).putInt(data.length).array());
-                os.write(data);
-                os.write(TCPSocket.EOM);
-                os.flush();
+                while (last.hasRemaining()) {
+                    interrupted |= Thread.interrupted();
+                    if (this.channel.write(frame) == 0) {
+                        interrupted |= Thread.interrupted();
+                        this.awaitWritable();
+                    }
+                }
             } catch (final IOException e) {
-                this.close();
-                throw e;
+                failure = e;
+            } finally {
+                this.codec.encodeComplete();
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        // Close outside of the lock, the listener may want to send something as well
+        if (failure != null) {
+            this.close();
+            throw failure;
+        }
+    }
+
+    /**
+     * Called by the I/O thread of the {@link SocketEngine} whenever the channel is readable. Reads all complete frames
+     * that are available (with a maximum number of reads, to be fair to the other sockets) and hands them to the
+     * listener. Stops as soon as reading is paused, possibly by the listener itself. A {@link PooledFrameListener} gets
+     * the frames as views on the receive buffer.
+     */
+    void processReadable() {
+        final FrameListener frameListener = this.listener;
+        try {
+            int reads = 0;
+            while (!this.readingPaused && !this.isClosed()) {
+                if (!this.deliverFrame(frameListener)
+                        && ((reads++ == TCPSocket.MAX_READS_PER_EVENT) || !this.codec.fill(this.channel))) {
+                    // Either nothing left to read, or the selector will tell us there is more
+                    return;
+                }
+            }
+        } catch (final IOException e) {
+            TCPSocket.log.debug("Closing socket after read failure: {}", e.getMessage());
+            this.close();
+        } catch (final Exception e) {
+            TCPSocket.log.error("Exception while handling frame, closing socket: {}", e.getMessage());
+            TCPSocket.log.trace(e.getMessage(), e);
+            this.close();
+        }
+    }
+
+    /**
+     * Hand the next complete frame that was read from the channel to the listener
+     *
+     * @param frameListener the listener to hand the frame to
+     * @return whether a complete frame was available
+     * @throws IOException When the frame header contains an invalid length
+     */
+    private boolean deliverFrame(final FrameListener frameListener) throws IOException {
+        if (frameListener instanceof PooledFrameListener) {
+            final PooledFrame frame = this.codec.decodeFrame();
+            if (frame == null) {
+                return false;
             }
+            ((PooledFrameListener) frameListener).onFrame(frame);
+            return true;
+        }
+
+        final byte[] data = this.codec.decode();
+        if (data == null) {
+            return false;
+        }
+        frameListener.onFrame(data);
+        return true;
+    }
+
+    /**
+     * Read the next frame from the channel without blocking
+     *
+     * @return the payload of the next frame, or null if no complete frame is available yet
+     * @throws IOException When the end-of-stream is reached, or any exception occurs while reading
+     */
+    private byte[] readFrame() throws IOException {
+        while (true) {
+            final byte[] data = this.codec.decode();
+            if ((data != null) || !this.codec.fill(this.channel)) {
+                return data;
+            }
+        }
+    }
+
+    /**
+     * Wait until the channel is readable or the timeout has passed
+     *
+     * @param millis the maximum amount of milliseconds to wait, or 0 to wait forever
+     * @throws IOException when the selector could not be opened or the socket was closed while waiting
+     */
+    private void awaitReadable(final long millis) throws IOException {
+        try {
+            if (this.readSelector == null) {
+                this.readSelector = Selector.open();
+                this.channel.register(this.readSelector, SelectionKey.OP_READ);
+                if (this.isClosed()) {
+                    // Closed while we were opening the selector, so close() may have missed it
+                    TCPSocket.closeSelector(this.readSelector);
+                    throw new ClosedChannelException();
+                }
+            }
+            this.readSelector.select(millis);
+            this.readSelector.selectedKeys().clear();
+        } catch (final ClosedSelectorException e) {
+            throw new ClosedChannelException();
+        }
+    }
+
+    /**
+     * Wait until the channel is able to accept more data, because the socket send buffer is full
+     *
+     * @throws IOException when the selector could not be opened or the socket was closed while waiting
+     */
+    private void awaitWritable() throws IOException {
+        try {
+            if (this.writeSelector == null) {
+                this.writeSelector = Selector.open();
+                this.channel.register(this.writeSelector, SelectionKey.OP_WRITE);
+                if (this.isClosed()) {
+                    // Closed while we were opening the selector, so close() may have missed it
+                    TCPSocket.closeSelector(this.writeSelector);
+                    throw new ClosedChannelException();
+                }
+            }
+            this.writeSelector.select();
+            this.writeSelector.selectedKeys().clear();
+        } catch (final ClosedSelectorException e) {
+            throw new ClosedChannelException();
         }
     }
 
@@ -293,14 +595,37 @@ public class TCPSocket implements Closeable {
             TCPSocket.log.warn("Exception while closing connector: {}", e.getMessage());
         }
 
-        if ((this.socket != null) && !this.socket.isClosed()) {
+        final SocketChannel ch = this.channel;
+        if ((ch != null) && ch.isOpen()) {
             try {
                 TCPSocket.log.trace("Closing TCP socket");
-                this.socket.close();
+                ch.close();
             } catch (final IOException e) {
                 TCPSocket.log.warn("Exception while closing socket: {}", e.getMessage());
             }
         }
+
+        // Wake up any thread that is waiting for the socket
+        TCPSocket.closeSelector(this.readSelector);
+        TCPSocket.closeSelector(this.writeSelector);
+        if (ch != null) {
+            this.codec.release();
+        }
+
+        final FrameListener frameListener = this.listener;
+        if ((frameListener != null) && this.closeNotified.compareAndSet(false, true)) {
+            frameListener.onClose();
+        }
+    }
+
+    private static void closeSelector(final Selector selector) {
+        if (selector != null) {
+            try {
+                selector.close();
+            } catch (final IOException e) {
+                TCPSocket.log.warn("Exception while closing selector: {}", e.getMessage());
+            }
+        }
     }
 
     /**
@@ -319,11 +644,11 @@ public class TCPSocket implements Closeable {
          * Set up the connection
          *
          * @param millis the timeout in milliseconds
-         * @return the Socket that is the result of a successful connection, or null if the timeout has passed before
-         *         the connection succeeded
+         * @return the SocketChannel that is the result of a successful connection, or null if the timeout has passed
+         *         before the connection succeeded
          * @throws IOException When an exception occurs during communciation with the remote socket
          */
-        public abstract Socket connect(final long millis) throws IOException;
+        public abstract SocketChannel connect(final long millis) throws IOException;
 
         /**
          * Increase the timeout and wait before re-attempting the connection
@@ -335,7 +660,8 @@ public class TCPSocket implements Closeable {
             try {
                 Thread.sleep(this.backOffMs);
             } catch (final InterruptedException e) {
-                // Don't care, we'll see you next iteration
+                // Keep the flag, so the caller can decide whether to continue
+                Thread.currentThread().interrupt();
             }
         }
 
@@ -365,7 +691,7 @@ public class TCPSocket implements Closeable {
          *
          * @param address the host address to connect to
          * @param port the remote port to connect to
-         * @see java.net.Socket#Socket(String, int)
+         * @see java.nio.channels.SocketChannel#open(java.net.SocketAddress)
          */
         ClientSocketConnector(final String address, final int port) {
             this.targetAddress = address;
@@ -373,12 +699,14 @@ public class TCPSocket implements Closeable {
         }
 
         @Override
-        public Socket connect(final long millis) {
+        public SocketChannel connect(final long millis) {
             final long t_start = System.currentTimeMillis();
-            while (this.timeLeft(t_start, millis) > 0) {
+            // Stop trying when the waiting thread is interrupted, e.g. because its executor is shut down
+            while (!Thread.currentThread().isInterrupted() && (this.timeLeft(t_start, millis) > 0)) {
                 try {
-                    final Socket client = new Socket(this.targetAddress, this.targetPort);
-                    TCPSocket.log.info("Initialized client socket to {}", client.getRemoteSocketAddress());
+                    final SocketChannel client = SocketChannel
+                            .open(new InetSocketAddress(this.targetAddress, this.targetPort));
+                    TCPSocket.log.info("Initialized client socket to {}", client.getRemoteAddress());
                     return client;
                 } catch (final IOException e) {
                     TCPSocket.log.trace("Unable to connect ({}), retrying...", e.getMessage());
@@ -398,13 +726,14 @@ public class TCPSocket implements Closeable {
     private final class ServerSocketConnector extends SocketConnector {
 
         private final int serverPort;
-        private ServerSocket serverSocket;
+        private ServerSocketChannel serverChannel;
+        private Selector acceptSelector;
 
         /**
          * Creates a SocketConnector that will initiate a server socket, binding to the provided port
          *
          * @param port the local port to bind to
-         * @see java.net.ServerSocket#ServerSocket(int)
+         * @see java.nio.channels.ServerSocketChannel#bind(java.net.SocketAddress)
          */
         ServerSocketConnector(final int port) {
             TCPSocket.log.info("Starting server socket at {}", port);
@@ -413,59 +742,100 @@ public class TCPSocket implements Closeable {
         }
 
         private synchronized boolean bindServerSocket() {
-            if (this.serverSocket != null) {
+            if (this.serverChannel != null) {
                 return true;
             }
 
+            ServerSocketChannel ssc = null;
             try {
                 TCPSocket.log.trace("Binding to port {}", this.serverPort);
-                this.serverSocket = new ServerSocket(this.serverPort);
-                this.serverSocket.setReuseAddress(true);
+                ssc = ServerSocketChannel.open();
+                ssc.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+                ssc.bind(new InetSocketAddress(this.serverPort));
+                ssc.configureBlocking(false);
+                this.acceptSelector = Selector.open();
+                ssc.register(this.acceptSelector, SelectionKey.OP_ACCEPT);
+                this.serverChannel = ssc;
                 return true;
             } catch (final IOException e) {
                 TCPSocket.log.warn("Unable to open server socket at port {}: {}", this.serverPort, e.getMessage());
+                if (ssc != null) {
+                    try {
+                        ssc.close();
+                    } catch (final IOException e1) {
+                        // Ignore, we were unable to use it anyway
+                    }
+                }
+                TCPSocket.closeSelector(this.acceptSelector);
+                this.acceptSelector = null;
                 return false;
             }
         }
 
         @Override
-        public Socket connect(final long millis) throws IOException {
+        public SocketChannel connect(final long millis) throws IOException {
             final long t_start = System.currentTimeMillis();
-            while ((this.serverSocket == null) && (this.timeLeft(t_start, millis) > 0)) {
+            while ((this.serverChannel == null) && !Thread.currentThread().isInterrupted()
+                    && (this.timeLeft(t_start, millis) > 0)) {
                 if (!this.bindServerSocket()) {
                     this.increaseBackOffAndWait(this.timeLeft(t_start, millis));
                 }
             }
 
-            if (this.serverSocket == null) {
+            if (this.serverChannel == null) {
                 TCPSocket.log.trace("Server bind timed out");
                 return null;
             }
 
-            if (millis == 0) {
-                this.serverSocket.setSoTimeout(0);
-            } else {
-                this.serverSocket.setSoTimeout((int) Math.max(1, this.timeLeft(t_start, millis)));
-            }
-
             try {
-                final Socket client = this.serverSocket.accept();
-                TCPSocket.log.info("Accepted client socket at {}", client.getRemoteSocketAddress());
-                this.serverSocket.close();
+                SocketChannel client = this.acceptPending();
+                while (client == null) {
+                    final long timeLeft = millis == 0 ? 0 : this.timeLeft(t_start, millis);
+                    if ((millis != 0) && (timeLeft <= 0)) {
+                        TCPSocket.log.trace("Server accept timed out");
+                        return null;
+                    } else if (Thread.currentThread().isInterrupted()) {
+                        throw new ClosedByInterruptException();
+                    }
+                    this.acceptSelector.select(timeLeft);
+                    this.acceptSelector.selectedKeys().clear();
+                    client = this.acceptPending();
+                }
+
+                TCPSocket.log.info("Accepted client socket at {}", client.getRemoteAddress());
+                this.close();
                 return client;
-            } catch (final SocketTimeoutException e) {
-                TCPSocket.log.trace("Server accept timed out");
-                return null;
+            } catch (final ClosedSelectorException e) {
+                throw new ClosedChannelException();
             } catch (final IOException e) {
-                this.serverSocket.close();
+                this.close();
                 throw e;
             }
         }
 
+        /**
+         * Accept a connection that is pending, without letting an interrupt close the server channel. Like a blocking
+         * java.net.ServerSocket, an interrupt only aborts waiting when there is nothing to accept.
+         *
+         * @return the accepted channel, or null if there was no pending connection
+         * @throws IOException When an exception occurs while accepting
+         */
+        private SocketChannel acceptPending() throws IOException {
+            final boolean interrupted = Thread.interrupted();
+            try {
+                return this.serverChannel.accept();
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
         @Override
         public void close() throws IOException {
-            if (this.serverSocket != null) {
-                this.serverSocket.close();
+            TCPSocket.closeSelector(this.acceptSelector);
+            if (this.serverChannel != null) {
+                this.serverChannel.close();
             }
         }
     }
@@ -0,0 +1,61 @@
+/*-
+ * #%L
+ * dEF-Pi commons Library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.compression;
+
+import java.io.IOException;
+
+/**
+ * A CompressionCodec compresses the payload of frames before they are sent over a connection. Next to the built-in
+ * {@link DeflateCodec}, additional codecs can be provided by registering an implementation of this interface in
+ * <code>META-INF/services/org.flexiblepower.compression.CompressionCodec</code>. Implementations must have a public
+ * no-argument constructor, and must be thread safe.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ * @see CompressionCodecs
+ */
+public interface CompressionCodec {
+
+    /**
+     * @return the name that identifies this codec when it is negotiated with the remote side of a connection
+     */
+    public String getName();
+
+    /**
+     * Compress a byte array
+     *
+     * @param data the data to compress
+     * @return the compressed data
+     */
+    public byte[] compress(byte[] data);
+
+    /**
+     * Decompress a part of a byte array that was compressed with {@link #compress(byte[])}
+     *
+     * @param data the array that contains the compressed data
+     * @param offset the index of the first byte of the compressed data
+     * @param length the number of bytes of compressed data
+     * @param originalLength the length of the data before it was compressed
+     * @return the decompressed data, which is exactly originalLength bytes long
+     * @throws IOException when the data could not be decompressed, or does not have the expected length
+     */
+    public byte[] decompress(byte[] data, int offset, int length, int originalLength) throws IOException;
+
+}
@@ -0,0 +1,113 @@
+/*-
+ * #%L
+ * dEF-Pi commons Library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.compression;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * CompressionCodecs keeps the list of {@link CompressionCodec}s that are available in this process. Codecs that are
+ * registered through the {@link ServiceLoader} come first, in the order in which they are found, and the built-in
+ * {@link DeflateCodec} comes last. The order of the list is the order of preference, and does not change once it is
+ * loaded, so the position of a codec in the list can be used to refer to it.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+public final class CompressionCodecs {
+
+    private static final Logger log = LoggerFactory.getLogger(CompressionCodecs.class);
+
+    private static CompressionCodecs instance;
+
+    private final List<CompressionCodec> codecs;
+    private final List<String> names;
+
+    /**
+     * @return the codecs that are available in this process, which are loaded when first needed
+     */
+    public static synchronized CompressionCodecs getInstance() {
+        if (CompressionCodecs.instance == null) {
+            CompressionCodecs.instance = new CompressionCodecs();
+        }
+        return CompressionCodecs.instance;
+    }
+
+    private CompressionCodecs() {
+        final List<CompressionCodec> found = new ArrayList<>();
+        final List<String> foundNames = new ArrayList<>();
+
+        final Iterator<CompressionCodec> it = ServiceLoader.load(CompressionCodec.class).iterator();
+        while (true) {
+            try {
+                if (!it.hasNext()) {
+                    break;
+                }
+                final CompressionCodec codec = it.next();
+                if (foundNames.contains(codec.getName()) || DeflateCodec.NAME.equals(codec.getName())) {
+                    CompressionCodecs.log.warn("Ignoring duplicate compression codec {}", codec.getName());
+                    continue;
+                }
+                found.add(codec);
+                foundNames.add(codec.getName());
+            } catch (final ServiceConfigurationError e) {
+                CompressionCodecs.log.warn("Unable to load compression codec: {}", e.getMessage());
+            }
+        }
+
+        found.add(new DeflateCodec());
+        foundNames.add(DeflateCodec.NAME);
+
+        this.codecs = Collections.unmodifiableList(found);
+        this.names = Collections.unmodifiableList(foundNames);
+        CompressionCodecs.log.debug("Available compression codecs: {}", this.names);
+    }
+
+    /**
+     * @return all available codecs, in order of preference
+     */
+    public List<CompressionCodec> getCodecs() {
+        return this.codecs;
+    }
+
+    /**
+     * @return the names of all available codecs, in order of preference
+     */
+    public List<String> getNames() {
+        return this.names;
+    }
+
+    /**
+     * @param name the name of the codec
+     * @return the codec with the provided name, or null if it is not available
+     */
+    public CompressionCodec get(final String name) {
+        final int index = this.names.indexOf(name);
+        return index < 0 ? null : this.codecs.get(index);
+    }
+
+}
@@ -0,0 +1,101 @@
+/*-
+ * #%L
+ * dEF-Pi commons Library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.compression;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The DeflateCodec compresses data with the Deflate algorithm that is provided by the JDK. It is always available, so
+ * two dEF-Pi processes can always agree on it. The native Deflater and Inflater of each thread are reused.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+public final class DeflateCodec implements CompressionCodec {
+
+    /**
+     * The name of this codec
+     */
+    public static final String NAME = "deflate";
+
+    private static final ThreadLocal<Deflater> deflater = ThreadLocal
+            .withInitial(() -> new Deflater(Deflater.DEFAULT_COMPRESSION, true));
+    private static final ThreadLocal<Inflater> inflater = ThreadLocal.withInitial(() -> new Inflater(true));
+
+    @Override
+    public String getName() {
+        return DeflateCodec.NAME;
+    }
+
+    @Override
+    public byte[] compress(final byte[] data) {
+        final Deflater def = DeflateCodec.deflater.get();
+        def.reset();
+        def.setInput(data);
+        def.finish();
+
+        // Incompressible data grows a little, but usually the output is a lot smaller
+        byte[] out = new byte[(data.length / 2) + 64];
+        int len = 0;
+        while (!def.finished()) {
+            if (len == out.length) {
+                out = Arrays.copyOf(out, out.length * 2);
+            }
+            len += def.deflate(out, len, out.length - len);
+        }
+        return Arrays.copyOf(out, len);
+    }
+
+    @Override
+    public byte[] decompress(final byte[] data, final int offset, final int length, final int originalLength)
+            throws IOException {
+        if (originalLength < 0) {
+            throw new IOException("Invalid original length " + originalLength);
+        }
+
+        final Inflater inf = DeflateCodec.inflater.get();
+        inf.reset();
+        inf.setInput(data, offset, length);
+
+        final byte[] out = new byte[originalLength];
+        int len = 0;
+        try {
+            while (!inf.finished()) {
+                final int n = inf.inflate(out, len, out.length - len);
+                len += n;
+                if ((n == 0) && (inf.needsInput() || inf.needsDictionary() || (len == out.length))) {
+                    break;
+                }
+            }
+        } catch (final DataFormatException e) {
+            throw new IOException("Invalid deflate data: " + e.getMessage(), e);
+        }
+
+        if (!inf.finished() || (len != originalLength)) {
+            throw new IOException("Decompressed data does not have the expected length " + originalLength);
+        }
+        return out;
+    }
+
+}
@@ -22,14 +22,22 @@ package org.flexiblepower.serializers;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import org.flexiblepower.exceptions.SerializationException;
 
 /**
  * JavaIOSerializer
+ * <p>
+ * Every message gets its own object streams, so it is safe to use this serializer from many threads at once.
  *
  * @version 0.1
  * @since May 10, 2017
@@ -37,6 +45,8 @@ import org.flexiblepower.exceptions.SerializationException;
 public class JavaIOSerializer implements MessageSerializer<Serializable> {
 
     private static final DescriptorType type = DescriptorType.JAVAOBJECT;
+    private static final int GZIP_MAGIC_1 = 0x1f;
+    private static final int GZIP_MAGIC_2 = 0x8b;
 
     @Override
     public byte[] serialize(final Serializable obj) throws SerializationException {
@@ -52,9 +62,65 @@ public class JavaIOSerializer implements MessageSerializer<Serializable> {
 
     @Override
     public Serializable deserialize(final byte[] ba) throws SerializationException {
-        try (
-                final ByteArrayInputStream bais = new ByteArrayInputStream(ba);
-                final ObjectInputStream oos = new ObjectInputStream(bais)) {
+        return JavaIOSerializer.readObject(new ByteArrayInputStream(ba));
+    }
+
+    @Override
+    public Serializable deserialize(final ByteBuffer data) throws SerializationException {
+        return JavaIOSerializer.readObject(new ByteBufferInputStream(data));
+    }
+
+    /**
+     * Write an object to a stream in compressed form. The object is compressed while it is serialized, so the
+     * uncompressed form is never held in memory as a whole. The stream is finished, but not closed.
+     *
+     * @param obj the object to serialize
+     * @param out the stream to write the compressed object to
+     * @throws SerializationException when the object cannot be serialized or written
+     */
+    public void serializeCompressed(final Serializable obj, final OutputStream out) throws SerializationException {
+        try {
+            final GZIPOutputStream gzip = new GZIPOutputStream(out);
+            final ObjectOutputStream oos = new ObjectOutputStream(gzip);
+            oos.writeObject(obj);
+            oos.flush();
+            gzip.finish();
+        } catch (final IOException e) {
+            throw new SerializationException(e);
+        }
+    }
+
+    /**
+     * Read an object from a stream, as written by {@link #serializeCompressed(Serializable, OutputStream)}. Data that
+     * was written uncompressed by {@link #serialize(Serializable)} is recognized and read as well.
+     *
+     * @param in the stream to read the object from
+     * @return the deserialized object
+     * @throws SerializationException when the stream does not hold a serialized object
+     */
+    public Serializable deserializeCompressed(final InputStream in) throws SerializationException {
+        try {
+            final PushbackInputStream pushback = new PushbackInputStream(in, 2);
+            final int first = pushback.read();
+            final int second = pushback.read();
+            if (second >= 0) {
+                pushback.unread(second);
+            }
+            if (first >= 0) {
+                pushback.unread(first);
+            }
+
+            if ((first == JavaIOSerializer.GZIP_MAGIC_1) && (second == JavaIOSerializer.GZIP_MAGIC_2)) {
+                return JavaIOSerializer.readObject(new GZIPInputStream(pushback));
+            }
+            return JavaIOSerializer.readObject(pushback);
+        } catch (final IOException e) {
+            throw new SerializationException(e);
+        }
+    }
+
+    private static Serializable readObject(final InputStream in) throws SerializationException {
+        try (final ObjectInputStream oos = new ObjectInputStream(in)) {
             return (Serializable) oos.readObject();
         } catch (ClassNotFoundException | IOException e) {
             throw new SerializationException(e);
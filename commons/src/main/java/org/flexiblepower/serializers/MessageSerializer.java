@@ -19,10 +19,16 @@
  */
 package org.flexiblepower.serializers;
 
+import java.nio.ByteBuffer;
+
 import org.flexiblepower.exceptions.SerializationException;
 
 /**
  * MessageSerializer
+ * <p>
+ * Once the message classes are added, implementations must allow {@link #serialize(Object)} and the deserialize
+ * functions to be called by many threads at the same time, so a connection can send and receive in parallel without
+ * locking the serializer. Adding message classes does not need to be safe while messages are (de)serialized.
  *
  * @version 0.1
  * @since May 18, 2017
@@ -73,6 +79,28 @@ public interface MessageSerializer<T> {
      */
     public T deserialize(byte[] data) throws SerializationException;
 
+    /**
+     * Deserialize the remaining bytes of a buffer to an object of Type T, preferably without copying them to an
+     * intermediate byte array first. This allows parsing a message straight out of a (pooled) receive buffer, or out
+     * of a part of a larger frame. The exact class of the return type will have to be added using
+     * {@link #addMessageClass(Class)} before this function is called.
+     * <p>
+     * The position of the buffer is advanced past the data that was read. The serializer does not keep a reference to
+     * the buffer, so the caller may reuse it as soon as this function returns.
+     * <p>
+     * The default implementation copies the remaining bytes and calls {@link #deserialize(byte[])}, serializers that
+     * can read from the buffer directly should override it.
+     *
+     * @param data the buffer containing the raw data between its position and its limit
+     * @return A proper deserialized object
+     * @throws SerializationException When an exception occurs during message (de)serialization
+     */
+    public default T deserialize(final ByteBuffer data) throws SerializationException {
+        final byte[] bytes = new byte[data.remaining()];
+        data.get(bytes);
+        return this.deserialize(bytes);
+    }
+
     /**
      * Serialize a an object of Type T into a byte array of raw data. The exact class of the argument type will have to
      * be added using {@link #addMessageClass(Class)} before this function is called.
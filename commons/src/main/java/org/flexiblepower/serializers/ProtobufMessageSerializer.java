@@ -19,15 +19,20 @@
  */
 package org.flexiblepower.serializers;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.flexiblepower.exceptions.SerializationException;
 
+import com.google.protobuf.CodedOutputStream;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.Message;
 import com.google.protobuf.Parser;
@@ -41,69 +46,311 @@ import com.google.protobuf.Parser;
  * encodes the length of the name of the byte array. The following bytes are the
  * String representing the name of the byte array. All data that follows is the
  * ProtoBuf encoded data.
+ * <p>
+ * The parser and the encoded name of every message type are looked up once, when the type is added. Received
+ * messages are matched to their type by comparing the encoded name in place, so no String is built for them. Since
+ * the parsers of ProtoBuf are stateless, so is this serializer once its types are added.
+ * <p>
+ * Instead of the name, a compact numeric id can be used for the type: a first byte of {@value #TYPE_ID_MARKER},
+ * followed by the id as a varint. The id is the position of the type in the {@link #getTypeNames() type names} of the
+ * receiving side. Once the names of the remote side are known through {@link #setRemoteTypeNames(List)}, messages of
+ * the types that the remote side knows are written with their id. Received messages may use either form.
  */
 public class ProtobufMessageSerializer implements MessageSerializer<Message> {
 
-    private final Map<String, Class<? extends Message>> messageTypes = new HashMap<>();
+    /**
+     * The first byte of a message that is identified by a numeric id instead of its name
+     */
+    public static final int TYPE_ID_MARKER = 0x80;
+
+    private static final int MAX_NAME_LENGTH = 127;
+
+    private final Map<Class<?>, MessageType> messageTypes = new HashMap<>();
+    private final List<MessageType> typeTable = new ArrayList<>();
+    private volatile MessageType[] typesById = new MessageType[0];
+    private volatile Map<Class<?>, byte[]> remoteHeaders = Collections.emptyMap();
+    private final MessageType[][] typesByNameLength = new MessageType[ProtobufMessageSerializer.MAX_NAME_LENGTH + 1][];
     private final DescriptorType type = DescriptorType.PROTOBUF;
 
     @Override
     public void addMessageClass(final Class<? extends Message> cls) {
-        if (cls.getSimpleName().length() >= 128) {
+        final byte[] name = cls.getSimpleName().getBytes(StandardCharsets.UTF_8);
+        if (name.length > ProtobufMessageSerializer.MAX_NAME_LENGTH) {
             throw new IllegalArgumentException("The name of the message must be less than 128 characters");
+        } else if (this.messageTypes.containsKey(cls)) {
+            return;
+        }
+
+        final Parser<?> parser;
+        try {
+            parser = (Parser<?>) cls.getMethod("parser").invoke(null);
+        } catch (IllegalAccessException
+                | IllegalArgumentException
+                | InvocationTargetException
+                | NoSuchMethodException
+                | SecurityException e) {
+            throw new IllegalArgumentException("Unable to find parser for message type " + cls.getName(), e);
+        }
+
+        final MessageType messageType = new MessageType(name, parser);
+        this.messageTypes.put(cls, messageType);
+        this.addToTypeTable(messageType);
+
+        // Like before, a type with the same name replaces the one that was added earlier
+        final MessageType[] sameLength = this.typesByNameLength[name.length];
+        if (sameLength == null) {
+            this.typesByNameLength[name.length] = new MessageType[] {messageType};
+            return;
+        }
+        for (int i = 0; i < sameLength.length; i++) {
+            if (Arrays.equals(sameLength[i].name, name)) {
+                sameLength[i] = messageType;
+                return;
+            }
+        }
+        final MessageType[] extended = Arrays.copyOf(sameLength, sameLength.length + 1);
+        extended[sameLength.length] = messageType;
+        this.typesByNameLength[name.length] = extended;
+    }
+
+    /**
+     * The position of a type in the table is its id, so a type with the same name as one that was added earlier takes
+     * its place
+     */
+    private void addToTypeTable(final MessageType messageType) {
+        for (int i = 0; i < this.typeTable.size(); i++) {
+            if (Arrays.equals(this.typeTable.get(i).name, messageType.name)) {
+                this.typeTable.set(i, messageType);
+                this.typesById = this.typeTable.toArray(new MessageType[0]);
+                return;
+            }
+        }
+        this.typeTable.add(messageType);
+        this.typesById = this.typeTable.toArray(new MessageType[0]);
+    }
+
+    /**
+     * @return the names of the types that were added, where the position of a name is the id of the type. The remote
+     *         side should pass these to {@link #setRemoteTypeNames(List)} to write compact ids.
+     */
+    public List<String> getTypeNames() {
+        final List<String> names = new ArrayList<>();
+        for (final MessageType messageType : this.typesById) {
+            names.add(new String(messageType.name, StandardCharsets.UTF_8));
+        }
+        return names;
+    }
+
+    /**
+     * Use compact numeric ids for the types that the remote side knows. Messages of other types are still written with
+     * their name.
+     *
+     * @param remoteTypeNames the {@link #getTypeNames() type names} of the remote side, or an empty list to write the
+     *            names of all types, for instance because the remote side does not understand ids
+     */
+    public void setRemoteTypeNames(final List<String> remoteTypeNames) {
+        final Map<String, Integer> remoteIds = new HashMap<>();
+        for (int i = remoteTypeNames.size() - 1; i >= 0; i--) {
+            remoteIds.put(remoteTypeNames.get(i), i);
+        }
+
+        final Map<Class<?>, byte[]> headers = new HashMap<>();
+        this.messageTypes.forEach((cls, messageType) -> {
+            final Integer id = remoteIds.get(cls.getSimpleName());
+            if (id != null) {
+                headers.put(cls, ProtobufMessageSerializer.idHeader(id));
+            }
+        });
+        this.remoteHeaders = headers;
+    }
+
+    private static byte[] idHeader(final int id) {
+        final byte[] header = new byte[1 + CodedOutputStream.computeUInt32SizeNoTag(id)];
+        header[0] = (byte) ProtobufMessageSerializer.TYPE_ID_MARKER;
+        int value = id;
+        for (int i = 1; i < header.length; i++) {
+            header[i] = (byte) (i < (header.length - 1) ? (value & 0x7F) | 0x80 : value);
+            value >>>= 7;
         }
-        this.messageTypes.put(cls.getSimpleName(), cls);
+        return header;
     }
 
     @Override
     public byte[] serialize(final Message msg) throws SerializationException {
         if (msg != null) {
-            final String msgTypeName = msg.getClass().getSimpleName();
-            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            byte[] header = this.remoteHeaders.get(msg.getClass());
+            if (header == null) {
+                final MessageType messageType = this.messageTypes.get(msg.getClass());
+                header = messageType != null ? messageType.header
+                        : MessageType.nameHeader(msg.getClass().getSimpleName().getBytes(StandardCharsets.UTF_8));
+            }
+            final int headerLength = header.length;
+            final int size = msg.getSerializedSize();
+
+            final byte[] data = new byte[headerLength + size];
+            System.arraycopy(header, 0, data, 0, headerLength);
             try {
-                baos.write((byte) msgTypeName.length());
-                baos.write(msgTypeName.getBytes());
-                baos.write(msg.toByteArray());
-                // no point closing a ByteArrayOutputStream
+                final CodedOutputStream output = CodedOutputStream.newInstance(data, headerLength, size);
+                msg.writeTo(output);
+                output.checkNoSpaceLeft();
             } catch (final IOException e) {
                 throw new SerializationException(e);
             }
-            return baos.toByteArray();
+            return data;
         }
         return null;
     }
 
     @Override
     public Message deserialize(final byte[] data) throws SerializationException {
-        final int msgTypeNameLength = data[0];
+        return this.deserialize(ByteBuffer.wrap(data));
+    }
+
+    @Override
+    public Message deserialize(final ByteBuffer data) throws SerializationException {
+        if (data.hasRemaining() && ((data.get(data.position()) & 0xFF) == ProtobufMessageSerializer.TYPE_ID_MARKER)) {
+            return this.deserializeById(data);
+        }
+
+        final int msgTypeNameLength = data.hasRemaining() ? data.get(data.position()) : 0;
         if (msgTypeNameLength <= 0) {
-            throw new SerializationException("Received data is not a valid message: " + Arrays.toString(data));
+            throw new SerializationException(
+                    "Received data is not a valid message: " + ProtobufMessageSerializer.toString(data));
         }
-        if (data.length < (msgTypeNameLength + 2)) {
-            throw new SerializationException("Received data is not a valid message: " + Arrays.toString(data));
+        if (data.remaining() < (msgTypeNameLength + 2)) {
+            throw new SerializationException(
+                    "Received data is not a valid message: " + ProtobufMessageSerializer.toString(data));
         }
-        final String msgTypeName = new String(data, 1, msgTypeNameLength);
+
+        final MessageType messageType = this.findType(data, msgTypeNameLength);
+        if (messageType == null) {
+            throw new SerializationException("Unable to find parser for message type '"
+                    + ProtobufMessageSerializer.readTypeName(data, msgTypeNameLength)
+                    + "', message type was not registered");
+        }
+
         try {
-            if (!this.messageTypes.containsKey(msgTypeName)) {
-                throw new SerializationException("Unable to find parser for message type '" + msgTypeName
-                        + "', message type was not registered");
+            return ProtobufMessageSerializer.parse(messageType, data, 1 + msgTypeNameLength);
+        } catch (final InvalidProtocolBufferException e) {
+            throw new SerializationException("Unable to find parser for message type '"
+                    + ProtobufMessageSerializer.readTypeName(data, msgTypeNameLength) + "', problem during parsing");
+        }
+    }
+
+    private Message deserializeById(final ByteBuffer data) throws SerializationException {
+        // Read the varint that follows the marker
+        int id = 0;
+        int headerLength = 1;
+        int b;
+        do {
+            if ((headerLength > 5) || (data.remaining() <= headerLength)) {
+                throw new SerializationException(
+                        "Received data is not a valid message: " + ProtobufMessageSerializer.toString(data));
             }
-            final Parser<?> parser = (Parser<?>) this.messageTypes.get(msgTypeName).getMethod("parser").invoke(null);
-            return (Message) parser.parseFrom(data, 1 + msgTypeNameLength, data.length - 1 - msgTypeNameLength);
-        } catch (final InvalidProtocolBufferException
-                | IllegalAccessException
-                | IllegalArgumentException
-                | InvocationTargetException
-                | NoSuchMethodException
-                | SecurityException e) {
-            throw new SerializationException(
-                    "Unable to find parser for message type '" + msgTypeName + "', problem during parsing");
+            b = data.get(data.position() + headerLength);
+            id |= (b & 0x7F) << (7 * (headerLength - 1));
+            headerLength++;
+        } while ((b & 0x80) != 0);
+
+        final MessageType[] types = this.typesById;
+        if ((id < 0) || (id >= types.length)) {
+            throw new SerializationException("Unable to find parser for message type " + id
+                    + ", message type was not registered");
+        }
+
+        try {
+            return ProtobufMessageSerializer.parse(types[id], data, headerLength);
+        } catch (final InvalidProtocolBufferException e) {
+            throw new SerializationException("Unable to find parser for message type '"
+                    + new String(types[id].name, StandardCharsets.UTF_8) + "', problem during parsing");
         }
     }
 
+    /**
+     * Parse the ProtoBuf encoded data that follows the header, and move the buffer to its limit if it succeeds
+     */
+    private static Message parse(final MessageType messageType, final ByteBuffer data, final int headerLength)
+            throws InvalidProtocolBufferException {
+        final ByteBuffer encoded = data.duplicate();
+        encoded.position(data.position() + headerLength);
+        final Message message = (Message) messageType.parser.parseFrom(encoded.slice());
+        data.position(data.limit());
+        return message;
+    }
+
+    /**
+     * Find the registered type with the name that precedes the ProtoBuf encoded data, by comparing the bytes of the
+     * name in place
+     *
+     * @return the type, or null if no type with this name was registered
+     */
+    private MessageType findType(final ByteBuffer data, final int length) {
+        final MessageType[] candidates = this.typesByNameLength[length];
+        if (candidates == null) {
+            return null;
+        }
+
+        final int start = data.position() + 1;
+        for (final MessageType candidate : candidates) {
+            final byte[] name = candidate.name;
+            int i = 0;
+            while ((i < length) && (name[i] == data.get(start + i))) {
+                i++;
+            }
+            if (i == length) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Read the name of the message type that precedes the ProtoBuf encoded data, without moving the buffer
+     */
+    private static String readTypeName(final ByteBuffer data, final int length) {
+        final byte[] nameBytes = new byte[length];
+        final ByteBuffer name = data.duplicate();
+        name.position(data.position() + 1);
+        name.get(nameBytes);
+        return new String(nameBytes, StandardCharsets.UTF_8);
+    }
+
+    private static String toString(final ByteBuffer data) {
+        final byte[] copy = new byte[data.remaining()];
+        data.duplicate().get(copy);
+        return Arrays.toString(copy);
+    }
+
     @Override
     public DescriptorType getType() {
         return this.type;
     }
 
+    /**
+     * A registered message type, with its encoded name and its parser
+     */
+    private static final class MessageType {
+
+        final byte[] name;
+        final byte[] header;
+        final Parser<?> parser;
+
+        MessageType(final byte[] name, final Parser<?> parser) {
+            this.name = name;
+            this.header = MessageType.nameHeader(name);
+            this.parser = parser;
+        }
+
+        /**
+         * @return the length of the name, followed by the name itself
+         */
+        static byte[] nameHeader(final byte[] name) {
+            final byte[] header = new byte[1 + name.length];
+            header[0] = (byte) name.length;
+            System.arraycopy(name, 0, header, 1, name.length);
+            return header;
+        }
+
+    }
+
 }
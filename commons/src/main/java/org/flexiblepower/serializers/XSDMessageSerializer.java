@@ -21,8 +21,15 @@ package org.flexiblepower.serializers;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.util.HashMap;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBElement;
@@ -32,25 +39,93 @@ import javax.xml.bind.Unmarshaller;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlType;
 import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
 
 import org.flexiblepower.exceptions.SerializationException;
 
 /**
  * XSDMessageSerializer
+ * <p>
+ * The JAXBContext is built when the first message is (de)serialized after the last message class was added, so adding
+ * a number of classes builds a single context. Since building a context is expensive, and every connection with the
+ * same interface adds the same classes in the same order, the contexts are cached with the last class that was added.
+ * <p>
+ * The JAXBContext and the StAX factories are safe to share, but marshallers and unmarshallers are not. Every thread
+ * that (de)serializes a message takes one from a pool and returns it when it is done, so messages can be
+ * (de)serialized in parallel while only as many of them are created as there are threads using the serializer at the
+ * same time. Messages are written and read with StAX, and a pooled marshaller keeps its output buffer for the next
+ * message. Every pooled marshaller and unmarshaller belongs to the context it was created by, and is discarded instead
+ * of returned to the pool when a class was added in the meantime.
  *
  * @version 0.1
  * @since May 18, 2017
  */
 public class XSDMessageSerializer implements MessageSerializer<Object> {
 
-    private final Map<String, Class<?>> classes = new HashMap<>();
+    /**
+     * Output buffers that grew larger than this are not kept for the next message
+     */
+    private static final int MAX_POOLED_BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * The declaration that JAXB writes, which StAX cannot write since it does not know the standalone attribute
+     */
+    private static final byte[] XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private static final XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
+    private static final XMLInputFactory inputFactory = XSDMessageSerializer.createInputFactory();
+
+    private static final ClassValue<Map<Set<Class<?>>, JAXBContext>> contexts = new ClassValue<
+            Map<Set<Class<?>>, JAXBContext>>() {
+
+        @Override
+        protected Map<Set<Class<?>>, JAXBContext> computeValue(final Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+
+    };
+
+    private final Map<String, Class<?>> classes = new ConcurrentHashMap<>();
     private final DescriptorType type = DescriptorType.XSD;
-    private Marshaller marshaller;
-    private Unmarshaller unmarshaller;
+    private final Queue<PooledMarshaller> marshallers = new ConcurrentLinkedQueue<>();
+    private final Queue<PooledUnmarshaller> unmarshallers = new ConcurrentLinkedQueue<>();
+    private volatile JAXBContext context;
+    private Class<?> lastAdded;
+
+    private static XMLInputFactory createInputFactory() {
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        // Messages come from other processes, do not let them refer to anything outside of the message
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
 
     @Override
     public void addMessageClass(final Class<?> cls) {
-        this.classes.put(cls.getName(), cls);
+        // The context has to know about the new class, it is built again when it is needed
+        synchronized (this) {
+            this.classes.put(cls.getName(), cls);
+            this.lastAdded = cls;
+            this.context = null;
+            this.marshallers.clear();
+            this.unmarshallers.clear();
+        }
+    }
+
+    private static JAXBContext createContext(final Class<?> lastAdded, final Set<Class<?>> classSet)
+            throws JAXBException {
+        final Map<Set<Class<?>>, JAXBContext> cache = XSDMessageSerializer.contexts.get(lastAdded);
+        JAXBContext ctx = cache.get(classSet);
+        if (ctx == null) {
+            ctx = JAXBContext.newInstance(classSet.toArray(new Class<?>[0]));
+            cache.putIfAbsent(classSet, ctx);
+        }
+        return ctx;
     }
 
     @Override
@@ -62,25 +137,60 @@ public class XSDMessageSerializer implements MessageSerializer<Object> {
         try {
             final Class<?> cls = this.classes.get(object.getClass().getName());
             return this.serialize(object, cls);
-        } catch (final JAXBException e) {
+        } catch (JAXBException | XMLStreamException e) {
             throw new SerializationException(e);
         }
     }
 
     @Override
     public Object deserialize(final byte[] data) throws SerializationException {
-        if (this.unmarshaller == null) {
-            try {
-                this.init();
-            } catch (final JAXBException e) {
-                throw new SerializationException(e);
+        return this.unmarshal(new ByteArrayInputStream(data));
+    }
+
+    @Override
+    public Object deserialize(final ByteBuffer data) throws SerializationException {
+        final Object result = this.unmarshal(new ByteBufferInputStream(data));
+        // The reader may stop at the end of the root element
+        data.position(data.limit());
+        return result;
+    }
+
+    private Object unmarshal(final InputStream in) throws SerializationException {
+        PooledUnmarshaller pooled;
+        try {
+            final JAXBContext ctx = this.getContext();
+            pooled = this.unmarshallers.poll();
+            while ((pooled != null) && (pooled.context != ctx)) {
+                pooled = this.unmarshallers.poll();
+            }
+            if (pooled == null) {
+                pooled = new PooledUnmarshaller(ctx);
             }
+        } catch (final JAXBException e) {
+            throw new SerializationException(e);
         }
 
+        XMLStreamReader reader = null;
         try {
-            return this.unmarshaller.unmarshal(new ByteArrayInputStream(data));
-        } catch (final JAXBException e) {
+            reader = XSDMessageSerializer.inputFactory.createXMLStreamReader(in);
+            return pooled.unmarshaller.unmarshal(reader);
+        } catch (JAXBException | XMLStreamException e) {
             throw new SerializationException("Was not able to deserialize: " + e.getMessage());
+        } finally {
+            XSDMessageSerializer.closeQuietly(reader);
+            if (pooled.context == this.context) {
+                this.unmarshallers.offer(pooled);
+            }
+        }
+    }
+
+    private static void closeQuietly(final XMLStreamReader reader) {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (final XMLStreamException e) {
+                // Nothing was left to read
+            }
         }
     }
 
@@ -90,32 +200,90 @@ public class XSDMessageSerializer implements MessageSerializer<Object> {
     }
 
     @SuppressWarnings("unchecked")
-    private <T> byte[] serialize(final Object object, final Class<T> cls) throws JAXBException {
-        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        if (this.marshaller == null) {
-            this.init();
+    private <T> byte[] serialize(final Object object, final Class<T> cls) throws JAXBException, XMLStreamException {
+        final JAXBContext ctx = this.getContext();
+        PooledMarshaller pooled = this.marshallers.poll();
+        while ((pooled != null) && (pooled.context != ctx)) {
+            pooled = this.marshallers.poll();
+        }
+        if (pooled == null) {
+            pooled = new PooledMarshaller(ctx);
+        }
+
+        try {
+            pooled.buffer.write(XSDMessageSerializer.XML_DECLARATION, 0, XSDMessageSerializer.XML_DECLARATION.length);
+            final XMLStreamWriter writer = XSDMessageSerializer.outputFactory.createXMLStreamWriter(pooled.buffer,
+                    "UTF-8");
+            if (cls.isAnnotationPresent(XmlRootElement.class)) {
+                pooled.marshaller.marshal(object, writer);
+            } else {
+                final QName name = new QName("", cls.getAnnotation(XmlType.class).name());
+                pooled.marshaller.marshal(new JAXBElement<>(name, cls, null, (T) object), writer);
+            }
+            writer.writeEndDocument();
+            writer.close();
+            return pooled.buffer.toByteArray();
+        } finally {
+            if ((pooled.context == this.context)
+                    && (pooled.buffer.size() <= XSDMessageSerializer.MAX_POOLED_BUFFER_SIZE)) {
+                pooled.buffer.reset();
+                this.marshallers.offer(pooled);
+            }
+        }
+    }
+
+    /**
+     * @return the context for all classes that were added, which is built or taken from the cache on first use
+     * @throws JAXBException If there is any error while instantiating the context
+     */
+    private JAXBContext getContext() throws JAXBException {
+        JAXBContext ctx = this.context;
+        if (ctx == null) {
+            synchronized (this) {
+                ctx = this.context;
+                if (ctx == null) {
+                    if (this.lastAdded == null) {
+                        throw new JAXBException("No message classes were added to the serializer");
+                    }
+                    ctx = XSDMessageSerializer.createContext(this.lastAdded, new HashSet<>(this.classes.values()));
+                    this.context = ctx;
+                }
+            }
         }
+        return ctx;
+    }
+
+    /**
+     * A marshaller with the buffer it writes to, which are used by one thread at a time
+     */
+    private static final class PooledMarshaller {
+
+        final JAXBContext context;
+        final Marshaller marshaller;
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
 
-        if (cls.isAnnotationPresent(XmlRootElement.class)) {
-            this.marshaller.marshal(object, baos);
-        } else {
-            this.marshaller.marshal(
-                    new JAXBElement<>(new QName("", cls.getAnnotation(XmlType.class).name()), cls, null, (T) object),
-                    baos);
+        PooledMarshaller(final JAXBContext context) throws JAXBException {
+            this.context = context;
+            this.marshaller = context.createMarshaller();
+            // The declaration is written before the element, so the marshaller only writes the element
+            this.marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
         }
-        return baos.toByteArray();
+
     }
 
     /**
-     * Lazy initialization to avoid having the constructor throw an exception
-     *
-     * @throws JAXBException If there is any error while instantiating the marshaller or the unmarshaller
+     * An unmarshaller with the context it was created by
      */
-    private void init() throws JAXBException {
-        final Class<?>[] array = new Class<?>[this.classes.size()];
-        JAXBContext ctx = JAXBContext.newInstance(this.classes.values().toArray(array));
-        this.unmarshaller = ctx.createUnmarshaller();
-        this.marshaller = ctx.createMarshaller();
+    private static final class PooledUnmarshaller {
+
+        final JAXBContext context;
+        final Unmarshaller unmarshaller;
+
+        PooledUnmarshaller(final JAXBContext context) throws JAXBException {
+            this.context = context;
+            this.unmarshaller = context.createUnmarshaller();
+        }
+
     }
 
 }
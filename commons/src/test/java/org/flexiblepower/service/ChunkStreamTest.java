@@ -0,0 +1,138 @@
+/*-
+ * #%L
+ * dEF-Pi commons Library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+import org.flexiblepower.commons.ChunkInputStream;
+import org.flexiblepower.commons.ChunkOutputStream;
+import org.flexiblepower.commons.StreamFrame;
+import org.flexiblepower.commons.TCPSocket;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * ChunkStreamTest
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+@SuppressWarnings({"static-method", "javadoc"})
+public class ChunkStreamTest {
+
+    private static final int TEST_PORT = 5004;
+
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10);
+
+    @Test
+    public void testStream() throws Exception {
+        final byte[] data = new byte[(3 * StreamFrame.CHUNK_SIZE) + 1234];
+        new Random(42).nextBytes(data);
+
+        try (
+                final TCPSocket client = TCPSocket.asClient("127.0.0.1", ChunkStreamTest.TEST_PORT);
+                final TCPSocket server = TCPSocket.asServer(ChunkStreamTest.TEST_PORT)) {
+            client.waitUntilConnected(1000);
+
+            final Thread sender = new Thread(() -> {
+                try {
+                    try (final ChunkOutputStream out = new ChunkOutputStream(client)) {
+                        out.write(data, 0, 10);
+                        out.write(data[10]);
+                        out.write(data, 11, data.length - 11);
+                    }
+                    client.send("After".getBytes());
+                } catch (final IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            sender.start();
+
+            final byte[] first = server.read(1000);
+            Assert.assertTrue(StreamFrame.isChunk(first));
+            final ByteArrayOutputStream received = new ByteArrayOutputStream();
+            try (final InputStream in = new ChunkInputStream(server, 1000, first)) {
+                final byte[] buffer = new byte[1000];
+                int length;
+                while ((length = in.read(buffer)) >= 0) {
+                    received.write(buffer, 0, length);
+                }
+                Assert.assertEquals(-1, in.read());
+            }
+            Assert.assertArrayEquals(data, received.toByteArray());
+
+            // The frame after the stream is not part of it
+            Assert.assertEquals("After", new String(server.read(1000)));
+            sender.join();
+        }
+    }
+
+    @Test
+    public void testCloseSkipsRemainingChunks() throws Exception {
+        final byte[] data = new byte[2 * StreamFrame.CHUNK_SIZE];
+
+        try (
+                final TCPSocket client = TCPSocket.asClient("127.0.0.1", ChunkStreamTest.TEST_PORT);
+                final TCPSocket server = TCPSocket.asServer(ChunkStreamTest.TEST_PORT)) {
+            client.waitUntilConnected(1000);
+            final Thread sender = new Thread(() -> {
+                try {
+                    try (final ChunkOutputStream out = new ChunkOutputStream(client)) {
+                        out.write(data);
+                    }
+                    client.send("After".getBytes());
+                } catch (final IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            sender.start();
+
+            try (final InputStream in = new ChunkInputStream(server, 1000)) {
+                Assert.assertEquals(0, in.read());
+            }
+            Assert.assertEquals("After", new String(server.read(1000)));
+            sender.join();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testAbort() throws Exception {
+        try (
+                final TCPSocket client = TCPSocket.asClient("127.0.0.1", ChunkStreamTest.TEST_PORT);
+                final TCPSocket server = TCPSocket.asServer(ChunkStreamTest.TEST_PORT)) {
+            client.waitUntilConnected(1000);
+            final ChunkOutputStream out = new ChunkOutputStream(client);
+            out.write(new byte[StreamFrame.CHUNK_SIZE + 1]);
+            out.abort();
+
+            try (final InputStream in = new ChunkInputStream(server, 1000)) {
+                Assert.assertEquals(StreamFrame.CHUNK_SIZE, in.skip(StreamFrame.CHUNK_SIZE));
+                in.read();
+            }
+        }
+    }
+
+}
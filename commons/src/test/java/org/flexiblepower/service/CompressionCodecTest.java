@@ -0,0 +1,89 @@
+/*-
+ * #%L
+ * dEF-Pi commons Library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.flexiblepower.compression.CompressionCodec;
+import org.flexiblepower.compression.CompressionCodecs;
+import org.flexiblepower.compression.DeflateCodec;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * CompressionCodecTest
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+@SuppressWarnings({"static-method", "javadoc"})
+public class CompressionCodecTest {
+
+    @Test
+    public void deflateIsAvailable() {
+        final CompressionCodecs codecs = CompressionCodecs.getInstance();
+        Assert.assertEquals(DeflateCodec.NAME, codecs.getNames().get(codecs.getNames().size() - 1));
+        Assert.assertTrue(codecs.get(DeflateCodec.NAME) instanceof DeflateCodec);
+        Assert.assertNull(codecs.get("unknown"));
+    }
+
+    @Test
+    public void deflateRoundTrip() throws IOException {
+        final CompressionCodec codec = new DeflateCodec();
+
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            sb.append("<message><value>").append(i).append("</value></message>");
+        }
+        final byte[] xml = sb.toString().getBytes(StandardCharsets.UTF_8);
+        final byte[] compressed = codec.compress(xml);
+        Assert.assertTrue(compressed.length < (xml.length / 4));
+        Assert.assertArrayEquals(xml, codec.decompress(compressed, 0, compressed.length, xml.length));
+
+        // Random data does not compress, and makes the output buffer grow
+        final byte[] random = new byte[100000];
+        new Random(42).nextBytes(random);
+        final byte[] padded = new byte[3];
+        final byte[] compressedRandom = codec.compress(random);
+        final byte[] withOffset = Arrays.copyOf(padded, padded.length + compressedRandom.length);
+        System.arraycopy(compressedRandom, 0, withOffset, padded.length, compressedRandom.length);
+        Assert.assertArrayEquals(random,
+                codec.decompress(withOffset, padded.length, compressedRandom.length, random.length));
+    }
+
+    @Test(expected = IOException.class)
+    public void deflateWrongLength() throws IOException {
+        final CompressionCodec codec = new DeflateCodec();
+        final byte[] data = new byte[1000];
+        final byte[] compressed = codec.compress(data);
+        codec.decompress(compressed, 0, compressed.length, data.length - 1);
+    }
+
+    @Test(expected = IOException.class)
+    public void deflateInvalidData() throws IOException {
+        final CompressionCodec codec = new DeflateCodec();
+        final byte[] data = new byte[] {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF};
+        codec.decompress(data, 0, data.length, 100);
+    }
+
+}
@@ -0,0 +1,157 @@
+/*-
+ * #%L
+ * dEF-Pi commons Library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.flexiblepower.commons.LocalSocket;
+import org.flexiblepower.commons.ObjectListener;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * LocalSocketTest
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+@SuppressWarnings({"static-method", "javadoc"})
+public class LocalSocketTest {
+
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10);
+
+    private LocalSocket server;
+    private LocalSocket client;
+
+    @Before
+    public void connect() throws Exception {
+        this.server = LocalSocket.asServer("test");
+        this.client = LocalSocket.asClient("test");
+
+        // The client waits until the server is there
+        Assert.assertFalse(this.client.waitUntilConnected(100));
+        Assert.assertFalse(this.server.waitUntilConnected(100));
+        Assert.assertTrue(this.client.waitUntilConnected(1000));
+        Assert.assertTrue(this.server.isConnected());
+        Assert.assertTrue(this.client.isConnected());
+    }
+
+    @After
+    public void close() {
+        this.client.close();
+        this.server.close();
+    }
+
+    @Test
+    public void sendFramesAndObjects() throws Exception {
+        final BlockingQueue<Object> received = new LinkedBlockingQueue<>();
+        this.server.attach(new ObjectListener() {
+
+            @Override
+            public void onFrame(final byte[] data) {
+                received.add(data);
+            }
+
+            @Override
+            public void onClose() {
+                // Nothing to do
+            }
+
+            @Override
+            public boolean acceptsObject(final Class<?> type) {
+                return type.equals(StringBuilder.class);
+            }
+
+            @Override
+            public void onObject(final Object message) {
+                received.add(message);
+            }
+        });
+
+        final byte[] frame = "frame".getBytes();
+        final StringBuilder message = new StringBuilder("object");
+        this.client.send(frame);
+        Assert.assertTrue(this.client.sendObject(message));
+        Assert.assertFalse(this.client.sendObject("not accepted"));
+
+        // Nothing is copied, and the order is kept
+        Assert.assertSame(frame, received.take());
+        Assert.assertSame(message, received.take());
+        Assert.assertNull(received.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void closeNotifiesRemote() throws Exception {
+        final CountDownLatch closed = new CountDownLatch(1);
+        this.client.attach(new ObjectListener() {
+
+            @Override
+            public void onFrame(final byte[] data) {
+                // Nothing to do
+            }
+
+            @Override
+            public void onClose() {
+                closed.countDown();
+            }
+
+            @Override
+            public boolean acceptsObject(final Class<?> type) {
+                return false;
+            }
+
+            @Override
+            public void onObject(final Object message) {
+                // Nothing to do
+            }
+        });
+
+        this.server.close();
+        Assert.assertTrue(closed.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(this.client.isClosed());
+
+        // A new pair with the same name connects to each other
+        try (final LocalSocket newServer = LocalSocket.asServer("test");
+                final LocalSocket newClient = LocalSocket.asClient("test")) {
+            Assert.assertFalse(newServer.waitUntilConnected(100));
+            Assert.assertTrue(newClient.waitUntilConnected(1000));
+            Assert.assertTrue(newServer.isConnected());
+        }
+    }
+
+    @Test
+    public void localProcesses() {
+        Assert.assertFalse(LocalSocket.isLocalProcess("process"));
+        LocalSocket.registerLocalProcess("process");
+        Assert.assertTrue(LocalSocket.isLocalProcess("process"));
+        LocalSocket.unregisterLocalProcess("process");
+        Assert.assertFalse(LocalSocket.isLocalProcess("process"));
+        Assert.assertFalse(LocalSocket.isLocalProcess(null));
+    }
+
+}
@@ -0,0 +1,310 @@
+/*-
+ * #%L
+ * dEF-Pi commons Library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.flexiblepower.exceptions.SerializationException;
+import org.flexiblepower.proto.ConnectionProto.ConnectionHandshake;
+import org.flexiblepower.proto.ConnectionProto.ConnectionMessage;
+import org.flexiblepower.proto.ConnectionProto.ConnectionState;
+import org.flexiblepower.serializers.JavaIOSerializer;
+import org.flexiblepower.serializers.MessageSerializer;
+import org.flexiblepower.serializers.ProtobufMessageSerializer;
+import org.flexiblepower.serializers.XSDMessageSerializer;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * MessageSerializerTest
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+@SuppressWarnings({"static-method", "javadoc"})
+public class MessageSerializerTest {
+
+    @Test
+    public void protobufFromBuffer() throws SerializationException {
+        final ProtobufMessageSerializer serializer = new ProtobufMessageSerializer();
+        serializer.addMessageClass(ConnectionHandshake.class);
+        final ConnectionHandshake handshake = ConnectionHandshake.newBuilder()
+                .setConnectionId("abc")
+                .setConnectionState(ConnectionState.CONNECTED)
+                .setReceiveWindow(42)
+                .build();
+
+        MessageSerializerTest.assertParsedFromBuffer(serializer, handshake);
+        MessageSerializerTest.assertParsedFromBuffer(serializer, handshake.toBuilder().clearReceiveWindow().build());
+
+        // Garbage should be rejected, without moving the buffer
+        final ByteBuffer invalid = ByteBuffer.wrap(new byte[] {0, 1, 2});
+        try {
+            serializer.deserialize(invalid);
+            Assert.fail("Expected SerializationException");
+        } catch (final SerializationException e) {
+            Assert.assertEquals(0, invalid.position());
+        }
+    }
+
+    @Test
+    public void protobufFormat() throws SerializationException {
+        final ProtobufMessageSerializer serializer = new ProtobufMessageSerializer();
+        serializer.addMessageClass(ConnectionHandshake.class);
+        serializer.addMessageClass(ConnectionMessage.class);
+        final ConnectionHandshake handshake = ConnectionHandshake.newBuilder()
+                .setConnectionId("abc")
+                .setConnectionState(ConnectionState.CONNECTED)
+                .build();
+
+        // The length and the name of the type, followed by the ProtoBuf encoded data
+        final byte[] name = "ConnectionHandshake".getBytes(StandardCharsets.US_ASCII);
+        final byte[] expected = new byte[1 + name.length + handshake.getSerializedSize()];
+        expected[0] = (byte) name.length;
+        System.arraycopy(name, 0, expected, 1, name.length);
+        System.arraycopy(handshake.toByteArray(), 0, expected, 1 + name.length, handshake.getSerializedSize());
+        Assert.assertArrayEquals(expected, serializer.serialize(handshake));
+
+        // A type that was not registered is rejected, without moving the buffer
+        final ProtobufMessageSerializer other = new ProtobufMessageSerializer();
+        other.addMessageClass(ConnectionMessage.class);
+        final ByteBuffer unknown = ByteBuffer.wrap(serializer.serialize(handshake));
+        try {
+            other.deserialize(unknown);
+            Assert.fail("Expected SerializationException");
+        } catch (final SerializationException e) {
+            Assert.assertTrue(e.getMessage().contains("ConnectionHandshake"));
+            Assert.assertEquals(0, unknown.position());
+        }
+    }
+
+    @Test
+    public void protobufTypeIds() throws SerializationException {
+        final ProtobufMessageSerializer sender = new ProtobufMessageSerializer();
+        sender.addMessageClass(ConnectionHandshake.class);
+        sender.addMessageClass(ConnectionMessage.class);
+        final ProtobufMessageSerializer receiver = new ProtobufMessageSerializer();
+        receiver.addMessageClass(ConnectionMessage.class);
+        receiver.addMessageClass(ConnectionHandshake.class);
+        Assert.assertEquals(Arrays.asList("ConnectionMessage", "ConnectionHandshake"), receiver.getTypeNames());
+
+        final ConnectionHandshake handshake = ConnectionHandshake.newBuilder()
+                .setConnectionId("abc")
+                .setConnectionState(ConnectionState.CONNECTED)
+                .build();
+        final byte[] named = sender.serialize(handshake);
+
+        // The id is the position of the type at the receiving side
+        sender.setRemoteTypeNames(receiver.getTypeNames());
+        final byte[] compact = sender.serialize(handshake);
+        Assert.assertEquals(2 + handshake.getSerializedSize(), compact.length);
+        Assert.assertEquals((byte) ProtobufMessageSerializer.TYPE_ID_MARKER, compact[0]);
+        Assert.assertEquals(1, compact[1]);
+        MessageSerializerTest.assertParsedFromBuffer(receiver, handshake);
+        Assert.assertEquals(handshake, receiver.deserialize(compact));
+        Assert.assertEquals(handshake, receiver.deserialize(named));
+
+        // Types the receiver does not know are still sent with their name, and unknown ids are rejected
+        sender.setRemoteTypeNames(Arrays.asList("ConnectionMessage"));
+        Assert.assertArrayEquals(named, sender.serialize(handshake));
+        try {
+            new ProtobufMessageSerializer().deserialize(compact);
+            Assert.fail("Expected SerializationException");
+        } catch (final SerializationException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void javaIoFromBuffer() throws SerializationException {
+        MessageSerializerTest.assertParsedFromBuffer(new JavaIOSerializer(), "Some string");
+        MessageSerializerTest.assertParsedFromBuffer(new JavaIOSerializer(), new int[] {1, 2, 3});
+    }
+
+    @Test
+    public void javaIoCompressed() throws SerializationException {
+        final JavaIOSerializer serializer = new JavaIOSerializer();
+        final char[] repetitive = new char[100000];
+        Arrays.fill(repetitive, 'x');
+        final String state = new String(repetitive);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serializer.serializeCompressed(state, out);
+        Assert.assertTrue(out.size() < (serializer.serialize(state).length / 10));
+        Assert.assertEquals(state, serializer.deserializeCompressed(new ByteArrayInputStream(out.toByteArray())));
+
+        // State that was suspended before it was compressed can still be resumed
+        Assert.assertEquals(state,
+                serializer.deserializeCompressed(new ByteArrayInputStream(serializer.serialize(state))));
+    }
+
+    @Test
+    public void xsdFromBuffer() throws SerializationException {
+        final XSDMessageSerializer serializer = new XSDMessageSerializer();
+        serializer.addMessageClass(XmlMessage.class);
+        final XmlMessage message = new XmlMessage();
+        message.value = "Hello";
+
+        final XmlMessage result = (XmlMessage) MessageSerializerTest.parseFromBuffer(serializer, message);
+        Assert.assertEquals("Hello", result.value);
+
+        // A complete document, even though the pooled marshallers write fragments
+        final String xml = new String(serializer.serialize(message), StandardCharsets.UTF_8);
+        Assert.assertTrue(xml,
+                xml.startsWith("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><xmlMessage>"));
+        Assert.assertEquals(xml, new String(serializer.serialize(message), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void defaultFromBuffer() throws SerializationException {
+        // A serializer that only implements the byte array functions, like one that was written before buffers
+        final MessageSerializer<String> serializer = new MessageSerializer<String>() {
+
+            @Override
+            public DescriptorType getType() {
+                return DescriptorType.JAVAOBJECT;
+            }
+
+            @Override
+            public void addMessageClass(final Class<? extends String> clazz) {
+                // Only strings
+            }
+
+            @Override
+            public String deserialize(final byte[] data) {
+                return new String(data, StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public byte[] serialize(final String object) {
+                return object.getBytes(StandardCharsets.UTF_8);
+            }
+        };
+
+        MessageSerializerTest.assertParsedFromBuffer(serializer, "Hello");
+    }
+
+    @Test
+    public void xsdClassAddedAfterUse() throws SerializationException {
+        final XSDMessageSerializer serializer = new XSDMessageSerializer();
+        serializer.addMessageClass(XmlMessage.class);
+        final XmlMessage message = new XmlMessage();
+        message.value = "first";
+        Assert.assertEquals("first", ((XmlMessage) serializer.deserialize(serializer.serialize(message))).value);
+
+        // The context is built again for both classes
+        serializer.addMessageClass(OtherXmlMessage.class);
+        final OtherXmlMessage other = new OtherXmlMessage();
+        other.number = 42;
+        Assert.assertEquals(42, ((OtherXmlMessage) serializer.deserialize(serializer.serialize(other))).number);
+        Assert.assertEquals("first", ((XmlMessage) serializer.deserialize(serializer.serialize(message))).value);
+    }
+
+    @Test(timeout = 30000)
+    public void xsdConcurrentUse() throws Exception {
+        final XSDMessageSerializer serializer = new XSDMessageSerializer();
+        serializer.addMessageClass(XmlMessage.class);
+
+        // Without a lock around the serializer, every thread must get its own message back
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                final String value = "Thread " + t;
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        final XmlMessage message = new XmlMessage();
+                        message.value = value + " message " + i;
+                        final XmlMessage result = (XmlMessage) serializer.deserialize(serializer.serialize(message));
+                        if (!message.value.equals(result.value)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (final Future<Boolean> result : results) {
+                Assert.assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <T> void assertParsedFromBuffer(final MessageSerializer<T> serializer, final T message)
+            throws SerializationException {
+        final Object result = MessageSerializerTest.parseFromBuffer(serializer, message);
+        if (message instanceof int[]) {
+            Assert.assertArrayEquals((int[]) message, (int[]) result);
+        } else {
+            Assert.assertEquals(message, result);
+        }
+    }
+
+    /**
+     * Serialize the message, put it in the middle of a larger array, and parse it from a view on that part of the
+     * array, and from a direct buffer without a backing array
+     */
+    private static <T> T parseFromBuffer(final MessageSerializer<T> serializer, final T message)
+            throws SerializationException {
+        final byte[] data = serializer.serialize(message);
+        final byte[] padded = new byte[data.length + 20];
+        Arrays.fill(padded, (byte) 0x7F);
+        System.arraycopy(data, 0, padded, 10, data.length);
+
+        final ByteBuffer view = ByteBuffer.wrap(padded, 10, data.length).slice();
+        final T fromView = serializer.deserialize(view);
+        Assert.assertFalse(view.hasRemaining());
+
+        final ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+        direct.put(data).flip();
+        final T fromDirect = serializer.deserialize(direct);
+        Assert.assertFalse(direct.hasRemaining());
+
+        Assert.assertEquals(serializer.serialize(fromView).length, serializer.serialize(fromDirect).length);
+        return fromView;
+    }
+
+    @XmlRootElement
+    public static class XmlMessage {
+
+        public String value;
+
+    }
+
+    @XmlRootElement
+    public static class OtherXmlMessage {
+
+        public int number;
+
+    }
+
+}
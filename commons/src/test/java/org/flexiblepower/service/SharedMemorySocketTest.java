@@ -0,0 +1,199 @@
+/*-
+ * #%L
+ * dEF-Pi commons Library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.flexiblepower.commons.FrameListener;
+import org.flexiblepower.commons.SharedMemorySocket;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.Timeout;
+
+/**
+ * SharedMemorySocketTest
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+@SuppressWarnings({"static-method", "javadoc"})
+public class SharedMemorySocketTest {
+
+    private static final int TEST_PORT = 5020;
+
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path dir;
+    private SharedMemorySocket server;
+    private SharedMemorySocket client;
+
+    @Before
+    public void connect() throws Exception {
+        this.dir = this.folder.getRoot().toPath();
+        this.server = SharedMemorySocket.asServer(this.dir, "test", SharedMemorySocketTest.TEST_PORT);
+        this.client = SharedMemorySocket.asClient(this.dir, "test", "localhost", SharedMemorySocketTest.TEST_PORT);
+
+        // The client waits until the server has created the file, the server until the client connects
+        Assert.assertFalse(this.client.waitUntilConnected(100));
+        Assert.assertFalse(this.server.waitUntilConnected(100));
+        Assert.assertTrue(this.client.waitUntilConnected(1000));
+        Assert.assertTrue(this.server.waitUntilConnected(1000));
+        Assert.assertTrue(this.server.isConnected());
+        Assert.assertTrue(this.client.isConnected());
+    }
+
+    @After
+    public void close() {
+        this.client.close();
+        this.server.close();
+    }
+
+    @Test
+    public void sendBothWays() throws Exception {
+        final BlockingQueue<byte[]> serverFrames = SharedMemorySocketTest.attachQueue(this.server);
+        final BlockingQueue<byte[]> clientFrames = SharedMemorySocketTest.attachQueue(this.client);
+
+        for (int i = 0; i < 1000; i++) {
+            this.client.send(("ping " + i).getBytes());
+            this.server.send(("pong " + i).getBytes());
+        }
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals("ping " + i, new String(serverFrames.take()));
+            Assert.assertEquals("pong " + i, new String(clientFrames.take()));
+        }
+
+        this.client.send(new byte[0]);
+        Assert.assertEquals(0, serverFrames.take().length);
+    }
+
+    @Test
+    public void largeFrames() throws Exception {
+        final BlockingQueue<byte[]> serverFrames = SharedMemorySocketTest.attachQueue(this.server);
+
+        // Larger than the ring buffer, so the reader must make room while the frame is being written
+        final byte[] data = new byte[(3 * SharedMemorySocket.DEFAULT_RING_CAPACITY) + 17];
+        new Random(42).nextBytes(data);
+        for (int i = 0; i < 3; i++) {
+            this.client.send(data);
+        }
+        for (int i = 0; i < 3; i++) {
+            Assert.assertArrayEquals(data, serverFrames.take());
+        }
+    }
+
+    @Test
+    public void pauseHoldsBackWriter() throws Exception {
+        final BlockingQueue<byte[]> serverFrames = SharedMemorySocketTest.attachQueue(this.server);
+        this.server.pauseReading();
+
+        // More than fits in the ring, so the writer blocks until the reader makes room
+        final byte[] data = new byte[SharedMemorySocket.DEFAULT_RING_CAPACITY / 4];
+        final CountDownLatch sent = new CountDownLatch(1);
+        final Thread writer = new Thread(() -> {
+            try {
+                for (int i = 0; i < 8; i++) {
+                    this.client.send(data);
+                }
+                sent.countDown();
+            } catch (final Exception e) {
+                // The latch is not counted down
+            }
+        });
+        writer.start();
+
+        Assert.assertFalse(sent.await(200, TimeUnit.MILLISECONDS));
+        Assert.assertTrue(serverFrames.isEmpty());
+
+        this.server.resumeReading();
+        Assert.assertTrue(sent.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 8; i++) {
+            Assert.assertEquals(data.length, serverFrames.take().length);
+        }
+        writer.join();
+    }
+
+    @Test
+    public void closeNotifiesRemote() throws Exception {
+        final CountDownLatch closed = new CountDownLatch(1);
+        this.client.attach(new FrameListener() {
+
+            @Override
+            public void onFrame(final byte[] data) {
+                // Nothing to do
+            }
+
+            @Override
+            public void onClose() {
+                closed.countDown();
+            }
+        });
+
+        this.server.close();
+        Assert.assertTrue(closed.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(this.client.isClosed());
+        Assert.assertFalse(Files.exists(this.dir.resolve("test" + SharedMemorySocket.FILE_EXTENSION)));
+
+        // A new server replaces the file, and a new client connects to that one
+        try (
+                final SharedMemorySocket newServer = SharedMemorySocket
+                        .asServer(this.dir, "test", SharedMemorySocketTest.TEST_PORT);
+                final SharedMemorySocket newClient = SharedMemorySocket
+                        .asClient(this.dir, "test", "localhost", SharedMemorySocketTest.TEST_PORT)) {
+            Assert.assertFalse(newServer.waitUntilConnected(100));
+            Assert.assertTrue(newClient.waitUntilConnected(1000));
+            Assert.assertTrue(newServer.waitUntilConnected(1000));
+            final BlockingQueue<byte[]> frames = SharedMemorySocketTest.attachQueue(newServer);
+            newClient.send("again".getBytes());
+            Assert.assertEquals("again", new String(frames.take()));
+        }
+    }
+
+    private static BlockingQueue<byte[]> attachQueue(final SharedMemorySocket socket) throws Exception {
+        final BlockingQueue<byte[]> queue = new LinkedBlockingQueue<>();
+        socket.attach(new FrameListener() {
+
+            @Override
+            public void onFrame(final byte[] data) {
+                queue.add(data);
+            }
+
+            @Override
+            public void onClose() {
+                // Nothing to do
+            }
+        });
+        return queue;
+    }
+
+}
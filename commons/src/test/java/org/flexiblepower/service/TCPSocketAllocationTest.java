@@ -0,0 +1,179 @@
+/*-
+ * #%L
+ * dEF-Pi commons Library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.flexiblepower.commons.FrameListener;
+import org.flexiblepower.commons.PooledFrame;
+import org.flexiblepower.commons.PooledFrameListener;
+import org.flexiblepower.commons.TCPSocket;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * TCPSocketAllocationTest
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+@SuppressWarnings({"static-method", "javadoc"})
+public class TCPSocketAllocationTest {
+
+    private static final int TEST_PORT = 5003;
+    private static final int WARMUP_FRAMES = 20000;
+    private static final int MEASURED_FRAMES = 10000;
+    private static final int POOLED_FRAMES = 2000;
+    private static final int POOLED_FRAME_SIZE = 4096;
+
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(30);
+
+    @Test
+    public void testSendDoesNotAllocate() throws Exception {
+        final java.lang.management.ThreadMXBean mxBean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(mxBean instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) mxBean;
+        Assume.assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        final AtomicInteger received = new AtomicInteger();
+        try (
+                final TCPSocket client = TCPSocket.asClient("127.0.0.1", TCPSocketAllocationTest.TEST_PORT);
+                final TCPSocket server = TCPSocket.asServer(TCPSocketAllocationTest.TEST_PORT)) {
+            client.waitUntilConnected(1000);
+            server.waitUntilConnected(1000);
+            server.attach(new FrameListener() {
+
+                @Override
+                public void onFrame(final byte[] data) {
+                    received.incrementAndGet();
+                }
+
+                @Override
+                public void onClose() {
+                    // Nothing to do
+                }
+            });
+
+            // A typical small message
+            final byte[] data = new byte[128];
+            for (int i = 0; i < TCPSocketAllocationTest.WARMUP_FRAMES; i++) {
+                client.send(data);
+            }
+
+            final long threadId = Thread.currentThread().getId();
+            final long before = threadBean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < TCPSocketAllocationTest.MEASURED_FRAMES; i++) {
+                client.send(data);
+            }
+            final long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+            // Allow for a constant overhead, but not for anything that grows with the number of frames
+            Assert.assertTrue(String.format("Sending %d frames allocated %d bytes",
+                    TCPSocketAllocationTest.MEASURED_FRAMES,
+                    allocated), allocated < TCPSocketAllocationTest.MEASURED_FRAMES);
+
+            // Make sure everything actually arrived
+            final long t_end = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+            final int expected = TCPSocketAllocationTest.WARMUP_FRAMES + TCPSocketAllocationTest.MEASURED_FRAMES;
+            while ((received.get() < expected) && (System.currentTimeMillis() < t_end)) {
+                Thread.sleep(10);
+            }
+            Assert.assertEquals(expected, received.get());
+        }
+    }
+
+    @Test
+    public void testPooledReceive() throws Exception {
+        final java.lang.management.ThreadMXBean mxBean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(mxBean instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) mxBean;
+        Assume.assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        final int total = 2 * TCPSocketAllocationTest.POOLED_FRAMES;
+        final BlockingQueue<PooledFrame> frames = new LinkedBlockingQueue<>();
+        final AtomicLong allocated = new AtomicLong();
+        try (
+                final TCPSocket client = TCPSocket.asClient("127.0.0.1", TCPSocketAllocationTest.TEST_PORT);
+                final TCPSocket server = TCPSocket.asServer(TCPSocketAllocationTest.TEST_PORT)) {
+            client.waitUntilConnected(1000);
+            server.waitUntilConnected(1000);
+            server.attach(new PooledFrameListener() {
+
+                private int received = 0;
+
+                @Override
+                public void onFrame(final PooledFrame frame) {
+                    // Measure the allocations of the I/O thread while receiving the second half of the frames
+                    final long threadId = Thread.currentThread().getId();
+                    if (this.received == TCPSocketAllocationTest.POOLED_FRAMES) {
+                        allocated.addAndGet(-threadBean.getThreadAllocatedBytes(threadId));
+                    }
+                    frames.add(frame);
+                    if (++this.received == total) {
+                        allocated.addAndGet(threadBean.getThreadAllocatedBytes(threadId));
+                    }
+                }
+
+                @Override
+                public void onFrame(final byte[] data) {
+                    Assert.fail("TCPSocket should deliver pooled frames");
+                }
+
+                @Override
+                public void onClose() {
+                    // Nothing to do
+                }
+            });
+
+            final byte[] data = new byte[TCPSocketAllocationTest.POOLED_FRAME_SIZE];
+            for (int i = 0; i < total; i++) {
+                ByteBuffer.wrap(data).putInt(i);
+                client.send(data);
+            }
+
+            // Frames that were not released yet must keep their data, while the socket continues to receive
+            for (int i = 0; i < total; i++) {
+                final PooledFrame frame = frames.poll(10, TimeUnit.SECONDS);
+                Assert.assertNotNull(frame);
+                Assert.assertEquals(TCPSocketAllocationTest.POOLED_FRAME_SIZE, frame.getData().remaining());
+                Assert.assertEquals(i, frame.getData().getInt(frame.getData().position()));
+                frame.release();
+            }
+
+            // Far less than a copy of every frame
+            Assert.assertTrue(String.format("Receiving %d frames allocated %d bytes",
+                    TCPSocketAllocationTest.POOLED_FRAMES,
+                    allocated.get()), allocated.get() < (TCPSocketAllocationTest.POOLED_FRAMES * 1024));
+        }
+    }
+
+}
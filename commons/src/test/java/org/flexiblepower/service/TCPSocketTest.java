@@ -24,7 +24,13 @@ import java.nio.channels.ClosedChannelException;
 import java.nio.channels.NotYetConnectedException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.flexiblepower.commons.FrameListener;
 import org.flexiblepower.commons.TCPSocket;
 import org.junit.Assert;
 import org.junit.Rule;
@@ -88,6 +94,149 @@ public class TCPSocketTest {
         }
     }
 
+    @Test
+    public void largeFrameTest() throws Exception {
+        try (
+                final TCPSocket client = TCPSocket.asClient("127.0.0.1", TCPSocketTest.TEST_PORT);
+                final TCPSocket server = TCPSocket.asServer(TCPSocketTest.TEST_PORT)) {
+            client.waitUntilConnected(100);
+
+            // Frames that are larger than the pooled buffers, mixed with small ones
+            final byte[] large = new byte[1024 * 1024];
+            for (int i = 0; i < large.length; i++) {
+                large[i] = (byte) i;
+            }
+            final Thread sender = new Thread(() -> {
+                try {
+                    client.send(large);
+                    client.send("Test data".getBytes());
+                    client.send(large);
+                } catch (final IOException e) {
+                    client.close();
+                }
+            });
+            sender.start();
+
+            Assert.assertArrayEquals(large, server.read(1000));
+            Assert.assertEquals("Test data", new String(server.read(1000)));
+            Assert.assertArrayEquals(large, server.read(1000));
+            sender.join();
+        }
+    }
+
+    @Test
+    public void maxFrameSizeTest() throws Exception {
+        try (
+                final TCPSocket client = TCPSocket.asClient("127.0.0.1", TCPSocketTest.TEST_PORT);
+                final TCPSocket server = TCPSocket.asServer(TCPSocketTest.TEST_PORT)) {
+            client.waitUntilConnected(100);
+            server.setMaxFrameSize(1024);
+
+            client.send(new byte[1024]);
+            Assert.assertEquals(1024, server.read(1000).length);
+
+            // A longer frame is rejected before it is read
+            client.send(new byte[1025]);
+            try {
+                server.read(1000);
+                Assert.fail("Expected the frame to be rejected");
+            } catch (final IOException e) {
+                Assert.assertTrue(e.getMessage().contains("exceeds the maximum"));
+            }
+        }
+    }
+
+    @Test
+    public void attachTest() throws Exception {
+        final BlockingQueue<String> frames = new LinkedBlockingQueue<>();
+        final AtomicInteger closeCount = new AtomicInteger();
+        final CountDownLatch closed = new CountDownLatch(1);
+
+        try (
+                final TCPSocket client = TCPSocket.asClient("127.0.0.1", TCPSocketTest.TEST_PORT);
+                final TCPSocket server = TCPSocket.asServer(TCPSocketTest.TEST_PORT)) {
+            client.waitUntilConnected(100);
+            server.waitUntilConnected(100);
+            server.attach(new FrameListener() {
+
+                @Override
+                public void onFrame(final byte[] data) {
+                    frames.add(new String(data));
+                }
+
+                @Override
+                public void onClose() {
+                    closeCount.incrementAndGet();
+                    closed.countDown();
+                }
+            });
+            Assert.assertTrue(server.isAttached());
+
+            try {
+                server.read(100);
+                Assert.fail("Expected an " + IllegalStateException.class);
+            } catch (final Exception e) {
+                Assert.assertEquals(IllegalStateException.class, e.getClass());
+            }
+
+            // Frames should arrive in order, also when they are read in one go
+            for (int i = 0; i < 100; i++) {
+                client.send(("Frame " + i).getBytes());
+            }
+            for (int i = 0; i < 100; i++) {
+                Assert.assertEquals("Frame " + i, frames.poll(1, TimeUnit.SECONDS));
+            }
+
+            // The remote side hangs up, which should notify the listener only once
+            client.close();
+            Assert.assertTrue(closed.await(1, TimeUnit.SECONDS));
+            Assert.assertTrue(server.isClosed());
+            server.close();
+            Assert.assertEquals(1, closeCount.get());
+        }
+    }
+
+    @Test
+    public void pauseTest() throws Exception {
+        final BlockingQueue<String> frames = new LinkedBlockingQueue<>();
+        final AtomicInteger count = new AtomicInteger();
+        try (
+                final TCPSocket client = TCPSocket.asClient("127.0.0.1", TCPSocketTest.TEST_PORT);
+                final TCPSocket server = TCPSocket.asServer(TCPSocketTest.TEST_PORT)) {
+            client.waitUntilConnected(100);
+            server.waitUntilConnected(100);
+            server.attach(new FrameListener() {
+
+                @Override
+                public void onFrame(final byte[] data) {
+                    frames.add(new String(data));
+                    if (count.incrementAndGet() == 2) {
+                        // Pause from within the listener, like a connection with a full queue
+                        server.pauseReading();
+                    }
+                }
+
+                @Override
+                public void onClose() {
+                    // Not tested here
+                }
+            });
+
+            for (int i = 0; i < 10; i++) {
+                client.send(("Frame " + i).getBytes());
+            }
+            Assert.assertEquals("Frame 0", frames.poll(1, TimeUnit.SECONDS));
+            Assert.assertEquals("Frame 1", frames.poll(1, TimeUnit.SECONDS));
+            Assert.assertNull(frames.poll(100, TimeUnit.MILLISECONDS));
+
+            // Also the frames that were read before pausing are delivered after resuming
+            server.resumeReading();
+            for (int i = 2; i < 10; i++) {
+                Assert.assertEquals("Frame " + i, frames.poll(1, TimeUnit.SECONDS));
+            }
+        }
+    }
+
     @Test
     public void testTimeout() throws Exception {
         try (
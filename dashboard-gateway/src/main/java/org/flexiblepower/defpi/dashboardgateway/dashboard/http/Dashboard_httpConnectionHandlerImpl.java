@@ -21,16 +21,13 @@ package org.flexiblepower.defpi.dashboardgateway.dashboard.http;
  */
 
 import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
 import java.nio.charset.Charset;
 import java.util.Enumeration;
-import java.util.Map;
 import java.util.Map.Entry;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.Generated;
 import javax.servlet.ServletInputStream;
@@ -46,6 +43,7 @@ import org.flexiblepower.defpi.dashboardgateway.dashboard.http.proto.Dashboard_h
 import org.flexiblepower.defpi.dashboardgateway.dashboard.http.proto.Dashboard_httpProto.HTTPRequest.Method;
 import org.flexiblepower.defpi.dashboardgateway.dashboard.http.proto.Dashboard_httpProto.HTTPResponse;
 import org.flexiblepower.service.Connection;
+import org.flexiblepower.service.RequestCorrelator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -67,8 +65,7 @@ public class Dashboard_httpConnectionHandlerImpl implements Dashboard_httpConnec
 
     private final Connection connection;
     private final DashboardGateway service;
-    private final AtomicInteger requestIdGenerator = new AtomicInteger(0);
-    private final Map<Integer, CompletableFuture<HTTPResponse>> responseList = new ConcurrentHashMap<>();
+    private final RequestCorrelator<HTTPResponse> requests;
     private String username = null;
 
     /**
@@ -80,17 +77,15 @@ public class Dashboard_httpConnectionHandlerImpl implements Dashboard_httpConnec
     public Dashboard_httpConnectionHandlerImpl(final Connection connection, final DashboardGateway service) {
         this.connection = connection;
         this.service = service;
+        this.requests = new RequestCorrelator<>(connection, 30, TimeUnit.SECONDS);
         service.addDashboardConnection(this);
     }
 
     @Override
     public void handleHTTPResponseMessage(final HTTPResponse message) {
-        final CompletableFuture<HTTPResponse> completableFuture = this.responseList.get(message.getId());
-        if (completableFuture == null) {
+        if (!this.requests.complete(message.getId(), message)) {
             Dashboard_httpConnectionHandlerImpl.LOG
                     .error("Received HTTPResponse for unknown request id: " + message.getId());
-        } else {
-            completableFuture.complete(message);
         }
     }
 
@@ -120,6 +115,7 @@ public class Dashboard_httpConnectionHandlerImpl implements Dashboard_httpConnec
     @Override
     public void terminated() {
         this.service.removeDashboardConnection(this);
+        this.requests.failAll(new ClosedChannelException());
     }
 
     public String getUsername() {
@@ -138,48 +134,37 @@ public class Dashboard_httpConnectionHandlerImpl implements Dashboard_httpConnec
             final HttpServletResponse response) {
         // Create request
         final HTTPRequest httpRequest = this.createHttpRequest(request);
-        final CompletableFuture<HTTPResponse> future = new CompletableFuture<>();
-        this.responseList.put(httpRequest.getId(), future);
-
-        try {
-            this.connection.send(httpRequest);
-        } catch (final IOException e) {
-            Dashboard_httpConnectionHandlerImpl.LOG.error("Error sending request: " + e.getMessage());
-            Dashboard_httpConnectionHandlerImpl.LOG.trace(e.getMessage(), e);
-            Dashboard_httpConnectionHandlerImpl.writeHttpResponse(HTTPResponse.newBuilder()
-                    .setId(httpRequest.getId())
-                    .setStatus(500)
-                    .setBody(ByteString.copyFrom("Error", Charset.defaultCharset()))
-                    .build(), response);
-            return;
-        }
 
-        // Wait and get response
-        final HTTPResponse httpResponse = this.waitForResponse(httpRequest.getId());
+        // Send, wait and get response
+        final HTTPResponse httpResponse = this.waitForResponse(httpRequest);
         Dashboard_httpConnectionHandlerImpl.writeHttpResponse(httpResponse, response);
     }
 
-    private HTTPResponse waitForResponse(final Integer requestId) {
+    private HTTPResponse waitForResponse(final HTTPRequest httpRequest) {
+        final int requestId = httpRequest.getId();
         try {
             Dashboard_httpConnectionHandlerImpl.LOG.debug("Waiting for response");
-            final HTTPResponse httpResponse = this.responseList.get(requestId).get(30, TimeUnit.SECONDS);
-            this.responseList.remove(requestId);
-            return httpResponse;
-        } catch (final TimeoutException e) {
-            Dashboard_httpConnectionHandlerImpl.LOG.debug("Gateway Timeout");
-            return HTTPResponse.newBuilder()
-                    .setId(requestId)
-                    .setStatus(504)
-                    .setBody(ByteString.copyFrom("Gateway timeout", Charset.defaultCharset()))
-                    .build();
-        } catch (InterruptedException | ExecutionException e) {
+            return this.requests.request(requestId, httpRequest).get();
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                Dashboard_httpConnectionHandlerImpl.LOG.debug("Gateway Timeout");
+                return HTTPResponse.newBuilder()
+                        .setId(requestId)
+                        .setStatus(504)
+                        .setBody(ByteString.copyFrom("Gateway timeout", Charset.defaultCharset()))
+                        .build();
+            }
+            Dashboard_httpConnectionHandlerImpl.LOG.error("Error sending request: " + e.getCause().getMessage());
+            Dashboard_httpConnectionHandlerImpl.LOG.trace(e.getMessage(), e);
+        } catch (final InterruptedException e) {
             Dashboard_httpConnectionHandlerImpl.LOG.error("Error while waiting for response", e);
-            return HTTPResponse.newBuilder()
-                    .setId(requestId)
-                    .setStatus(500)
-                    .setBody(ByteString.copyFrom("Error", Charset.defaultCharset()))
-                    .build();
+            Thread.currentThread().interrupt();
         }
+        return HTTPResponse.newBuilder()
+                .setId(requestId)
+                .setStatus(500)
+                .setBody(ByteString.copyFrom("Error", Charset.defaultCharset()))
+                .build();
     }
 
     private static void writeHttpResponse(final HTTPResponse httpResponse, final HttpServletResponse response) {
@@ -202,7 +187,7 @@ public class Dashboard_httpConnectionHandlerImpl implements Dashboard_httpConnec
     private HTTPRequest createHttpRequest(final HttpServletRequest request) {
         final Builder b = HTTPRequest.newBuilder();
         // Id
-        b.setId(this.requestIdGenerator.incrementAndGet());
+        b.setId(this.requests.nextId());
         // Uri
         b.setUri(request.getRequestURI());
         // Headers
@@ -20,9 +20,9 @@ package org.flexiblepower.defpi.dashboard.widget.http;
  * #L%
  */
 
-import java.io.IOException;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.nio.channels.ClosedChannelException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import javax.annotation.Generated;
 
@@ -38,6 +38,7 @@ import org.flexiblepower.defpi.dashboard.widget.http.proto.Widget_httpProto.Widg
 import org.flexiblepower.defpi.dashboard.widget.http.proto.Widget_httpProto.WidgetInfo;
 import org.flexiblepower.defpi.dashboard.widget.http.proto.Widget_httpProto.WidgetInfo.WidgetType;
 import org.flexiblepower.service.Connection;
+import org.flexiblepower.service.RequestCorrelator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -56,9 +57,8 @@ public class Widget_httpConnectionHandlerImpl implements Widget_httpConnectionHa
 
     public static final Logger LOG = LoggerFactory.getLogger(Widget_httpConnectionHandlerImpl.class);
 
-    private final Connection connection;
     private final Dashboard service;
-    private final Map<Integer, HttpTask> responseList = new ConcurrentHashMap<>();
+    private final RequestCorrelator<WidgetHTTPResponse> requests;
     private WidgetInfo widgetInfo = null;
 
     /**
@@ -68,24 +68,16 @@ public class Widget_httpConnectionHandlerImpl implements Widget_httpConnectionHa
      *            ' * The service for which to handle the connections
      */
     public Widget_httpConnectionHandlerImpl(final Connection connection, final Dashboard service) {
-        this.connection = connection;
         this.service = service;
+        this.requests = new RequestCorrelator<>(connection, 30, TimeUnit.SECONDS);
     }
 
     @Override
     public void handleWidgetHTTPResponseMessage(final WidgetHTTPResponse message) {
         Widget_httpConnectionHandlerImpl.LOG.debug("Received response " + message.getId());
-        final HttpTask httpTask = this.responseList.get(message.getId());
-        if (httpTask == null) {
+        if (!this.requests.complete(message.getId(), message)) {
             Widget_httpConnectionHandlerImpl.LOG
                     .error("Received HTTPResponse for unknown request id: " + message.getId());
-        } else {
-            httpTask.respond(HTTPResponse.newBuilder()
-                    .setId(message.getId())
-                    .setBody(message.getBody())
-                    .setStatus(message.getStatus())
-                    .putAllHeaders(message.getHeadersMap())
-                    .build());
         }
     }
 
@@ -126,6 +118,7 @@ public class Widget_httpConnectionHandlerImpl implements Widget_httpConnectionHa
 
     @Override
     public void terminated() {
+        this.requests.failAll(new ClosedChannelException());
         if (this.widgetInfo != null) {
             // if this.widgetInfo == null we never registered
             this.service.unregisterWidget(this);
@@ -143,15 +136,23 @@ public class Widget_httpConnectionHandlerImpl implements Widget_httpConnectionHa
                 .putAllHeaders(r.getHeadersMap())
                 .build();
 
-        this.responseList.put(r.getId(), httpTask);
-
         Widget_httpConnectionHandlerImpl.LOG.debug("Sending request " + r.getId());
-        try {
-            this.connection.send(widgetRequest);
-        } catch (final IOException e) {
-            Widget_httpConnectionHandlerImpl.LOG.error("Could not send HTTP request for Widget", e);
-            HttpUtils.internalError(httpTask);
-        }
+        this.requests.request(r.getId(), widgetRequest).whenComplete((message, error) -> {
+            if (error == null) {
+                httpTask.respond(HTTPResponse.newBuilder()
+                        .setId(message.getId())
+                        .setBody(message.getBody())
+                        .setStatus(message.getStatus())
+                        .putAllHeaders(message.getHeadersMap())
+                        .build());
+            } else if (error instanceof TimeoutException) {
+                Widget_httpConnectionHandlerImpl.LOG.warn("No response from Widget to request " + r.getId());
+                HttpUtils.internalError(httpTask, "The widget did not respond in time");
+            } else {
+                Widget_httpConnectionHandlerImpl.LOG.error("Could not send HTTP request for Widget", error);
+                HttpUtils.internalError(httpTask);
+            }
+        });
     }
 
     @Override
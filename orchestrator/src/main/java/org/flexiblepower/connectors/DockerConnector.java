@@ -114,6 +114,17 @@ public class DockerConnector {
 
     private static final int INTERNAL_DEBUGGING_PORT = 8000;
 
+    /**
+     * The environment variable with the name of the docker volume that is mounted in all processes, so processes that
+     * run on the same node can connect through shared memory. When it is not set, all connections use TCP.
+     */
+    public static final String SHARED_MEMORY_VOLUME_KEY = "SHARED_MEMORY_VOLUME";
+
+    /**
+     * The path inside the process containers where the shared memory volume is mounted
+     */
+    public static final String SHARED_MEMORY_PATH = "/defpi-shm";
+
     private static DockerConnector instance = null;
 
     // private final Map<ObjectId, Object> netLocks = new ConcurrentHashMap<>();
@@ -576,6 +587,15 @@ public class DockerConnector {
             for (final MountPoint mount : process.getMountPoints()) {
                 mountList.add(Mount.builder().source(mount.getSource()).target(mount.getTarget()).build());
             }
+        }
+        if (DockerConnector.getSharedMemoryVolume() != null) {
+            mountList.add(Mount.builder()
+                    .type("volume")
+                    .source(DockerConnector.getSharedMemoryVolume())
+                    .target(DockerConnector.SHARED_MEMORY_PATH)
+                    .build());
+        }
+        if (!mountList.isEmpty()) {
             containerSpec.mounts(mountList);
         }
 
@@ -622,6 +642,17 @@ public class DockerConnector {
                 .build();
     }
 
+    /**
+     * Get the name of the docker volume that processes use to connect through shared memory
+     *
+     * @return The name of the volume as specified in {@value #SHARED_MEMORY_VOLUME_KEY}, or null if processes should
+     *         not use shared memory
+     */
+    public static String getSharedMemoryVolume() {
+        final String volume = System.getenv(DockerConnector.SHARED_MEMORY_VOLUME_KEY);
+        return (volume == null) || volume.isEmpty() ? null : volume;
+    }
+
     private static String getDockerServiceNameForProcess(final Process process) {
         return process.getId().toString();
     }
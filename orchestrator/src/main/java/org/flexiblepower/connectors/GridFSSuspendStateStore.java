@@ -0,0 +1,94 @@
+/*-
+ * #%L
+ * dEF-Pi REST Orchestrator
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.connectors;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.mongodb.client.gridfs.model.GridFSUploadOptions;
+
+/**
+ * GridFSSuspendStateStore keeps the state of suspended processes in MongoDB GridFS. GridFS splits the state in chunks
+ * that are stored as separate documents, so it is not limited by the maximum size of a document, and it is only read
+ * when a process is resumed.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+public class GridFSSuspendStateStore implements SuspendStateStore {
+
+    /**
+     * The name of the GridFS bucket that holds the state of suspended processes
+     */
+    public static final String BUCKET_NAME = "suspendState";
+
+    private final GridFSBucket bucket;
+
+    /**
+     * Create a store that keeps the state in the default bucket of the dEF-Pi database
+     */
+    public GridFSSuspendStateStore() {
+        this(MongoDbConnector.getInstance().getGridFSBucket(GridFSSuspendStateStore.BUCKET_NAME));
+    }
+
+    /**
+     * Create a store that keeps the state in the provided bucket
+     *
+     * @param bucket The GridFS bucket to store the state in
+     */
+    public GridFSSuspendStateStore(final GridFSBucket bucket) {
+        this.bucket = bucket;
+    }
+
+    @Override
+    public ObjectId save(final ObjectId processId, final InputStream state) throws IOException {
+        try {
+            final GridFSUploadOptions options = new GridFSUploadOptions()
+                    .metadata(new Document("processId", processId));
+            return this.bucket.uploadFromStream(processId.toString(), state, options);
+        } catch (final MongoException e) {
+            throw new IOException("Unable to store state of process " + processId, e);
+        }
+    }
+
+    @Override
+    public InputStream open(final ObjectId stateId) throws IOException {
+        try {
+            return this.bucket.openDownloadStream(stateId);
+        } catch (final MongoException e) {
+            throw new IOException("Unable to open suspended state " + stateId, e);
+        }
+    }
+
+    @Override
+    public void delete(final ObjectId stateId) throws IOException {
+        try {
+            this.bucket.delete(stateId);
+        } catch (final MongoException e) {
+            throw new IOException("Unable to remove suspended state " + stateId, e);
+        }
+    }
+
+}
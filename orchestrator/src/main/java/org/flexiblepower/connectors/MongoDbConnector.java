@@ -44,6 +44,9 @@ import org.mongodb.morphia.query.UpdateOperations;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mongodb.MongoClient;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.mongodb.client.gridfs.GridFSBuckets;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -83,6 +86,7 @@ public final class MongoDbConnector {
     private static MongoDbConnector instance = null;
 
     private final Datastore datastore;
+    private final MongoDatabase database;
 
     private MongoDbConnector() {
         String mongoHost = System.getenv(MongoDbConnector.MONGO_HOST_KEY);
@@ -110,6 +114,7 @@ public final class MongoDbConnector {
         // create the Datastore connecting to the default port on the local host
         this.datastore = morphia.createDatastore(client, mongoDatabase);
         this.datastore.ensureIndexes();
+        this.database = client.getDatabase(mongoDatabase);
     }
 
     /**
@@ -268,6 +273,14 @@ public final class MongoDbConnector {
         this.datastore.delete(entity);
     }
 
+    /**
+     * @param bucketName the name of the GridFS bucket
+     * @return the GridFS bucket with the provided name, to store files that may be larger than a single document
+     */
+    public GridFSBucket getGridFSBucket(final String bucketName) {
+        return GridFSBuckets.create(this.database, bucketName);
+    }
+
     /**
      * Convert a string to a valid ObjectId. Throw an exception if the string is not a valid ObjectId, and returns the
      * corresponding ObjectId otherwise.
@@ -19,12 +19,17 @@
  */
 package org.flexiblepower.connectors;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.bson.types.ObjectId;
+import org.flexiblepower.commons.ChunkInputStream;
+import org.flexiblepower.commons.ChunkOutputStream;
+import org.flexiblepower.commons.StreamFrame;
 import org.flexiblepower.commons.TCPSocket;
 import org.flexiblepower.exceptions.NotFoundException;
 import org.flexiblepower.exceptions.ProcessNotFoundException;
@@ -45,6 +50,8 @@ import org.flexiblepower.proto.ConnectionProto.ConnectionMessage;
 import org.flexiblepower.proto.ConnectionProto.ConnectionMessage.ModeType;
 import org.flexiblepower.proto.ServiceProto.ErrorMessage;
 import org.flexiblepower.proto.ServiceProto.GoToProcessStateMessage;
+import org.flexiblepower.proto.ServiceProto.MetricsRequestMessage;
+import org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage;
 import org.flexiblepower.proto.ServiceProto.ProcessStateUpdateMessage;
 import org.flexiblepower.proto.ServiceProto.ResumeProcessMessage;
 import org.flexiblepower.proto.ServiceProto.SetConfigMessage;
@@ -72,6 +79,7 @@ public class ProcessConnector {
     private static ProcessConnector instance = null;
 
     private final Map<ObjectId, ProcessConnection> connections = new ConcurrentHashMap<>();
+    private SuspendStateStore suspendStateStore = null;
 
     private ProcessConnector() {
         // Private constructor for the singleton object
@@ -87,6 +95,23 @@ public class ProcessConnector {
         return ProcessConnector.instance;
     }
 
+    /**
+     * Set the store that keeps the state of suspended processes until they are resumed. By default the state is kept
+     * in a {@link GridFSSuspendStateStore}.
+     *
+     * @param store The store for the state of suspended processes
+     */
+    public synchronized void setSuspendStateStore(final SuspendStateStore store) {
+        this.suspendStateStore = store;
+    }
+
+    private synchronized SuspendStateStore getSuspendStateStore() {
+        if (this.suspendStateStore == null) {
+            this.suspendStateStore = new GridFSSuspendStateStore();
+        }
+        return this.suspendStateStore;
+    }
+
     /**
      * Returns a process connection to the process, or null if it is unable to connect. This function uses a hashmap to
      * cache all process connections. If a connection is not yet present a new connection will be made and stored in the
@@ -220,30 +245,80 @@ public class ProcessConnector {
     }
 
     /**
-     * Resume a process from the suspended state by sending a RESUME message
+     * Resume a process from the suspended state by sending a RESUME message. The state is streamed from the
+     * {@link SuspendStateStore}, and removed from it when the process has resumed.
      *
      * @param processId the ID of the process to resume
-     * @param suspendState The serialize state that the process should resume with
+     * @param suspendStateId The ID of the stored state that the process should resume with, or null to resume without
+     *            state
      * @return Whether the process was successfully resumed or not
      * @throws ProcessNotFoundException If the process is not found by the ProcessManager
      * @see #suspendProcess(ObjectId)
      */
-    public boolean resume(final ObjectId processId, final byte[] suspendState) throws ProcessNotFoundException {
+    public boolean resume(final ObjectId processId, final ObjectId suspendStateId) throws ProcessNotFoundException {
         final ProcessConnection processConnection = this.getProcessConnection(processId);
-        return (processConnection != null) && processConnection.resumeProcess(suspendState);
+        if (processConnection == null) {
+            return false;
+        }
+
+        if (suspendStateId == null) {
+            if (!processConnection.resumeProcess(null)) {
+                return false;
+            }
+        } else {
+            // The state is sent to the process in chunks while it is read from the store
+            try (final InputStream in = this.getSuspendStateStore().open(suspendStateId)) {
+                if (!processConnection.resumeProcess(in)) {
+                    return false;
+                }
+            } catch (final IOException e) {
+                ProcessConnector.log.warn("Unable to read state to resume process {}: {}", processId, e.getMessage());
+                return false;
+            }
+        }
+
+        if (suspendStateId != null) {
+            try {
+                this.getSuspendStateStore().delete(suspendStateId);
+            } catch (final IOException e) {
+                ProcessConnector.log
+                        .warn("Unable to remove state of resumed process {}: {}", processId, e.getMessage());
+            }
+        }
+        return true;
     }
 
     /**
-     * Suspend a process temporarily by sending a SUSPEND message
+     * Suspend a process temporarily by sending a SUSPEND message. The state that the process returns is streamed to
+     * the {@link SuspendStateStore}, so it is kept out of the documents of pending changes.
      *
      * @param processId the ID of the process to suspend
-     * @return The serialized state that the process wants to be re-instantiated with when it will be resumed
+     * @return The ID of the stored state that the process wants to be re-instantiated with when it will be resumed, or
+     *         null if the process could not be suspended
      * @throws ProcessNotFoundException If the process is not found by the ProcessManager
-     * @see #resume(ObjectId, byte[])
+     * @see #resume(ObjectId, ObjectId)
      */
-    public byte[] suspendProcess(final ObjectId processId) throws ProcessNotFoundException {
+    public ObjectId suspendProcess(final ObjectId processId) throws ProcessNotFoundException {
         final ProcessConnection processConnection = this.getProcessConnection(processId);
-        return processConnection == null ? null : processConnection.suspendProcess();
+        return processConnection == null ? null : processConnection.suspendProcess(this.getSuspendStateStore());
+    }
+
+    /**
+     * Put state that the process must be resumed from in the {@link SuspendStateStore}, for instance when the state was
+     * kept elsewhere by an older version of the orchestrator.
+     *
+     * @param processId the ID of the process that the state belongs to
+     * @param suspendState the state of the process
+     * @return The ID of the stored state, or null if it could not be stored
+     * @see #resume(ObjectId, ObjectId)
+     */
+    public ObjectId storeSuspendState(final ObjectId processId, final byte[] suspendState) {
+        try (final InputStream in = new ByteArrayInputStream(suspendState)) {
+            return this.getSuspendStateStore().save(processId, in);
+        } catch (final IOException e) {
+            ProcessConnector.log.error("Unable to store state of suspended process {}: {}", processId, e.getMessage());
+            return null;
+        }
     }
 
     /**
@@ -260,6 +335,19 @@ public class ProcessConnector {
         return (processConnection != null) && processConnection.updateConfiguration(configuration);
     }
 
+    /**
+     * Fetch the metrics of the connections of a running process, like the number of messages and bytes that were sent
+     * and received, and how long the stages of handling them took.
+     *
+     * @param processId the ID of the process to get the metrics of
+     * @return A snapshot of the metrics of every connection of the process, or null if the process did not respond
+     * @throws ProcessNotFoundException If the process is not found by the ProcessManager
+     */
+    public MetricsSnapshotMessage getMetrics(final ObjectId processId) throws ProcessNotFoundException {
+        final ProcessConnection processConnection = this.getProcessConnection(processId);
+        return processConnection == null ? null : processConnection.requestMetrics();
+    }
+
     /**
      * Disconnect the connection with the remote process, and remove from the cache
      *
@@ -291,6 +379,8 @@ public class ProcessConnector {
             this.serializer.addMessageClass(ConnectionHandshake.class);
             this.serializer.addMessageClass(ConnectionMessage.class);
             this.serializer.addMessageClass(ErrorMessage.class);
+            this.serializer.addMessageClass(MetricsRequestMessage.class);
+            this.serializer.addMessageClass(MetricsSnapshotMessage.class);
         }
 
         synchronized boolean connectWithProcess() {
@@ -331,17 +421,20 @@ public class ProcessConnector {
         private boolean
                 createOrResumeEndpoint(final Connection connection, final Endpoint endpoint, final ModeType type) {
             final Endpoint otherEndpoint = connection.getOtherEndpoint(endpoint);
+            Process otherProcess;
             String remoteServiceId;
             try {
-                final Process otherProcess = ProcessManager.getInstance().getProcess(otherEndpoint.getProcessId());
+                otherProcess = ProcessManager.getInstance().getProcess(otherEndpoint.getProcessId());
                 remoteServiceId = otherProcess.getServiceId();
             } catch (final ProcessNotFoundException e) {
+                otherProcess = null;
                 remoteServiceId = null;
             }
 
+            Process process;
             InterfaceVersion interfaceVersion;
             try {
-                final Process process = ProcessManager.getInstance().getProcess(this.processId);
+                process = ProcessManager.getInstance().getProcess(this.processId);
                 final Service service = ServiceManager.getInstance().getService(process.getServiceId());
                 final Interface intface = service.getInterface(endpoint.getInterfaceId());
                 if (intface == null) {
@@ -363,6 +456,11 @@ public class ProcessConnector {
                     ? otherEndpoint.getProcessId().toString()
                     : "");
 
+            // Processes on the same node can bypass the network, if they share a volume for the ring buffers
+            final boolean colocated = (DockerConnector.getSharedMemoryVolume() != null) && (otherProcess != null)
+                    && (process.getRunningNodeId() != null)
+                    && process.getRunningNodeId().equals(otherProcess.getRunningNodeId());
+
             final ConnectionMessage connectionMessage = ConnectionMessage.newBuilder()
                     .setConnectionId(connection.getId().toString())
                     .setMode(type)
@@ -373,6 +471,7 @@ public class ProcessConnector {
                     .setRemoteProcessId(otherEndpoint.getProcessId().toString())
                     .setRemoteInterfaceId(otherEndpoint.getInterfaceId())
                     .setRemoteServiceId(remoteServiceId)
+                    .setSharedMemoryPath(colocated ? DockerConnector.SHARED_MEMORY_PATH : "")
                     .build();
 
             final ConnectionHandshake response = this.send(connectionMessage, ConnectionHandshake.class);
@@ -432,13 +531,34 @@ public class ProcessConnector {
             }
         }
 
-        boolean resumeProcess(final byte[] suspendState) {
+        synchronized boolean resumeProcess(final InputStream suspendState) {
             final ResumeProcessMessage msg = ResumeProcessMessage.newBuilder()
                     .setProcessId(this.processId.toString())
-                    .setStateData(suspendState == null ? ByteString.EMPTY : ByteString.copyFrom(suspendState))
+                    .setStateData(ByteString.EMPTY)
+                    .setStateFollows(suspendState != null)
                     .build();
 
-            final ProcessStateUpdateMessage response = this.send(msg, ProcessStateUpdateMessage.class);
+            if (!this.sendMessage(msg)) {
+                return false;
+            }
+
+            if (suspendState != null) {
+                final byte[] buffer = new byte[StreamFrame.CHUNK_SIZE];
+                try (final ChunkOutputStream out = new ChunkOutputStream(this.socket)) {
+                    int length;
+                    while ((length = suspendState.read(buffer)) >= 0) {
+                        out.write(buffer, 0, length);
+                    }
+                } catch (final IOException e) {
+                    // The process is unable to tell where the state ends, so start over with a new connection
+                    ProcessConnector.log.warn("Exception while sending state to Process ({}), close connection.",
+                            e.getMessage());
+                    this.close();
+                    return false;
+                }
+            }
+
+            final ProcessStateUpdateMessage response = this.receive(ProcessStateUpdateMessage.class);
             if (response != null) {
                 this.updateProcessStateInDb(response.getState());
                 return true;
@@ -459,28 +579,82 @@ public class ProcessConnector {
             }
         }
 
-        byte[] suspendProcess() {
-            byte[] suspendState; // = new byte[0];
+        synchronized ObjectId suspendProcess(final SuspendStateStore store) {
             final GoToProcessStateMessage msg = GoToProcessStateMessage.newBuilder()
                     .setProcessId(this.processId.toString())
                     .setTargetState(org.flexiblepower.proto.ServiceProto.ProcessState.SUSPENDED)
+                    .setStreamState(true)
                     .build();
-            final ProcessStateUpdateMessage response = this.send(msg, ProcessStateUpdateMessage.class);
+            if (!this.sendMessage(msg)) {
+                return null;
+            }
 
-            if (response != null) {
-                this.updateProcessStateInDb(response.getState());
-                suspendState = response.getStateData().toByteArray();
-                if (!response.getState().equals(org.flexiblepower.proto.ServiceProto.ProcessState.SUSPENDED)) {
-                    ProcessConnector.log.error("Sended suspend instruction to Process " + this.processId.toString()
-                            + ", but the process did not go to suspeded state.");
+            byte[] recv = this.read();
+            if (recv == null) {
+                return null;
+            }
+
+            ObjectId suspendStateId = null;
+            if (StreamFrame.isChunk(recv)) {
+                // The state precedes the response, and goes to the store while it is received
+                try (final InputStream in = new ChunkInputStream(this.socket, ProcessConnection.IO_TIMEOUT, recv)) {
+                    suspendStateId = store.save(this.processId, in);
+                } catch (final IOException e) {
+                    ProcessConnector.log.error("Unable to store state of suspended process {}: {}",
+                            this.processId,
+                            e.getMessage());
+                    this.close();
+                    return null;
                 }
-            } else {
+                recv = this.read();
+            }
+
+            final ProcessStateUpdateMessage response = recv == null ? null
+                    : this.parse(recv, ProcessStateUpdateMessage.class);
+            if (response == null) {
+                this.deleteState(store, suspendStateId);
                 return null;
             }
 
+            this.updateProcessStateInDb(response.getState());
+            if (!response.getState().equals(org.flexiblepower.proto.ServiceProto.ProcessState.SUSPENDED)) {
+                ProcessConnector.log.error("Sended suspend instruction to Process " + this.processId.toString()
+                        + ", but the process did not go to suspeded state.");
+            }
+
+            if (suspendStateId == null) {
+                // A process that does not stream its state sends it in the response
+                try (final InputStream in = response.getStateData().newInput()) {
+                    suspendStateId = store.save(this.processId, in);
+                } catch (final IOException e) {
+                    ProcessConnector.log.error("Unable to store state of suspended process {}: {}",
+                            this.processId,
+                            e.getMessage());
+                }
+            }
+
             this.close();
 
-            return suspendState;
+            return suspendStateId;
+        }
+
+        private void deleteState(final SuspendStateStore store, final ObjectId suspendStateId) {
+            if (suspendStateId != null) {
+                try {
+                    store.delete(suspendStateId);
+                } catch (final IOException e) {
+                    ProcessConnector.log.warn("Unable to remove state of process {}: {}",
+                            this.processId,
+                            e.getMessage());
+                }
+            }
+        }
+
+        MetricsSnapshotMessage requestMetrics() {
+            final MetricsRequestMessage msg = MetricsRequestMessage.newBuilder()
+                    .setProcessId(this.processId.toString())
+                    .build();
+            return this.send(msg, MetricsSnapshotMessage.class);
         }
 
         boolean terminateProcess() {
@@ -529,23 +703,35 @@ public class ProcessConnector {
 
         // Only one thread is allowed to do a send/receive at the time for each connection
         synchronized private <T> T send(final Message msg, final Class<T> expected) {
+            return this.sendMessage(msg) ? this.receive(expected) : null;
+        }
+
+        private boolean sendMessage(final Message msg) {
             byte[] data;
             try {
                 data = this.serializer.serialize(msg);
             } catch (final SerializationException e) {
                 ProcessConnector.log.error("Could not serialize message", e);
-                return null;
+                return false;
             }
 
             try {
                 this.socket.send(data);
+                return true;
             } catch (final IOException e) {
                 ProcessConnector.log.warn("Exception while sending message to Process ({}), try to resend.",
                         e.getMessage());
                 this.close();
-                return null;
+                return false;
             }
+        }
+
+        private <T> T receive(final Class<T> expected) {
+            final byte[] recv = this.read();
+            return recv == null ? null : this.parse(recv, expected);
+        }
 
+        private byte[] read() {
             byte[] recv; // = null;
             try {
                 recv = this.socket.read(ProcessConnection.IO_TIMEOUT);
@@ -559,9 +745,11 @@ public class ProcessConnector {
             if (recv == null) {
                 ProcessConnector.log.warn("Did not receive a response from process, close and try again");
                 this.close();
-                return null;
             }
+            return recv;
+        }
 
+        private <T> T parse(final byte[] recv, final Class<T> expected) {
             try {
                 final Message m = this.serializer.deserialize(recv);
                 if (expected.isInstance(m)) {
@@ -0,0 +1,65 @@
+/*-
+ * #%L
+ * dEF-Pi REST Orchestrator
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.connectors;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.bson.types.ObjectId;
+
+/**
+ * A SuspendStateStore keeps the state of suspended processes, from the moment a process is suspended until it is
+ * resumed. The state is an opaque blob, which is written and read as a stream so it never has to fit in a single
+ * database document, or in memory as a whole.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ * @see ProcessConnector#setSuspendStateStore(SuspendStateStore)
+ */
+public interface SuspendStateStore {
+
+    /**
+     * Store the state of a suspended process
+     *
+     * @param processId The ID of the process that was suspended
+     * @param state The stream of state data, which is read until it ends
+     * @return The ID to retrieve the state with later on
+     * @throws IOException When the state could not be read or stored
+     */
+    public ObjectId save(ObjectId processId, InputStream state) throws IOException;
+
+    /**
+     * Open the stored state of a suspended process
+     *
+     * @param stateId The ID that was returned when the state was saved
+     * @return A stream of the state data, which the caller must close
+     * @throws IOException When no state with this ID is stored, or when it could not be read
+     */
+    public InputStream open(ObjectId stateId) throws IOException;
+
+    /**
+     * Remove the stored state of a process, for instance when it has been resumed
+     *
+     * @param stateId The ID that was returned when the state was saved
+     * @throws IOException When no state with this ID is stored, or when it could not be removed
+     */
+    public void delete(ObjectId stateId) throws IOException;
+
+}
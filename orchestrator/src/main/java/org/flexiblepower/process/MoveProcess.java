@@ -165,16 +165,16 @@ class MoveProcess {
 
         @Override
         public Result execute() {
-            byte[] suspendProcess;
+            ObjectId suspendStateId;
 
             try {
-                suspendProcess = ProcessConnector.getInstance().suspendProcess(this.process.getId());
+                suspendStateId = ProcessConnector.getInstance().suspendProcess(this.process.getId());
             } catch (final ProcessNotFoundException e) {
                 SuspendProcess.log.error("No such process {}, failed permanently", this.process.getId());
                 return Result.FAILED_PERMANENTLY;
             }
 
-            if (suspendProcess == null) {
+            if (suspendStateId == null) {
                 // that means it was not successful
 
                 if (this.getCount() > 3) {
@@ -198,7 +198,7 @@ class MoveProcess {
                         .submit(new RemoveDockerService(this.process,
                                 this.nodePoolId,
                                 this.privateNodeId,
-                                suspendProcess));
+                                suspendStateId));
 
                 return Result.SUCCESS;
             }
@@ -219,6 +219,8 @@ class MoveProcess {
         private Process process;
         private ObjectId nodePoolId;
         private ObjectId privateNodeId;
+        private ObjectId suspendStateId;
+        // Pending changes of an older orchestrator carry the state itself instead of the ID of the stored state
         private byte[] suspendState;
 
         // Default constructor for morphia
@@ -234,12 +236,12 @@ class MoveProcess {
          * @param process The process to suspend
          * @param nodePoolId The ID of the nodepool to move the process to (maybe null)
          * @param privateNodeId The ID of the private node to move the process to (maybe null)
-         * @param suspendState The byte array that represents the state that the process must be resumed from
+         * @param suspendStateId The ID of the stored state that the process must be resumed from (maybe null)
          */
         RemoveDockerService(final Process process,
                 final ObjectId nodePoolId,
                 final ObjectId privateNodeId,
-                final byte[] suspendState) {
+                final ObjectId suspendStateId) {
             super(process.getUserId());
             this.resources = Collections.unmodifiableList(Arrays.asList(process.getId(), this.getUserId()));
             this.process = process;
@@ -248,7 +250,7 @@ class MoveProcess {
             }
             this.nodePoolId = nodePoolId;
             this.privateNodeId = privateNodeId;
-            this.suspendState = suspendState;
+            this.suspendStateId = suspendStateId;
         }
 
         @Override
@@ -258,6 +260,15 @@ class MoveProcess {
 
         @Override
         public Result execute() {
+            if (this.suspendState != null) {
+                this.suspendStateId = ProcessConnector.getInstance()
+                        .storeSuspendState(this.process.getId(), this.suspendState);
+                if (this.suspendStateId == null) {
+                    return Result.FAILED_TEMPORARY;
+                }
+                this.suspendState = null;
+            }
+
             ProcessConnector.getInstance().disconnect(this.process.getId());
 
             // Delete record from MongoDB
@@ -270,7 +281,7 @@ class MoveProcess {
                         .submit(new CreateDockerService(this.process,
                                 this.nodePoolId,
                                 this.privateNodeId,
-                                this.suspendState));
+                                this.suspendStateId));
 
                 return Result.SUCCESS;
             } else {
@@ -294,6 +305,8 @@ class MoveProcess {
         private Process process;
         private ObjectId nodePoolId;
         private ObjectId privateNodeId;
+        private ObjectId suspendStateId;
+        // Pending changes of an older orchestrator carry the state itself instead of the ID of the stored state
         private byte[] suspendState;
 
         // Default constructor for morphia
@@ -314,19 +327,19 @@ class MoveProcess {
          * @param process The process to create a new service for
          * @param nodePoolId The ID of the nodepool to move the process to (maybe null)
          * @param privateNodeId The ID of the private node to move the process to (maybe null)
-         * @param suspendState The byte array that represents the state that the process must be resumed from
+         * @param suspendStateId The ID of the stored state that the process must be resumed from (maybe null)
          */
         CreateDockerService(final Process process,
                 final ObjectId nodePoolId,
                 final ObjectId privateNodeId,
-                final byte[] suspendState) {
+                final ObjectId suspendStateId) {
             super(process.getUserId());
             // Add the userId because making the network, and choosing the running node
             this.resources = Collections.unmodifiableList(Arrays.asList(process.getId(), this.getUserId()));
             this.process = process;
             this.nodePoolId = nodePoolId;
             this.privateNodeId = privateNodeId;
-            this.suspendState = suspendState;
+            this.suspendStateId = suspendStateId;
             if ((nodePoolId != null) && (privateNodeId != null)) {
                 throw new IllegalArgumentException("euther nodePoolId or privateNodeId should be null");
             }
@@ -339,6 +352,15 @@ class MoveProcess {
 
         @Override
         public Result execute() {
+            if (this.suspendState != null) {
+                this.suspendStateId = ProcessConnector.getInstance()
+                        .storeSuspendState(this.process.getId(), this.suspendState);
+                if (this.suspendStateId == null) {
+                    return Result.FAILED_TEMPORARY;
+                }
+                this.suspendState = null;
+            }
+
             try {
                 this.process.setNodePoolId(this.nodePoolId);
                 this.process.setPrivateNodeId(this.privateNodeId);
@@ -353,7 +375,7 @@ class MoveProcess {
                     MongoDbConnector.getInstance().save(this.process);
 
                     // Start next step
-                    PendingChangeManager.getInstance().submit(new ResumeProcess(this.process, this.suspendState));
+                    PendingChangeManager.getInstance().submit(new ResumeProcess(this.process, this.suspendStateId));
 
                     return Result.SUCCESS;
                 } else {
@@ -379,6 +401,8 @@ class MoveProcess {
     public static class ResumeProcess extends PendingChange {
 
         private Process process;
+        private ObjectId suspendStateId;
+        // Pending changes of an older orchestrator carry the state itself instead of the ID of the stored state
         private byte[] suspendState;
 
         // Default constructor for morphia
@@ -391,13 +415,13 @@ class MoveProcess {
          * Create a pending change to resume a moved process.
          *
          * @param process The process to resume
-         * @param suspendState The byte array that represents the state that the process must be resumed from
+         * @param suspendStateId The ID of the stored state that the process must be resumed from (maybe null)
          */
-        ResumeProcess(final Process process, final byte[] suspendState) {
+        ResumeProcess(final Process process, final ObjectId suspendStateId) {
             super(process.getUserId());
             this.resources = Collections.singletonList(process.getId());
             this.process = process;
-            this.suspendState = suspendState;
+            this.suspendStateId = suspendStateId;
         }
 
         @Override
@@ -407,8 +431,17 @@ class MoveProcess {
 
         @Override
         public Result execute() {
+            if (this.suspendState != null) {
+                this.suspendStateId = ProcessConnector.getInstance()
+                        .storeSuspendState(this.process.getId(), this.suspendState);
+                if (this.suspendStateId == null) {
+                    return Result.FAILED_TEMPORARY;
+                }
+                this.suspendState = null;
+            }
+
             try {
-                if (ProcessConnector.getInstance().resume(this.process.getId(), this.suspendState)) {
+                if (ProcessConnector.getInstance().resume(this.process.getId(), this.suspendStateId)) {
                     ResumeProcess.log.info("Resumed process " + this.process.getId() + " after moving the process");
 
                     // resume connections
@@ -0,0 +1,82 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.nio.ByteBuffer;
+
+/**
+ * An AckFrame acknowledges the data frames that were received. Like the {@link BatchFrame} it starts with a zero byte
+ * followed by a byte indicating the frame type, and then contains the number of data frames that were received in the
+ * session as eight bytes. Acknowledgements are cumulative, so the sender may forget every frame up to that number.
+ * <p>
+ * Ack frames are only sent to a remote side that has indicated in its handshake that it is able to resume a session.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ * @see ReplayBuffer
+ */
+final class AckFrame {
+
+    /**
+     * The second byte of a frame that acknowledges received frames
+     */
+    static final byte ACK_TYPE = 0x04;
+
+    private static final int FRAME_LENGTH = 10;
+
+    private AckFrame() {
+        // Private constructor for utility class
+    }
+
+    /**
+     * @param receivedFrames the number of data frames that were received in the session
+     * @return a frame that acknowledges them
+     */
+    static byte[] encode(final long receivedFrames) {
+        return ByteBuffer.allocate(AckFrame.FRAME_LENGTH)
+                .put(BatchFrame.ENVELOPE_MARKER)
+                .put(AckFrame.ACK_TYPE)
+                .putLong(receivedFrames)
+                .array();
+    }
+
+    /**
+     * @param data the received frame
+     * @return whether the frame acknowledges received frames
+     */
+    static boolean isAck(final byte[] data) {
+        return (data.length == AckFrame.FRAME_LENGTH) && (data[0] == BatchFrame.ENVELOPE_MARKER)
+                && (data[1] == AckFrame.ACK_TYPE);
+    }
+
+    /**
+     * @param data the received frame, for which {@link #isAck(byte[])} is true
+     * @return the number of data frames the remote side received
+     * @throws IllegalArgumentException when the number is negative
+     */
+    static long decode(final byte[] data) {
+        final long receivedFrames = ByteBuffer.wrap(data).getLong(2);
+        if (receivedFrames < 0) {
+            throw new IllegalArgumentException("Invalid number of frames in ack frame: " + receivedFrames);
+        }
+        return receivedFrames;
+    }
+
+}
@@ -0,0 +1,109 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A BatchFrame packs several serialized user messages into a single frame. It starts with a zero byte, which is never
+ * the first byte of a serialized user message, followed by a byte indicating the frame type. Then for each message the
+ * length is written as four bytes, followed by the message itself.
+ * <p>
+ * Batch frames are only sent to a remote side that has indicated in its handshake that it accepts them.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ * @see HandShakeMonitor#remoteAcceptsBatches()
+ */
+final class BatchFrame {
+
+    /**
+     * The first byte of every frame that is not a user message, but carries information for the connection itself
+     */
+    static final byte ENVELOPE_MARKER = 0x00;
+
+    /**
+     * The second byte of a frame that contains a batch of messages
+     */
+    static final byte BATCH_TYPE = 0x01;
+
+    private static final int PREFIX_LENGTH = 2;
+    private static final int LENGTH_BYTES = 4;
+
+    private BatchFrame() {
+        // Private constructor for utility class
+    }
+
+    /**
+     * Pack a number of messages in one frame
+     *
+     * @param messages the serialized messages to put in the frame, in the order they should be received
+     * @param totalLength the sum of the lengths of all messages
+     * @return a frame containing all messages
+     */
+    static byte[] encode(final List<byte[]> messages, final int totalLength) {
+        final ByteBuffer frame = ByteBuffer.allocate(
+                BatchFrame.PREFIX_LENGTH + (messages.size() * BatchFrame.LENGTH_BYTES) + totalLength);
+        frame.put(BatchFrame.ENVELOPE_MARKER).put(BatchFrame.BATCH_TYPE);
+        for (final byte[] message : messages) {
+            frame.putInt(message.length).put(message);
+        }
+        return frame.array();
+    }
+
+    /**
+     * @param data the received frame
+     * @return whether the frame contains a batch of messages
+     */
+    static boolean isBatch(final byte[] data) {
+        return (data.length >= BatchFrame.PREFIX_LENGTH) && (data[0] == BatchFrame.ENVELOPE_MARKER)
+                && (data[1] == BatchFrame.BATCH_TYPE);
+    }
+
+    /**
+     * Unpack all messages from a batch frame. The messages are not copied, but returned as views on the frame, so they
+     * can be deserialized directly from it.
+     *
+     * @param data the received frame, for which {@link #isBatch(byte[])} is true
+     * @return buffers containing the messages in the frame, in the order they were sent
+     * @throws IllegalArgumentException when the frame is malformed
+     */
+    static List<ByteBuffer> decode(final byte[] data) {
+        final ByteBuffer frame = ByteBuffer.wrap(data);
+        frame.position(BatchFrame.PREFIX_LENGTH);
+
+        final List<ByteBuffer> messages = new ArrayList<>();
+        while (frame.hasRemaining()) {
+            if (frame.remaining() < BatchFrame.LENGTH_BYTES) {
+                throw new IllegalArgumentException("Truncated message length in batch frame");
+            }
+            final int len = frame.getInt();
+            if ((len < 0) || (len > frame.remaining())) {
+                throw new IllegalArgumentException("Invalid message length in batch frame: " + len);
+            }
+            messages.add(ByteBuffer.wrap(data, frame.position(), len).slice());
+            frame.position(frame.position() + len);
+        }
+        return messages;
+    }
+
+}
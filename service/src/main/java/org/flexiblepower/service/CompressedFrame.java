@@ -0,0 +1,123 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.flexiblepower.compression.CompressionCodec;
+import org.flexiblepower.compression.CompressionCodecs;
+
+/**
+ * A CompressedFrame contains another frame in compressed form. Like the {@link BatchFrame}, it starts with the envelope
+ * marker and a byte indicating the frame type. Then one byte refers to the codec that was used, by its position in the
+ * list of codecs that the receiving side advertised in its handshake, followed by four bytes with the original length,
+ * and the compressed data.
+ * <p>
+ * The frame inside may be a single message, or a batch of messages.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ * @see HandShakeMonitor#remoteCompressionCodec()
+ */
+final class CompressedFrame {
+
+    /**
+     * The second byte of a frame that contains compressed data
+     */
+    static final byte COMPRESSED_TYPE = 0x02;
+
+    /**
+     * The largest codec index that fits in the frame
+     */
+    static final int MAX_CODEC_INDEX = 0xFF;
+
+    private static final int PREFIX_LENGTH = 7;
+
+    private CompressedFrame() {
+        // Private constructor for utility class
+    }
+
+    /**
+     * Compress a frame, if that makes it smaller
+     *
+     * @param data the frame to compress
+     * @param codecIndex the position of the codec in the list of codecs of the receiving side
+     * @param codec the codec to compress the data with
+     * @return a compressed frame, or the original data if compression does not save any bytes
+     */
+    static byte[] encode(final byte[] data, final int codecIndex, final CompressionCodec codec) {
+        final byte[] compressed = codec.compress(data);
+        if ((compressed.length + CompressedFrame.PREFIX_LENGTH) >= data.length) {
+            return data;
+        }
+
+        final ByteBuffer frame = ByteBuffer.allocate(CompressedFrame.PREFIX_LENGTH + compressed.length);
+        frame.put(BatchFrame.ENVELOPE_MARKER)
+                .put(CompressedFrame.COMPRESSED_TYPE)
+                .put((byte) codecIndex)
+                .putInt(data.length)
+                .put(compressed);
+        return frame.array();
+    }
+
+    /**
+     * @param data the received frame
+     * @return whether the frame contains compressed data
+     */
+    static boolean isCompressed(final byte[] data) {
+        return (data.length >= CompressedFrame.PREFIX_LENGTH) && (data[0] == BatchFrame.ENVELOPE_MARKER)
+                && (data[1] == CompressedFrame.COMPRESSED_TYPE);
+    }
+
+    /**
+     * Decompress a received frame, with one of the locally available codecs
+     *
+     * @param data the received frame, for which {@link #isCompressed(byte[])} is true
+     * @param maxFrameSize the maximum length of the original frame, in bytes
+     * @return the original frame
+     * @throws IOException when the codec is unknown, the original frame would exceed the maximum size, or the data
+     *             could not be decompressed
+     */
+    static byte[] decode(final byte[] data, final int maxFrameSize) throws IOException {
+        final ByteBuffer frame = ByteBuffer.wrap(data);
+        frame.position(2);
+        final int codecIndex = frame.get() & 0xFF;
+        final int originalLength = frame.getInt();
+
+        // The length comes from the remote side, check it before the codec allocates the output
+        if ((originalLength < 0) || (originalLength > maxFrameSize)) {
+            throw new IOException("Compressed frame of " + (originalLength & 0xFFFFFFFFL)
+                    + " bytes exceeds the maximum of " + maxFrameSize + " bytes");
+        }
+
+        final List<CompressionCodec> codecs = CompressionCodecs.getInstance().getCodecs();
+        if (codecIndex >= codecs.size()) {
+            throw new IOException("Received frame compressed with unknown codec " + codecIndex);
+        }
+        return codecs.get(codecIndex)
+                .decompress(data,
+                        CompressedFrame.PREFIX_LENGTH,
+                        data.length - CompressedFrame.PREFIX_LENGTH,
+                        originalLength);
+    }
+
+}
@@ -20,6 +20,9 @@
 package org.flexiblepower.service;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.flexiblepower.proto.ConnectionProto.ConnectionState;
 
@@ -39,6 +42,113 @@ public interface Connection {
      */
     public void send(Object message) throws IOException;
 
+    /**
+     * Sends Object message over the connection to the other process, without waiting for it to be written. Messages are
+     * written in the order they were sent, by a writer that is dedicated to this connection. The returned future is
+     * completed by that writer, so dependent actions that are not asynchronous run on the writer thread.
+     * <p>
+     * When too many messages are waiting to be written, the future fails with a
+     * {@link org.flexiblepower.service.exceptions.FlowControlException} right away. When the remote side has not
+     * granted the credits to send it, the message waits in the queue according to the {@link FlowControlPolicy} at the
+     * time it was sent, so with {@link FlowControlPolicy#FAIL_FAST} the future fails right away as well.
+     *
+     * @param message the object to be send over the connection.
+     * @return a future that completes when the message is written, or fails with an IOException when the state is not
+     *         connected or the message could not be written
+     */
+    public CompletableFuture<Void> sendAsync(Object message);
+
+    /**
+     * Sends the data of a stream over the connection, in chunks, so a large payload never has to be in memory as a
+     * whole. The remote ConnectionHandler receives the data as an InputStream while it is still arriving, in its
+     * handler method that takes an InputStream, e.g. <code>handleStreamMessage(InputStream in)</code>. Streams are
+     * written in order with the other messages, and this function waits until the whole stream is written. The stream
+     * is read until its end, but not closed.
+     * <p>
+     * The sender never gets more than a few chunks ahead of the handler that reads the stream. Streams are only
+     * supported when the remote side supports them.
+     *
+     * @param data the stream with the data to send
+     * @throws IOException when the state is not connected, the remote side does not support streams, the stream could
+     *             not be read, or if the connection back end fails to send the data
+     */
+    public void sendStream(InputStream data) throws IOException;
+
+    /**
+     * Configure coalescing of outgoing messages. When enabled, messages that are sent in quick succession are packed
+     * together in a single frame, which saves overhead on connections with a high message rate. A message is held back
+     * for at most the linger time, and a frame contains at most maxBatchSize messages. Coalescing only takes effect
+     * when the remote side supports it, otherwise every message is still sent on its own.
+     * <p>
+     * Note that when coalescing is enabled, {@link #send(Object)} may return before the message is written to the
+     * network. The linger time is rounded up to the precision of the timer, which is 10 milliseconds.
+     *
+     * @param lingerTime the maximum amount of time a message may be held back
+     * @param unit the unit of the linger time
+     * @param maxBatchSize the maximum number of messages in one frame, a value of 1 or less disables coalescing
+     */
+    public void setCoalescing(long lingerTime, TimeUnit unit, int maxBatchSize);
+
+    /**
+     * Configure the minimum size of outgoing frames that are compressed. Compression is negotiated with the remote side
+     * when the connection is established, and only takes effect when both sides support the same codec. Small frames
+     * hardly ever get smaller, so they are always sent as they are.
+     *
+     * @param minimumSize the minimum size of a frame in bytes for it to be compressed, or a negative value to disable
+     *            compression
+     */
+    public void setCompressionThreshold(int minimumSize);
+
+    /**
+     * Configure the maximum size of a frame that is received, which is also the maximum size of a message that is not
+     * streamed. A corrupt or hostile frame that announces a larger size interrupts the connection, instead of taking
+     * up that much memory. Large messages are sent in fragments to a remote side that supports it, and larger payloads
+     * can be sent with {@link #sendStream(InputStream)}. The default is 64 MiB.
+     *
+     * @param maxFrameSize the maximum size of a received frame or message in bytes, which must be at least 128 KiB
+     */
+    public void setMaxFrameSize(int maxFrameSize);
+
+    /**
+     * Configure what {@link #send(Object)} does when the remote side has not granted enough credits to send another
+     * message. The remote side grants credits as its ConnectionHandler handles the messages it received, so a slow
+     * handler slows down the sender instead of letting the messages pile up. By default send blocks until credits are
+     * granted. Flow control only takes effect when the remote side supports it.
+     *
+     * @param policy whether to block, wait for at most the timeout, or fail immediately when there are no credits
+     * @param timeout the maximum amount of time to wait for credits with the {@link FlowControlPolicy#TIMEOUT} policy
+     * @param unit the unit of the timeout
+     */
+    public void setFlowControl(FlowControlPolicy policy, long timeout, TimeUnit unit);
+
+    /**
+     * Returns the number of messages that were received, but have not been handled by the ConnectionHandler yet.
+     *
+     * @return the number of messages waiting to be handled
+     */
+    public int getQueueDepth();
+
+    /**
+     * Configure the heartbeat of the connection. Every period, a heartbeat is sent to the remote side, unless other
+     * frames were received during that period, since any frame shows that the remote side is alive. When nothing is
+     * received for more than maxMissed heartbeats in a row, the connection is considered to be interrupted. By default
+     * the period is 10 seconds, and 2 heartbeats may be missed.
+     *
+     * @param period the time between two heartbeats
+     * @param unit the unit of the period
+     * @param maxMissed the number of heartbeats in a row that may go unanswered
+     */
+    public void setHeartBeat(long period, TimeUnit unit, int maxMissed);
+
+    /**
+     * Returns the smoothed round trip time of the connection, as measured by timing the heartbeats. Since heartbeats
+     * are not sent while the connection is busy, the estimate is only updated while it is not.
+     *
+     * @param unit the unit in which to return the round trip time
+     * @return the round trip time, or -1 if it was not measured yet
+     */
+    public long getRoundTripTime(TimeUnit unit);
+
     /**
      * Indicates whether or not the connection is connected to the other process.
      *
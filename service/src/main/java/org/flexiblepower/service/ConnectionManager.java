@@ -21,12 +21,16 @@ package org.flexiblepower.service;
 
 import java.io.Closeable;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.flexiblepower.proto.ConnectionProto.ConnectionHandshake;
 import org.flexiblepower.proto.ConnectionProto.ConnectionMessage;
 import org.flexiblepower.proto.ConnectionProto.ConnectionState;
+import org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot;
 import org.flexiblepower.service.exceptions.ConnectionModificationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,7 +50,24 @@ final class ConnectionManager implements Closeable {
     private static final Map<String, ConnectionHandlerManager> connectionHandlers = new HashMap<>();
     private static final Map<String, InterfaceInfo> interfaceInfo = new HashMap<>();
 
-    private final Map<String, TCPConnection> connections = new HashMap<>();
+    private final Map<String, TCPConnection> connections = new ConcurrentHashMap<>();
+
+    /**
+     * @param connectionId the id of a connection
+     * @return whether this connection manager maintains the connection
+     */
+    boolean hasConnection(final String connectionId) {
+        return this.connections.containsKey(connectionId);
+    }
+
+    /**
+     * @param receiveHash the hash of the messages the connection receives
+     * @param sendHash the hash of the messages the connection sends
+     * @return whether a ConnectionHandler is registered that can handle a connection with these hashes
+     */
+    static boolean canCreateConnection(final String receiveHash, final String sendHash) {
+        return ConnectionManager.connectionHandlers.containsKey(ConnectionManager.handlerKey(receiveHash, sendHash));
+    }
 
     /**
      * Handles the connection message to either create, resume, suspend or terminate a connection.
@@ -76,7 +97,10 @@ final class ConnectionManager implements Closeable {
             if (!this.connections.containsKey(connectionId)) {
                 this.createConnection(message);
             }
-            this.connections.get(connectionId).goToResumedState(message.getListenPort(), message.getTargetAddress());
+            this.connections.get(connectionId)
+                    .goToResumedState(message.getListenPort(),
+                            message.getTargetAddress(),
+                            message.getSharedMemoryPath());
             return ConnectionHandshake.newBuilder()
                     .setConnectionId(connectionId)
                     .setConnectionState(ConnectionState.CONNECTED)
@@ -119,6 +143,7 @@ final class ConnectionManager implements Closeable {
             final TCPConnection conn = new TCPConnection(message.getConnectionId(),
                     message.getListenPort(),
                     message.getTargetAddress(),
+                    message.getSharedMemoryPath(),
                     info,
                     message.getRemoteProcessId(),
                     message.getRemoteServiceId(),
@@ -199,6 +224,17 @@ final class ConnectionManager implements Closeable {
         return ret.toString().replaceAll("[^a-zA-Z0-9_]", "");
     }
 
+    /**
+     * @return a snapshot of the metrics of every connection
+     */
+    List<ConnectionMetricsSnapshot> getMetrics() {
+        final List<ConnectionMetricsSnapshot> snapshots = new ArrayList<>();
+        for (final TCPConnection conn : this.connections.values()) {
+            snapshots.add(conn.getMetrics().toSnapshot());
+        }
+        return snapshots;
+    }
+
     /**
      *
      */
@@ -0,0 +1,309 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot;
+import org.flexiblepower.proto.ServiceProto.MessageTypeSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The ConnectionMetrics count the messages and bytes a connection sends and receives, and keep a
+ * {@link LatencyHistogram} of every {@link Stage} a message goes through, in total and per message type. Everything is
+ * updated without locking by the threads that handle the messages.
+ * <p>
+ * The metrics are published as an MXBean for as long as the connection is open, and a snapshot is sent to the
+ * orchestrator when it asks for it over the management connection.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ * @see ConnectionMetricsMXBean
+ */
+final class ConnectionMetrics implements ConnectionMetricsMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ConnectionMetrics.class);
+
+    /**
+     * The stages of sending and receiving a message that are timed
+     */
+    enum Stage {
+        /**
+         * From sending a message until it is written to the socket
+         */
+        SEND,
+        /**
+         * Serializing a message that is sent
+         */
+        SERIALIZE,
+        /**
+         * From receiving a message until its handler is invoked
+         */
+        RECEIVE,
+        /**
+         * Deserializing a message that is received
+         */
+        DESERIALIZE,
+        /**
+         * Running the handler of a message
+         */
+        DISPATCH;
+
+        final String key = this.name().toLowerCase(Locale.ROOT);
+    }
+
+    private final String connectionId;
+    private final String endpoint;
+    private final IntSupplier sendQueueDepth;
+    private final IntSupplier receiveQueueDepth;
+    private final MessageTypeMetrics total = new MessageTypeMetrics();
+    private final ConcurrentMap<Class<?>, MessageTypeMetrics> perType = new ConcurrentHashMap<>();
+    private ObjectName objectName;
+
+    /**
+     * @param connectionId the unique id of the connection
+     * @param server whether the connection is the server endpoint
+     * @param sendQueueDepth provides the number of messages that are waiting to be written
+     * @param receiveQueueDepth provides the number of messages that are waiting to be handled
+     */
+    ConnectionMetrics(final String connectionId,
+            final boolean server,
+            final IntSupplier sendQueueDepth,
+            final IntSupplier receiveQueueDepth) {
+        this.connectionId = connectionId;
+        this.endpoint = server ? "server" : "client";
+        this.sendQueueDepth = sendQueueDepth;
+        this.receiveQueueDepth = receiveQueueDepth;
+    }
+
+    /**
+     * Count a message that was written
+     *
+     * @param type the type of the message
+     * @param bytes the number of serialized bytes, or 0 if it was handed over without serializing
+     */
+    void messageSent(final Class<?> type, final int bytes) {
+        this.total.messagesSent.increment();
+        this.total.bytesSent.add(bytes);
+        final MessageTypeMetrics metrics = this.forType(type);
+        metrics.messagesSent.increment();
+        metrics.bytesSent.add(bytes);
+    }
+
+    /**
+     * Count a message that was received
+     *
+     * @param type the type of the message
+     * @param bytes the number of serialized bytes, or 0 if it was handed over without serializing
+     */
+    void messageReceived(final Class<?> type, final int bytes) {
+        this.total.messagesReceived.increment();
+        this.total.bytesReceived.add(bytes);
+        final MessageTypeMetrics metrics = this.forType(type);
+        metrics.messagesReceived.increment();
+        metrics.bytesReceived.add(bytes);
+    }
+
+    /**
+     * Record how long a stage took
+     *
+     * @param stage the stage that was timed
+     * @param type the type of the message
+     * @param nanos the duration in nanoseconds
+     */
+    void record(final Stage stage, final Class<?> type, final long nanos) {
+        this.total.latencies[stage.ordinal()].record(nanos);
+        this.forType(type).latencies[stage.ordinal()].record(nanos);
+    }
+
+    private MessageTypeMetrics forType(final Class<?> type) {
+        final MessageTypeMetrics metrics = this.perType.get(type);
+        return metrics != null ? metrics : this.perType.computeIfAbsent(type, t -> new MessageTypeMetrics());
+    }
+
+    /**
+     * Publish the metrics in the platform MBean server. If that fails, the metrics are only available as snapshot.
+     */
+    synchronized void register() {
+        try {
+            final ObjectName name = new ObjectName("org.flexiblepower.service:type=Connection,id="
+                    + ObjectName.quote(this.connectionId) + ",endpoint=" + this.endpoint);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            this.objectName = name;
+        } catch (final JMException e) {
+            ConnectionMetrics.log.warn("[{}] - Unable to publish connection metrics: {}",
+                    this.connectionId,
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Remove the metrics from the platform MBean server, if they were published
+     */
+    synchronized void unregister() {
+        if (this.objectName == null) {
+            return;
+        }
+
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.unregisterMBean(this.objectName);
+        } catch (final JMException e) {
+            ConnectionMetrics.log.debug("[{}] - Unable to remove connection metrics: {}",
+                    this.connectionId,
+                    e.getMessage());
+        }
+        this.objectName = null;
+    }
+
+    /**
+     * @return a snapshot of the metrics, to send to the orchestrator
+     */
+    ConnectionMetricsSnapshot toSnapshot() {
+        final ConnectionMetricsSnapshot.Builder builder = ConnectionMetricsSnapshot.newBuilder()
+                .setConnectionId(this.connectionId)
+                .setMessagesSent(this.getMessagesSent())
+                .setBytesSent(this.getBytesSent())
+                .setMessagesReceived(this.getMessagesReceived())
+                .setBytesReceived(this.getBytesReceived())
+                .setSendQueueDepth(this.getSendQueueDepth())
+                .setReceiveQueueDepth(this.getReceiveQueueDepth());
+        for (final Stage stage : Stage.values()) {
+            builder.addLatencies(this.total.latencies[stage.ordinal()].toSnapshot(stage.key, ""));
+        }
+
+        this.perType.forEach((type, metrics) -> {
+            builder.addMessageTypes(MessageTypeSnapshot.newBuilder()
+                    .setMessageType(type.getSimpleName())
+                    .setMessagesSent(metrics.messagesSent.sum())
+                    .setBytesSent(metrics.bytesSent.sum())
+                    .setMessagesReceived(metrics.messagesReceived.sum())
+                    .setBytesReceived(metrics.bytesReceived.sum()));
+            for (final Stage stage : Stage.values()) {
+                final LatencyHistogram histogram = metrics.latencies[stage.ordinal()];
+                if (histogram.count() > 0) {
+                    builder.addLatencies(histogram.toSnapshot(stage.key, type.getSimpleName()));
+                }
+            }
+        });
+        return builder.build();
+    }
+
+    @Override
+    public String getConnectionId() {
+        return this.connectionId;
+    }
+
+    @Override
+    public long getMessagesSent() {
+        return this.total.messagesSent.sum();
+    }
+
+    @Override
+    public long getBytesSent() {
+        return this.total.bytesSent.sum();
+    }
+
+    @Override
+    public long getMessagesReceived() {
+        return this.total.messagesReceived.sum();
+    }
+
+    @Override
+    public long getBytesReceived() {
+        return this.total.bytesReceived.sum();
+    }
+
+    @Override
+    public int getSendQueueDepth() {
+        return this.sendQueueDepth.getAsInt();
+    }
+
+    @Override
+    public int getReceiveQueueDepth() {
+        return this.receiveQueueDepth.getAsInt();
+    }
+
+    @Override
+    public Map<String, Long> getMessagesSentPerType() {
+        final Map<String, Long> result = new HashMap<>();
+        this.perType.forEach((type, metrics) -> result.put(type.getSimpleName(), metrics.messagesSent.sum()));
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getMessagesReceivedPerType() {
+        final Map<String, Long> result = new HashMap<>();
+        this.perType.forEach((type, metrics) -> result.put(type.getSimpleName(), metrics.messagesReceived.sum()));
+        return result;
+    }
+
+    @Override
+    public Map<String, long[]> getLatencies() {
+        final Map<String, long[]> result = new HashMap<>();
+        for (final Stage stage : Stage.values()) {
+            result.put(stage.key, ConnectionMetrics.summarize(this.total.latencies[stage.ordinal()]));
+            this.perType.forEach((type, metrics) -> {
+                final LatencyHistogram histogram = metrics.latencies[stage.ordinal()];
+                if (histogram.count() > 0) {
+                    result.put(stage.key + "/" + type.getSimpleName(), ConnectionMetrics.summarize(histogram));
+                }
+            });
+        }
+        return result;
+    }
+
+    private static long[] summarize(final LatencyHistogram histogram) {
+        return new long[] {histogram.count(), histogram.percentile(0.5), histogram.percentile(0.9),
+                histogram.percentile(0.99), histogram.max()};
+    }
+
+    /**
+     * The counters and histograms of one message type, or of all of them together
+     */
+    private static final class MessageTypeMetrics {
+
+        final LongAdder messagesSent = new LongAdder();
+        final LongAdder bytesSent = new LongAdder();
+        final LongAdder messagesReceived = new LongAdder();
+        final LongAdder bytesReceived = new LongAdder();
+        final LatencyHistogram[] latencies = new LatencyHistogram[Stage.values().length];
+
+        MessageTypeMetrics() {
+            for (int i = 0; i < this.latencies.length; i++) {
+                this.latencies[i] = new LatencyHistogram();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,94 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.util.Map;
+
+/**
+ * The management interface of the metrics of a connection, as it is published in the platform MBean server under the
+ * name <code>org.flexiblepower.service:type=Connection,id="connectionId",endpoint=server|client</code>.
+ * <p>
+ * Latencies are given per stage, and per stage and message type, with keys like <code>dispatch</code> and
+ * <code>dispatch/MyMessage</code>. The stages are:
+ * <ul>
+ * <li><code>send</code>: from sending a message until it is written to the socket
+ * <li><code>serialize</code>: serializing a message that is sent
+ * <li><code>receive</code>: from receiving a message until its handler is invoked
+ * <li><code>deserialize</code>: deserializing a message that is received
+ * <li><code>dispatch</code>: running the handler of a message
+ * </ul>
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+public interface ConnectionMetricsMXBean {
+
+    /**
+     * @return The unique id of the connection
+     */
+    public String getConnectionId();
+
+    /**
+     * @return The number of messages that were written
+     */
+    public long getMessagesSent();
+
+    /**
+     * @return The number of serialized bytes that were written, not counting the framing
+     */
+    public long getBytesSent();
+
+    /**
+     * @return The number of messages that were received
+     */
+    public long getMessagesReceived();
+
+    /**
+     * @return The number of serialized bytes that were received, not counting the framing
+     */
+    public long getBytesReceived();
+
+    /**
+     * @return The number of messages that were sent, but are not written yet
+     */
+    public int getSendQueueDepth();
+
+    /**
+     * @return The number of messages that were received, but are not handled yet
+     */
+    public int getReceiveQueueDepth();
+
+    /**
+     * @return The number of messages that were written, per message type
+     */
+    public Map<String, Long> getMessagesSentPerType();
+
+    /**
+     * @return The number of messages that were received, per message type
+     */
+    public Map<String, Long> getMessagesReceivedPerType();
+
+    /**
+     * @return Per stage, and per stage and message type, the number of samples, followed by the 50th, 90th and 99th
+     *         percentile and the maximum duration in nanoseconds
+     */
+    public Map<String, long[]> getLatencies();
+
+}
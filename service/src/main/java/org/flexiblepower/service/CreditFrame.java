@@ -0,0 +1,82 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A CreditFrame grants the remote side permission to send more messages. Like the {@link BatchFrame} it starts with a
+ * zero byte followed by a byte indicating the frame type, and then contains the number of credits as four bytes. Every
+ * user message that is sent uses one credit, and the receiver grants them again once the messages are handled.
+ * <p>
+ * Credit frames are only sent to a remote side that has indicated in its handshake that it uses flow control.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ * @see HandShakeMonitor#remoteReceiveWindow()
+ */
+final class CreditFrame {
+
+    /**
+     * The second byte of a frame that contains credits
+     */
+    static final byte CREDIT_TYPE = 0x03;
+
+    private static final int FRAME_LENGTH = 6;
+
+    private CreditFrame() {
+        // Private constructor for utility class
+    }
+
+    /**
+     * @param credits the number of messages the remote side may send
+     * @return a frame that grants the credits
+     */
+    static byte[] encode(final int credits) {
+        return ByteBuffer.allocate(CreditFrame.FRAME_LENGTH)
+                .put(BatchFrame.ENVELOPE_MARKER)
+                .put(CreditFrame.CREDIT_TYPE)
+                .putInt(credits)
+                .array();
+    }
+
+    /**
+     * @param data the received frame
+     * @return whether the frame grants credits
+     */
+    static boolean isCredit(final byte[] data) {
+        return (data.length == CreditFrame.FRAME_LENGTH) && (data[0] == BatchFrame.ENVELOPE_MARKER)
+                && (data[1] == CreditFrame.CREDIT_TYPE);
+    }
+
+    /**
+     * @param data the received frame, for which {@link #isCredit(byte[])} is true
+     * @return the number of credits that were granted
+     * @throws IllegalArgumentException when the number of credits is not positive
+     */
+    static int decode(final byte[] data) {
+        final int credits = ByteBuffer.wrap(data).getInt(2);
+        if (credits <= 0) {
+            throw new IllegalArgumentException("Invalid number of credits in credit frame: " + credits);
+        }
+        return credits;
+    }
+
+}
@@ -0,0 +1,47 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+/**
+ * The FlowControlPolicy determines what {@link Connection#send(Object)} does when the remote side has not granted
+ * enough credits to send another message, because its ConnectionHandler has not yet handled the previous ones.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ * @see Connection#setFlowControl(FlowControlPolicy, long, java.util.concurrent.TimeUnit)
+ */
+public enum FlowControlPolicy {
+
+    /**
+     * Wait until the remote side grants more credits, or the connection is no longer connected
+     */
+    BLOCK,
+
+    /**
+     * Wait until the remote side grants more credits, but at most for the configured timeout
+     */
+    TIMEOUT,
+
+    /**
+     * Do not wait for credits, but fail immediately
+     */
+    FAIL_FAST
+
+}
@@ -0,0 +1,113 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A FragmentFrame contains a part of a frame that was too large to send at once. Like the {@link BatchFrame}, it
+ * starts with the envelope marker and a byte indicating the frame type, followed by one byte that tells whether it is
+ * the last fragment, and the data. The receiving side concatenates the data of the fragments until the last one, and
+ * then handles the result as if it was received in one frame.
+ * <p>
+ * Splitting large frames lets the connection send control frames, like heartbeats, in between the fragments. Frames
+ * are only split for a remote side that indicated in its handshake that it is able to reassemble them.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ * @see PriorityLanes
+ */
+final class FragmentFrame {
+
+    /**
+     * The second byte of a frame that contains a fragment of a larger frame
+     */
+    static final byte FRAGMENT_TYPE = 0x05;
+
+    /**
+     * The default maximum number of bytes of a frame in one fragment
+     */
+    static final int DEFAULT_FRAGMENT_SIZE = 64 * 1024;
+
+    private static final int PREFIX_LENGTH = 3;
+    private static final byte LAST_FRAGMENT = 0x01;
+
+    private FragmentFrame() {
+        // Private constructor for utility class
+    }
+
+    /**
+     * Split a frame in fragments
+     *
+     * @param data the frame to split
+     * @param fragmentSize the maximum number of bytes of the frame in one fragment
+     * @return the fragments to send in order, which is just the frame itself if it is not larger than the fragment size
+     */
+    static List<byte[]> encode(final byte[] data, final int fragmentSize) {
+        final List<byte[]> fragments = new ArrayList<>((data.length / fragmentSize) + 1);
+        if (data.length <= fragmentSize) {
+            fragments.add(data);
+            return fragments;
+        }
+
+        for (int offset = 0; offset < data.length; offset += fragmentSize) {
+            final int length = Math.min(fragmentSize, data.length - offset);
+            final boolean last = (offset + length) == data.length;
+            fragments.add(ByteBuffer.allocate(FragmentFrame.PREFIX_LENGTH + length)
+                    .put(BatchFrame.ENVELOPE_MARKER)
+                    .put(FragmentFrame.FRAGMENT_TYPE)
+                    .put(last ? FragmentFrame.LAST_FRAGMENT : 0)
+                    .put(data, offset, length)
+                    .array());
+        }
+        return fragments;
+    }
+
+    /**
+     * @param data the received frame
+     * @return whether the frame contains a fragment of a larger frame
+     */
+    static boolean isFragment(final byte[] data) {
+        return (data.length >= FragmentFrame.PREFIX_LENGTH) && (data[0] == BatchFrame.ENVELOPE_MARKER)
+                && (data[1] == FragmentFrame.FRAGMENT_TYPE);
+    }
+
+    /**
+     * @param data the received frame, for which {@link #isFragment(byte[])} is true
+     * @return whether it is the last fragment of the larger frame
+     */
+    static boolean isLast(final byte[] data) {
+        return data[2] == FragmentFrame.LAST_FRAGMENT;
+    }
+
+    /**
+     * Add the part of the larger frame in a fragment to the data that was received before
+     *
+     * @param data the received frame, for which {@link #isFragment(byte[])} is true
+     * @param frame the data of the fragments that were received before
+     */
+    static void decode(final byte[] data, final ByteArrayOutputStream frame) {
+        frame.write(data, FragmentFrame.PREFIX_LENGTH, data.length - FragmentFrame.PREFIX_LENGTH);
+    }
+
+}
@@ -21,8 +21,15 @@ package org.flexiblepower.service;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
-import org.flexiblepower.commons.TCPSocket;
+import org.flexiblepower.commons.FrameSocket;
+import org.flexiblepower.compression.CompressionCodec;
+import org.flexiblepower.compression.CompressionCodecs;
 import org.flexiblepower.exceptions.SerializationException;
 import org.flexiblepower.proto.ConnectionProto.ConnectionHandshake;
 import org.flexiblepower.proto.ConnectionProto.ConnectionState;
@@ -36,8 +43,11 @@ import org.slf4j.LoggerFactory;
  * connectionId. On the remote side, a handshake monitor will use this to check if they have the same id.
  * <p>
  * When both sides acknowledge that they were able to receive and send handshakes, and that both connections are in
- * the {@link ConnectionState#CONNECTED} state, the waitLock is released and the handshake monitor is considered to be
- * finished.
+ * the {@link ConnectionState#CONNECTED} state, the {@link #finished()} future is completed and the handshake monitor is
+ * considered to be finished.
+ * <p>
+ * The handshake also tells the remote side which session it belongs to, and how many frames were received from the
+ * remote session, so an interrupted session can be resumed with the {@link ReplayBuffer}.
  *
  * @version 0.1
  * @since Aug 23, 2017
@@ -47,21 +57,42 @@ final class HandShakeMonitor implements Closeable {
     private static final Logger log = LoggerFactory.getLogger(HandShakeMonitor.class);
 
     private final String connectionId;
-    private final TCPSocket socket;
+    private final FrameSocket socket;
     private final ProtobufMessageSerializer serializer;
+    private final int receiveWindow;
+    private final ReplayBuffer replayBuffer;
+    private final List<String> typeNames;
 
-    private final Object waitLock = new Object();
-    private boolean ready;
+    private final CompletableFuture<Boolean> finished = new CompletableFuture<>();
+    private volatile boolean ready;
+    private volatile boolean remoteAcceptsBatches;
+    private volatile boolean remoteAcceptsFragments;
+    private volatile boolean remoteAcceptsStreams;
+    private volatile CompressionCodec remoteCompressionCodec;
+    private volatile int remoteCompressionIndex = -1;
+    private volatile int remoteReceiveWindow;
+    private volatile List<String> remoteTypeNames = Collections.emptyList();
+    private volatile long remoteReceivedFrames;
 
     /**
      * Create a HandShakeMonitor for the specified socket.
      *
      * @param socket The socket to perform the handshake on
      * @param connectionId The id of the connection to identify the connection
+     * @param receiveWindow The number of messages the local side is willing to receive before it grants more credits
+     * @param replayBuffer The buffer that keeps track of the session, to resume it with the remote side
+     * @param typeNames The names of the message types the local side accepts compact ids for, or an empty list
      */
-    HandShakeMonitor(final TCPSocket socket, final String connectionId) {
+    HandShakeMonitor(final FrameSocket socket,
+            final String connectionId,
+            final int receiveWindow,
+            final ReplayBuffer replayBuffer,
+            final List<String> typeNames) {
         this.socket = socket;
         this.connectionId = connectionId;
+        this.receiveWindow = receiveWindow;
+        this.replayBuffer = replayBuffer;
+        this.typeNames = typeNames;
         this.ready = false;
 
         // Add Protobuf serializer for ConnectionHandshake messages
@@ -80,6 +111,15 @@ final class HandShakeMonitor implements Closeable {
         final ConnectionHandshake initHandshakeMessage = ConnectionHandshake.newBuilder()
                 .setConnectionId(this.connectionId)
                 .setConnectionState(currentState)
+                .setAcceptsBatches(true)
+                .setAcceptsFragments(true)
+                .setAcceptsStreams(true)
+                .addAllCompressionCodecs(CompressionCodecs.getInstance().getNames())
+                .setReceiveWindow(this.receiveWindow)
+                .setSessionId(this.replayBuffer.sessionId())
+                .setResumeSessionId(this.replayBuffer.remoteSessionId())
+                .setReceivedFrames(this.replayBuffer.receivedFrames())
+                .addAllTypeNames(this.typeNames)
                 .build();
         HandShakeMonitor.log.trace("[{}] - Sending handshake {}", this.connectionId, currentState);
         try {
@@ -100,11 +140,22 @@ final class HandShakeMonitor implements Closeable {
      * @return true iff the byte array is a valid response
      */
     boolean handleHandShake(final byte[] recvData) {
+        return this.handleHandShake(ByteBuffer.wrap(recvData));
+    }
+
+    /**
+     * Interpret the remaining bytes of a buffer as a incoming handshake object, without moving its position.
+     *
+     * @param recvData incoming data that may or may not be a response to our handshake
+     * @return true iff the data is a valid response
+     * @see #handleHandShake(byte[])
+     */
+    boolean handleHandShake(final ByteBuffer recvData) {
         // Receive the HandShake
         ConnectionHandshake handShakeMessage = null;
 
         try {
-            handShakeMessage = (ConnectionHandshake) this.serializer.deserialize(recvData);
+            handShakeMessage = (ConnectionHandshake) this.serializer.deserialize(recvData.duplicate());
         } catch (final SerializationException e) {
             // It is not a handshake
             return false;
@@ -114,6 +165,16 @@ final class HandShakeMonitor implements Closeable {
             HandShakeMonitor.log.debug("[{}] - Received acknowledgement: {}",
                     this.connectionId,
                     handShakeMessage.getConnectionState());
+            // Older versions do not set this field, and will not understand batches
+            this.remoteAcceptsBatches = handShakeMessage.getAcceptsBatches();
+            this.remoteAcceptsFragments = handShakeMessage.getAcceptsFragments();
+            this.remoteAcceptsStreams = handShakeMessage.getAcceptsStreams();
+            this.selectCompressionCodec(handShakeMessage.getCompressionCodecsList());
+            this.remoteReceiveWindow = Math.max(0, handShakeMessage.getReceiveWindow());
+            this.remoteTypeNames = new ArrayList<>(handShakeMessage.getTypeNamesList());
+            this.remoteReceivedFrames = Math.max(0, handShakeMessage.getReceivedFrames());
+            this.replayBuffer.onHandshake(handShakeMessage);
+
             // Success! Send response back, or we are finished
             if (!this.ready || !handShakeMessage.getConnectionState().equals(ConnectionState.CONNECTED)) {
                 // This is the handshake that will make the other guy READY
@@ -123,10 +184,9 @@ final class HandShakeMonitor implements Closeable {
             }
 
             if (handShakeMessage.getConnectionState().equals(ConnectionState.CONNECTED)) {
-                HandShakeMonitor.log.info("[{}] - Received connection confirmation, we are ready and release waitLock",
-                        this.connectionId);
+                HandShakeMonitor.log.info("[{}] - Received connection confirmation, we are ready", this.connectionId);
                 this.ready = true;
-                this.releaseWaitLock();
+                this.finished.complete(true);
             }
 
             return true;
@@ -147,34 +207,118 @@ final class HandShakeMonitor implements Closeable {
     }
 
     /**
-     * Calling this function will wait until the handshake monitor successfully connected, it is closed in another
-     * thread, or an InterruptedException occurs. If the handshake monitor was already finished, calling this function
-     * will do nothing.
+     * @return Whether the remote side indicated in its handshake that it is able to unpack frames containing multiple
+     *         messages
+     * @see BatchFrame
+     */
+    boolean remoteAcceptsBatches() {
+        return this.remoteAcceptsBatches;
+    }
+
+    /**
+     * @return Whether the remote side indicated in its handshake that it is able to reassemble frames that are split
+     *         in fragments
+     * @see FragmentFrame
+     */
+    boolean remoteAcceptsFragments() {
+        return this.remoteAcceptsFragments;
+    }
+
+    /**
+     * @return Whether the remote side indicated in its handshake that it is able to receive streamed messages
+     * @see org.flexiblepower.commons.StreamFrame
+     */
+    boolean remoteAcceptsStreams() {
+        return this.remoteAcceptsStreams;
+    }
+
+    /**
+     * @return The number of messages the remote side is willing to receive before it grants more credits, or 0 if the
+     *         remote side does not use flow control
+     * @see CreditFrame
+     */
+    int remoteReceiveWindow() {
+        return this.remoteReceiveWindow;
+    }
+
+    /**
+     * @return The names of the message types the remote side accepts compact ids for, or an empty list if it expects
+     *         the names of all types
+     * @see org.flexiblepower.serializers.ProtobufMessageSerializer#setRemoteTypeNames(List)
+     */
+    List<String> remoteTypeNames() {
+        return this.remoteTypeNames;
+    }
+
+    /**
+     * @return The number of data frames the remote side received in the current session, which is where sending should
+     *         resume
+     * @see ReplayBuffer
+     */
+    long remoteReceivedFrames() {
+        return this.remoteReceivedFrames;
+    }
+
+    /**
+     * @return The codec to compress frames for the remote side with, or null if there is no codec that both sides
+     *         support
+     * @see CompressedFrame
+     */
+    CompressionCodec remoteCompressionCodec() {
+        return this.remoteCompressionIndex < 0 ? null : this.remoteCompressionCodec;
+    }
+
+    /**
+     * @return The position of the {@link #remoteCompressionCodec()} in the list of codecs the remote side advertised,
+     *         or -1 if there is no codec that both sides support
+     */
+    int remoteCompressionIndex() {
+        return this.remoteCompressionIndex;
+    }
+
+    /**
+     * Select the first codec that the remote side prefers, and that is also available locally. Older versions do not
+     * advertise any codecs, in which case nothing will be compressed.
      *
-     * @throws InterruptedException when the wait functions was interrupted while waiting to finish
-     * @see #close()
+     * @param remoteCodecs the names of the codecs the remote side is able to decompress, in order of preference
      */
-    void waitUntilFinished() throws InterruptedException {
-        if (!this.ready()) {
-            synchronized (this.waitLock) {
-                this.waitLock.wait();
+    private void selectCompressionCodec(final List<String> remoteCodecs) {
+        final int max = Math.min(remoteCodecs.size(), CompressedFrame.MAX_CODEC_INDEX + 1);
+        for (int i = 0; i < max; i++) {
+            final CompressionCodec codec = CompressionCodecs.getInstance().get(remoteCodecs.get(i));
+            if (codec != null) {
+                if (this.remoteCompressionIndex != i) {
+                    HandShakeMonitor.log.debug("[{}] - Using {} compression", this.connectionId, codec.getName());
+                }
+                // Assign the codec first, so it is visible by the time the index is
+                this.remoteCompressionCodec = codec;
+                this.remoteCompressionIndex = i;
+                return;
             }
         }
+        this.remoteCompressionIndex = -1;
     }
 
-    private void releaseWaitLock() {
-        synchronized (this.waitLock) {
-            this.waitLock.notifyAll();
-        }
+    /**
+     * The returned future completes with true as soon as the handshake monitor successfully connected, or with false
+     * when it is closed before that. If the handshake monitor was already finished, the future is already completed.
+     * The future may be completed by the thread that delivers frames, so anything that is chained to it should not
+     * block, or run asynchronously.
+     *
+     * @return a future that completes when the handshake is finished
+     * @see #close()
+     */
+    CompletableFuture<Boolean> finished() {
+        return this.finished;
     }
 
     /**
-     * Closes the handshake monitor, releasing any threads that were waiting for it to finish, and also close the socket
-     * that it was attached to.
+     * Closes the handshake monitor, completing the {@link #finished()} future if it was not finished, and also close
+     * the socket that it was attached to.
      */
     @Override
     public void close() {
-        this.releaseWaitLock();
+        this.finished.complete(false);
         this.socket.close();
     }
 
@@ -0,0 +1,201 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The HashedWheelTimer runs the timed tasks of all connections in the process on a single thread, such as heartbeats,
+ * handshake timeouts, reconnect attempts, delayed acknowledgements and flushing coalesced messages. Tasks are put in
+ * one of a fixed number of buckets by their deadline, and the timer thread visits one bucket every tick. Scheduling and
+ * cancelling a task therefore takes constant time, regardless of how many connections there are, at the cost of
+ * rounding every deadline up to the next tick.
+ * <p>
+ * Tasks run on the timer thread itself, so they must be short and must not block. Tasks that may block, like writing
+ * to a socket, should hand off the work to another executor. When there are no tasks, the timer thread does not tick.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+final class HashedWheelTimer {
+
+    /**
+     * The time between two ticks of the timer, which is the precision of the deadlines
+     */
+    static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * The number of buckets in the wheel, which must be a power of two
+     */
+    private static final int WHEEL_SIZE = 512;
+
+    private static final Logger log = LoggerFactory.getLogger(HashedWheelTimer.class);
+    private static HashedWheelTimer instance;
+
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final long startTime = System.nanoTime();
+    private final Thread worker;
+
+    // Only used by the timer thread
+    @SuppressWarnings("unchecked")
+    private final Queue<Timeout>[] wheel = new Queue[HashedWheelTimer.WHEEL_SIZE];
+    private long tick = 0;
+
+    /**
+     * @return the timer that is shared by all connections, which is started when it is first needed
+     */
+    static synchronized HashedWheelTimer getInstance() {
+        if (HashedWheelTimer.instance == null) {
+            HashedWheelTimer.instance = new HashedWheelTimer();
+        }
+        return HashedWheelTimer.instance;
+    }
+
+    private HashedWheelTimer() {
+        for (int i = 0; i < HashedWheelTimer.WHEEL_SIZE; i++) {
+            this.wheel[i] = new ArrayDeque<>();
+        }
+        this.worker = new Thread(this::run, "dEF-Pi timerThread");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Schedule a task to run once on the timer thread after the delay has passed
+     *
+     * @param task the task to run, which must not block
+     * @param delay the time from now after which the task should run
+     * @param unit the unit of the delay
+     * @return a Timeout that can be used to cancel the task
+     */
+    Timeout schedule(final Runnable task, final long delay, final TimeUnit unit) {
+        final Timeout timeout = new Timeout(task, System.nanoTime() + Math.max(0, unit.toNanos(delay)));
+        this.added.add(timeout);
+        if (this.pending.getAndIncrement() == 0) {
+            // The timer thread may be waiting for work
+            LockSupport.unpark(this.worker);
+        }
+        return timeout;
+    }
+
+    /**
+     * @return the number of tasks that are scheduled and not yet run or removed after they were cancelled
+     */
+    int pending() {
+        return this.pending.get();
+    }
+
+    private void run() {
+        while (true) {
+            if (this.pending.get() == 0) {
+                LockSupport.park(this);
+                // Nothing was scheduled while waiting, so there is no need to visit the buckets we skipped
+                this.tick = Math.max(this.tick, this.currentTick());
+                continue;
+            }
+
+            final long sleepNanos = (this.startTime + ((this.tick + 1) * HashedWheelTimer.TICK_NANOS))
+                    - System.nanoTime();
+            if (sleepNanos > 0) {
+                LockSupport.parkNanos(this, sleepNanos);
+                continue;
+            }
+
+            this.transferAdded();
+            final long now = this.currentTick();
+            while (this.tick < now) {
+                this.tick++;
+                this.expire(this.wheel[(int) (this.tick & (HashedWheelTimer.WHEEL_SIZE - 1))]);
+            }
+        }
+    }
+
+    private long currentTick() {
+        return (System.nanoTime() - this.startTime) / HashedWheelTimer.TICK_NANOS;
+    }
+
+    /**
+     * Put the newly scheduled tasks in the bucket of the tick at or after their deadline
+     */
+    private void transferAdded() {
+        Timeout timeout;
+        while ((timeout = this.added.poll()) != null) {
+            final long deadlineTicks = ((timeout.deadline - this.startTime) + HashedWheelTimer.TICK_NANOS - 1)
+                    / HashedWheelTimer.TICK_NANOS;
+            timeout.tick = Math.max(deadlineTicks, this.tick + 1);
+            this.wheel[(int) (timeout.tick & (HashedWheelTimer.WHEEL_SIZE - 1))].add(timeout);
+        }
+    }
+
+    private void expire(final Queue<Timeout> bucket) {
+        final Iterator<Timeout> it = bucket.iterator();
+        while (it.hasNext()) {
+            final Timeout timeout = it.next();
+            if (timeout.cancelled) {
+                it.remove();
+                this.pending.decrementAndGet();
+            } else if (timeout.tick <= this.tick) {
+                it.remove();
+                this.pending.decrementAndGet();
+                try {
+                    timeout.task.run();
+                } catch (final Exception e) {
+                    HashedWheelTimer.log.error("Error while running timed task: {}", e.getMessage());
+                    HashedWheelTimer.log.trace(e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * A task that is scheduled on the timer
+     */
+    static final class Timeout {
+
+        final Runnable task;
+        final long deadline;
+        volatile boolean cancelled = false;
+        long tick;
+
+        Timeout(final Runnable task, final long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Make sure the task will not run, if it did not run yet
+         */
+        void cancel() {
+            this.cancelled = true;
+        }
+
+    }
+
+}
@@ -22,13 +22,12 @@ package org.flexiblepower.service;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.Arrays;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
 
-import org.flexiblepower.commons.TCPSocket;
+import org.flexiblepower.commons.FrameSocket;
 import org.flexiblepower.proto.ConnectionProto.ConnectionState;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,6 +36,13 @@ import org.slf4j.LoggerFactory;
  * The heartbeat monitor adds functionality to a socket by periodically sending a heartbeat PING byte. A remote socket
  * with a heartbeat monitor will respond to it with a PONG byte. This PONG signifies that the connection is still alive,
  * and hence multiple missed PONGs will lead to the monitor to conclude that the connection is interrupted.
+ * <p>
+ * Any frame that is received proves that the remote side is alive, not just a PONG. When other frames were received
+ * during the last period, no PING is sent at all, so busy connections do not carry heartbeats. The time between a PING
+ * and its PONG is reported as a round trip time sample.
+ * <p>
+ * The heartbeats of all connections are timed by the shared {@link HashedWheelTimer}, and are sent by the executor of
+ * the connection, so no thread is needed per monitor.
  *
  * @version 0.1
  * @since Aug 23, 2017
@@ -45,23 +51,38 @@ final class HeartBeatMonitor implements Closeable {
 
     private final static Logger log = LoggerFactory.getLogger(HeartBeatMonitor.class);
 
-    private static final long HEARTBEAT_PERIOD_IN_SECONDS = 10;
-    private static final long HEARTBEAT_INITIAL_DELAY = 1;
-    private static final TimeUnit HEARTBEAT_TIMING_UNIT = TimeUnit.SECONDS;
+    /**
+     * The default time between two heartbeats
+     */
+    static final long DEFAULT_HEARTBEAT_PERIOD_MILLIS = 10000;
 
-    private static final byte[] PING = new byte[] {(byte) 0xA};
-    private static final byte[] PONG = new byte[] {(byte) 0xB};
+    /**
+     * The default number of heartbeats in a row that may go unanswered before the connection is considered interrupted
+     */
+    static final int DEFAULT_MAX_MISSED_HEARTBEATS = 2;
 
-    private static final int MAX_MISSED_HEARTBEATS = 2;
+    private static final long HEARTBEAT_INITIAL_DELAY_MILLIS = 1000;
 
-    private static int threadCount = 0;
+    private static final byte[] PING = new byte[] {(byte) 0xA};
+    private static final byte[] PONG = new byte[] {(byte) 0xB};
 
-    private final TCPSocket socket;
+    private final FrameSocket socket;
     private final String connectionId;
-    private final ScheduledExecutorService executor;
+    private final Executor executor;
+    private final LongConsumer roundTripListener;
+
+    private HashedWheelTimer.Timeout heartBeatTimeout;
+    private volatile boolean running;
+    private volatile long periodNanos;
+    private volatile int maxMissedHeartBeats;
+    private volatile long lastReceived;
+    private volatile long lastTraffic;
+    private volatile long pingSentAt;
+    private volatile boolean readingPaused;
 
-    private ScheduledFuture<?> heartBeatFuture;
-    private boolean receivedPong;
+    // Only used by the heartbeat task, which never runs concurrently with itself
+    private long lastBeat;
+    private boolean pingSent;
     private int missedHeartBeats;
 
     /**
@@ -69,12 +90,51 @@ final class HeartBeatMonitor implements Closeable {
      *
      * @param socket The socket to perform the heartbeat on
      * @param connectionId The id of the connection, mostly used for logging.
+     * @param executor The executor to send the heartbeats with, since sending may block
+     * @param roundTripListener The listener to report the round trip time of every answered PING to, in nanoseconds
      */
-    HeartBeatMonitor(final TCPSocket socket, final String connectionId) {
-        final ThreadFactory threadFactory = r -> new Thread(r, "dEF-Pi hbMonThread-" + HeartBeatMonitor.threadCount++);
-        this.executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    HeartBeatMonitor(final FrameSocket socket,
+            final String connectionId,
+            final Executor executor,
+            final LongConsumer roundTripListener) {
         this.socket = socket;
         this.connectionId = connectionId;
+        this.executor = executor;
+        this.roundTripListener = roundTripListener;
+        this.configure(TimeUnit.MILLISECONDS.toNanos(HeartBeatMonitor.DEFAULT_HEARTBEAT_PERIOD_MILLIS),
+                HeartBeatMonitor.DEFAULT_MAX_MISSED_HEARTBEATS);
+    }
+
+    /**
+     * Change the timing of the heartbeat, which takes effect after the next heartbeat
+     *
+     * @param newPeriodNanos the time between two heartbeats in nanoseconds
+     * @param newMaxMissedHeartBeats the number of heartbeats in a row that may go unanswered before the socket is
+     *            closed
+     */
+    void configure(final long newPeriodNanos, final int newMaxMissedHeartBeats) {
+        this.periodNanos = newPeriodNanos;
+        this.maxMissedHeartBeats = newMaxMissedHeartBeats;
+    }
+
+    /**
+     * Set whether the connection stopped reading from the socket. While reading is paused, a PONG could not be read
+     * even if the remote side sent it, so no heartbeats are sent and none are counted as missed.
+     *
+     * @param paused whether reading from the socket is paused
+     */
+    void setReadingPaused(final boolean paused) {
+        this.readingPaused = paused;
+    }
+
+    /**
+     * Take note that a frame other than a heartbeat was received, which means the remote side is alive, and there is
+     * no need to send a heartbeat.
+     */
+    void trafficReceived() {
+        final long now = System.nanoTime();
+        this.lastReceived = now;
+        this.lastTraffic = now;
     }
 
     /**
@@ -93,12 +153,18 @@ final class HeartBeatMonitor implements Closeable {
         if (Arrays.equals(data, HeartBeatMonitor.PONG)) {
             // If ponged, it is a response to our ping
             // HeartBeatMonitor.log.trace("[{}] - -> PONG", this.connectionId);
-            this.receivedPong = true;
-            this.missedHeartBeats = 0;
+            final long now = System.nanoTime();
+            this.lastReceived = now;
+            final long sentAt = this.pingSentAt;
+            if (sentAt != 0) {
+                this.pingSentAt = 0;
+                this.roundTripListener.accept(now - sentAt);
+            }
             return true;
         } else if (Arrays.equals(data, HeartBeatMonitor.PING)) {
             // If pinged, respond with a pong
             // HeartBeatMonitor.log.trace("[{}] - PING -> PONG", this.connectionId);
+            this.lastReceived = System.nanoTime();
             try {
                 this.socket.send(HeartBeatMonitor.PONG);
             } catch (final Exception e) {
@@ -113,52 +179,98 @@ final class HeartBeatMonitor implements Closeable {
     }
 
     /**
-     * Start the heartbeat thread that will periodically send a ping, and check if it has received a pong before the
-     * next cycle.
+     * Start the heartbeat that will periodically send a ping, unless other frames were received, and check if
+     * anything was received before the next cycle.
      */
-    void start() {
-        if (this.heartBeatFuture != null) {
-            this.heartBeatFuture.cancel(true);
+    synchronized void start() {
+        if (this.heartBeatTimeout != null) {
+            this.heartBeatTimeout.cancel();
         }
 
-        this.receivedPong = true;
+        this.running = true;
+        this.lastBeat = System.nanoTime();
+        this.pingSent = false;
+        this.pingSentAt = 0;
         this.missedHeartBeats = 0;
-        this.heartBeatFuture = this.executor.scheduleAtFixedRate(() -> {
-            try {
-                if (!this.socket.isConnected()) {
+        this.schedule(Math.min(TimeUnit.MILLISECONDS.toNanos(HeartBeatMonitor.HEARTBEAT_INITIAL_DELAY_MILLIS),
+                this.periodNanos));
+    }
+
+    private synchronized void schedule(final long delayNanos) {
+        if (this.running) {
+            this.heartBeatTimeout = HashedWheelTimer.getInstance()
+                    .schedule(this::beat, delayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Called by the timer, hands the heartbeat to the executor, since sending it may block
+     */
+    private void beat() {
+        try {
+            this.executor.execute(() -> {
+                this.sendHeartBeat();
+                this.schedule(this.periodNanos);
+            });
+        } catch (final RejectedExecutionException e) {
+            HeartBeatMonitor.log.debug("[{}] - Not sending heartbeat, executor is shut down", this.connectionId);
+        }
+    }
+
+    private void sendHeartBeat() {
+        if (!this.running) {
+            return;
+        }
+
+        try {
+            if (!this.socket.isConnected()) {
+                this.close();
+                return;
+            }
+
+            final long previousBeat = this.lastBeat;
+            this.lastBeat = System.nanoTime();
+            if (this.readingPaused) {
+                this.missedHeartBeats = 0;
+                this.pingSent = false;
+                return;
+            }
+            if ((this.lastReceived - previousBeat) > 0) {
+                // Something was received since the last heartbeat, so the remote side is alive
+                this.missedHeartBeats = 0;
+            } else if (this.pingSent) {
+                // If nothing was received since the last PING, assume connection was interrupted!
+                HeartBeatMonitor.log
+                        .warn("[{}] - Missed a heartbeat...", this.connectionId, ConnectionState.INTERRUPTED);
+                if (++this.missedHeartBeats > this.maxMissedHeartBeats) {
+                    HeartBeatMonitor.log.warn("[{}] - Missed more than {} heartbeats, closing socket",
+                            this.connectionId,
+                            this.maxMissedHeartBeats);
                     this.close();
                     return;
                 }
+            }
 
-                if (!this.receivedPong) {
-                    // If no PONG was received since the last PING, assume connection was interrupted!
-                    HeartBeatMonitor.log
-                            .warn("[{}] - Missed a heartbeat...", this.connectionId, ConnectionState.INTERRUPTED);
-                    if (++this.missedHeartBeats > HeartBeatMonitor.MAX_MISSED_HEARTBEATS) {
-                        HeartBeatMonitor.log.warn("[{}] - Missed more than {} heartbeats, closing socket",
-                                this.connectionId,
-                                HeartBeatMonitor.MAX_MISSED_HEARTBEATS);
-                        this.close();
-                    }
-                }
+            if ((this.lastTraffic - previousBeat) > 0) {
+                // The connection is busy, there is no need for a heartbeat
+                this.pingSent = false;
+                return;
+            }
 
-                try {
-                    this.receivedPong = false;
-                    // HeartBeatMonitor.log.trace("[{}] - PING ->", this.connectionId);
-                    this.socket.send(HeartBeatMonitor.PING);
-                } catch (final IOException e) {
-                    HeartBeatMonitor.log.warn("[{}] - Unable to send heartbeat, closing socket", this.connectionId);
-                    this.close();
-                }
-            } catch (final Exception e) {
-                HeartBeatMonitor.log.error("[{}] - Error while sending heartbeat", this.connectionId, e);
+            try {
+                // Only time the PING if the previous one was answered, otherwise a PONG may be for either one
+                this.pingSentAt = this.pingSentAt == 0 ? System.nanoTime() : 0;
+                this.pingSent = true;
+                // HeartBeatMonitor.log.trace("[{}] - PING ->", this.connectionId);
+                this.socket.send(HeartBeatMonitor.PING);
+            } catch (final IOException e) {
+                HeartBeatMonitor.log.warn("[{}] - Unable to send heartbeat, closing socket", this.connectionId);
                 this.close();
             }
-        },
-                HeartBeatMonitor.HEARTBEAT_INITIAL_DELAY,
-                HeartBeatMonitor.HEARTBEAT_PERIOD_IN_SECONDS,
-                HeartBeatMonitor.HEARTBEAT_TIMING_UNIT);
-
+        } catch (final Exception e) {
+            HeartBeatMonitor.log.error("[{}] - Error while sending heartbeat", this.connectionId, e);
+            this.close();
+        }
     }
 
     @Override
@@ -171,13 +283,12 @@ final class HeartBeatMonitor implements Closeable {
      * Stops the monitor from sending bytes or responding in the future. This would be desireable for example when the
      * connection is suspended.
      */
-    void stop() {
-        if (this.heartBeatFuture != null) {
-            this.heartBeatFuture.cancel(true);
-            this.heartBeatFuture = null;
+    synchronized void stop() {
+        this.running = false;
+        if (this.heartBeatTimeout != null) {
+            this.heartBeatTimeout.cancel();
+            this.heartBeatTimeout = null;
         }
-
-        this.executor.shutdown();
     }
 
 }
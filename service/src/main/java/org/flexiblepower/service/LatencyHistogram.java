@@ -0,0 +1,128 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.flexiblepower.proto.ServiceProto.LatencySnapshot;
+
+/**
+ * The LatencyHistogram counts how long something took, in buckets that are a power of two nanoseconds wide. Samples
+ * are recorded without locking, so it can be updated by any number of threads at the same time. Percentiles are
+ * estimated by the upper bound of the bucket they fall in, which is never more than twice the actual value.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+final class LatencyHistogram {
+
+    /**
+     * The number of buckets, where the last one holds every sample of more than about 275 seconds
+     */
+    static final int BUCKETS = 40;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(LatencyHistogram.BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Add a sample to the histogram
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    void record(final long nanos) {
+        final long value = Math.max(0, nanos);
+        this.buckets.incrementAndGet(LatencyHistogram.bucketOf(value));
+        this.count.increment();
+        this.totalNanos.add(value);
+
+        long max = this.maxNanos.get();
+        while ((value > max) && !this.maxNanos.compareAndSet(max, value)) {
+            max = this.maxNanos.get();
+        }
+    }
+
+    /**
+     * @param nanos a duration in nanoseconds
+     * @return the bucket the duration is counted in, which is the number of bits that are needed to represent it
+     */
+    static int bucketOf(final long nanos) {
+        return Math.min(LatencyHistogram.BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+    }
+
+    /**
+     * @return the number of samples
+     */
+    long count() {
+        return this.count.sum();
+    }
+
+    /**
+     * @return the longest duration that was recorded, in nanoseconds
+     */
+    long max() {
+        return this.maxNanos.get();
+    }
+
+    /**
+     * @param fraction the fraction of samples that should be at or below the result, between 0 and 1
+     * @return an estimate of the duration in nanoseconds that the fraction of samples did not exceed, or 0 if there are
+     *         no samples
+     */
+    long percentile(final double fraction) {
+        final long total = this.count.sum();
+        if (total == 0) {
+            return 0;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(fraction * total));
+        final long max = this.maxNanos.get();
+        long seen = 0;
+        for (int i = 0; i < (LatencyHistogram.BUCKETS - 1); i++) {
+            seen += this.buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(max, (1L << i) - 1);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * @param stage the name of the stage that was timed
+     * @param messageType the name of the message type that was timed, or an empty string for all message types
+     * @return a snapshot of the histogram, to send to the orchestrator
+     */
+    LatencySnapshot toSnapshot(final String stage, final String messageType) {
+        final LatencySnapshot.Builder builder = LatencySnapshot.newBuilder()
+                .setStage(stage)
+                .setMessageType(messageType)
+                .setCount(this.count.sum())
+                .setTotalNanos(this.totalNanos.sum())
+                .setMaxNanos(this.maxNanos.get());
+        for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+            builder.addBuckets(this.buckets.get(i));
+        }
+        return builder.build();
+    }
+
+}
@@ -0,0 +1,134 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The MessageDispatcher invokes the handler method of a {@link ConnectionHandler} for the type of a received message.
+ * Handler methods are public methods with a single parameter, whose name starts with "handle" and ends with "Message".
+ * <p>
+ * The handler methods are looked up only once per handler class, and are kept as MethodHandles in a table keyed by the
+ * exact message class, so dispatching a message does not need any reflection. The tables are cached in a ClassValue,
+ * which does not keep the handler classes of stopped services from being unloaded.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+final class MessageDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(MessageDispatcher.class);
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class,
+            ConnectionHandler.class,
+            Object.class);
+
+    private static final ClassValue<MessageDispatcher> dispatchers = new ClassValue<MessageDispatcher>() {
+
+        @Override
+        protected MessageDispatcher computeValue(final Class<?> type) {
+            return new MessageDispatcher(type);
+        }
+
+    };
+
+    private final Map<Class<?>, HandlerMethod> handlerMethods = new HashMap<>();
+
+    /**
+     * @param handlerClass the type of ConnectionHandler that will handle the messages
+     * @return the dispatcher for the handler class, which is built the first time it is requested
+     */
+    static MessageDispatcher forHandler(final Class<? extends ConnectionHandler> handlerClass) {
+        return MessageDispatcher.dispatchers.get(handlerClass);
+    }
+
+    private MessageDispatcher(final Class<?> handlerClass) {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        for (final Method method : handlerClass.getMethods()) {
+            if (!method.getName().startsWith("handle") || !method.getName().endsWith("Message")
+                    || (method.getParameterCount() != 1)
+                    || this.handlerMethods.containsKey(method.getParameterTypes()[0])) {
+                continue;
+            }
+
+            try {
+                // The handler class itself may not be public
+                method.setAccessible(true);
+                final MethodHandle handle = lookup.unreflect(method).asType(MessageDispatcher.INVOKER_TYPE);
+                this.handlerMethods.put(method.getParameterTypes()[0], new HandlerMethod(method.getName(), handle));
+            } catch (IllegalAccessException | SecurityException e) {
+                MessageDispatcher.log.error("Message handling method {} of {} is not accessible",
+                        method.getName(),
+                        handlerClass.getName(),
+                        e);
+            }
+        }
+    }
+
+    /**
+     * @param messageType the class of a received message
+     * @return the method that handles messages of exactly this class, or null if there is none
+     */
+    HandlerMethod get(final Class<?> messageType) {
+        return this.handlerMethods.get(messageType);
+    }
+
+    /**
+     * A handler method of a ConnectionHandler, which can be invoked without reflection
+     */
+    static final class HandlerMethod {
+
+        private final String name;
+        private final MethodHandle handle;
+
+        HandlerMethod(final String name, final MethodHandle handle) {
+            this.name = name;
+            this.handle = handle;
+        }
+
+        /**
+         * @return the name of the method
+         */
+        String getName() {
+            return this.name;
+        }
+
+        /**
+         * Invoke the method to handle a message
+         *
+         * @param handler the ConnectionHandler to invoke the method on
+         * @param message the message to handle
+         * @throws Throwable anything the handler method throws
+         */
+        void invoke(final ConnectionHandler handler, final Object message) throws Throwable {
+            this.handle.invokeExact(handler, message);
+        }
+
+    }
+
+}
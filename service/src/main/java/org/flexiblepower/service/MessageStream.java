@@ -0,0 +1,210 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.LongConsumer;
+
+import org.flexiblepower.commons.StreamFrame;
+
+/**
+ * The MessageStream is the InputStream a handler receives for a message that is streamed by the remote side. The
+ * chunks are added by the thread that receives them, while the handler is reading, so the handler can process the
+ * data while it is still arriving.
+ * <p>
+ * Taking chunks from the buffer grants the sender credits to send more, so at most about {@link StreamFrame#WINDOW}
+ * chunks are buffered. Adding a chunk never blocks, so a slow handler does not hold up the thread that receives the
+ * frames of other connections. When the handler closes the stream, or returns, the remaining chunks are discarded as
+ * they arrive.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ * @see StreamFrame
+ */
+final class MessageStream extends InputStream {
+
+    private static final byte[] END = new byte[0];
+    private static final byte[] ABORTED = new byte[0];
+
+    private final BlockingQueue<byte[]> chunks = new LinkedBlockingQueue<>();
+    private final LongConsumer creditListener;
+    private final int grantThreshold = Math.max(1, StreamFrame.WINDOW / 2);
+    private long consumed = 0;
+    private long granted = 0;
+    private volatile boolean closed = false;
+
+    // Reader state, only used by the thread that reads
+    private byte[] current;
+    private int position;
+    private boolean ended = false;
+
+    /**
+     * @param creditListener receives the total number of chunks that were taken from the buffer, when the sender
+     *            should be granted more credits
+     */
+    MessageStream(final LongConsumer creditListener) {
+        this.creditListener = creditListener;
+    }
+
+    /**
+     * Add a chunk that was received, or discard it if the stream is closed
+     *
+     * @param chunk the data of the chunk
+     */
+    void add(final byte[] chunk) {
+        synchronized (this) {
+            if (!this.closed) {
+                this.chunks.add(chunk);
+                return;
+            }
+        }
+        this.consumed(1);
+    }
+
+    /**
+     * Indicate the last chunk was added
+     */
+    void end() {
+        this.chunks.add(MessageStream.END);
+    }
+
+    /**
+     * Indicate the stream will not be finished, because the sender aborted it or the connection was closed. The
+     * reader gets an IOException once it has read the chunks that were received.
+     */
+    void abort() {
+        this.chunks.add(MessageStream.ABORTED);
+    }
+
+    /**
+     * @return the total number of chunks that were taken from the buffer
+     */
+    synchronized long consumed() {
+        return this.consumed;
+    }
+
+    private void consumed(final int count) {
+        final long total;
+        synchronized (this) {
+            this.consumed += count;
+            if ((this.consumed - this.granted) < this.grantThreshold) {
+                return;
+            }
+            this.granted = this.consumed;
+            total = this.consumed;
+        }
+        this.creditListener.accept(total);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!this.nextChunk()) {
+            return -1;
+        }
+        return this.current[this.position++] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if ((off < 0) || (len < 0) || (len > (b.length - off))) {
+            throw new IndexOutOfBoundsException();
+        } else if (len == 0) {
+            return 0;
+        } else if (!this.nextChunk()) {
+            return -1;
+        }
+
+        final int n = Math.min(len, this.current.length - this.position);
+        System.arraycopy(this.current, this.position, b, off, n);
+        this.position += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return this.current == null ? 0 : this.current.length - this.position;
+    }
+
+    /**
+     * Make sure there is data left in the current chunk, waiting for the next chunk if needed
+     *
+     * @return whether there is data, or false if the end of the stream is reached
+     * @throws IOException when the stream is closed, aborted, or the thread is interrupted while waiting
+     */
+    private boolean nextChunk() throws IOException {
+        if (this.closed) {
+            throw new IOException("Stream is closed");
+        }
+
+        while ((this.current == null) || (this.position >= this.current.length)) {
+            if (this.ended) {
+                return false;
+            }
+
+            final byte[] chunk;
+            try {
+                chunk = this.chunks.take();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for stream data");
+            }
+
+            if (chunk == MessageStream.END) {
+                this.ended = true;
+                this.current = null;
+                return false;
+            } else if (chunk == MessageStream.ABORTED) {
+                this.ended = true;
+                this.current = null;
+                throw new IOException("Stream was aborted before it was complete");
+            }
+            this.consumed(1);
+            this.current = chunk;
+            this.position = 0;
+        }
+        return true;
+    }
+
+    /**
+     * Discard the rest of the stream. The sender is granted credits for the chunks that are discarded, so it is able to
+     * finish sending the stream.
+     */
+    @Override
+    public void close() {
+        int discarded = 0;
+        synchronized (this) {
+            this.closed = true;
+            byte[] chunk;
+            while ((chunk = this.chunks.poll()) != null) {
+                if ((chunk != MessageStream.END) && (chunk != MessageStream.ABORTED)) {
+                    discarded++;
+                }
+            }
+        }
+        if (discarded > 0) {
+            this.consumed(discarded);
+        }
+    }
+
+}
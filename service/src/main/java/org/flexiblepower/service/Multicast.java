@@ -0,0 +1,104 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import javax.activation.UnsupportedDataTypeException;
+
+import org.flexiblepower.exceptions.SerializationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Multicast sends the same message to many connections, for instance when a service publishes an observation to all
+ * of its subscribers. The message is serialized only once for all connections with the same interface whose remote
+ * sides use the same type ids, and the same serialized frame is handed to the writer of every connection.
+ * <p>
+ * Every connection gets a future of its own, so a connection that is not connected, or whose outbound queue is full,
+ * does not keep the message from the others.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+public final class Multicast {
+
+    private static final Logger log = LoggerFactory.getLogger(Multicast.class);
+
+    private Multicast() {
+        // Private constructor for static class
+    }
+
+    /**
+     * Send a message to all connections, without waiting for it to be written. Like
+     * {@link Connection#sendAsync(Object)}, the future of a connection fails right away when its outbound queue is
+     * full.
+     *
+     * @param message the message to send, which must not be modified afterwards
+     * @param connections the connections to send the message to
+     * @return for every connection, a future that completes when the message is written to it, or fails when it could
+     *         not be written
+     */
+    public static Map<Connection, CompletableFuture<Void>> send(final Object message,
+            final Collection<? extends Connection> connections) {
+        final Map<Connection, CompletableFuture<Void>> results = new LinkedHashMap<>();
+        final Map<Object, byte[]> serialized = new HashMap<>();
+        for (final Connection connection : connections) {
+            if (connection instanceof TCPConnection) {
+                results.put(connection, Multicast.send(message, (TCPConnection) connection, serialized));
+            } else {
+                results.put(connection, connection.sendAsync(message));
+            }
+        }
+        return results;
+    }
+
+    private static CompletableFuture<Void> send(final Object message,
+            final TCPConnection connection,
+            final Map<Object, byte[]> serialized) {
+        if (!connection.isConnected()) {
+            // Let the connection report the failure itself, and do not waste the serialization
+            return connection.sendAsync(message);
+        }
+
+        final Object key = connection.serializationKey();
+        byte[] data = serialized.get(key);
+        if (data == null) {
+            try {
+                data = connection.serialize(message);
+            } catch (final SerializationException e) {
+                Multicast.log.error("Error while serializing message for interface {}, not sending message",
+                        connection.getInterfaceInfo().name(),
+                        e);
+                final CompletableFuture<Void> failed = new CompletableFuture<>();
+                failed.completeExceptionally(
+                        new UnsupportedDataTypeException("Error serializing message: " + e.getMessage()));
+                return failed;
+            }
+            serialized.put(key, data);
+        }
+        return connection.sendSerialized(message, data);
+    }
+
+}
@@ -0,0 +1,185 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.ClosedChannelException;
+
+import org.flexiblepower.commons.FrameListener;
+import org.flexiblepower.commons.FrameSocket;
+
+/**
+ * The PriorityLanes decide which frame of a connection is written to the socket next. Control frames, like
+ * heartbeats, handshakes, credits and acknowledgements, go ahead of the user data that is waiting to be written. User
+ * data frames that are larger than the fragment size are split into {@link FragmentFrame}s, and control frames are
+ * written in between them. A control frame therefore never waits for more than one fragment, no matter how much data
+ * is sent.
+ * <p>
+ * Both kinds of frames are still written by the thread that sends them, and a sender returns once its frame is
+ * written, like it would when writing to the socket directly.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+final class PriorityLanes {
+
+    private final Object lock = new Object();
+    private boolean writing = false;
+    private int controlWaiting = 0;
+
+    /**
+     * Write a control frame, as soon as the frame that is being written is done
+     *
+     * @param socket the socket to write to
+     * @param frame the frame to write
+     * @throws IOException when the frame could not be written
+     */
+    void sendControl(final FrameSocket socket, final byte[] frame) throws IOException {
+        synchronized (this.lock) {
+            this.controlWaiting++;
+            try {
+                this.awaitTurn(true);
+            } finally {
+                this.controlWaiting--;
+            }
+            this.writing = true;
+        }
+        this.write(socket, frame);
+    }
+
+    /**
+     * Write a frame with user data, after the control frames that are waiting. Frames that are larger than the fragment
+     * size are split, and control frames may be written in between the fragments.
+     *
+     * @param socket the socket to write to
+     * @param frame the frame to write
+     * @param fragmentSize the maximum number of bytes of the frame in one fragment, or 0 if the remote side is not able
+     *            to reassemble fragments
+     * @throws IOException when the frame could not be written
+     */
+    void sendData(final FrameSocket socket, final byte[] frame, final int fragmentSize) throws IOException {
+        if ((fragmentSize <= 0) || (frame.length <= fragmentSize)) {
+            this.sendDataFragment(socket, frame);
+            return;
+        }
+
+        for (final byte[] fragment : FragmentFrame.encode(frame, fragmentSize)) {
+            this.sendDataFragment(socket, fragment);
+        }
+    }
+
+    private void sendDataFragment(final FrameSocket socket, final byte[] fragment) throws IOException {
+        synchronized (this.lock) {
+            this.awaitTurn(false);
+            this.writing = true;
+        }
+        this.write(socket, fragment);
+    }
+
+    private void awaitTurn(final boolean control) throws InterruptedIOException {
+        try {
+            while (this.writing || (!control && (this.controlWaiting > 0))) {
+                this.lock.wait();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to write frame");
+        }
+    }
+
+    private void write(final FrameSocket socket, final byte[] frame) throws IOException {
+        try {
+            socket.send(frame);
+        } finally {
+            synchronized (this.lock) {
+                this.writing = false;
+                this.lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * @param socket the socket to write to
+     * @return a view of the socket of which every frame that is sent goes through the control lane
+     */
+    FrameSocket controlLane(final FrameSocket socket) {
+        return new ControlLane(socket);
+    }
+
+    /**
+     * A FrameSocket that sends through the control lane, for the monitors of a connection
+     */
+    private final class ControlLane implements FrameSocket {
+
+        private final FrameSocket socket;
+
+        ControlLane(final FrameSocket socket) {
+            this.socket = socket;
+        }
+
+        @Override
+        public boolean isConnected() {
+            return this.socket.isConnected();
+        }
+
+        @Override
+        public boolean isClosed() {
+            return this.socket.isClosed();
+        }
+
+        @Override
+        public void waitUntilConnected() throws IOException {
+            this.socket.waitUntilConnected();
+        }
+
+        @Override
+        public boolean waitUntilConnected(final long millis) throws IOException {
+            return this.socket.waitUntilConnected(millis);
+        }
+
+        @Override
+        public void attach(final FrameListener frameListener) throws ClosedChannelException {
+            this.socket.attach(frameListener);
+        }
+
+        @Override
+        public void send(final byte[] data) throws IOException {
+            PriorityLanes.this.sendControl(this.socket, data);
+        }
+
+        @Override
+        public void pauseReading() {
+            this.socket.pauseReading();
+        }
+
+        @Override
+        public void resumeReading() {
+            this.socket.resumeReading();
+        }
+
+        @Override
+        public void close() {
+            this.socket.close();
+        }
+
+    }
+
+}
@@ -0,0 +1,227 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+
+import org.flexiblepower.proto.ConnectionProto.ConnectionHandshake;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The ReplayBuffer makes it possible to resume a session after the connection was interrupted, without losing the
+ * frames that were in flight. Every endpoint has a session id that lives as long as the connection object, and both
+ * sides number the data frames of a session in the order they are sent. Since every socket delivers complete frames in
+ * order, the numbers are implicit: the receiver counts the frames, and acknowledges them cumulatively with an
+ * {@link AckFrame}. The sender keeps every frame until it is acknowledged, up to a maximum number of frames and bytes.
+ * <p>
+ * When the connection is re-established, the handshake tells the remote side how many frames were received in the
+ * session, and the sender resends everything after that. When the remote side turns out to be another session, for
+ * instance because the remote process was restarted, both sides start counting from zero again.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ * @see HandShakeMonitor
+ */
+final class ReplayBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplayBuffer.class);
+
+    private final String connectionId;
+    private final String sessionId = UUID.randomUUID().toString();
+    private final int maxFrames;
+    private final long maxBytes;
+    private final int ackThreshold;
+
+    // Sending side
+    private final Deque<byte[]> frames = new ArrayDeque<>();
+    private long firstSequence = 0;
+    private long bufferedBytes = 0;
+
+    // Receiving side
+    private String remoteSessionId = "";
+    private long receivedFrames = 0;
+    private long acknowledgedFrames = 0;
+
+    private boolean enabled = false;
+
+    /**
+     * Create a ReplayBuffer for a connection
+     *
+     * @param connectionId The id of the connection, mostly used for logging
+     * @param maxFrames The maximum number of unacknowledged frames to keep
+     * @param maxBytes The maximum total size of the unacknowledged frames to keep
+     */
+    ReplayBuffer(final String connectionId, final int maxFrames, final long maxBytes) {
+        this.connectionId = connectionId;
+        this.maxFrames = maxFrames;
+        this.maxBytes = maxBytes;
+        this.ackThreshold = Math.max(1, maxFrames / 4);
+    }
+
+    /**
+     * @return the id of the local session, which does not change for the lifetime of the connection
+     */
+    String sessionId() {
+        return this.sessionId;
+    }
+
+    /**
+     * @return the id of the remote session that data frames were last received from, or an empty string
+     */
+    synchronized String remoteSessionId() {
+        return this.remoteSessionId;
+    }
+
+    /**
+     * @return the number of data frames that were received from the remote session
+     */
+    synchronized long receivedFrames() {
+        return this.receivedFrames;
+    }
+
+    /**
+     * @return whether the remote side is able to resume sessions, so frames are kept and acknowledged
+     */
+    synchronized boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * @return the number of frames that are kept because they were not acknowledged yet
+     */
+    synchronized int size() {
+        return this.frames.size();
+    }
+
+    /**
+     * Take note of a handshake of the remote side. If the remote side is another session than before, or it does not
+     * want to resume the session with us, both the frames that were kept and the number of received frames are
+     * forgotten, so both sides start counting from zero.
+     *
+     * @param handshake the handshake that was received from the remote side
+     */
+    synchronized void onHandshake(final ConnectionHandshake handshake) {
+        // Older versions do not set a session id, and will not acknowledge anything
+        this.enabled = !handshake.getSessionId().isEmpty();
+        if (this.enabled && handshake.getSessionId().equals(this.remoteSessionId)
+                && this.sessionId.equals(handshake.getResumeSessionId())) {
+            return;
+        }
+
+        if (!this.frames.isEmpty()) {
+            ReplayBuffer.log.warn("[{}] - Remote side started a new session, discarding {} unacknowledged frames",
+                    this.connectionId,
+                    this.frames.size());
+        }
+        this.frames.clear();
+        this.firstSequence = 0;
+        this.bufferedBytes = 0;
+        this.remoteSessionId = handshake.getSessionId();
+        this.receivedFrames = 0;
+        this.acknowledgedFrames = 0;
+    }
+
+    /**
+     * Keep a data frame that is about to be sent until it is acknowledged. When the buffer is full, the oldest frame is
+     * dropped, and can no longer be resent.
+     *
+     * @param frame the frame exactly as it is written to the socket
+     */
+    synchronized void record(final byte[] frame) {
+        if (!this.enabled) {
+            return;
+        }
+
+        this.frames.addLast(frame);
+        this.bufferedBytes += frame.length;
+        while ((this.frames.size() > this.maxFrames)
+                || ((this.bufferedBytes > this.maxBytes) && (this.frames.size() > 1))) {
+            this.bufferedBytes -= this.frames.removeFirst().length;
+            this.firstSequence++;
+        }
+    }
+
+    /**
+     * Forget the frames the remote side received
+     *
+     * @param remoteReceivedFrames the number of frames the remote side received in this session
+     */
+    synchronized void acknowledge(final long remoteReceivedFrames) {
+        while (!this.frames.isEmpty() && (this.firstSequence < remoteReceivedFrames)) {
+            this.bufferedBytes -= this.frames.removeFirst().length;
+            this.firstSequence++;
+        }
+    }
+
+    /**
+     * Get the frames that should be resent after the connection was re-established. If frames were dropped from the
+     * buffer before they were acknowledged, they are lost, and the remaining frames are renumbered so both sides keep
+     * counting alike.
+     *
+     * @param remoteReceivedFrames the number of frames the remote side received in this session, according to its
+     *            handshake
+     * @return the frames to resend, in the order they were sent originally
+     */
+    synchronized List<byte[]> replay(final long remoteReceivedFrames) {
+        if (!this.enabled) {
+            return Collections.emptyList();
+        }
+
+        this.acknowledge(remoteReceivedFrames);
+        if (remoteReceivedFrames < this.firstSequence) {
+            ReplayBuffer.log.warn("[{}] - {} frames were dropped from the replay buffer, and can not be resent",
+                    this.connectionId,
+                    this.firstSequence - remoteReceivedFrames);
+            this.firstSequence = remoteReceivedFrames;
+        }
+        return new ArrayList<>(this.frames);
+    }
+
+    /**
+     * Count a data frame that was received from the remote session
+     *
+     * @return whether so many frames are not acknowledged that an acknowledgement should be sent right away
+     */
+    synchronized boolean frameReceived() {
+        if (!this.enabled) {
+            return false;
+        }
+        this.receivedFrames++;
+        return (this.receivedFrames - this.acknowledgedFrames) >= this.ackThreshold;
+    }
+
+    /**
+     * @return the number of received frames to acknowledge, or -1 when there is nothing new to acknowledge
+     */
+    synchronized long acknowledgement() {
+        if (!this.enabled || (this.receivedFrames == this.acknowledgedFrames)) {
+            return -1;
+        }
+        this.acknowledgedFrames = this.receivedFrames;
+        return this.receivedFrames;
+    }
+
+}
@@ -0,0 +1,211 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.flexiblepower.service.exceptions.FlowControlException;
+
+/**
+ * The RequestCorrelator matches the responses a ConnectionHandler receives to the requests it sent, for interfaces
+ * that implement a request/response protocol on top of {@link Connection#send(Object)}. The correlation id is part of
+ * the messages themselves: the requester puts an id in the request, the remote side copies it to the response, and
+ * the handler method for the response passes it to {@link #complete(int, Object)}.
+ * <p>
+ * Any number of requests, up to a maximum, may be in flight at the same time. Every request has a timeout, after
+ * which its future fails with a {@link TimeoutException} and it is forgotten, so a remote side that does not respond
+ * cannot make the correlator grow without bounds.
+ * <p>
+ * A future completes with its response in the thread that calls {@link #complete(int, Object)}, which is usually the
+ * thread that runs the handler method. A future that times out fails in a thread of the connection executor, and a
+ * future of a request that could not be sent fails in the thread that tried to send it. Actions that are chained to
+ * the futures run in those threads, unless they are chained with one of the async methods.
+ *
+ * @param <R> the type of the response messages
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+public final class RequestCorrelator<R> {
+
+    /**
+     * The default maximum number of requests that are in flight at the same time
+     */
+    public static final int DEFAULT_MAX_PENDING = 1024;
+
+    private final Map<Integer, PendingRequest> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicInteger idGenerator = new AtomicInteger();
+    private final Connection connection;
+    private final int maxPending;
+    private final long defaultTimeoutNanos;
+
+    /**
+     * Create a RequestCorrelator that allows {@value #DEFAULT_MAX_PENDING} requests in flight
+     *
+     * @param connection the connection to send the requests over
+     * @param defaultTimeout the time to wait for a response, if no timeout is given with the request
+     * @param unit the unit of the timeout
+     */
+    public RequestCorrelator(final Connection connection, final long defaultTimeout, final TimeUnit unit) {
+        this(connection, RequestCorrelator.DEFAULT_MAX_PENDING, defaultTimeout, unit);
+    }
+
+    /**
+     * @param connection the connection to send the requests over
+     * @param maxPending the maximum number of requests that may be in flight at the same time
+     * @param defaultTimeout the time to wait for a response, if no timeout is given with the request
+     * @param unit the unit of the timeout
+     */
+    public RequestCorrelator(final Connection connection,
+            final int maxPending,
+            final long defaultTimeout,
+            final TimeUnit unit) {
+        if (maxPending <= 0) {
+            throw new IllegalArgumentException("Maximum number of pending requests must be positive");
+        } else if (defaultTimeout <= 0) {
+            throw new IllegalArgumentException("Timeout must be positive");
+        }
+        this.connection = connection;
+        this.maxPending = maxPending;
+        this.defaultTimeoutNanos = unit.toNanos(defaultTimeout);
+    }
+
+    /**
+     * @return a new correlation id, which is unique until the ids wrap around
+     */
+    public int nextId() {
+        return this.idGenerator.incrementAndGet();
+    }
+
+    /**
+     * Send a request, and wait for the response with the default timeout
+     *
+     * @param id the correlation id that is in the request, and that the remote side will put in the response
+     * @param request the request message to send
+     * @return a future that completes with the response
+     * @see #request(int, Object, long, TimeUnit)
+     */
+    public CompletableFuture<R> request(final int id, final Object request) {
+        return this.request(id, request, this.defaultTimeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Send a request, and wait for the response without blocking. The future fails with a {@link TimeoutException}
+     * when there is no response in time, with an IOException when the request could not be sent, or with a
+     * {@link FlowControlException} right away when too many requests are in flight. Cancelling the future forgets the
+     * request, so a late response is ignored.
+     *
+     * @param id the correlation id that is in the request, and that the remote side will put in the response
+     * @param request the request message to send
+     * @param timeout the time to wait for the response
+     * @param unit the unit of the timeout
+     * @return a future that completes with the response
+     */
+    public CompletableFuture<R> request(final int id, final Object request, final long timeout, final TimeUnit unit) {
+        final CompletableFuture<R> future = new CompletableFuture<>();
+        if (this.pendingCount.incrementAndGet() > this.maxPending) {
+            this.pendingCount.decrementAndGet();
+            future.completeExceptionally(new FlowControlException(
+                    "Too many requests pending for connection with " + this.connection.remoteProcessId()));
+            return future;
+        }
+
+        final PendingRequest entry = new PendingRequest(future);
+        if (this.pending.putIfAbsent(id, entry) != null) {
+            this.pendingCount.decrementAndGet();
+            future.completeExceptionally(new IllegalStateException("A request with id " + id + " is already pending"));
+            return future;
+        }
+
+        // The actions chained to the future may block, so they must not run in the thread of the timer
+        entry.timeout = HashedWheelTimer.getInstance()
+                .schedule(() -> TCPConnection.connectionExecutor.execute(() -> future.completeExceptionally(
+                        new TimeoutException("No response to request " + id + " within " + unit.toMillis(timeout)
+                                + " ms"))),
+                        timeout,
+                        unit);
+        future.whenComplete((response, error) -> this.forget(id, entry));
+
+        this.connection.sendAsync(request).whenComplete((v, error) -> {
+            if (error != null) {
+                future.completeExceptionally(error);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Complete the request with the correlation id of a response that was received
+     *
+     * @param id the correlation id in the response
+     * @param response the response message
+     * @return whether a request with this id was pending, or false if it is unknown, or it timed out
+     */
+    public boolean complete(final int id, final R response) {
+        final PendingRequest entry = this.pending.get(id);
+        return (entry != null) && entry.future.complete(response);
+    }
+
+    /**
+     * Fail all requests that are pending, for instance when the connection is terminated
+     *
+     * @param cause the reason the requests failed
+     */
+    public void failAll(final Throwable cause) {
+        this.pending.values().forEach(entry -> entry.future.completeExceptionally(cause));
+    }
+
+    /**
+     * @return the number of requests that are in flight
+     */
+    public int pending() {
+        return this.pendingCount.get();
+    }
+
+    private void forget(final int id, final PendingRequest entry) {
+        if (this.pending.remove(id, entry)) {
+            this.pendingCount.decrementAndGet();
+        }
+        final HashedWheelTimer.Timeout timeout = entry.timeout;
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    /**
+     * A request that waits for its response
+     */
+    private final class PendingRequest {
+
+        final CompletableFuture<R> future;
+        volatile HashedWheelTimer.Timeout timeout;
+
+        PendingRequest(final CompletableFuture<R> future) {
+            this.future = future;
+        }
+
+    }
+
+}
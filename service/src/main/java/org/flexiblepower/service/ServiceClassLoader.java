@@ -0,0 +1,171 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The ServiceClassLoader isolates one service in a {@link ServiceHost}. It loads classes from its own classpath first,
+ * so every hosted service has its own copy of the service library, its own user code and its own static state. Only
+ * the classes that hosted services share with the host, such as the sockets and logging, are loaded by the parent.
+ * <p>
+ * The message classes of the interfaces between hosted services can be shared as well, by listing their packages as
+ * shared packages. Both ends of a connection then use the same class, so the
+ * {@link org.flexiblepower.commons.LocalSocket LocalSocket} can hand the message objects over without serializing them.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+final class ServiceClassLoader extends URLClassLoader {
+
+    /**
+     * The packages that are always loaded by the parent class loader, so that they are shared by all services
+     */
+    private static final String[] SHARED_PACKAGES = {"java.", "javax.", "sun.", "org.flexiblepower.commons.",
+            "org.slf4j.", "org.apache.logging."};
+
+    static {
+        ClassLoader.registerAsParallelCapable();
+    }
+
+    private final String[] sharedPackages;
+
+    /**
+     * Create a class loader for a hosted service
+     *
+     * @param classpath the classpath of the service, separated by the path separator. An entry ending with * includes
+     *            all jar files in that directory.
+     * @param parent the class loader that loads the shared classes
+     * @throws IOException When an entry of the classpath cannot be read
+     */
+    ServiceClassLoader(final String classpath, final ClassLoader parent) throws IOException {
+        this(classpath, parent, new String[0]);
+    }
+
+    /**
+     * Create a class loader for a hosted service, which shares some more packages with the other hosted services
+     *
+     * @param classpath the classpath of the service, separated by the path separator. An entry ending with * includes
+     *            all jar files in that directory.
+     * @param parent the class loader that loads the shared classes
+     * @param sharedPackages the prefixes of the names of the classes that are loaded by the parent first, besides the
+     *            ones that are always shared. A class that the parent cannot find is still loaded by this class loader.
+     * @throws IOException When an entry of the classpath cannot be read
+     */
+    ServiceClassLoader(final String classpath, final ClassLoader parent, final String[] sharedPackages)
+            throws IOException {
+        super(ServiceClassLoader.toUrls(classpath + File.pathSeparator + System.getProperty("java.class.path")),
+                parent);
+        this.sharedPackages = sharedPackages.clone();
+    }
+
+    @Override
+    protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+        if (ServiceClassLoader.isShared(name) || this.isSharedMessageClass(name)) {
+            return super.loadClass(name, resolve);
+        }
+
+        synchronized (this.getClassLoadingLock(name)) {
+            Class<?> c = this.findLoadedClass(name);
+            if (c == null) {
+                try {
+                    c = this.findClass(name);
+                } catch (final ClassNotFoundException e) {
+                    // Not on our own classpath, so try the parent
+                    c = this.getParent().loadClass(name);
+                }
+            }
+            if (resolve) {
+                this.resolveClass(c);
+            }
+            return c;
+        }
+    }
+
+    @Override
+    public URL getResource(final String name) {
+        final URL url = this.findResource(name);
+        return url != null ? url : super.getResource(name);
+    }
+
+    /**
+     * @param className the fully qualified name of a class
+     * @return whether the class is shared by all services, and should be loaded by the parent
+     */
+    static boolean isShared(final String className) {
+        for (final String prefix : ServiceClassLoader.SHARED_PACKAGES) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isSharedMessageClass(final String className) {
+        for (final String prefix : this.sharedPackages) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param classpath a classpath, separated by the path separator. An entry ending with * includes all jar files in
+     *            that directory.
+     * @return the URLs of all entries of the classpath
+     * @throws IOException When an entry of the classpath cannot be read
+     */
+    static URL[] toUrls(final String classpath) throws IOException {
+        final List<URL> urls = new ArrayList<>();
+        for (final String entry : classpath.split(File.pathSeparator)) {
+            if (entry.isEmpty()) {
+                continue;
+            } else if (entry.endsWith("*")) {
+                final Path dir = Paths.get(entry.substring(0, entry.length() - 1));
+                if (Files.isDirectory(dir)) {
+                    try (DirectoryStream<Path> jars = Files.newDirectoryStream(dir, "*.jar")) {
+                        for (final Path jar : jars) {
+                            urls.add(ServiceClassLoader.toUrl(jar));
+                        }
+                    }
+                }
+            } else {
+                urls.add(ServiceClassLoader.toUrl(Paths.get(entry)));
+            }
+        }
+        return urls.toArray(new URL[urls.size()]);
+    }
+
+    private static URL toUrl(final Path path) throws MalformedURLException {
+        return path.toAbsolutePath().toUri().toURL();
+    }
+
+}
@@ -19,12 +19,17 @@
  */
 package org.flexiblepower.service;
 
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,6 +38,12 @@ import org.slf4j.LoggerFactory;
  * ServiceExecutor is singleton object that the service library will use to schedule user code. This makes sure that all
  * user code is initially run in one single thread, unless the user specifically creates another thread.
  * <p>
+ * A service may opt in to handling the messages of different connections concurrently, by setting the
+ * {@value #HANDLER_THREADS_KEY} environment variable to the size of a shared pool of handler threads. The callbacks of
+ * each connection then run on the pool through an {@link OrderedExecutor}, which keeps them in order, while the
+ * callbacks of other connections run at the same time. Service-level calls still run exclusively: they wait until no
+ * connection callbacks are running, and no connection callbacks start until they are done.
+ * <p>
  * Besides being a singleton object, it also provides functionality to make sure all exceptions in user code are caught
  * and logged, but do not interfere with the functionality of the service library.
  *
@@ -41,9 +52,23 @@ import org.slf4j.LoggerFactory;
  */
 final class ServiceExecutor {
 
+    /**
+     * The environment variable that holds the number of threads to handle connection callbacks with. When it is not
+     * set, or not larger than 1, all user code runs in a single thread.
+     */
+    static final String HANDLER_THREADS_KEY = "HANDLER_THREADS";
+
+    /**
+     * The maximum number of tasks of a connection that run before the tasks of other connections get a turn
+     */
+    private static final int MAX_TASKS_PER_TURN = 32;
+
     private static final Logger log = LoggerFactory.getLogger(ServiceExecutor.class);
     private static ServiceExecutor instance;
+    private static int handlerThreads = 0;
     private final ExecutorService executor;
+    private final ExecutorService handlerPool;
+    private final ReadWriteLock exclusiveLock = new ReentrantReadWriteLock();
 
     /**
      * This is used to keep track of the threads created by the ServiceExecutor. It is incremented when a new thread is
@@ -57,35 +82,76 @@ final class ServiceExecutor {
      */
     synchronized static ServiceExecutor getInstance() {
         if (ServiceExecutor.instance == null) {
-            ServiceExecutor.instance = new ServiceExecutor();
+            ServiceExecutor.instance = new ServiceExecutor(ServiceExecutor.handlerThreads);
         }
         return ServiceExecutor.instance;
     }
 
-    private ServiceExecutor() {
+    /**
+     * Take the number of handler threads from the environment of the process. This only has effect if it is called
+     * before the singleton instance is created.
+     *
+     * @param environment The environment variables of the process
+     */
+    synchronized static void configure(final Map<String, String> environment) {
+        int threads = 0;
+        try {
+            threads = Integer.parseInt(environment.getOrDefault(ServiceExecutor.HANDLER_THREADS_KEY, "0").trim());
+        } catch (final NumberFormatException e) {
+            ServiceExecutor.log.warn("Invalid value for {}, running user code in a single thread",
+                    ServiceExecutor.HANDLER_THREADS_KEY);
+        }
+        ServiceExecutor.configure(threads);
+    }
+
+    /**
+     * Set the number of threads to handle connection callbacks with. This only has effect if it is called before the
+     * singleton instance is created.
+     *
+     * @param threads The size of the shared pool of handler threads, or 1 or less to run all user code in one thread
+     */
+    synchronized static void configure(final int threads) {
+        if ((ServiceExecutor.instance != null) && (ServiceExecutor.instance.handlerPool == null) != (threads <= 1)) {
+            ServiceExecutor.log.warn("ServiceExecutor is already running, not changing the number of handler threads");
+        }
+        ServiceExecutor.handlerThreads = threads;
+    }
+
+    private ServiceExecutor(final int threads) {
         final ThreadFactory threadFactory = r -> new Thread(r, "dEF-Pi userThread " + ServiceExecutor.threadCount++);
         this.executor = Executors.newSingleThreadExecutor(threadFactory);
+        if (threads > 1) {
+            ServiceExecutor.log.info("Handling connections concurrently with {} threads", threads);
+            this.handlerPool = Executors.newFixedThreadPool(threads,
+                    r -> new Thread(r, "dEF-Pi handlerThread " + ServiceExecutor.threadCount++));
+        } else {
+            this.handlerPool = null;
+        }
     }
 
     /**
-     * Submit a Task to run as soon as possible.
+     * Submit a Task to run as soon as possible. When connections are handled concurrently, it runs exclusively.
      *
      * @param task the task to run.
      * @see ExecutorService#submit(Runnable)
      */
     void submit(final Runnable task) {
         this.executor.submit(() -> {
+            this.exclusiveLock.writeLock().lock();
             try {
                 task.run();
             } catch (final Exception e) {
                 ServiceExecutor.log.error("Error occured while executing user code: {}", e.getMessage());
                 ServiceExecutor.log.trace(e.getMessage(), e);
+            } finally {
+                this.exclusiveLock.writeLock().unlock();
             }
         });
     }
 
     /**
-     * Submit a value-returning task to run as soon as possible.
+     * Submit a value-returning task to run as soon as possible. When connections are handled concurrently, it runs
+     * exclusively.
      *
      * @param task the Callable task to run.
      * @return a Future that may be used to obtain the result of the Callable object.
@@ -93,28 +159,114 @@ final class ServiceExecutor {
      */
     <T> Future<T> submit(final Callable<T> task) {
         return this.executor.submit(() -> {
+            this.exclusiveLock.writeLock().lock();
             try {
                 return task.call();
             } catch (final Exception e) {
                 ServiceExecutor.log.error("Error occured while executing user code: {}", e.getMessage());
                 ServiceExecutor.log.trace(e.getMessage(), e);
                 throw e;
+            } finally {
+                this.exclusiveLock.writeLock().unlock();
             }
         });
     }
 
+    /**
+     * @return A new executor for the callbacks of one connection, which runs its tasks in the order they are submitted
+     */
+    OrderedExecutor newOrderedExecutor() {
+        return new OrderedExecutor();
+    }
+
     /**
      * Shuts down the ServiceExecutor and the corresponding ThreadPool. Also removes the reference to the singleton
      * instance.
      */
     void shutDown() {
         this.executor.shutdown();
+        if (this.handlerPool != null) {
+            this.handlerPool.shutdown();
+        }
         try {
             this.executor.awaitTermination(2, TimeUnit.SECONDS);
+            if (this.handlerPool != null) {
+                this.handlerPool.awaitTermination(2, TimeUnit.SECONDS);
+            }
         } catch (final InterruptedException e) {
             this.executor.shutdownNow();
+            if (this.handlerPool != null) {
+                this.handlerPool.shutdownNow();
+            }
         }
         ServiceExecutor.instance = null;
     }
 
+    /**
+     * The OrderedExecutor runs the tasks of a single connection one at a time, in the order they were submitted. When
+     * all user code runs in one thread the tasks are simply handed to it, otherwise they run on the shared pool of
+     * handler threads. After a number of tasks, the connection goes to the back of the line, so a busy connection does
+     * not hold up the others.
+     */
+    final class OrderedExecutor {
+
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+        private boolean scheduled = false;
+
+        OrderedExecutor() {
+            // Package private constructor for ServiceExecutor
+        }
+
+        /**
+         * Submit a task to run after all tasks that were submitted before it.
+         *
+         * @param task the task to run.
+         */
+        void submit(final Runnable task) {
+            final ExecutorService pool = ServiceExecutor.this.handlerPool;
+            if (pool == null) {
+                ServiceExecutor.this.submit(task);
+                return;
+            }
+
+            synchronized (this) {
+                this.tasks.add(task);
+                if (this.scheduled) {
+                    return;
+                }
+                this.scheduled = true;
+            }
+            pool.execute(this::runTasks);
+        }
+
+        private void runTasks() {
+            ServiceExecutor.this.exclusiveLock.readLock().lock();
+            try {
+                for (int i = 0; i < ServiceExecutor.MAX_TASKS_PER_TURN; i++) {
+                    final Runnable task;
+                    synchronized (this) {
+                        task = this.tasks.poll();
+                        if (task == null) {
+                            this.scheduled = false;
+                            return;
+                        }
+                    }
+
+                    try {
+                        task.run();
+                    } catch (final Exception e) {
+                        ServiceExecutor.log.error("Error occured while executing user code: {}", e.getMessage());
+                        ServiceExecutor.log.trace(e.getMessage(), e);
+                    }
+                }
+            } finally {
+                ServiceExecutor.this.exclusiveLock.readLock().unlock();
+            }
+
+            // Give the other connections a turn
+            ServiceExecutor.this.handlerPool.execute(this::runTasks);
+        }
+
+    }
+
 }
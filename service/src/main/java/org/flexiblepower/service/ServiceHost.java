@@ -0,0 +1,489 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+
+import org.flexiblepower.commons.LocalSocket;
+import org.flexiblepower.commons.ManagementHandler;
+import org.flexiblepower.commons.TCPSocket;
+import org.flexiblepower.exceptions.SerializationException;
+import org.flexiblepower.proto.ConnectionProto.ConnectionMessage;
+import org.flexiblepower.proto.DefPiParams;
+import org.flexiblepower.proto.ServiceProto.ErrorMessage;
+import org.flexiblepower.proto.ServiceProto.GoToProcessStateMessage;
+import org.flexiblepower.proto.ServiceProto.MetricsRequestMessage;
+import org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage;
+import org.flexiblepower.proto.ServiceProto.ProcessStateUpdateMessage;
+import org.flexiblepower.proto.ServiceProto.ResumeProcessMessage;
+import org.flexiblepower.proto.ServiceProto.SetConfigMessage;
+import org.flexiblepower.serializers.ProtobufMessageSerializer;
+import org.flexiblepower.service.exceptions.ServiceInvocationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.protobuf.Message;
+
+/**
+ * The ServiceHost runs several dEF-Pi processes in one JVM. Every process is loaded in its own
+ * {@link ServiceClassLoader}, so it has its own copy of the service library and user code, and is started just like a
+ * process in its own JVM. The host listens for management messages from the orchestrator, and hands every message to
+ * the process it is meant for. Connections between the hosted processes use a {@link LocalSocket} instead of TCP.
+ * <p>
+ * The host is configured with a properties file, of which the path is in the SERVICE_HOST_CONFIG environment variable:
+ *
+ * <pre>
+ * processes=process1,process2
+ * process1.classpath=/services/process1/*
+ * process1.SERVICE_PACKAGE=org.example.service1
+ * process2.classpath=/services/process2/*
+ * sharedClasspath=/services/interfaces/*
+ * sharedPackages=org.example.interfaces.,com.google.protobuf.
+ * </pre>
+ *
+ * Any property besides the classpath is an environment variable of that process, which overrides the environment of
+ * the host. The PROCESS_ID of a process is its name, unless it is set explicitly.
+ * <p>
+ * Classes whose names start with one of the shared packages are loaded once for all processes, from the shared
+ * classpath or else from the classpath of the host. When the message classes of an interface are shared, message
+ * objects are handed from one hosted process to the other without serializing them. The libraries that these classes
+ * depend on, such as ProtoBuf, must be shared too. Any other class is loaded separately for every process, so without
+ * shared packages the messages between hosted processes are serialized.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+public final class ServiceHost {
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceHost.class);
+    private static final long SOCKET_READ_TIMEOUT_MILLIS = Duration.ofMinutes(5).toMillis();
+    private static final long SLOT_START_TIMEOUT_MILLIS = Duration.ofSeconds(30).toMillis();
+    private static final String PROCESSES_KEY = "processes";
+    private static final String CLASSPATH_KEY = "classpath";
+    private static final String SHARED_CLASSPATH_KEY = "sharedClasspath";
+    private static final String SHARED_PACKAGES_KEY = "sharedPackages";
+    private static int threadCount = 0;
+
+    private final Map<String, Slot> slots = new LinkedHashMap<>();
+    private final ProtobufMessageSerializer pbSerializer = new ProtobufMessageSerializer();
+    private final String sharedClasspath;
+    private final String[] sharedPackages;
+    private volatile TCPSocket listenSocket;
+    private volatile boolean keepRunning = true;
+
+    /**
+     * Run all processes that are described in the configuration file, and wait until all of them are stopped
+     *
+     * @param configFile the path of the properties file with the configuration of the hosted processes
+     */
+    static void run(final String configFile) {
+        final Properties config = new Properties();
+        try (InputStream in = Files.newInputStream(Paths.get(configFile))) {
+            config.load(in);
+        } catch (final IOException e) {
+            ServiceHost.log.error("Unable to read service host configuration {}: {}", configFile, e.getMessage());
+            return;
+        }
+
+        final ServiceHost host = new ServiceHost(config);
+        host.start();
+        host.waitUntilStopped();
+    }
+
+    /**
+     * @param config The configuration of the processes to host
+     */
+    ServiceHost(final Properties config) {
+        for (final String processName : config.getProperty(ServiceHost.PROCESSES_KEY, "").split(",")) {
+            final String name = processName.trim();
+            if (!name.isEmpty()) {
+                final Map<String, String> env = ServiceHost.getEnvironment(config, name);
+                final String processId = env.get(DefPiParams.PROCESS_ID.name());
+                this.slots.put(processId, new Slot(processId, env));
+            }
+        }
+
+        this.sharedClasspath = config.getProperty(ServiceHost.SHARED_CLASSPATH_KEY, "");
+        final List<String> packages = new ArrayList<>();
+        for (final String sharedPackage : config.getProperty(ServiceHost.SHARED_PACKAGES_KEY, "").split(",")) {
+            if (!sharedPackage.trim().isEmpty()) {
+                packages.add(sharedPackage.trim());
+            }
+        }
+        this.sharedPackages = packages.toArray(new String[packages.size()]);
+
+        this.pbSerializer.addMessageClass(GoToProcessStateMessage.class);
+        this.pbSerializer.addMessageClass(SetConfigMessage.class);
+        this.pbSerializer.addMessageClass(ProcessStateUpdateMessage.class);
+        this.pbSerializer.addMessageClass(ResumeProcessMessage.class);
+        this.pbSerializer.addMessageClass(ConnectionMessage.class);
+        this.pbSerializer.addMessageClass(ErrorMessage.class);
+        this.pbSerializer.addMessageClass(MetricsRequestMessage.class);
+        this.pbSerializer.addMessageClass(MetricsSnapshotMessage.class);
+    }
+
+    /**
+     * @param config The configuration of all hosted processes
+     * @param name The name of the process
+     * @return The environment variables of the process, which are those of the host with the configured overrides
+     */
+    static Map<String, String> getEnvironment(final Properties config, final String name) {
+        final Map<String, String> env = new HashMap<>(System.getenv());
+        env.put(DefPiParams.PROCESS_ID.name(), name);
+        final String prefix = name + ".";
+        for (final String key : config.stringPropertyNames()) {
+            if (key.startsWith(prefix)) {
+                env.put(key.substring(prefix.length()), config.getProperty(key));
+            }
+        }
+        return env;
+    }
+
+    /**
+     * Start listening for management messages, and start all processes
+     */
+    void start() {
+        // All processes must be known as local before any of them creates a connection
+        for (final Slot slot : this.slots.values()) {
+            LocalSocket.registerLocalProcess(slot.processId);
+        }
+
+        final Thread listenThread = new Thread(this::listen, "dEF-Pi hostThread-" + ServiceHost.nextThreadNumber());
+        listenThread.setDaemon(true);
+        listenThread.start();
+
+        final ClassLoader parent = this.createSharedClassLoader();
+        for (final Slot slot : this.slots.values()) {
+            try {
+                slot.start(parent, this.sharedPackages);
+            } catch (final Exception e) {
+                ServiceHost.log.error("Unable to start process {}: {}", slot.processId, e.getMessage());
+                ServiceHost.log.trace(e.getMessage(), e);
+                slot.failed();
+            }
+        }
+    }
+
+    /**
+     * @return the class loader that loads the classes that are shared by all processes
+     */
+    ClassLoader createSharedClassLoader() {
+        final ClassLoader hostLoader = ServiceHost.class.getClassLoader();
+        if (this.sharedClasspath.isEmpty()) {
+            return hostLoader;
+        }
+        try {
+            return new URLClassLoader(ServiceClassLoader.toUrls(this.sharedClasspath), hostLoader);
+        } catch (final IOException e) {
+            ServiceHost.log.error("Unable to read shared classpath {}, sharing classes of the host only: {}",
+                    this.sharedClasspath,
+                    e.getMessage());
+            return hostLoader;
+        }
+    }
+
+    /**
+     * @return the prefixes of the names of the classes that are shared by all processes
+     */
+    String[] getSharedPackages() {
+        return this.sharedPackages.clone();
+    }
+
+    /**
+     * Wait until all hosted processes have stopped, and stop listening for management messages
+     */
+    synchronized void waitUntilStopped() {
+        while (!this.allStopped()) {
+            try {
+                this.wait(1000);
+            } catch (final InterruptedException e) {
+                ServiceHost.log.info("Interuption exception received, stopping...");
+                break;
+            }
+        }
+
+        ServiceHost.log.info("All hosted processes have stopped");
+        this.keepRunning = false;
+        final TCPSocket socket = this.listenSocket;
+        if (socket != null) {
+            socket.close();
+        }
+    }
+
+    private boolean allStopped() {
+        boolean stopped = true;
+        for (final Slot slot : this.slots.values()) {
+            if (slot.isStopped()) {
+                LocalSocket.unregisterLocalProcess(slot.processId);
+            } else {
+                stopped = false;
+            }
+        }
+        return stopped;
+    }
+
+    /**
+     * Accept management connections from the orchestrator, and handle each of them in its own thread
+     */
+    private void listen() {
+        while (this.keepRunning) {
+            final TCPSocket socket = TCPSocket.asServer(ServiceManager.MANAGEMENT_PORT);
+            this.listenSocket = socket;
+            try {
+                socket.waitUntilConnected();
+            } catch (final IOException e) {
+                socket.close();
+                if (this.keepRunning) {
+                    ServiceHost.log.warn("Exception while waiting for management connection: {}", e.getMessage());
+                }
+                continue;
+            }
+
+            final Thread handlerThread = new Thread(() -> this.handleManagementConnection(socket),
+                    "dEF-Pi hostThread-" + ServiceHost.nextThreadNumber());
+            handlerThread.setDaemon(true);
+            handlerThread.start();
+        }
+    }
+
+    private static synchronized int nextThreadNumber() {
+        return ServiceHost.threadCount++;
+    }
+
+    /**
+     * Handle all messages on one management connection. Once a message for a particular process is received, the
+     * connection is bound to that process, and connection messages are handed to that process as well.
+     *
+     * @param socket the connected management socket
+     */
+    private void handleManagementConnection(final TCPSocket socket) {
+        Slot boundSlot = null;
+        try {
+            while (this.keepRunning) {
+                final byte[] messageArray = socket.read(ServiceHost.SOCKET_READ_TIMEOUT_MILLIS);
+                if (messageArray == null) {
+                    break;
+                }
+
+                byte[] response;
+                try {
+                    final Slot slot = this.route(this.pbSerializer.deserialize(messageArray), boundSlot);
+                    if (boundSlot == null) {
+                        ServiceHost.log.debug("Management connection is bound to process {}", slot.processId);
+                        boundSlot = slot;
+                    }
+                    response = slot.handle(messageArray, socket);
+                } catch (final Exception e) {
+                    ServiceHost.log.error("Exception handling message: {}", e.getMessage());
+                    ServiceHost.log.trace(e.getMessage(), e);
+                    response = this.createErrorMessage(e);
+                }
+
+                socket.send(response);
+                synchronized (this) {
+                    this.notifyAll();
+                }
+            }
+        } catch (final IOException e) {
+            ServiceHost.log.debug("Management connection closed: {}", e.getMessage());
+        } finally {
+            socket.close();
+        }
+    }
+
+    /**
+     * Find the process that a management message is meant for
+     *
+     * @param message the message from the orchestrator
+     * @param boundSlot the process that the management connection is bound to, or null
+     * @return The process that should handle the message
+     * @throws ServiceInvocationException when it is not clear which process should handle the message
+     */
+    Slot route(final Message message, final Slot boundSlot) throws ServiceInvocationException {
+        if (message instanceof GoToProcessStateMessage) {
+            return this.getSlot(((GoToProcessStateMessage) message).getProcessId());
+        } else if (message instanceof ResumeProcessMessage) {
+            return this.getSlot(((ResumeProcessMessage) message).getProcessId());
+        } else if (message instanceof SetConfigMessage) {
+            return this.getSlot(((SetConfigMessage) message).getProcessId());
+        } else if (message instanceof MetricsRequestMessage) {
+            return this.getSlot(((MetricsRequestMessage) message).getProcessId());
+        } else if (!(message instanceof ConnectionMessage)) {
+            throw new ServiceInvocationException("Received unknown message, type: " + message.getClass().getName());
+        } else if (boundSlot != null) {
+            return boundSlot;
+        }
+
+        // The orchestrator connected just for this connection, find out which process has or can build it
+        final ConnectionMessage msg = (ConnectionMessage) message;
+        final List<Slot> candidates = new ArrayList<>();
+        for (final Slot slot : this.slots.values()) {
+            final ManagementHandler handler = slot.waitForHandler();
+            if ((handler != null) && handler.hasConnection(msg.getConnectionId())) {
+                return slot;
+            } else if ((handler != null) && handler.canCreateConnection(msg.getReceiveHash(), msg.getSendHash())) {
+                candidates.add(slot);
+            }
+        }
+
+        if (candidates.size() != 1) {
+            throw new ServiceInvocationException(String.format("Unable to find process for connection %s, %d of %d "
+                    + "processes are able to handle it", msg.getConnectionId(), candidates.size(), this.slots.size()));
+        }
+        return candidates.get(0);
+    }
+
+    private Slot getSlot(final String processId) throws ServiceInvocationException {
+        final Slot slot = this.slots.get(processId);
+        if (slot == null) {
+            throw new ServiceInvocationException("Received message for unexpected process id " + processId);
+        }
+        return slot;
+    }
+
+    private byte[] createErrorMessage(final Exception e) {
+        final StringWriter sw = new StringWriter();
+        e.printStackTrace(new PrintWriter(sw));
+        final ErrorMessage error = ErrorMessage.newBuilder()
+                .setProcessId(String.join(",", this.slots.keySet()))
+                .setDebugInformation(sw.toString())
+                .build();
+        try {
+            return this.pbSerializer.serialize(error);
+        } catch (final SerializationException e1) {
+            ServiceHost.log.error("Error during serialization of message type {}", error.getClass().getSimpleName());
+            return "Serialization error in servicehost".getBytes();
+        }
+    }
+
+    /**
+     * A Slot is one of the processes that run in the host, with its own class loader
+     */
+    static final class Slot {
+
+        final String processId;
+        private final Map<String, String> environment;
+        private ClassLoader classLoader;
+        private ManagementHandler handler;
+        private boolean finished = false;
+
+        Slot(final String processId, final Map<String, String> environment) {
+            this.processId = processId;
+            this.environment = environment;
+        }
+
+        /**
+         * Load the service library and user code of the process in a new class loader, and start the service
+         *
+         * @param parent the class loader that loads the classes that are shared by all processes
+         * @param sharedPackages the prefixes of the names of the classes to load with the parent first
+         * @throws Exception When the classpath of the process cannot be read, or the service cannot be started
+         */
+        void start(final ClassLoader parent, final String[] sharedPackages) throws Exception {
+            final String classpath = this.environment.getOrDefault(ServiceHost.CLASSPATH_KEY, "");
+            ServiceHost.log.info("Starting process {} with classpath {}", this.processId, classpath);
+            final ClassLoader loader = new ServiceClassLoader(classpath, parent, sharedPackages);
+
+            final ManagementHandler newHandler = this.callWithClassLoader(loader, () -> {
+                final Method startMethod = loader.loadClass(ServiceMain.class.getName())
+                        .getMethod("startHosted", Map.class);
+                try {
+                    return (ManagementHandler) startMethod.invoke(null, this.environment);
+                } catch (final InvocationTargetException e) {
+                    throw new ServiceInvocationException("Unable to start process " + this.processId,
+                            e.getTargetException());
+                }
+            });
+
+            synchronized (this) {
+                this.classLoader = loader;
+                this.handler = newHandler;
+                this.notifyAll();
+            }
+        }
+
+        /**
+         * Mark the process as failed, so that it will not handle any messages
+         */
+        synchronized void failed() {
+            this.finished = true;
+            this.notifyAll();
+        }
+
+        /**
+         * @return The handler of the process, or null if it failed to start in time
+         */
+        synchronized ManagementHandler waitForHandler() {
+            final long deadline = System.currentTimeMillis() + ServiceHost.SLOT_START_TIMEOUT_MILLIS;
+            while ((this.handler == null) && !this.finished && (System.currentTimeMillis() < deadline)) {
+                try {
+                    this.wait(Math.max(1, deadline - System.currentTimeMillis()));
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+            }
+            return this.handler;
+        }
+
+        synchronized boolean isStopped() {
+            return this.finished || ((this.handler != null) && this.handler.isStopped());
+        }
+
+        byte[] handle(final byte[] message, final TCPSocket socket) throws Exception {
+            final ManagementHandler currentHandler = this.waitForHandler();
+            if ((currentHandler == null) || currentHandler.isStopped()) {
+                throw new ServiceInvocationException("Process " + this.processId + " is not running");
+            }
+            // Any threads the process creates while handling the message should use its own class loader
+            return this.callWithClassLoader(this.classLoader,
+                    () -> currentHandler.handleManagementMessage(message, socket));
+        }
+
+        private <T> T callWithClassLoader(final ClassLoader loader, final Callable<T> call) throws Exception {
+            final Thread current = Thread.currentThread();
+            final ClassLoader previous = current.getContextClassLoader();
+            current.setContextClassLoader(loader);
+            try {
+                return call.call();
+            } finally {
+                current.setContextClassLoader(previous);
+            }
+        }
+
+    }
+
+}
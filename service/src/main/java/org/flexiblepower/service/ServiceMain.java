@@ -24,10 +24,17 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 
+import org.flexiblepower.commons.ManagementHandler;
+import org.flexiblepower.proto.DefPiParams;
 import org.flexiblepower.service.exceptions.ServiceInvocationException;
 import org.reflections.Reflections;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,6 +48,7 @@ public final class ServiceMain {
 
     private static final Logger log = LoggerFactory.getLogger(ServiceMain.class);
     private static final String SERVICE_PACKAGE_KEY = "SERVICE_PACKAGE";
+    private static final String SERVICE_HOST_CONFIG_KEY = "SERVICE_HOST_CONFIG";
 
     private static Reflections reflections;
 
@@ -52,21 +60,17 @@ public final class ServiceMain {
     public static <T> void main(final String[] args) {
         ServiceMain.displayVersion();
 
+        final String hostConfig = System.getenv(ServiceMain.SERVICE_HOST_CONFIG_KEY);
+        if ((hostConfig != null) && !hostConfig.isEmpty()) {
+            // Run several services in this JVM instead
+            ServiceHost.run(hostConfig);
+            return;
+        }
+
         // Get service from package
         try (final ServiceManager<T> manager = new ServiceManager<>()) {
-            ServiceMain.reflections = ServiceMain.reflectOnService();
-
-            @SuppressWarnings("unchecked")
-            final Class<? extends Service<T>> serviceClass = (Class<? extends Service<T>>) ServiceMain
-                    .getServiceClass();
-            ServiceMain.log.debug("Found {} as service type", serviceClass);
-
-            // Call the constructor in the user thread.
-            final Service<T> service = ServiceExecutor.getInstance().submit(serviceClass::newInstance).get();
-
-            ServiceMain.log.info("Starting service {}", service);
-            ServiceMain.registerMessageHandlers(service);
-            manager.start(service);
+            ServiceMain.reflections = ServiceMain.reflectOnService(System.getenv(), null);
+            ServiceMain.startService(manager);
 
             // Wait for the thread to die naturally
             manager.join();
@@ -76,6 +80,57 @@ public final class ServiceMain {
         }
     }
 
+    /**
+     * This is the entrypoint for a dEF-Pi process that runs in a {@link ServiceHost}. It is called by reflection,
+     * since every hosted process has its own copy of the service library. The service is started just like by
+     * {@link #main(String[])}, except that the host receives the management messages and hands them to the returned
+     * handler.
+     *
+     * @param environment The environment variables of this particular process
+     * @return The handler for the management messages of the process
+     * @throws ServiceInvocationException When the service cannot be found or started
+     */
+    public static <T> ManagementHandler startHosted(final Map<String, String> environment)
+            throws ServiceInvocationException {
+        final ServiceManager<T> manager = new ServiceManager<>(environment, false);
+        try {
+            ServiceMain.reflections = ServiceMain.reflectOnService(environment, ServiceMain.class.getClassLoader());
+            ServiceMain.startService(manager);
+        } catch (final ServiceInvocationException e) {
+            manager.close();
+            throw e;
+        } catch (final Exception e) {
+            manager.close();
+            throw new ServiceInvocationException("Unable to start hosted service: " + e.getMessage(), e);
+        }
+
+        // Clean up as soon as the process is suspended or terminated, like the main function does
+        final Thread stopThread = new Thread(() -> {
+            manager.join();
+            manager.close();
+        }, "dEF-Pi hostedThread-" + environment.get(DefPiParams.PROCESS_ID.name()));
+        stopThread.setDaemon(true);
+        stopThread.start();
+
+        return manager;
+    }
+
+    private static <T> void startService(final ServiceManager<T> manager)
+            throws ServiceInvocationException,
+            InterruptedException,
+            ExecutionException {
+        @SuppressWarnings("unchecked")
+        final Class<? extends Service<T>> serviceClass = (Class<? extends Service<T>>) ServiceMain.getServiceClass();
+        ServiceMain.log.debug("Found {} as service type", serviceClass);
+
+        // Call the constructor in the user thread.
+        final Service<T> service = ServiceExecutor.getInstance().submit(serviceClass::newInstance).get();
+
+        ServiceMain.log.info("Starting service {}", service);
+        ServiceMain.registerMessageHandlers(service);
+        manager.start(service);
+    }
+
     private static void displayVersion() {
         try (
                 BufferedReader br = new BufferedReader(
@@ -89,9 +144,17 @@ public final class ServiceMain {
         }
     }
 
-    private static Reflections reflectOnService() {
-        final String servicePackage = System.getenv(ServiceMain.SERVICE_PACKAGE_KEY);
-        if ((servicePackage == null) || servicePackage.isEmpty()) {
+    private static Reflections reflectOnService(final Map<String, String> environment, final ClassLoader loader) {
+        final String servicePackage = environment.get(ServiceMain.SERVICE_PACKAGE_KEY);
+        if (loader != null) {
+            // Look at the classpath of this particular service
+            final ConfigurationBuilder config = new ConfigurationBuilder().addClassLoader(loader)
+                    .setUrls(ClasspathHelper.forClassLoader(loader));
+            if ((servicePackage != null) && !servicePackage.isEmpty()) {
+                config.filterInputsBy(new FilterBuilder().includePackage(servicePackage));
+            }
+            return new Reflections(config);
+        } else if ((servicePackage == null) || servicePackage.isEmpty()) {
             return new Reflections();
         } else {
             return new Reflections(servicePackage);
@@ -21,6 +21,7 @@ package org.flexiblepower.service;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintWriter;
 import java.io.Serializable;
 import java.io.StringWriter;
@@ -28,17 +29,24 @@ import java.lang.reflect.Method;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import org.flexiblepower.commons.ChunkInputStream;
+import org.flexiblepower.commons.ChunkOutputStream;
+import org.flexiblepower.commons.ManagementHandler;
 import org.flexiblepower.commons.TCPSocket;
 import org.flexiblepower.exceptions.SerializationException;
 import org.flexiblepower.proto.ConnectionProto.ConnectionMessage;
 import org.flexiblepower.proto.DefPiParams;
 import org.flexiblepower.proto.ServiceProto.ErrorMessage;
 import org.flexiblepower.proto.ServiceProto.GoToProcessStateMessage;
+import org.flexiblepower.proto.ServiceProto.MetricsRequestMessage;
+import org.flexiblepower.proto.ServiceProto.MetricsSnapshotMessage;
 import org.flexiblepower.proto.ServiceProto.ProcessState;
 import org.flexiblepower.proto.ServiceProto.ProcessStateUpdateMessage;
 import org.flexiblepower.proto.ServiceProto.ResumeProcessMessage;
@@ -61,7 +69,7 @@ import com.google.protobuf.Message;
  * @param <T> The type of service this manager will maintain
  * @since May 10, 2017
  */
-final class ServiceManager<T> implements Closeable {
+final class ServiceManager<T> implements ManagementHandler, Closeable {
 
     /**
      * The global port number on which to listen for management messages
@@ -83,6 +91,7 @@ final class ServiceManager<T> implements Closeable {
     private final JavaIOSerializer javaIoSerializer = new JavaIOSerializer();
     private final ProtobufMessageSerializer pbSerializer = new ProtobufMessageSerializer();
     private final DefPiParameters defPiParams;
+    private final CountDownLatch stoppedLatch = new CountDownLatch(1);
 
     private TCPSocket managementSocket;
     private Service<T> managedService;
@@ -99,13 +108,23 @@ final class ServiceManager<T> implements Closeable {
      * {@link #start(Service)}
      */
     ServiceManager() {
+        this(System.getenv(), true);
+    }
+
+    /**
+     * Create a new ServiceManager. When the service runs in a {@link ServiceHost}, the host listens for management
+     * messages and hands them to {@link #handleManagementMessage(byte[], TCPSocket)}, so the manager does not listen
+     * itself.
+     *
+     * @param environment The environment variables of the process, from which the dEF-Pi parameters are taken
+     * @param listen Whether to listen for management messages on the {@value #MANAGEMENT_PORT} port
+     */
+    ServiceManager(final Map<String, String> environment, final boolean listen) {
+        ServiceExecutor.configure(environment);
         this.serviceExecutor = ServiceExecutor.getInstance();
 
         this.connectionManager = new ConnectionManager();
-        ServiceManager.log.info("Start listening thread on {}", ServiceManager.MANAGEMENT_PORT);
-        this.managementSocket = TCPSocket.asServer(ServiceManager.MANAGEMENT_PORT);
-
-        this.defPiParams = ServiceManager.generateDefPiParameters();
+        this.defPiParams = ServiceManager.generateDefPiParameters(environment);
 
         // Initializer the ProtoBufe message serializer
         this.pbSerializer.addMessageClass(GoToProcessStateMessage.class);
@@ -113,87 +132,136 @@ final class ServiceManager<T> implements Closeable {
         this.pbSerializer.addMessageClass(ProcessStateUpdateMessage.class);
         this.pbSerializer.addMessageClass(ResumeProcessMessage.class);
         this.pbSerializer.addMessageClass(ConnectionMessage.class);
+        this.pbSerializer.addMessageClass(MetricsRequestMessage.class);
+        this.pbSerializer.addMessageClass(MetricsSnapshotMessage.class);
 
         // Because when this exists, it is initializing
         this.configured = false;
         this.serviceIsTerminated = false;
         this.keepThreadAlive = true;
-        this.managerThread = new Thread(() -> {
-            while (this.keepThreadAlive) {
-                byte[] messageArray;
-                try {
-                    this.managementSocket.waitUntilConnected(); // block until connected as server
-                    messageArray = this.managementSocket.read(ServiceManager.SOCKET_READ_TIMEOUT_MILLIS);
-                    if (messageArray == null) {
-                        if (this.keepThreadAlive) {
-                            ServiceManager.log.info("No message received, close thread and wait for new connections");
-                            this.managementSocket.close();
-                            this.managementSocket = TCPSocket.asServer(ServiceManager.MANAGEMENT_PORT);
-                            continue;
-                        }
-                        break;
-                    }
-                } catch (final IOException e) {
+
+        if (listen) {
+            ServiceManager.log.info("Start listening thread on {}", ServiceManager.MANAGEMENT_PORT);
+            this.managementSocket = TCPSocket.asServer(ServiceManager.MANAGEMENT_PORT);
+            this.managerThread = new Thread(this::listen, "dEF-Pi srvManThread-" + ServiceManager.threadCount++);
+            this.managerThread.start();
+        } else {
+            this.managerThread = null;
+        }
+
+        // Add a nice shutdown when the java runtime is killed (e.g. by stopping the docker container)
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close));
+    }
+
+    /**
+     * Receive management messages from the orchestrator on the management socket, until the service is suspended or
+     * terminated
+     */
+    private void listen() {
+        while (this.keepThreadAlive) {
+            byte[] messageArray;
+            try {
+                this.managementSocket.waitUntilConnected(); // block until connected as server
+                messageArray = this.managementSocket.read(ServiceManager.SOCKET_READ_TIMEOUT_MILLIS);
+                if (messageArray == null) {
                     if (this.keepThreadAlive) {
-                        ServiceManager.log.warn("Socket closed while expecting instruction, re-opening it", e);
+                        ServiceManager.log.info("No message received, close thread and wait for new connections");
                         this.managementSocket.close();
                         this.managementSocket = TCPSocket.asServer(ServiceManager.MANAGEMENT_PORT);
                         continue;
                     }
                     break;
                 }
-
-                // Handle the message
-                Message response;
-                try {
-                    final Message msg = this.pbSerializer.deserialize(messageArray);
-                    response = this.handleServiceMessage(msg);
-                } catch (final Exception e) {
-                    ServiceManager.log.error("Exception handling message: {}", e.getMessage());
-                    ServiceManager.log.trace(e.getMessage(), e);
-                    final StringWriter sw = new StringWriter();
-                    final PrintWriter pw = new PrintWriter(sw);
-                    e.printStackTrace(pw);
-                    response = ErrorMessage.newBuilder()
-                            .setProcessId(this.getProcessId())
-                            .setDebugInformation(sw.toString())
-                            .build();
+            } catch (final IOException e) {
+                if (this.keepThreadAlive) {
+                    ServiceManager.log.warn("Socket closed while expecting instruction, re-opening it", e);
+                    this.managementSocket.close();
+                    this.managementSocket = TCPSocket.asServer(ServiceManager.MANAGEMENT_PORT);
+                    continue;
                 }
+                break;
+            }
 
-                byte[] responseArray;
-                try {
-                    responseArray = this.pbSerializer.serialize(response);
-                } catch (final SerializationException e) {
-                    responseArray = "Serialization error in servicemanager".getBytes();
-                    ServiceManager.log
-                            .error("Error during serialization of message type " + response.getClass().getSimpleName());
-                }
+            // Handle the message
+            final byte[] responseArray = this.handleManagementMessage(messageArray, this.managementSocket);
 
-                // Now try to send the response
-                try {
-                    this.managementSocket.send(responseArray);
-                } catch (final IOException e) {
-                    // Socket is closed, we are stopped
-                    if (this.keepThreadAlive) {
-                        ServiceManager.log.warn("Socket closed while sending reply, re-opening it", e);
-                        this.managementSocket.close();
-                        this.managementSocket = TCPSocket.asServer(ServiceManager.MANAGEMENT_PORT);
-                    } else {
-                        break;
-                    }
+            // Now try to send the response
+            try {
+                this.managementSocket.send(responseArray);
+            } catch (final IOException e) {
+                // Socket is closed, we are stopped
+                if (this.keepThreadAlive) {
+                    ServiceManager.log.warn("Socket closed while sending reply, re-opening it", e);
+                    this.managementSocket.close();
+                    this.managementSocket = TCPSocket.asServer(ServiceManager.MANAGEMENT_PORT);
+                } else {
+                    break;
                 }
             }
+        }
 
-            // When we are here keepAlive is set to false, so we can stop gracefully
-            ServiceManager.log.trace("End of thread");
+        // When we are here keepAlive is set to false, so we can stop gracefully
+        ServiceManager.log.trace("End of thread");
 
+        this.connectionManager.close();
+        this.managementSocket.close();
+        this.stoppedLatch.countDown();
+    }
+
+    @Override
+    public byte[] handleManagementMessage(final byte[] messageArray, final TCPSocket socket) {
+        Message response;
+        try {
+            final Message msg = this.pbSerializer.deserialize(messageArray);
+            if ((msg instanceof ResumeProcessMessage) && ((ResumeProcessMessage) msg).getStateFollows()) {
+                // Closing the stream reads the chunks we did not use, also when we are unable to resume
+                try (final ChunkInputStream state = new ChunkInputStream(socket,
+                        ServiceManager.SOCKET_READ_TIMEOUT_MILLIS)) {
+                    response = this.handleServiceMessage(msg, socket, state);
+                }
+            } else {
+                response = this.handleServiceMessage(msg, socket, null);
+            }
+        } catch (final Exception e) {
+            ServiceManager.log.error("Exception handling message: {}", e.getMessage());
+            ServiceManager.log.trace(e.getMessage(), e);
+            final StringWriter sw = new StringWriter();
+            final PrintWriter pw = new PrintWriter(sw);
+            e.printStackTrace(pw);
+            response = ErrorMessage.newBuilder()
+                    .setProcessId(this.getProcessId())
+                    .setDebugInformation(sw.toString())
+                    .build();
+        }
+
+        if ((this.managerThread == null) && !this.keepThreadAlive) {
+            // Nobody listens for us, so we are stopped as soon as the service is suspended or terminated
             this.connectionManager.close();
-            this.managementSocket.close();
-        }, "dEF-Pi srvManThread-" + ServiceManager.threadCount++);
-        this.managerThread.start();
+            this.stoppedLatch.countDown();
+        }
 
-        // Add a nice shutdown when the java runtime is killed (e.g. by stopping the docker container)
-        Runtime.getRuntime().addShutdownHook(new Thread(this::close));
+        try {
+            return this.pbSerializer.serialize(response);
+        } catch (final SerializationException e) {
+            ServiceManager.log
+                    .error("Error during serialization of message type " + response.getClass().getSimpleName());
+            return "Serialization error in servicemanager".getBytes();
+        }
+    }
+
+    @Override
+    public boolean hasConnection(final String connectionId) {
+        return this.connectionManager.hasConnection(connectionId);
+    }
+
+    @Override
+    public boolean canCreateConnection(final String receiveHash, final String sendHash) {
+        return ConnectionManager.canCreateConnection(receiveHash, sendHash);
+    }
+
+    @Override
+    public boolean isStopped() {
+        return this.stoppedLatch.getCount() == 0;
     }
 
     /**
@@ -268,7 +336,14 @@ final class ServiceManager<T> implements Closeable {
      * for the message handler thread to finish. i.e. wait until a nice terminate message has arrived.
      */
     void join() {
-        if ((this.managerThread != null) && this.managerThread.isAlive()) {
+        if (this.managerThread == null) {
+            try {
+                ServiceManager.log.info("Waiting for hosted service to stop...");
+                this.stoppedLatch.await();
+            } catch (final InterruptedException e) {
+                ServiceManager.log.info("Interuption exception received, stopping...");
+            }
+        } else if (this.managerThread.isAlive()) {
             try {
                 ServiceManager.log.info("Waiting for service thread to stop...");
                 this.managerThread.join();
@@ -293,12 +368,15 @@ final class ServiceManager<T> implements Closeable {
         // This is also done by the end of the management thread, but that is okay
         this.connectionManager.close();
         this.serviceExecutor.shutDown();
+        this.stoppedLatch.countDown();
 
         this.join();
     }
 
     /**
      * @param msg The message that intends to change the state of the service
+     * @param socket The management socket the message was received on
+     * @param state The stream of chunks with the state that follows the message, or null if it has no such state
      * @throws IOException A generic error when the message is not valid
      * @throws ServiceInvocationException If the message contains an unknown service, or contains fields we cannot
      *             handle
@@ -308,7 +386,8 @@ final class ServiceManager<T> implements Closeable {
      * @throws ExecutionException If an exception occurred while updating the service
      * @throws InterruptedException If the thread was interrupted before we were able to finish
      */
-    private Message handleServiceMessage(final Message msg) throws ServiceInvocationException,
+    private Message handleServiceMessage(final Message msg, final TCPSocket socket, final InputStream state)
+            throws ServiceInvocationException,
             ConnectionModificationException,
             SerializationException,
             InterruptedException,
@@ -316,13 +395,19 @@ final class ServiceManager<T> implements Closeable {
             TimeoutException,
             IOException {
 
-        if (this.managedService == null) {
+        if (msg instanceof MetricsRequestMessage) {
+            // Metrics are available whether the user service is instantiated or not
+            return MetricsSnapshotMessage.newBuilder()
+                    .setProcessId(this.getProcessId())
+                    .addAllConnections(this.connectionManager.getMetrics())
+                    .build();
+        } else if (this.managedService == null) {
             throw new ServiceInvocationException(
                     "User service has not instantiated yet, perhaps there is a problem in the constructor");
         } else if (msg instanceof GoToProcessStateMessage) {
-            return this.handleGoToProcessStateMessage((GoToProcessStateMessage) msg);
+            return this.handleGoToProcessStateMessage((GoToProcessStateMessage) msg, socket);
         } else if (msg instanceof ResumeProcessMessage) {
-            return this.handleResumeProcessMessage((ResumeProcessMessage) msg);
+            return this.handleResumeProcessMessage((ResumeProcessMessage) msg, state);
         } else if (msg instanceof SetConfigMessage) {
             return this.handleSetConfigMessage((SetConfigMessage) msg);
         } else if (msg instanceof ConnectionMessage) {
@@ -334,19 +419,22 @@ final class ServiceManager<T> implements Closeable {
 
     /**
      * @param message The message that intends to change the state of the service
+     * @param socket The management socket to send the state on, if the orchestrator asks for it in chunks
      * @throws ServiceInvocationException If the message contains an unknown service, or contains fields we cannot
      *             handle
      * @throws TimeoutException If the operation is unable to finish within @value {@link #SERVICE_IMPL_TIMEOUT_MILLIS}
      * @throws ExecutionException If an exception occurred while updating the service
      * @throws InterruptedException If the thread was interrupted before we were able to finish
+     * @throws IOException If the state could not be sent
      *
      */
-    private Message handleGoToProcessStateMessage(final GoToProcessStateMessage message)
+    private Message handleGoToProcessStateMessage(final GoToProcessStateMessage message, final TCPSocket socket)
             throws ServiceInvocationException,
             SerializationException,
             InterruptedException,
             ExecutionException,
-            TimeoutException {
+            TimeoutException,
+            IOException {
         if ((this.defPiParams.getProcessId() != null)
                 && !message.getProcessId().equals(this.defPiParams.getProcessId())) {
             throw new ServiceInvocationException(
@@ -373,7 +461,23 @@ final class ServiceManager<T> implements Closeable {
                     TimeUnit.MILLISECONDS);
             this.keepThreadAlive = false;
 
-            return this.createProcessStateUpdateMessage(ProcessState.SUSPENDED, this.javaIoSerializer.serialize(state));
+            if (message.getStreamState()) {
+                // Compress the state while serializing it, and send it in chunks before the response
+                final ChunkOutputStream stateStream = new ChunkOutputStream(socket);
+                try {
+                    this.javaIoSerializer.serializeCompressed(state, stateStream);
+                } catch (final SerializationException e) {
+                    stateStream.abort();
+                    throw e;
+                }
+                stateStream.close();
+                return this.createProcessStateUpdateMessage(ProcessState.SUSPENDED);
+            }
+
+            // The orchestrator expects the state in the response, compress it straight into the buffer it will use
+            final ByteString.Output stateData = ByteString.newOutput();
+            this.javaIoSerializer.serializeCompressed(state, stateData);
+            return this.createProcessStateUpdateMessage(ProcessState.SUSPENDED, stateData.toByteString());
         case TERMINATED:
             this.terminateManagedService();
 
@@ -400,13 +504,15 @@ final class ServiceManager<T> implements Closeable {
 
     /**
      * @param msg The message that intends to change the state of the service
+     * @param stateStream The stream of chunks with the state to resume from, or null if the state is in the message
      * @throws ServiceInvocationException If the message contains an unknown service, or contains fields we cannot
      *             handle
      * @throws TimeoutException If the operation is unable to finish within @value {@link #SERVICE_IMPL_TIMEOUT_MILLIS}
      * @throws ExecutionException If an exception occurred while updating the service
      * @throws InterruptedException If the thread was interrupted before we were able to finish
      */
-    private Message handleResumeProcessMessage(final ResumeProcessMessage msg) throws ServiceInvocationException,
+    private Message handleResumeProcessMessage(final ResumeProcessMessage msg, final InputStream stateStream)
+            throws ServiceInvocationException,
             SerializationException,
             InterruptedException,
             ExecutionException,
@@ -416,8 +522,14 @@ final class ServiceManager<T> implements Closeable {
             throw new ServiceInvocationException("Received message for unexpected process id " + msg.getProcessId());
         }
 
-        final Serializable state = msg.getStateData().isEmpty() ? null
-                : this.javaIoSerializer.deserialize(msg.getStateData().toByteArray());
+        final Serializable state;
+        if (stateStream != null) {
+            state = this.javaIoSerializer.deserializeCompressed(stateStream);
+        } else if (msg.getStateData().isEmpty()) {
+            state = null;
+        } else {
+            state = this.javaIoSerializer.deserializeCompressed(msg.getStateData().newInput());
+        }
         final Future<ProcessStateUpdateMessage> future = this.serviceExecutor.submit(() -> {
             this.managedService.resumeFrom(state);
             return this.createProcessStateUpdateMessage(ProcessState.RUNNING);
@@ -472,41 +584,35 @@ final class ServiceManager<T> implements Closeable {
     }
 
     /**
+     * @param env The environment variables of the process
      * @return The parameters of this dEF-Pi process, as taken from the environment variables
      */
-    private static DefPiParameters generateDefPiParameters() {
+    private static DefPiParameters generateDefPiParameters(final Map<String, String> env) {
         int orchestratorPort = 0;
         try {
-            orchestratorPort = Integer
-                    .parseInt(System.getenv().getOrDefault(DefPiParams.ORCHESTRATOR_PORT.name(), "0"));
+            orchestratorPort = Integer.parseInt(env.getOrDefault(DefPiParams.ORCHESTRATOR_PORT.name(), "0"));
         } catch (final NumberFormatException e) {
             // 0 is the default value
         }
-        return new DefPiParameters(System.getenv().getOrDefault(DefPiParams.ORCHESTRATOR_HOST.name(), null),
+        return new DefPiParameters(env.getOrDefault(DefPiParams.ORCHESTRATOR_HOST.name(), null),
                 orchestratorPort,
-                System.getenv().getOrDefault(DefPiParams.ORCHESTRATOR_TOKEN.name(), null),
-                System.getenv().getOrDefault(DefPiParams.PROCESS_ID.name(), null),
-                System.getenv().getOrDefault(DefPiParams.USER_ID.name(), null),
-                System.getenv().getOrDefault(DefPiParams.USER_NAME.name(), null),
-                System.getenv().getOrDefault(DefPiParams.USER_EMAIL.name(), null));
+                env.getOrDefault(DefPiParams.ORCHESTRATOR_TOKEN.name(), null),
+                env.getOrDefault(DefPiParams.PROCESS_ID.name(), null),
+                env.getOrDefault(DefPiParams.USER_ID.name(), null),
+                env.getOrDefault(DefPiParams.USER_NAME.name(), null),
+                env.getOrDefault(DefPiParams.USER_EMAIL.name(), null));
     }
 
     private ProcessStateUpdateMessage createProcessStateUpdateMessage(final ProcessState processState) {
-        return this.createProcessStateUpdateMessage(processState, null);
+        return this.createProcessStateUpdateMessage(processState, ByteString.EMPTY);
     }
 
     private ProcessStateUpdateMessage createProcessStateUpdateMessage(final ProcessState processState,
-            final byte[] data) {
-        ByteString byteString;
-        if ((data == null) || (data.length == 0)) {
-            byteString = ByteString.EMPTY;
-        } else {
-            byteString = ByteString.copyFrom(data);
-        }
+            final ByteString data) {
         return ProcessStateUpdateMessage.newBuilder()
                 .setProcessId(this.getProcessId())
                 .setState(processState)
-                .setStateData(byteString)
+                .setStateData(data)
                 .build();
     }
 
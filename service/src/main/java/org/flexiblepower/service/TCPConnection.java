@@ -19,31 +19,72 @@
  */
 package org.flexiblepower.service;
 
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.activation.UnsupportedDataTypeException;
 
+import org.flexiblepower.commons.FrameListener;
+import org.flexiblepower.commons.FrameSocket;
+import org.flexiblepower.commons.LocalSocket;
+import org.flexiblepower.commons.ObjectListener;
+import org.flexiblepower.commons.PooledFrame;
+import org.flexiblepower.commons.PooledFrameListener;
+import org.flexiblepower.commons.SharedMemorySocket;
+import org.flexiblepower.commons.SocketEngine;
+import org.flexiblepower.commons.StreamFrame;
 import org.flexiblepower.commons.TCPSocket;
+import org.flexiblepower.compression.CompressionCodec;
 import org.flexiblepower.exceptions.SerializationException;
 import org.flexiblepower.proto.ConnectionProto.ConnectionState;
 import org.flexiblepower.serializers.MessageSerializer;
+import org.flexiblepower.serializers.ProtobufMessageSerializer;
+import org.flexiblepower.service.exceptions.FlowControlException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * The TCPConnection implements the Connection interface with a TCPSocket as the underlying mechanism to send and
  * receive the raw byte arrays. It utilizes a {@link HeartBeatMonitor} and a {@link HandShakeMonitor} to ensure the
- * health status of the connection.
+ * health status of the connection. Incoming data is read by the shared {@link SocketEngine}, which delivers it to the
+ * connection by callback.
+ * <p>
+ * When the orchestrator indicates that both endpoints run on the same host, a {@link SharedMemorySocket} is used
+ * instead of the TCPSocket. When the remote process is hosted in the same JVM, a {@link LocalSocket} is used, which
+ * hands over message objects without serializing them if both sides share the message classes. The states, handshake
+ * and heartbeat of the connection are the same for all of them.
+ * <p>
+ * When the connection is interrupted and re-established with the same remote endpoint, the session is resumed: the
+ * frames that the remote side did not receive are resent from the {@link ReplayBuffer}, so nothing that was in flight
+ * is lost.
+ * <p>
+ * A connection does not have threads of its own. Timed tasks like heartbeats, handshake timeouts and reconnect attempts
+ * are run by the shared {@link HashedWheelTimer}, and reading messages from the queue, writing sent messages and
+ * setting up the socket are done by tasks on a thread pool that is shared by all connections. The number of threads
+ * therefore does not grow with the number of connections.
  *
  * @version 0.1
  * @since May 12, 2017
@@ -59,22 +100,98 @@ final class TCPConnection implements Connection, Closeable {
      */
     private static int threadCounter;
 
-    private final ServiceExecutor serviceExecutor = ServiceExecutor.getInstance();
+    /**
+     * The connection executor is the pool of threads that is shared by all connections, and runs the tasks to set up
+     * sockets, and to read and write their messages. Threads are only created when all others are busy.
+     */
+    protected static final ExecutorService connectionExecutor = Executors.newCachedThreadPool(r -> {
+        final Thread t = new Thread(r, "dEF-Pi connThread" + TCPConnection.threadCounter++);
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * The default minimum size of a frame in bytes for it to be compressed
+     */
+    static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+
+    /**
+     * The smallest maximum frame size that can be configured, so the fragments and chunks of the remote side always fit
+     */
+    static final int MIN_MAX_FRAME_SIZE = 2 * FragmentFrame.DEFAULT_FRAGMENT_SIZE;
+
+    /**
+     * The number of messages a connection is willing to receive before they are handled, and thus the maximum number
+     * of messages in the inbound queue
+     */
+    static final int RECEIVE_WINDOW = 1024;
+
+    /**
+     * The maximum number of messages that are waiting to be written
+     */
+    static final int SEND_QUEUE_CAPACITY = 1024;
+
+    /**
+     * The maximum number of sent frames that are kept until the remote side acknowledges them
+     */
+    static final int REPLAY_WINDOW = 1024;
+
+    /**
+     * The maximum total size of the sent frames that are kept until the remote side acknowledges them
+     */
+    static final long REPLAY_BUFFER_BYTES = 16 * 1024 * 1024;
+
+    /**
+     * The time after which received frames are acknowledged, if not enough frames were received to acknowledge them
+     * right away
+     */
+    static final long ACK_DELAY_MILLIS = 100;
+
+    /**
+     * The time the remote side has to finish the handshake after the socket is connected, before the socket is closed
+     * and set up again
+     */
+    static final long HANDSHAKE_TIMEOUT_MILLIS = 10000;
+
+    /**
+     * The time to wait before retrying to set up the socket after the first failed attempt. It doubles with every next
+     * failed attempt, up to {@link #MAX_RECONNECT_BACKOFF_MILLIS}
+     */
+    static final long MIN_RECONNECT_BACKOFF_MILLIS = 100;
+
+    /**
+     * The maximum time to wait before retrying to set up the socket
+     */
+    static final long MAX_RECONNECT_BACKOFF_MILLIS = 10000;
+
+    private final ServiceExecutor.OrderedExecutor serviceExecutor = ServiceExecutor.getInstance().newOrderedExecutor();
     private final SocketReader socketReader = new SocketReader();
+    private final MessageCoalescer coalescer = new MessageCoalescer();
+    private final FlowControl flowControl = new FlowControl();
+    private final StreamCredits streamCredits = new StreamCredits();
+    private final AtomicBoolean ackScheduled = new AtomicBoolean(false);
     private final MessageSerializer<Object> userMessageSerializer;
     private final InterfaceInfo info;
 
     /**
-     * The connection executor is the pool of threads that will run the different services to keep a connection alive,
-     * and read its messages
+     * A runnable object that will make sure the messages in the queue are given to the responsible ConnectionHandler
      */
-    protected final ExecutorService connectionExecutor = Executors
-            .newCachedThreadPool(r -> new Thread(r, "dEF-Pi connThread" + TCPConnection.threadCounter++));
+    protected final MessageQueue messageQueue = new MessageQueue();
 
     /**
-     * A runnable object that will make sure the messages in the queue are given to the responsible ConnectionHandler
+     * A runnable object that writes the messages that are sent, so the sender does not have to wait for the network
      */
-    protected final MessageQueue messageQueue = new MessageQueue();
+    protected final MessageWriter messageWriter = new MessageWriter();
+
+    /**
+     * The buffer that keeps the sent frames until they are acknowledged, so they can be resent after an interruption
+     */
+    protected final ReplayBuffer replayBuffer;
+
+    /**
+     * The counters and latency histograms of this connection, which are published while the connection is open
+     */
+    protected final ConnectionMetrics metrics;
 
     /**
      * A wait/lock object to make sure various functions in the Connection will wait until the connection is
@@ -92,6 +209,11 @@ final class TCPConnection implements Connection, Closeable {
      */
     private ConnectionHandler serviceHandler;
 
+    /**
+     * The table of handler methods of the ConnectionHandler, set before the handler itself
+     */
+    private volatile MessageDispatcher dispatcher;
+
     /**
      * The port to listen or target remotely (depending on if {@link #targetAddress} is set
      */
@@ -102,11 +224,16 @@ final class TCPConnection implements Connection, Closeable {
      */
     protected String targetAddress;
 
+    /**
+     * The directory that contains the shared memory ring buffers, or an empty string when a TCPSocket is used
+     */
+    protected String sharedMemoryPath;
+
     /**
      * The socket that provides the underlying message carrying mechanism. This may be closed and reinitialized as the
      * Connection is interrupted, suspended, or any transient intermediate state
      */
-    protected volatile TCPSocket socket;
+    protected volatile FrameSocket socket;
 
     /**
      * The heartbeat monitor is an external object that periodically checks if the connection is still healthy.
@@ -119,7 +246,16 @@ final class TCPConnection implements Connection, Closeable {
      */
     protected HandShakeMonitor handShakeMonitor;
 
+    private final PriorityLanes lanes = new PriorityLanes();
     private volatile ConnectionState state;
+    private volatile int compressionThreshold = TCPConnection.DEFAULT_COMPRESSION_THRESHOLD;
+    private volatile int maxFrameSize = FrameSocket.DEFAULT_MAX_FRAME_SIZE;
+    private volatile MessageStream inboundStream;
+    private volatile List<String> remoteTypeNames = Collections.emptyList();
+    private volatile long heartBeatPeriodNanos = TimeUnit.MILLISECONDS
+            .toNanos(HeartBeatMonitor.DEFAULT_HEARTBEAT_PERIOD_MILLIS);
+    private volatile int maxMissedHeartBeats = HeartBeatMonitor.DEFAULT_MAX_MISSED_HEARTBEATS;
+    private long smoothedRoundTripNanos = -1;
     private final String remoteProcessId;
     private final String remoteServiceId;
     private final String remoteInterfaceId;
@@ -135,10 +271,34 @@ final class TCPConnection implements Connection, Closeable {
      * @param remoteServiceId The service ID of the remote process as specified by the orchestrator
      * @param remoteInterfaceId The interface ID of the remote service
      */
+    TCPConnection(final String connectionId,
+            final int port,
+            final String targetAddress,
+            final InterfaceInfo info,
+            final String remoteProcessId,
+            final String remoteServiceId,
+            final String remoteInterfaceId) {
+        this(connectionId, port, targetAddress, "", info, remoteProcessId, remoteServiceId, remoteInterfaceId);
+    }
+
+    /**
+     * @param connectionId The unique id if this connection, as specified by the orchestrator
+     * @param port the TCP port to attach to when this endpoint will act as server, or the remote address to
+     *            connect to.
+     * @param targetAddress The host name of the remote endpoint to connect to when this endpoint should act as a
+     *            client, or an empty string when it should act as a server.
+     * @param sharedMemoryPath The directory in which the ring buffers are shared with the remote endpoint, or an empty
+     *            string when the endpoints should connect over TCP.
+     * @param info the InterfaceInfo the appropriate ConnectionHandler is annotated with.
+     * @param remoteProcessId The process ID of the remote endpoint as specified by the orchestrator
+     * @param remoteServiceId The service ID of the remote process as specified by the orchestrator
+     * @param remoteInterfaceId The interface ID of the remote service
+     */
     @SuppressWarnings("unchecked")
     TCPConnection(final String connectionId,
             final int port,
             final String targetAddress,
+            final String sharedMemoryPath,
             final InterfaceInfo info,
             final String remoteProcessId,
             final String remoteServiceId,
@@ -147,10 +307,19 @@ final class TCPConnection implements Connection, Closeable {
         this.connectionId = connectionId;
         this.port = port;
         this.targetAddress = targetAddress;
+        this.sharedMemoryPath = sharedMemoryPath;
         this.info = info;
         this.remoteProcessId = remoteProcessId;
         this.remoteServiceId = remoteServiceId;
         this.remoteInterfaceId = remoteInterfaceId;
+        this.replayBuffer = new ReplayBuffer(connectionId,
+                TCPConnection.REPLAY_WINDOW,
+                TCPConnection.REPLAY_BUFFER_BYTES);
+        this.metrics = new ConnectionMetrics(connectionId,
+                targetAddress.isEmpty(),
+                this.messageWriter.outboundQueue::size,
+                this.flowControl.queued::get);
+        this.metrics.register();
 
         // Add serializer to the connection for user-defined messages
         try {
@@ -163,8 +332,7 @@ final class TCPConnection implements Connection, Closeable {
         Arrays.asList(info.sendTypes()).forEach(this.userMessageSerializer::addMessageClass);
         Arrays.asList(info.receiveTypes()).forEach(this.userMessageSerializer::addMessageClass);
 
-        this.connectionExecutor.submit(this.messageQueue);
-        this.connectionExecutor.submit(this.socketReader);
+        TCPConnection.connectionExecutor.submit(this.socketReader);
     }
 
     @Override
@@ -180,7 +348,12 @@ final class TCPConnection implements Connection, Closeable {
 
     /**
      * {@inheritDoc}
+     * <p>
+     * The message is written by the writer of this connection, and this function waits until it is written. When the
+     * remote side has not granted the credits to send it, or the outbound queue is full, this function waits or fails
+     * according to the {@link FlowControlPolicy}, in the thread of the caller.
      *
+     * @throws FlowControlException when the message could not be sent in time according to the policy
      * @throws ClosedChannelException when the state is not connected.
      * @throws UnsupportedDataTypeException when the type of object is not registered with the serializer or if the
      *             serialization fails
@@ -194,247 +367,813 @@ final class TCPConnection implements Connection, Closeable {
             return;
         }
 
-        if (!this.isConnected()) {
-            TCPConnection.log.warn("[{}] - Unable to send when connection state is {}!", this.connectionId, this.state);
-            throw new ClosedChannelException();
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        if (this.checkSendable(message, future)) {
+            this.awaitWritten(new OutboundMessage(message, null, future), "message");
+        } else {
+            TCPConnection.awaitFuture(future, "message");
         }
+    }
 
-        if (!Arrays.asList(this.info.sendTypes()).contains(message.getClass())) {
-            throw new UnsupportedDataTypeException("The message type " + message.getClass().getName()
-                    + " was not registered to be sent with this interface.");
+    /**
+     * Add a message to the outbound queue, and wait until it is written, or fail according to the flow control policy
+     * when it cannot be written in time. The waiting is done by the caller, so no thread of the connection executor is
+     * held while the remote side is not receiving.
+     *
+     * @param msg the message to write
+     * @param what a description of the message for the exceptions
+     * @throws FlowControlException when the message could not be written in time according to the policy
+     * @throws IOException when the message could not be written
+     */
+    private void awaitWritten(final OutboundMessage msg, final String what) throws IOException {
+        final FlowControlPolicy policy = this.flowControl.getPolicy();
+        final long timeoutNanos = policy == FlowControlPolicy.TIMEOUT ? this.flowControl.getTimeoutNanos() : 0;
+        if ((policy == FlowControlPolicy.FAIL_FAST) && !this.flowControl.hasCredits()) {
+            throw new FlowControlException("Remote side of connection " + this.connectionId + " is not receiving");
         }
 
-        final byte[] data;
-        try {
-            synchronized (this.userMessageSerializer) {
-                data = this.userMessageSerializer.serialize(message);
+        final long deadline = System.nanoTime() + timeoutNanos;
+        msg.creditWaitNanos = policy == FlowControlPolicy.BLOCK ? -1 : timeoutNanos;
+        this.messageWriter.addMessage(msg, msg.creditWaitNanos);
+        if (policy == FlowControlPolicy.TIMEOUT) {
+            try {
+                msg.future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                return;
+            } catch (final TimeoutException e) {
+                // Only give up when the writer did not take it yet, otherwise it is being written
+                if (this.messageWriter.withdraw(msg)) {
+                    throw new FlowControlException(
+                            "Remote side of connection " + this.connectionId + " is not receiving");
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while sending " + what);
+            } catch (final ExecutionException e) {
+                throw TCPConnection.sendFailure(e, what);
             }
-        } catch (final SerializationException e) {
-            TCPConnection.log
-                    .error("[{}] - Error while serializing message, not sending message.", this.connectionId, e);
-            throw new UnsupportedDataTypeException("Error serializing message: " + e.getMessage());
         }
+        TCPConnection.awaitFuture(msg.future, what);
+    }
 
+    private static void awaitFuture(final CompletableFuture<Void> future, final String what) throws IOException {
         try {
-            this.socket.send(data);
-        } catch (final IOException e) {
-            TCPConnection.log.warn("[{}] - Failed to send message through socket, goto {}",
-                    this.connectionId,
-                    ConnectionState.INTERRUPTED);
-            this.goToInterruptedState();
-            throw e;
+            future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while sending " + what);
+        } catch (final ExecutionException e) {
+            throw TCPConnection.sendFailure(e, what);
         }
     }
 
-    @Override
-    public String remoteProcessId() {
-        return this.remoteProcessId;
+    private static IOException sendFailure(final ExecutionException e, final String what) {
+        if (e.getCause() instanceof IOException) {
+            return (IOException) e.getCause();
+        }
+        return new IOException("Unable to send " + what + ": " + e.getCause().getMessage(), e.getCause());
     }
 
     @Override
-    public String remoteServiceId() {
-        return this.remoteServiceId;
+    public CompletableFuture<Void> sendAsync(final Object message) {
+        if (message == null) {
+            TCPConnection.log.warn("[{}] - SendAsync(Object message) method was called with null message, ignoring...",
+                    this.connectionId);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return this.enqueue(message, null);
     }
 
-    @Override
-    public String remoteInterfaceId() {
-        return this.remoteInterfaceId;
+    /**
+     * Send a message that was already serialized, for instance because it is sent to more connections with the same
+     * interface. Like {@link #sendAsync(Object)}, this does not wait for the message to be written.
+     *
+     * @param message the message to send
+     * @param serialized the serialized message, which must not be modified afterwards
+     * @return a future that completes when the message is written
+     * @see #serialize(Object)
+     */
+    CompletableFuture<Void> sendSerialized(final Object message, final byte[] serialized) {
+        return this.enqueue(message, serialized);
     }
 
     /**
-     * When a new byte array is read by the underlying TCPSocket, this function is called to make sure the appropriate
-     * handler function is called by the user object implementing the ConnectionHandler.
-     * <p>
-     * If this function is called before the connection is instantiated (for instance because the remote side sent a
-     * message before the handshake was confirmed, this function will block untill the connection is established.
+     * Serialize a message with the serializer of this connection
      *
-     * @param msg the byte array that was received by the underlying transport socket.
+     * @param message the message to serialize
+     * @return the serialized message
+     * @throws SerializationException when the message could not be serialized
      */
-    void handleMessage(final byte[] msg) {
-        // It can only be a user-defined process message!
-        try {
-            synchronized (this.connectionLock) {
-                if (this.serviceHandler == null) {
-                    try {
-                        TCPConnection.log.warn("[{}] - Received message {} before connection is established. Hold...",
-                                this.connectionId,
-                                new String(msg).replaceAll("\0", "\\0"));
-                        this.connectionLock.wait();
-                        TCPConnection.log.trace("[{}] - continue...", this.connectionId);
-                    } catch (final InterruptedException e) {
-                        TCPConnection.log.trace(e.getMessage(), e);
-                    }
-                }
-            }
+    byte[] serialize(final Object message) throws SerializationException {
+        final long start = System.nanoTime();
+        // Serializers are safe for concurrent use, so this may run in parallel with receiving
+        final byte[] data = this.userMessageSerializer.serialize(message);
+        this.metrics.record(ConnectionMetrics.Stage.SERIALIZE, message.getClass(), System.nanoTime() - start);
+        return data;
+    }
 
-            final Object message;
-            synchronized (this.userMessageSerializer) {
-                message = this.userMessageSerializer.deserialize(msg);
-            }
-
-            final Class<?> messageType = message.getClass();
-            final Method[] allMethods = this.serviceHandler.getClass().getMethods();
-            for (final Method method : allMethods) {
-                if ((method.getName().startsWith("handle")) && (method.getName().endsWith("Message"))
-                        && (method.getParameterCount() == 1) && method.getParameterTypes()[0].equals(messageType)) {
-                    this.serviceExecutor.submit(() -> {
-                        try {
-                            method.invoke(this.serviceHandler, message);
-                        } catch (IllegalAccessException | IllegalArgumentException e) {
-                            TCPConnection.log.error("[{}] - Message handling method is not properly formatted",
-                                    this.connectionId,
-                                    e);
-                        } catch (final InvocationTargetException e) {
-                            TCPConnection.log.error("[{}] - Exception while invoking {} ({})",
-                                    this.connectionId,
-                                    method.getName(),
-                                    messageType.getSimpleName(),
-                                    e.getTargetException());
-                        }
-                    });
-                    return;
-                }
-            }
-            TCPConnection.log.error("[{}] - Unable to find handler method for message of type {}",
-                    messageType.getSimpleName());
-        } catch (final SerializationException e) {
-            // Not a user-defined message, so ignore with grace!
-            TCPConnection.log
-                    .warn("[{}] - Received unknown message: {}. Ignoring...", this.connectionId, new String(msg));
-        }
+    /**
+     * @return the description of the interface of this connection
+     */
+    InterfaceInfo getInterfaceInfo() {
+        return this.info;
     }
 
-    private void releaseWaitLock() {
-        synchronized (this.connectionLock) {
-            this.connectionLock.notifyAll();
-        }
+    /**
+     * @return an object that is equal for connections that serialize messages to the same bytes, because they have the
+     *         same interface, and their remote sides use the same ids for the message types
+     */
+    Object serializationKey() {
+        return Arrays.asList(this.info, this.remoteTypeNames);
     }
 
     /**
-     * Calling this function will wait until the Connection successfully connected, it is closed in another
-     * thread, or an InterruptedException occurs. If the connection was already established finished, calling this
-     * function will do nothing.
-     *
-     * @throws InterruptedException when the wait functions was interrupted while waiting to finish
-     * @throws IOException When after the connection succeeded, the for some reason it was closed immediately before it
-     *             was returned
+     * @return the names of the message types the remote side may identify with compact ids, which is empty if the
+     *         serializer does not support them
      */
-    void waitUntilConnected() throws InterruptedException, IOException {
-        if (this.isConnected()) {
-            return;
+    List<String> localTypeNames() {
+        final MessageSerializer<?> serializer = this.userMessageSerializer;
+        if (serializer instanceof ProtobufMessageSerializer) {
+            return ((ProtobufMessageSerializer) serializer).getTypeNames();
         }
+        return Collections.emptyList();
+    }
 
-        synchronized (this.connectionLock) {
-            this.connectionLock.wait();
+    /**
+     * Write the compact ids of the message types the remote side announced in its handshake
+     *
+     * @param remoteNames the names of the message types the remote side accepts ids for
+     */
+    private void useRemoteTypeNames(final List<String> remoteNames) {
+        final MessageSerializer<?> serializer = this.userMessageSerializer;
+        if (serializer instanceof ProtobufMessageSerializer) {
+            ((ProtobufMessageSerializer) serializer).setRemoteTypeNames(remoteNames);
+            this.remoteTypeNames = remoteNames;
         }
+    }
 
+    @Override
+    public void sendStream(final InputStream data) throws IOException {
+        final CompletableFuture<Void> future = new CompletableFuture<>();
         if (!this.isConnected()) {
+            TCPConnection.log.warn("[{}] - Unable to send when connection state is {}!", this.connectionId, this.state);
             throw new ClosedChannelException();
         }
+
+        // Like any message, the stream is written by the writer, in order
+        this.awaitWritten(new OutboundMessage(data, null, future, true), "stream");
     }
 
     /**
-     * Go to the {@link ConnectionState#CONNECTED} state. This is should be done when the HandShakeMonitor detects that
-     * the remote side of the connection is also up an running. If this is the first time the connection is connected,
-     * we can instantiate the appropriate ConnectionHandler from user code.
-     * <p>
-     * When the connection was already in the {@link ConnectionState#CONNECTED} state, nothing happens. Otherwise the
-     * appropriate connection handler function is triggered, and the wait lock is released.
+     * Add a message to the outbound queue without waiting, so the writer of this connection will send it. The future
+     * fails right away when the queue is full, or when the remote side has not granted any credits and the policy is
+     * {@link FlowControlPolicy#FAIL_FAST}. With the other policies the message waits in the queue for credits, with
+     * {@link FlowControlPolicy#TIMEOUT} for at most the timeout.
      *
-     * @see #goToResumedState(int, String)
+     * @param message the message to send
+     * @param serialized the serialized message, or null if the writer should serialize it
+     * @return a future that completes when the message is written
      */
-    void goToConnectedState() {
-        TCPConnection.log.info("[{}] - Going from {} to {}", this.connectionId, this.state, ConnectionState.CONNECTED);
-        final ConnectionState previousState = this.state;
-        this.state = ConnectionState.CONNECTED;
-
-        switch (previousState) {
-        case CONNECTED:
-            TCPConnection.log.debug("[{}] - Ignoring goToConnected, already connected...", this.connectionId);
-            return;
-        case STARTING:
-            this.serviceExecutor.submit(() -> {
-                this.serviceHandler = ConnectionManager.buildHandlerForConnection(this, this.info);
-                // this.releaseWaitLock();
-            });
-            break;
-        case INTERRUPTED:
-            this.serviceExecutor.submit(this.serviceHandler::resumeAfterInterrupt);
-            break;
-        case SUSPENDED:
-            this.serviceExecutor.submit(this.serviceHandler::resumeAfterSuspend);
-            break;
-        case TERMINATED:
-        default:
-            TCPConnection.log.error("[{}] - Unexpected previous state: {}", this.connectionId, this.state);
+    private CompletableFuture<Void> enqueue(final Object message, final byte[] serialized) {
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        final FlowControlPolicy policy = this.flowControl.getPolicy();
+        if (!this.checkSendable(message, future)) {
+            return future;
+        } else if ((policy == FlowControlPolicy.FAIL_FAST) && !this.flowControl.hasCredits()) {
+            future.completeExceptionally(
+                    new FlowControlException("Remote side of connection " + this.connectionId + " is not receiving"));
+        } else {
+            final OutboundMessage msg = new OutboundMessage(message, serialized, future);
+            msg.creditWaitNanos = policy == FlowControlPolicy.BLOCK ? -1
+                    : policy == FlowControlPolicy.TIMEOUT ? this.flowControl.getTimeoutNanos() : 0;
+            this.messageWriter.addMessage(msg, 0);
         }
-        // Make sure it runs AFTER user constructor
-        this.serviceExecutor.submit(this::releaseWaitLock);
+        return future;
     }
 
     /**
-     * Go to the {@link ConnectionState#SUSPENDED} state. This is should be done only when the
-     * {@link ConnectionManager} receives a message from the orchestrator that the connection is should be suspended.
-     * When this happens the Connection will temporarily be closed, and will not attempt to reconnect until the
-     * {@link #goToResumedState(int, String)} is called.
-     * <p>
-     * When the connection is already in the {@link ConnectionState#SUSPENDED} state, nothing happens. Otherwise the
-     * heartbeat monitor is stopped, and the connection state will be updated.
+     * Check whether a message can be sent at all, and if not, fail its future
      *
-     * @see #goToResumedState(int, String)
+     * @return whether the connection is connected, and the type of message is registered to be sent
      */
-    void goToSuspendedState() {
+    private boolean checkSendable(final Object message, final CompletableFuture<Void> future) {
         if (!this.isConnected()) {
-            TCPConnection.log.warn("[{}] - Not going to {} state while not connected",
-                    this.connectionId,
-                    ConnectionState.SUSPENDED);
-            return;
+            TCPConnection.log.warn("[{}] - Unable to send when connection state is {}!", this.connectionId, this.state);
+            future.completeExceptionally(new ClosedChannelException());
+            return false;
+        } else if (!Arrays.asList(this.info.sendTypes()).contains(message.getClass())) {
+            future.completeExceptionally(new UnsupportedDataTypeException("The message type "
+                    + message.getClass().getName() + " was not registered to be sent with this interface."));
+            return false;
         }
-
-        // Update the state
-        this.state = ConnectionState.SUSPENDED;
-        this.heartBeatMonitor.stop();
-
-        this.serviceExecutor.submit(this.serviceHandler::onSuspend);
+        return true;
     }
 
     /**
-     * Resume a connection from the {@link ConnectionState#SUSPENDED} state. This is should be done only when the
-     * {@link ConnectionManager} receives a message from the orchestrator that the connection is ready to be resumed.
-     * When this happens the Connection will attempt to reconnect to the remote side.
-     * <p>
-     * When the connection is not {@link ConnectionState#SUSPENDED} state, nothing will happen. Otherwise the connection
-     * details are updated, and the socket is re-established.
+     * Write a message to the socket. This is only called by the writer of this connection, so messages are written in
+     * the order they were sent. The writer has already taken the credit to send it.
      *
-     * @param newListenPort the TCP port to attach to when this endpoint will act as server, or the remote address to
-     *            connect to.
-     * @param newTargetAddress The host name of the remote endpoint to connect to when this endpoint should act as a
-     *            client, or an empty string when it should act as a server.
-     * @see #goToSuspendedState()
+     * @param message the message to write
+     * @param serialized the serialized message, or null if it should be serialized here
+     * @throws ClosedChannelException when the state is not connected.
+     * @throws UnsupportedDataTypeException when the serialization fails
+     * @throws IOException when a low level network exception occurs, and the message can not be resent when the session
+     *             is resumed
      */
-    void goToResumedState(final int newListenPort, final String newTargetAddress) {
-        if (this.state != ConnectionState.SUSPENDED) {
-            TCPConnection.log.warn("[{}] - Unable to resume connection when not in {}",
-                    this.connectionId,
-                    ConnectionState.SUSPENDED);
+    void writeMessage(final Object message, final byte[] serialized) throws IOException {
+        if (!this.isConnected()) {
+            throw new ClosedChannelException();
+        }
+
+        final FrameSocket currentSocket = this.socket;
+        if ((currentSocket instanceof LocalSocket) && this.sendObject((LocalSocket) currentSocket, message)) {
+            this.metrics.messageSent(message.getClass(), 0);
             return;
         }
 
-        this.port = newListenPort;
-        this.targetAddress = newTargetAddress;
+        final byte[] data;
+        try {
+            data = serialized != null ? serialized : this.serialize(message);
+        } catch (final SerializationException e) {
+            TCPConnection.log
+                    .error("[{}] - Error while serializing message, not sending message.", this.connectionId, e);
+            throw new UnsupportedDataTypeException("Error serializing message: " + e.getMessage());
+        }
 
-        // Have the socket reader reinstatiate the socket one
-        this.socket.close();
-        this.socket = null;
+        try {
+            this.coalescer.send(data);
+            this.metrics.messageSent(message.getClass(), data.length);
+        } catch (final IOException e) {
+            TCPConnection.log.warn("[{}] - Failed to send message through socket, goto {}",
+                    this.connectionId,
+                    ConnectionState.INTERRUPTED);
+            this.goToInterruptedState();
+            if (!this.replayBuffer.isEnabled()) {
+                throw e;
+            }
+            // The message was kept, and will be resent when the session is resumed
+        }
     }
 
     /**
-     * Go to the {@link ConnectionState#INTERRUPTED} state. This is typically done when the heartbeat monitor detects a
-     * missed series of responses, or a read or {@link #send(Object)} operation fails. When this happens the Connection
-     * will temporarily be closed, and will automatically attempt to reconnect to the remote side.
-     * <p>
-     * When the connection is not the {@link ConnectionState#CONNECTED} state, nothing will happen. Otherwise the
-     * heartbeat monitor is stopped, and the connection state will be updated.
+     * Try to hand over the message object to a process in the same JVM without serializing it.
+     *
+     * @param localSocket the socket to the process in the same JVM
+     * @param message the message to send
+     * @return whether the message was sent, or false if it should be serialized instead
+     * @throws IOException when the socket is closed
+     */
+    private boolean sendObject(final LocalSocket localSocket, final Object message) throws IOException {
+        try {
+            return this.coalescer.sendObject(localSocket, message);
+        } catch (final IOException e) {
+            TCPConnection.log.warn("[{}] - Failed to send message through local socket, goto {}",
+                    this.connectionId,
+                    ConnectionState.INTERRUPTED);
+            this.goToInterruptedState();
+            throw e;
+        }
+    }
+
+    /**
+     * Write the data of a stream in chunks. This is only called by the writer of this connection, so the chunks are not
+     * interleaved with other messages. For every chunk it waits for a credit from the remote side, so it never gets
+     * more than {@link StreamFrame#WINDOW} chunks ahead of the handler that reads the stream.
+     *
+     * @param data the stream to read the data from
+     * @throws IOException when the state is not connected, the remote side does not accept streams, or the data could
+     *             not be read or written. If the data could not be read, the remote side is told to abort the stream.
+     */
+    void writeStream(final InputStream data) throws IOException {
+        final HandShakeMonitor monitor = this.handShakeMonitor;
+        if (!this.isConnected()) {
+            throw new ClosedChannelException();
+        } else if ((monitor == null) || !monitor.remoteAcceptsStreams()) {
+            throw new UnsupportedDataTypeException("The remote side of connection " + this.connectionId
+                    + " does not accept streams");
+        }
+
+        // The whole stream is one message as far as flow control is concerned, the writer has taken its credit
+        this.streamCredits.start();
+
+        final byte[] buffer = new byte[StreamFrame.CHUNK_SIZE];
+        long bytes = 0;
+        boolean last = false;
+        while (!last) {
+            final int length;
+            try {
+                length = TCPConnection.readChunk(data, buffer);
+            } catch (final IOException e) {
+                TCPConnection.log.warn("[{}] - Unable to read stream, aborting: {}", this.connectionId, e.getMessage());
+                this.writeChunk(StreamFrame.encodeAbort());
+                throw e;
+            }
+
+            last = length < buffer.length;
+            this.streamCredits.acquire();
+            this.writeChunk(StreamFrame.encodeChunk(buffer, length, last));
+            bytes += length;
+        }
+        this.metrics.messageSent(InputStream.class, (int) Math.min(Integer.MAX_VALUE, bytes));
+    }
+
+    /**
+     * Fill the buffer with data from the stream
+     *
+     * @return the number of bytes that were read, which is only less than the length of the buffer at the end of the
+     *         stream
+     */
+    private static int readChunk(final InputStream data, final byte[] buffer) throws IOException {
+        int length = 0;
+        while (length < buffer.length) {
+            final int n = data.read(buffer, length, buffer.length - length);
+            if (n < 0) {
+                break;
+            }
+            length += n;
+        }
+        return length;
+    }
+
+    private void writeChunk(final byte[] chunk) throws IOException {
+        try {
+            this.coalescer.sendUnbatched(chunk);
+        } catch (final IOException e) {
+            TCPConnection.log.warn("[{}] - Failed to send stream through socket, goto {}",
+                    this.connectionId,
+                    ConnectionState.INTERRUPTED);
+            this.goToInterruptedState();
+            if (!this.replayBuffer.isEnabled()) {
+                throw e;
+            }
+            // The chunk was kept, and will be resent when the session is resumed
+        }
+    }
+
+    @Override
+    public void setCoalescing(final long lingerTime, final TimeUnit unit, final int maxBatchSize) {
+        this.coalescer.configure(unit.toNanos(lingerTime), maxBatchSize);
+    }
+
+    @Override
+    public void setCompressionThreshold(final int minimumSize) {
+        this.compressionThreshold = minimumSize;
+    }
+
+    @Override
+    public void setMaxFrameSize(final int newMaxFrameSize) {
+        if (newMaxFrameSize < TCPConnection.MIN_MAX_FRAME_SIZE) {
+            throw new IllegalArgumentException(
+                    "Maximum frame size must be at least " + TCPConnection.MIN_MAX_FRAME_SIZE + " bytes");
+        }
+        this.maxFrameSize = newMaxFrameSize;
+        TCPConnection.applyMaxFrameSize(this.socket, newMaxFrameSize);
+    }
+
+    private static FrameSocket applyMaxFrameSize(final FrameSocket target, final int size) {
+        if (target instanceof TCPSocket) {
+            ((TCPSocket) target).setMaxFrameSize(size);
+        } else if (target instanceof SharedMemorySocket) {
+            ((SharedMemorySocket) target).setMaxFrameSize(size);
+        }
+        return target;
+    }
+
+    @Override
+    public void setFlowControl(final FlowControlPolicy policy, final long timeout, final TimeUnit unit) {
+        this.flowControl.configure(policy, unit.toNanos(timeout));
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return this.flowControl.queued.get();
+    }
+
+    @Override
+    public void setHeartBeat(final long period, final TimeUnit unit, final int maxMissed) {
+        if ((period <= 0) || (maxMissed < 0)) {
+            throw new IllegalArgumentException("Heartbeat period must be positive and maxMissed must not be negative");
+        }
+        this.heartBeatPeriodNanos = unit.toNanos(period);
+        this.maxMissedHeartBeats = maxMissed;
+
+        final HeartBeatMonitor monitor = this.heartBeatMonitor;
+        if (monitor != null) {
+            monitor.configure(this.heartBeatPeriodNanos, this.maxMissedHeartBeats);
+        }
+    }
+
+    @Override
+    public synchronized long getRoundTripTime(final TimeUnit unit) {
+        return this.smoothedRoundTripNanos < 0 ? -1 : unit.convert(this.smoothedRoundTripNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Add a sample to the smoothed round trip time, which like TCP takes one eighth of every new sample
+     *
+     * @param sampleNanos the time between sending a heartbeat and receiving its answer, in nanoseconds
+     */
+    synchronized void roundTripMeasured(final long sampleNanos) {
+        if (this.smoothedRoundTripNanos < 0) {
+            this.smoothedRoundTripNanos = sampleNanos;
+        } else {
+            this.smoothedRoundTripNanos += (sampleNanos - this.smoothedRoundTripNanos) / 8;
+        }
+    }
+
+    /**
+     * Count a data frame that was received, and acknowledge it, either right away or after a short delay so a single
+     * acknowledgement covers the frames that arrive in the meantime.
+     */
+    private void frameReceived() {
+        if (this.replayBuffer.frameReceived()) {
+            this.sendAcknowledgement();
+        } else if (this.replayBuffer.isEnabled() && this.ackScheduled.compareAndSet(false, true)) {
+            HashedWheelTimer.getInstance().schedule(() -> TCPConnection.execute(() -> {
+                this.ackScheduled.set(false);
+                this.sendAcknowledgement();
+            }), TCPConnection.ACK_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Add a chunk to the stream that is being received. The first chunk starts a new stream, which is handed to the
+     * ConnectionHandler in order with the other messages, while the rest of it is still arriving.
+     *
+     * @param frame the frame containing the chunk
+     */
+    private void chunkReceived(final byte[] frame) {
+        MessageStream stream = this.inboundStream;
+        if (stream == null) {
+            stream = new MessageStream(this::grantStreamCredits);
+            this.inboundStream = stream;
+            this.messageQueue.addMessage(stream);
+        }
+
+        if (StreamFrame.isAborted(frame)) {
+            this.inboundStream = null;
+            stream.abort();
+            return;
+        }
+
+        stream.add(StreamFrame.decodeChunk(frame));
+        if (StreamFrame.isLast(frame)) {
+            this.inboundStream = null;
+            stream.end();
+        }
+    }
+
+    private void grantStreamCredits(final long consumed) {
+        final FrameSocket currentSocket = this.socket;
+        if (currentSocket != null) {
+            try {
+                this.lanes.sendControl(currentSocket, StreamFrame.encodeCredit(consumed));
+            } catch (final IOException e) {
+                TCPConnection.log.debug("[{}] - Unable to grant stream credits: {}", this.connectionId, e.getMessage());
+            }
+        }
+    }
+
+    private void sendAcknowledgement() {
+        final long receivedFrames = this.replayBuffer.acknowledgement();
+        final FrameSocket currentSocket = this.socket;
+        if ((receivedFrames >= 0) && (currentSocket != null)) {
+            try {
+                this.lanes.sendControl(currentSocket, AckFrame.encode(receivedFrames));
+            } catch (final IOException e) {
+                TCPConnection.log.debug("[{}] - Unable to acknowledge frames: {}", this.connectionId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Run a task on the shared connection executor, for tasks that are triggered by the {@link HashedWheelTimer} and
+     * may block
+     *
+     * @param task the task to run
+     */
+    private static void execute(final Runnable task) {
+        try {
+            TCPConnection.connectionExecutor.execute(task);
+        } catch (final RejectedExecutionException e) {
+            TCPConnection.log.debug("Not running task, executor is shut down");
+        }
+    }
+
+    @Override
+    public String remoteProcessId() {
+        return this.remoteProcessId;
+    }
+
+    @Override
+    public String remoteServiceId() {
+        return this.remoteServiceId;
+    }
+
+    @Override
+    public String remoteInterfaceId() {
+        return this.remoteInterfaceId;
+    }
+
+    /**
+     * When a new message is read by the underlying TCPSocket, this function is called to make sure the appropriate
+     * handler function is called by the user object implementing the ConnectionHandler.
+     * <p>
+     * If this function is called before the connection is instantiated (for instance because the remote side sent a
+     * message before the handshake was confirmed, this function will block untill the connection is established.
+     *
+     * The message is parsed straight from the buffer, which may be a part of a larger frame that was received, or a
+     * view on the receive buffer of the socket. In the latter case the frame is released as soon as the message is
+     * deserialized, so the receive buffer can be reused while the handler is running.
+     *
+     * @param msg the buffer containing the message that was received by the underlying transport socket.
+     * @param frame the pooled frame that the buffer belongs to, or null if it does not belong to one
+     * @param receivedAt the value of {@link System#nanoTime()} when the message was received
+     */
+    void handleMessage(final ByteBuffer msg, final PooledFrame frame, final long receivedAt) {
+        // It can only be a user-defined process message!
+        final Object message;
+        try {
+            this.waitForHandler(msg);
+
+            final long start = System.nanoTime();
+            message = this.userMessageSerializer.deserialize(msg.duplicate());
+            this.metrics.record(ConnectionMetrics.Stage.DESERIALIZE, message.getClass(), System.nanoTime() - start);
+            this.metrics.messageReceived(message.getClass(), msg.remaining());
+        } catch (final SerializationException e) {
+            // Not a user-defined message, so ignore with grace!
+            TCPConnection.log.warn("[{}] - Received unknown message: {}. Ignoring...",
+                    this.connectionId,
+                    TCPConnection.toString(msg));
+            this.flowControl.handled();
+            return;
+        } finally {
+            if (frame != null) {
+                frame.release();
+            }
+        }
+
+        this.dispatch(message, receivedAt);
+    }
+
+    private static String toString(final ByteBuffer msg) {
+        final byte[] data = new byte[msg.remaining()];
+        msg.duplicate().get(data);
+        return new String(data);
+    }
+
+    /**
+     * Hand a message object that was received from a process in the same JVM to the ConnectionHandler. Since it was
+     * not serialized, it is handled in exactly the same way as a deserialized message.
+     *
+     * @param message the message object that was handed over by the remote side
+     * @param receivedAt the value of {@link System#nanoTime()} when the message was received
+     */
+    void handleObject(final Object message, final long receivedAt) {
+        this.waitForHandler(message);
+        this.metrics.messageReceived(TCPConnection.typeOf(message), 0);
+        this.dispatch(message, receivedAt);
+    }
+
+    private void waitForHandler(final Object msg) {
+        synchronized (this.connectionLock) {
+            if (this.serviceHandler == null) {
+                try {
+                    TCPConnection.log.warn("[{}] - Received message {} before connection is established. Hold...",
+                            this.connectionId,
+                            msg instanceof ByteBuffer ? TCPConnection.toString((ByteBuffer) msg).replaceAll("\0", "\\0")
+                                    : msg);
+                    this.connectionLock.wait();
+                    TCPConnection.log.trace("[{}] - continue...", this.connectionId);
+                } catch (final InterruptedException e) {
+                    TCPConnection.log.trace(e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Invoke the handler method of the ConnectionHandler for the type of message in the user thread. Once the handler
+     * method returns, the remote side is granted the credit to send another message.
+     *
+     * @param message the message to handle
+     * @param receivedAt the value of {@link System#nanoTime()} when the message was received
+     */
+    private void dispatch(final Object message, final long receivedAt) {
+        final MessageDispatcher messageDispatcher = this.dispatcher;
+        if (messageDispatcher == null) {
+            // The connection was closed before it was established
+            TCPConnection.log.debug("[{}] - Dropping message, there is no handler", this.connectionId);
+            this.handled(message);
+            return;
+        }
+
+        final Class<?> messageType = TCPConnection.typeOf(message);
+        final MessageDispatcher.HandlerMethod method = messageDispatcher.get(messageType);
+        if (method == null) {
+            TCPConnection.log.error("[{}] - Unable to find handler method for message of type {}",
+                    this.connectionId,
+                    messageType.getSimpleName());
+            this.handled(message);
+            return;
+        }
+
+        this.serviceExecutor.submit(() -> {
+            final long start = System.nanoTime();
+            this.metrics.record(ConnectionMetrics.Stage.RECEIVE, messageType, start - receivedAt);
+            try {
+                method.invoke(this.serviceHandler, message);
+                this.metrics.record(ConnectionMetrics.Stage.DISPATCH, messageType, System.nanoTime() - start);
+            } catch (final Throwable e) {
+                TCPConnection.log.error("[{}] - Exception while invoking {} ({})",
+                        this.connectionId,
+                        method.getName(),
+                        messageType.getSimpleName(),
+                        e);
+            } finally {
+                this.handled(message);
+            }
+        });
+    }
+
+    /**
+     * Streams are handled by a method that takes an InputStream, other messages by a method that takes their own type
+     */
+    private static Class<?> typeOf(final Object message) {
+        return message instanceof MessageStream ? InputStream.class : message.getClass();
+    }
+
+    /**
+     * Grant the remote side the credit to send another message. If the message was a stream, whatever the handler did
+     * not read is discarded, so the remote side can finish sending it.
+     */
+    private void handled(final Object message) {
+        if (message instanceof MessageStream) {
+            ((MessageStream) message).close();
+        }
+        this.flowControl.handled();
+    }
+
+    private void releaseWaitLock() {
+        synchronized (this.connectionLock) {
+            this.connectionLock.notifyAll();
+        }
+    }
+
+    /**
+     * Calling this function will wait until the Connection successfully connected, it is closed in another
+     * thread, or an InterruptedException occurs. If the connection was already established finished, calling this
+     * function will do nothing.
+     *
+     * @throws InterruptedException when the wait functions was interrupted while waiting to finish
+     * @throws IOException When after the connection succeeded, the for some reason it was closed immediately before it
+     *             was returned
+     */
+    void waitUntilConnected() throws InterruptedException, IOException {
+        if (this.isConnected()) {
+            return;
+        }
+
+        synchronized (this.connectionLock) {
+            this.connectionLock.wait();
+        }
+
+        if (!this.isConnected()) {
+            throw new ClosedChannelException();
+        }
+    }
+
+    /**
+     * Go to the {@link ConnectionState#CONNECTED} state. This is should be done when the HandShakeMonitor detects that
+     * the remote side of the connection is also up an running. If this is the first time the connection is connected,
+     * we can instantiate the appropriate ConnectionHandler from user code.
+     * <p>
+     * When the connection was already in the {@link ConnectionState#CONNECTED} state, nothing happens. Otherwise the
+     * appropriate connection handler function is triggered, and the wait lock is released.
+     *
+     * @see #goToResumedState(int, String)
+     */
+    void goToConnectedState() {
+        TCPConnection.log.info("[{}] - Going from {} to {}", this.connectionId, this.state, ConnectionState.CONNECTED);
+        final ConnectionState previousState = this.state;
+        this.state = ConnectionState.CONNECTED;
+
+        switch (previousState) {
+        case CONNECTED:
+            TCPConnection.log.debug("[{}] - Ignoring goToConnected, already connected...", this.connectionId);
+            return;
+        case STARTING:
+            this.serviceExecutor.submit(() -> {
+                final ConnectionHandler handler = ConnectionManager.buildHandlerForConnection(this, this.info);
+                this.dispatcher = MessageDispatcher.forHandler(handler.getClass());
+                this.serviceHandler = handler;
+                // this.releaseWaitLock();
+            });
+            break;
+        case INTERRUPTED:
+            this.serviceExecutor.submit(this.serviceHandler::resumeAfterInterrupt);
+            break;
+        case SUSPENDED:
+            this.serviceExecutor.submit(this.serviceHandler::resumeAfterSuspend);
+            break;
+        case TERMINATED:
+        default:
+            TCPConnection.log.error("[{}] - Unexpected previous state: {}", this.connectionId, this.state);
+        }
+        // Make sure it runs AFTER user constructor
+        this.serviceExecutor.submit(this::releaseWaitLock);
+    }
+
+    /**
+     * Go to the {@link ConnectionState#SUSPENDED} state. This is should be done only when the
+     * {@link ConnectionManager} receives a message from the orchestrator that the connection is should be suspended.
+     * When this happens the Connection will temporarily be closed, and will not attempt to reconnect until the
+     * {@link #goToResumedState(int, String)} is called.
+     * <p>
+     * When the connection is already in the {@link ConnectionState#SUSPENDED} state, nothing happens. Otherwise the
+     * heartbeat monitor is stopped, and the connection state will be updated.
+     *
+     * @see #goToResumedState(int, String)
+     */
+    void goToSuspendedState() {
+        if (!this.isConnected()) {
+            TCPConnection.log.warn("[{}] - Not going to {} state while not connected",
+                    this.connectionId,
+                    ConnectionState.SUSPENDED);
+            return;
+        }
+
+        // Make sure everything that was sent before arrives before we suspend
+        this.coalescer.flushQuietly();
+
+        // Update the state
+        this.state = ConnectionState.SUSPENDED;
+        this.heartBeatMonitor.stop();
+        this.flowControl.wakeUp();
+        this.streamCredits.wakeUp();
+
+        this.serviceExecutor.submit(this.serviceHandler::onSuspend);
+    }
+
+    /**
+     * Resume a connection from the {@link ConnectionState#SUSPENDED} state. This is should be done only when the
+     * {@link ConnectionManager} receives a message from the orchestrator that the connection is ready to be resumed.
+     * When this happens the Connection will attempt to reconnect to the remote side.
+     * <p>
+     * When the connection is not {@link ConnectionState#SUSPENDED} state, nothing will happen. Otherwise the connection
+     * details are updated, and the socket is re-established.
+     *
+     * @param newListenPort the TCP port to attach to when this endpoint will act as server, or the remote address to
+     *            connect to.
+     * @param newTargetAddress The host name of the remote endpoint to connect to when this endpoint should act as a
+     *            client, or an empty string when it should act as a server.
+     * @see #goToSuspendedState()
+     */
+    void goToResumedState(final int newListenPort, final String newTargetAddress) {
+        this.goToResumedState(newListenPort, newTargetAddress, "");
+    }
+
+    /**
+     * Resume a connection from the {@link ConnectionState#SUSPENDED} state, possibly switching between a TCP socket
+     * and shared memory, since the endpoints may have moved to another host.
+     *
+     * @param newListenPort the TCP port to attach to when this endpoint will act as server, or the remote address to
+     *            connect to.
+     * @param newTargetAddress The host name of the remote endpoint to connect to when this endpoint should act as a
+     *            client, or an empty string when it should act as a server.
+     * @param newSharedMemoryPath The directory in which the ring buffers are shared with the remote endpoint, or an
+     *            empty string when the endpoints should connect over TCP.
+     * @see #goToResumedState(int, String)
+     */
+    void goToResumedState(final int newListenPort, final String newTargetAddress, final String newSharedMemoryPath) {
+        if (this.state != ConnectionState.SUSPENDED) {
+            TCPConnection.log.warn("[{}] - Unable to resume connection when not in {}",
+                    this.connectionId,
+                    ConnectionState.SUSPENDED);
+            return;
+        }
+
+        this.port = newListenPort;
+        this.targetAddress = newTargetAddress;
+        this.sharedMemoryPath = newSharedMemoryPath;
+
+        // Have the socket reader reinstatiate the socket right away
+        this.socketReader.failedAttempts = 0;
+        final FrameSocket oldSocket = this.socket;
+        this.socket = null;
+        if (oldSocket != null) {
+            oldSocket.close();
+        }
+        this.socketReader.restart();
+    }
+
+    /**
+     * Go to the {@link ConnectionState#INTERRUPTED} state. This is typically done when the heartbeat monitor detects a
+     * missed series of responses, or a read or {@link #send(Object)} operation fails. When this happens the Connection
+     * will temporarily be closed, and will automatically attempt to reconnect to the remote side.
+     * <p>
+     * When the connection is not the {@link ConnectionState#CONNECTED} state, nothing will happen. Otherwise the
+     * heartbeat monitor is stopped, and the connection state will be updated.
      */
     void goToInterruptedState() {
         if (!this.isConnected()) {
@@ -442,198 +1181,1157 @@ final class TCPConnection implements Connection, Closeable {
             return;
         }
 
-        this.state = ConnectionState.INTERRUPTED;
-        if (this.serviceHandler != null) {
-            this.serviceExecutor.submit(() -> {
-                // It could be that in the meantime we were terminated, which means do NOT call interrupt
-                if (this.state != ConnectionState.TERMINATED) {
-                    this.serviceHandler.onInterrupt();
+        this.state = ConnectionState.INTERRUPTED;
+        this.coalescer.interrupted();
+        this.flowControl.wakeUp();
+        this.streamCredits.wakeUp();
+        if (this.serviceHandler != null) {
+            this.serviceExecutor.submit(() -> {
+                // It could be that in the meantime we were terminated, which means do NOT call interrupt
+                if (this.state != ConnectionState.TERMINATED) {
+                    this.serviceHandler.onInterrupt();
+                }
+            });
+        }
+    }
+
+    /**
+     * Go to the {@link ConnectionState#TERMINATED} state. This means that after calling this function the Connection
+     * will be closed, and not able to be reinstantiated.
+     *
+     * @see #close()
+     */
+    void goToTerminatedState() {
+        this.close();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (this.isConnected()) {
+            this.coalescer.flushQuietly();
+        }
+
+        // Update the state
+        this.socketReader.stop();
+
+        if (!this.state.equals(ConnectionState.TERMINATED)) {
+            this.state = ConnectionState.TERMINATED;
+
+            if (this.serviceHandler != null) {
+                this.serviceExecutor.submit(this.serviceHandler::terminated);
+            }
+        }
+
+        if (this.heartBeatMonitor != null) {
+            this.heartBeatMonitor.stop();
+        }
+
+        if (this.handShakeMonitor != null) {
+            this.handShakeMonitor.close();
+        }
+
+        this.messageQueue.stop();
+        this.messageWriter.stop();
+        this.flowControl.wakeUp();
+        this.streamCredits.wakeUp();
+
+        final MessageStream stream = this.inboundStream;
+        if (stream != null) {
+            this.inboundStream = null;
+            stream.abort();
+        }
+
+        if (this.socket != null) {
+            this.socket.close();
+            this.socket = null;
+        }
+
+        this.metrics.unregister();
+        this.releaseWaitLock();
+    }
+
+    /**
+     * @return the counters and latency histograms of this connection
+     */
+    ConnectionMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * @return a new socket to the remote endpoint, using a local socket if the endpoints are in the same JVM, or
+     *         shared memory if the endpoints are on the same host
+     */
+    FrameSocket createSocket() {
+        return TCPConnection.applyMaxFrameSize(this.createSocket(this.targetAddress.isEmpty()), this.maxFrameSize);
+    }
+
+    private FrameSocket createSocket(final boolean isServer) {
+        if (LocalSocket.isLocalProcess(this.remoteProcessId)) {
+            TCPConnection.log.debug("[{}] - Remote process is in the same JVM", this.connectionId);
+            return isServer ? LocalSocket.asServer(this.connectionId) : LocalSocket.asClient(this.connectionId);
+        }
+        if ((this.sharedMemoryPath != null) && !this.sharedMemoryPath.isEmpty()) {
+            TCPConnection.log.debug("[{}] - Using shared memory in {}", this.connectionId, this.sharedMemoryPath);
+            // The port is used for the control channel that signals the other side
+            return isServer
+                    ? SharedMemorySocket.asServer(Paths.get(this.sharedMemoryPath), this.connectionId, this.port)
+                    : SharedMemorySocket.asClient(Paths.get(this.sharedMemoryPath),
+                            this.connectionId,
+                            this.targetAddress,
+                            this.port);
+        }
+        return isServer ? TCPSocket.asServer(this.port) : TCPSocket.asClient(this.targetAddress, this.port);
+    }
+
+    private final class SocketReader implements Runnable {
+
+        private volatile boolean keepRunning = true;
+        private volatile int failedAttempts = 0;
+        private Thread waitingThread;
+
+        /**
+         *
+         */
+        SocketReader() {
+            // Protected constructor for TCPConnection
+        }
+
+        /**
+         * Build a new socket and attach it to the {@link SocketEngine}. The socket engine will deliver all frames to a
+         * {@link SocketListener}, so this runnable finishes as soon as the socket is attached, and is submitted again
+         * when the socket closes. When setting up the socket fails, it is retried after a backoff that increases with
+         * every failed attempt.
+         */
+        @Override
+        public void run() {
+            if (!this.keepRunning) {
+                return;
+            }
+
+            if (TCPConnection.this.socket != null) {
+                TCPConnection.log.debug("[{}] - Closing old socket", TCPConnection.this.connectionId);
+                TCPConnection.this.socket.close();
+
+                if (TCPConnection.this.handShakeMonitor != null) {
+                    TCPConnection.this.handShakeMonitor.close();
+                }
+
+                if (TCPConnection.this.heartBeatMonitor != null) {
+                    TCPConnection.this.heartBeatMonitor.close();
+                }
+            }
+
+            // Create the socket while holding the lock, so close() will either see it or stop us from creating it
+            final FrameSocket newSocket;
+            synchronized (TCPConnection.this) {
+                if (!this.keepRunning) {
+                    return;
+                }
+                TCPConnection.log.info("[{}] - Building TCPConnection", TCPConnection.this.connectionId);
+                newSocket = TCPConnection.this.createSocket();
+                TCPConnection.this.socket = newSocket;
+            }
+
+            try {
+                this.waitUntilConnected(newSocket);
+            } catch (final Exception e) {
+                if (this.keepRunning) {
+                    TCPConnection.log.warn("[{}] - Interrupted while waiting for connection to establish",
+                            TCPConnection.this.connectionId);
+                    this.retry();
+                } else {
+                    newSocket.close();
+                }
+                return;
+            }
+
+            final HandShakeMonitor newHandShakeMonitor;
+            final HeartBeatMonitor newHeartBeatMonitor;
+            try {
+                // Create the monitors
+                TCPConnection.log.debug("[{}] - Creating connection monitors", TCPConnection.this.connectionId);
+                // The monitors send through the control lane, so they never wait behind user data
+                final FrameSocket controlLane = TCPConnection.this.lanes.controlLane(newSocket);
+                newHandShakeMonitor = new HandShakeMonitor(controlLane,
+                        TCPConnection.this.connectionId,
+                        TCPConnection.RECEIVE_WINDOW,
+                        TCPConnection.this.replayBuffer,
+                        TCPConnection.this.localTypeNames());
+                newHeartBeatMonitor = new HeartBeatMonitor(controlLane,
+                        TCPConnection.this.connectionId,
+                        TCPConnection.connectionExecutor,
+                        TCPConnection.this::roundTripMeasured);
+                newHeartBeatMonitor.configure(TCPConnection.this.heartBeatPeriodNanos,
+                        TCPConnection.this.maxMissedHeartBeats);
+                TCPConnection.this.handShakeMonitor = newHandShakeMonitor;
+                TCPConnection.this.heartBeatMonitor = newHeartBeatMonitor;
+                TCPConnection.this.flowControl.socketCreated(newSocket, newHeartBeatMonitor);
+                newSocket.attach(new SocketListener(newSocket));
+            } catch (final Exception e) {
+                if (this.keepRunning) {
+                    TCPConnection.log.warn("[{}] - Exception while instantiating connection monitors. Aborting setup",
+                            TCPConnection.this.connectionId);
+                    newSocket.close();
+                    this.retry();
+                }
+                return;
+            }
+
+            // Now we have a functioning socket, make sure that as soon as there is a handshake, go connected
+            TCPConnection.log.debug("[{}] - Initiating handshake", TCPConnection.this.connectionId);
+            final HashedWheelTimer.Timeout handShakeTimeout = HashedWheelTimer.getInstance().schedule(() -> {
+                if (!newHandShakeMonitor.ready()) {
+                    TCPConnection.log.warn("[{}] - No handshake received within {} ms, closing socket",
+                            TCPConnection.this.connectionId,
+                            TCPConnection.HANDSHAKE_TIMEOUT_MILLIS);
+                    TCPConnection.execute(newHandShakeMonitor::close);
+                }
+            }, TCPConnection.HANDSHAKE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            newHandShakeMonitor.finished().thenAcceptAsync(ready -> {
+                handShakeTimeout.cancel();
+                if (ready) {
+                    this.connected(newSocket, newHandShakeMonitor, newHeartBeatMonitor);
+                }
+            }, TCPConnection.connectionExecutor);
+            newHandShakeMonitor.sendHandshake(TCPConnection.this.getState());
+
+            // The socket engine takes it from here
+        }
+
+        /**
+         * Wait until the socket is connected. Since this runs on a shared thread, the thread is only interrupted by
+         * {@link #stop()} while it is waiting here.
+         */
+        private void waitUntilConnected(final FrameSocket newSocket) throws IOException {
+            synchronized (this) {
+                if (!this.keepRunning) {
+                    throw new ClosedChannelException();
+                }
+                this.waitingThread = Thread.currentThread();
+            }
+            try {
+                newSocket.waitUntilConnected();
+            } finally {
+                synchronized (this) {
+                    this.waitingThread = null;
+                    // Do not leave the flag for the next task of this thread
+                    Thread.interrupted();
+                }
+            }
+            if (!this.keepRunning || !newSocket.isConnected()) {
+                throw new ClosedChannelException();
+            }
+        }
+
+        private void connected(final FrameSocket newSocket,
+                final HandShakeMonitor newHandShakeMonitor,
+                final HeartBeatMonitor newHeartBeatMonitor) {
+            TCPConnection.log.debug("[{}] - Handshake confirmed, starting heartbeat", TCPConnection.this.connectionId);
+            this.failedAttempts = 0;
+            newHeartBeatMonitor.start();
+            TCPConnection.this.flowControl.reset(newHandShakeMonitor.remoteReceiveWindow());
+            TCPConnection.this.useRemoteTypeNames(newHandShakeMonitor.remoteTypeNames());
+            final MessageStream stream = TCPConnection.this.inboundStream;
+            if (stream != null) {
+                // Credits that were sent before the interruption may have been lost
+                TCPConnection.this.grantStreamCredits(stream.consumed());
+            }
+            if (!TCPConnection.this.coalescer.replay(newSocket, newHandShakeMonitor.remoteReceivedFrames())) {
+                // The socket was closed while resending, it will be re-established
+                return;
+            }
+            TCPConnection.this.goToConnectedState();
+        }
+
+        /**
+         * Retry setting up the connection, as long as the connection is not closed. The first retry after a
+         * successful connection happens right away, every next one waits twice as long as the previous one.
+         */
+        void restart() {
+            if (!this.keepRunning) {
+                return;
+            }
+
+            final int attempt = this.failedAttempts;
+            if (attempt == 0) {
+                TCPConnection.execute(this);
+                return;
+            }
+
+            final long backoff = Math.min(TCPConnection.MAX_RECONNECT_BACKOFF_MILLIS,
+                    TCPConnection.MIN_RECONNECT_BACKOFF_MILLIS << Math.min(attempt - 1, 16));
+            TCPConnection.log.debug("[{}] - Setting up socket again in {} ms",
+                    TCPConnection.this.connectionId,
+                    backoff);
+            HashedWheelTimer.getInstance().schedule(() -> TCPConnection.execute(this), backoff, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Retry setting up the connection after a failed attempt, waiting longer than the previous time
+         */
+        void retry() {
+            this.failedAttempts++;
+            this.restart();
+        }
+
+        synchronized void stop() {
+            this.keepRunning = false;
+            if (this.waitingThread != null) {
+                this.waitingThread.interrupt();
+            }
+        }
+
+    }
+
+    /**
+     * The SocketListener receives the frames of one particular socket from the {@link SocketEngine}. Frames are first
+     * offered to the heartbeat and handshake monitors, and are otherwise decompressed if needed and added to the
+     * message queue. A {@link LocalSocket} may also deliver message objects, if their type is one that we receive.
+     * <p>
+     * A {@link TCPSocket} delivers its frames as views on its receive buffer. A frame with a single user message is
+     * queued as such, and released once the message is deserialized. Other frames are copied and handled as arrays.
+     */
+    private final class SocketListener implements ObjectListener, PooledFrameListener {
+
+        private final FrameSocket listenSocket;
+        private ByteArrayOutputStream fragments;
+
+        SocketListener(final FrameSocket listenSocket) {
+            this.listenSocket = listenSocket;
+        }
+
+        @Override
+        public void onFrame(final byte[] data) {
+            // Check the socket, since it may have changed since it was attached
+            if ((data.length == 0) || (TCPConnection.this.socket != this.listenSocket)) {
+                return;
+            }
+
+            try {
+                final HeartBeatMonitor monitor = TCPConnection.this.heartBeatMonitor;
+                if (monitor.handleMessage(data)) {
+                    return;
+                }
+
+                // Any other frame shows the remote side is alive
+                monitor.trafficReceived();
+                if (CreditFrame.isCredit(data)) {
+                    TCPConnection.this.flowControl.grant(CreditFrame.decode(data));
+                } else if (AckFrame.isAck(data)) {
+                    TCPConnection.this.replayBuffer.acknowledge(AckFrame.decode(data));
+                } else if (StreamFrame.isCredit(data)) {
+                    TCPConnection.this.streamCredits.grant(StreamFrame.decodeCredit(data));
+                } else if (FragmentFrame.isFragment(data)) {
+                    this.fragmentReceived(data);
+                } else if (!TCPConnection.this.handShakeMonitor.handleHandShake(data)) {
+                    this.dataReceived(data);
+                }
+            } catch (final Exception e) {
+                TCPConnection.log.error("[{}] - Unexpected exception while operating on socket: {}",
+                        TCPConnection.this.connectionId,
+                        e.getMessage());
+                TCPConnection.log.trace(e.getMessage(), e);
+                TCPConnection.this.goToInterruptedState();
+                this.listenSocket.close();
+            }
+        }
+
+        @Override
+        public void onFrame(final PooledFrame frame) {
+            final ByteBuffer data = frame.getData();
+            // Heartbeats are a single byte, and all other frames for the connection itself start with the marker
+            if ((data.remaining() < 2) || (data.get(data.position()) == BatchFrame.ENVELOPE_MARKER)
+                    || (TCPConnection.this.socket != this.listenSocket)) {
+                final byte[] copy = new byte[data.remaining()];
+                data.duplicate().get(copy);
+                frame.release();
+                this.onFrame(copy);
+                return;
+            }
+
+            try {
+                TCPConnection.this.heartBeatMonitor.trafficReceived();
+                if (TCPConnection.this.handShakeMonitor.handleHandShake(data)) {
+                    frame.release();
+                } else {
+                    TCPConnection.this.frameReceived();
+                    TCPConnection.this.messageQueue.addMessage(frame);
+                }
+            } catch (final Exception e) {
+                frame.release();
+                TCPConnection.log.error("[{}] - Unexpected exception while operating on socket: {}",
+                        TCPConnection.this.connectionId,
+                        e.getMessage());
+                TCPConnection.log.trace(e.getMessage(), e);
+                TCPConnection.this.goToInterruptedState();
+                this.listenSocket.close();
+            }
+        }
+
+        /**
+         * Collect the fragments of a large frame, and handle it as soon as the last fragment is received. Fragments
+         * arrive in order, since the remote side only sends the fragments of one frame at a time.
+         */
+        private void fragmentReceived(final byte[] data) throws IOException {
+            if (this.fragments == null) {
+                this.fragments = new ByteArrayOutputStream();
+            }
+            if ((this.fragments.size() + data.length) > TCPConnection.this.maxFrameSize) {
+                throw new IOException("Fragmented frame exceeds the maximum of " + TCPConnection.this.maxFrameSize
+                        + " bytes, it should be streamed instead");
+            }
+            FragmentFrame.decode(data, this.fragments);
+            if (FragmentFrame.isLast(data)) {
+                final byte[] frame = this.fragments.toByteArray();
+                this.fragments = null;
+                this.dataReceived(frame);
+            }
+        }
+
+        private void dataReceived(final byte[] data) throws IOException {
+            TCPConnection.this.frameReceived();
+            final byte[] frame = CompressedFrame.isCompressed(data)
+                    ? CompressedFrame.decode(data, TCPConnection.this.maxFrameSize) : data;
+            if (StreamFrame.isChunk(frame)) {
+                TCPConnection.this.chunkReceived(frame);
+            } else if (BatchFrame.isBatch(frame)) {
+                BatchFrame.decode(frame).forEach(TCPConnection.this.messageQueue::addMessage);
+            } else {
+                TCPConnection.this.messageQueue.addMessage(ByteBuffer.wrap(frame));
+            }
+        }
+
+        @Override
+        public boolean acceptsObject(final Class<?> type) {
+            return Arrays.asList(TCPConnection.this.info.receiveTypes()).contains(type);
+        }
+
+        @Override
+        public void onObject(final Object message) {
+            if (TCPConnection.this.socket == this.listenSocket) {
+                TCPConnection.this.heartBeatMonitor.trafficReceived();
+                TCPConnection.this.messageQueue.addMessage(message);
+            }
+        }
+
+        @Override
+        public void onClose() {
+            // See if this was on purpose
+            if (TCPConnection.this.isConnected() && TCPConnection.this.socketReader.keepRunning) {
+                TCPConnection.log.warn("[{}] - Socket closed while connected", TCPConnection.this.connectionId);
+                TCPConnection.this.goToInterruptedState();
+            }
+
+            // A suspended connection is only re-established when it is resumed
+            if (TCPConnection.this.state == ConnectionState.SUSPENDED) {
+                return;
+            }
+
+            // Back off when the socket closed before the handshake was finished, since the next attempt may well fail
+            final HandShakeMonitor monitor = TCPConnection.this.handShakeMonitor;
+            if ((monitor == null) || !monitor.ready()) {
+                TCPConnection.this.socketReader.retry();
+            } else {
+                TCPConnection.this.socketReader.restart();
+            }
+        }
+
+    }
+
+    /**
+     * The MessageCoalescer is the path through which all user messages are sent. Normally every message is sent in its
+     * own frame right away, but when coalescing is enabled, and the remote side supports it, messages are collected
+     * until either the batch is full or the linger time has passed, and are then sent together in a
+     * {@link BatchFrame}. Frames that exceed the compression threshold are compressed right before they are written.
+     * Every frame is kept in the {@link ReplayBuffer} until the remote side acknowledges it.
+     */
+    private final class MessageCoalescer {
+
+        private final List<byte[]> pending = new ArrayList<>();
+        private int pendingBytes = 0;
+        private long lingerNanos = 0;
+        private int maxBatchSize = 1;
+        private HashedWheelTimer.Timeout flushTimeout;
+
+        MessageCoalescer() {
+            // Private constructor for TCPConnection
+        }
+
+        synchronized void configure(final long newLingerNanos, final int newMaxBatchSize) {
+            this.lingerNanos = Math.max(0, newLingerNanos);
+            this.maxBatchSize = newMaxBatchSize;
+            if ((this.maxBatchSize <= 1) || (this.pending.size() >= this.maxBatchSize)) {
+                this.flushQuietly();
+            }
+        }
+
+        synchronized void send(final byte[] data) throws IOException {
+            final HandShakeMonitor monitor = TCPConnection.this.handShakeMonitor;
+            if ((this.maxBatchSize <= 1) || (monitor == null) || !monitor.remoteAcceptsBatches()) {
+                // Keep the order of the messages
+                this.flush();
+                this.writeFrame(data);
+                return;
+            }
+
+            this.pending.add(data);
+            this.pendingBytes += data.length;
+            if (this.pending.size() >= this.maxBatchSize) {
+                this.flush();
+            } else if (this.flushTimeout == null) {
+                this.flushTimeout = HashedWheelTimer.getInstance()
+                        .schedule(() -> TCPConnection.execute(this::flushQuietly),
+                                this.lingerNanos,
+                                TimeUnit.NANOSECONDS);
+            }
+        }
+
+        synchronized void flush() throws IOException {
+            if (this.flushTimeout != null) {
+                this.flushTimeout.cancel();
+                this.flushTimeout = null;
+            }
+            if (!this.pending.isEmpty()) {
+                this.writeFrame(this.takePending());
+            }
+        }
+
+        private byte[] takePending() {
+            final byte[] frame = this.pending.size() == 1 ? this.pending.get(0)
+                    : BatchFrame.encode(this.pending, this.pendingBytes);
+            this.pending.clear();
+            this.pendingBytes = 0;
+            return frame;
+        }
+
+        /**
+         * Hand over a message object through a local socket, after everything that is pending has been sent
+         *
+         * @param localSocket the socket to the process in the same JVM
+         * @param message the message object to send
+         * @return whether the remote side accepted the object
+         * @throws IOException when the socket is closed
+         */
+        synchronized boolean sendObject(final LocalSocket localSocket, final Object message) throws IOException {
+            this.flush();
+            return localSocket.sendObject(message);
+        }
+
+        /**
+         * Write a frame on its own, after everything that is pending has been sent
+         *
+         * @param frame the frame to write
+         * @throws IOException when the frame could not be written
+         */
+        synchronized void sendUnbatched(final byte[] frame) throws IOException {
+            this.flush();
+            this.writeFrame(frame);
+        }
+
+        void flushQuietly() {
+            try {
+                this.flush();
+            } catch (final IOException e) {
+                TCPConnection.log.warn("[{}] - Failed to send coalesced messages through socket, goto {}",
+                        TCPConnection.this.connectionId,
+                        ConnectionState.INTERRUPTED);
+                TCPConnection.this.goToInterruptedState();
+            }
+        }
+
+        /**
+         * The connection is interrupted, so the coalesced messages can not be sent right now. If the session can be
+         * resumed they are kept in the replay buffer to be sent later, otherwise they are discarded.
+         */
+        synchronized void interrupted() {
+            if (this.flushTimeout != null) {
+                this.flushTimeout.cancel();
+                this.flushTimeout = null;
+            }
+            if (this.pending.isEmpty()) {
+                return;
+            }
+
+            if (TCPConnection.this.replayBuffer.isEnabled()) {
+                TCPConnection.log.debug("[{}] - Keeping {} coalesced messages to send when the session is resumed",
+                        TCPConnection.this.connectionId,
+                        this.pending.size());
+                TCPConnection.this.replayBuffer.record(this.encodeFrame(this.takePending()));
+            } else {
+                TCPConnection.log.warn("[{}] - Discarding {} coalesced messages that were not sent",
+                        TCPConnection.this.connectionId,
+                        this.pending.size());
+                this.pending.clear();
+                this.pendingBytes = 0;
+            }
+        }
+
+        /**
+         * Resend the frames the remote side did not receive before the connection was interrupted
+         *
+         * @param target the socket that was just re-established
+         * @param remoteReceivedFrames the number of frames the remote side received, according to its handshake
+         * @return whether all frames were resent, or false if the socket was closed
+         */
+        synchronized boolean replay(final FrameSocket target, final long remoteReceivedFrames) {
+            final List<byte[]> frames = TCPConnection.this.replayBuffer.replay(remoteReceivedFrames);
+            if (!frames.isEmpty()) {
+                TCPConnection.log.info("[{}] - Resending {} frames that were not received",
+                        TCPConnection.this.connectionId,
+                        frames.size());
+            }
+
+            try {
+                for (final byte[] frame : frames) {
+                    TCPConnection.this.lanes.sendData(target, frame, this.fragmentSize());
                 }
-            });
+                return true;
+            } catch (final IOException e) {
+                TCPConnection.log.warn("[{}] - Failed to resend frames: {}",
+                        TCPConnection.this.connectionId,
+                        e.getMessage());
+                target.close();
+                return false;
+            }
+        }
+
+        /**
+         * Write a data frame, after it is kept in the replay buffer. If writing fails, the frame is resent when the
+         * session is resumed.
+         */
+        private void writeFrame(final byte[] frame) throws IOException {
+            final byte[] encoded = this.encodeFrame(frame);
+            TCPConnection.this.replayBuffer.record(encoded);
+
+            final FrameSocket currentSocket = TCPConnection.this.socket;
+            if (currentSocket == null) {
+                throw new ClosedChannelException();
+            }
+            TCPConnection.this.lanes.sendData(currentSocket, encoded, this.fragmentSize());
+        }
+
+        /**
+         * @return the size of the fragments to split large frames in, or 0 if the remote side does not reassemble them
+         */
+        private int fragmentSize() {
+            final HandShakeMonitor monitor = TCPConnection.this.handShakeMonitor;
+            return (monitor != null) && monitor.remoteAcceptsFragments() ? FragmentFrame.DEFAULT_FRAGMENT_SIZE : 0;
+        }
+
+        private byte[] encodeFrame(final byte[] frame) {
+            final HandShakeMonitor monitor = TCPConnection.this.handShakeMonitor;
+            final int threshold = TCPConnection.this.compressionThreshold;
+            if ((threshold >= 0) && (frame.length >= threshold) && (monitor != null)) {
+                final CompressionCodec codec = monitor.remoteCompressionCodec();
+                final int codecIndex = monitor.remoteCompressionIndex();
+                if ((codec != null) && (codecIndex >= 0)) {
+                    return CompressedFrame.encode(frame, codecIndex, codec);
+                }
+            }
+            return frame;
         }
+
     }
 
     /**
-     * Go to the {@link ConnectionState#TERMINATED} state. This means that after calling this function the Connection
-     * will be closed, and not able to be reinstantiated.
-     *
-     * @see #close()
+     * The StreamCredits keep track of how many chunks of the stream that is being sent the remote side has consumed.
+     * The remote side grants credits with the cumulative number of chunks its handler read, so a lost or repeated
+     * credit frame does no harm.
      */
-    void goToTerminatedState() {
-        this.close();
-    }
+    private final class StreamCredits {
 
-    @Override
-    public synchronized void close() {
-        // Update the state
-        this.socketReader.stop();
+        private long sent = 0;
+        private long consumed = 0;
 
-        if (!this.state.equals(ConnectionState.TERMINATED)) {
-            this.state = ConnectionState.TERMINATED;
+        StreamCredits() {
+            // Private constructor for TCPConnection
+        }
 
-            if (this.serviceHandler != null) {
-                this.serviceExecutor.submit(this.serviceHandler::terminated);
+        /**
+         * Start counting for a new stream
+         */
+        synchronized void start() {
+            this.sent = 0;
+            this.consumed = 0;
+        }
+
+        /**
+         * Wait until another chunk may be sent, and count it as sent
+         *
+         * @throws ClosedChannelException When the connection is closed or suspended while waiting, or interrupted
+         *             while the chunks that were sent are not replayed
+         * @throws InterruptedIOException When the thread is interrupted while waiting
+         */
+        synchronized void acquire() throws IOException {
+            while ((this.sent - this.consumed) >= StreamFrame.WINDOW) {
+                final ConnectionState current = TCPConnection.this.state;
+                if ((current == ConnectionState.TERMINATED) || (current == ConnectionState.SUSPENDED)
+                        || ((current == ConnectionState.INTERRUPTED)
+                                && !TCPConnection.this.replayBuffer.isEnabled())) {
+                    throw new ClosedChannelException();
+                }
+
+                try {
+                    this.wait();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for stream credits");
+                }
             }
+            this.sent++;
         }
 
-        if (this.heartBeatMonitor != null) {
-            this.heartBeatMonitor.stop();
+        /**
+         * @param total the total number of chunks the remote side consumed
+         */
+        synchronized void grant(final long total) {
+            this.consumed = Math.max(this.consumed, total);
+            this.notifyAll();
         }
 
-        this.messageQueue.stop();
+        /**
+         * Wake up the sender that is waiting for credits, because the state of the connection changed
+         */
+        synchronized void wakeUp() {
+            this.notifyAll();
+        }
 
-        if (this.socket != null) {
-            this.socket.close();
-            this.socket = null;
+    }
+
+    /**
+     * The FlowControl keeps track of the credits in both directions. The remote side grants credits in its handshake
+     * and in {@link CreditFrame}s, and every message that is sent uses one. Likewise, every message that is received
+     * is counted until it is handled, after which the credits are granted to the remote side again, in batches to limit
+     * the overhead.
+     * <p>
+     * A remote side that does not use flow control, or sends more than it was granted, is held back by no longer
+     * reading from the socket until the handler has caught up. This way the thread that reads from the socket, which
+     * may be shared with many other connections, never waits for the handler.
+     */
+    private final class FlowControl {
+
+        /**
+         * The number of messages that were received, but were not handled yet
+         */
+        final AtomicInteger queued = new AtomicInteger();
+
+        private final int grantThreshold = Math.max(1, TCPConnection.RECEIVE_WINDOW / 4);
+        private final int resumeThreshold = (TCPConnection.RECEIVE_WINDOW * 3) / 4;
+        private boolean readingPaused = false;
+        private FlowControlPolicy policy = FlowControlPolicy.BLOCK;
+        private long timeoutNanos = 0;
+        private boolean enabled = false;
+        private int credits = 0;
+        private int ungranted = 0;
+
+        FlowControl() {
+            // Private constructor for TCPConnection
         }
 
-        this.connectionExecutor.shutdownNow();
-        try {
-            this.connectionExecutor.awaitTermination(3, TimeUnit.SECONDS);
-        } catch (final InterruptedException e) {
-            TCPConnection.log.error("[{}] - Interrupted while awaiting termination", TCPConnection.this.connectionId);
+        synchronized void configure(final FlowControlPolicy newPolicy, final long newTimeoutNanos) {
+            this.policy = newPolicy;
+            this.timeoutNanos = Math.max(0, newTimeoutNanos);
         }
 
-        this.releaseWaitLock();
-    }
+        /**
+         * Start counting credits again after a handshake
+         *
+         * @param remoteReceiveWindow the number of messages the remote side is willing to receive, or 0 if it does not
+         *            use flow control
+         */
+        void reset(final int remoteReceiveWindow) {
+            synchronized (this) {
+                this.enabled = remoteReceiveWindow > 0;
+                this.credits = remoteReceiveWindow;
+                this.ungranted = 0;
+            }
+            TCPConnection.this.messageWriter.schedule();
+        }
 
-    private final class SocketReader implements Runnable {
+        synchronized FlowControlPolicy getPolicy() {
+            return this.policy;
+        }
 
-        private volatile boolean keepRunning = true;
+        synchronized long getTimeoutNanos() {
+            return this.timeoutNanos;
+        }
+
+        /**
+         * @return whether the remote side granted the credit to send another message, or does not use flow control
+         */
+        synchronized boolean hasCredits() {
+            return !this.enabled || (this.credits > 0);
+        }
 
         /**
+         * Use one credit to send a message, if there is one. This never waits, the writer is scheduled again when the
+         * remote side grants more credits.
          *
+         * @return whether a credit was taken, or the remote side does not use flow control
          */
-        SocketReader() {
-            // Protected constructor for TCPConnection
+        synchronized boolean tryAcquire() {
+            if (!this.enabled) {
+                return true;
+            } else if (this.credits > 0) {
+                this.credits--;
+                return true;
+            }
+            return false;
         }
 
-        @Override
-        public void run() {
-            while (this.keepRunning) {
-                if (TCPConnection.this.socket != null) {
-                    TCPConnection.log.debug("[{}] - Closing old socket", TCPConnection.this.connectionId);
-                    TCPConnection.this.socket.close();
+        /**
+         * Return a credit that was taken, but not used
+         */
+        synchronized void release() {
+            if (this.enabled) {
+                this.credits++;
+            }
+        }
 
-                    if (TCPConnection.this.handShakeMonitor != null) {
-                        TCPConnection.this.handShakeMonitor.close();
-                    }
+        /**
+         * @param granted the number of credits the remote side granted
+         */
+        void grant(final int granted) {
+            synchronized (this) {
+                this.credits += granted;
+            }
+            TCPConnection.this.messageWriter.schedule();
+        }
+
+        /**
+         * Let the writer check again whether it can write, because the state of the connection changed
+         */
+        void wakeUp() {
+            TCPConnection.this.messageWriter.schedule();
+        }
 
-                    if (TCPConnection.this.heartBeatMonitor != null) {
-                        TCPConnection.this.heartBeatMonitor.close();
+        /**
+         * Count a received message until it is handled, and stop reading from the socket when more messages are queued
+         * than the remote side was granted
+         */
+        void received() {
+            if (this.queued.incrementAndGet() > TCPConnection.RECEIVE_WINDOW) {
+                synchronized (this) {
+                    if (!this.readingPaused && (this.queued.get() > TCPConnection.RECEIVE_WINDOW)) {
+                        TCPConnection.log.debug("[{}] - Receive window exceeded, pausing socket",
+                                TCPConnection.this.connectionId);
+                        this.readingPaused = true;
+                        this.applyReadingPaused(TCPConnection.this.socket, TCPConnection.this.heartBeatMonitor);
                     }
                 }
+            }
+        }
 
-                TCPConnection.log.info("[{}] - Building TCPConnection", TCPConnection.this.connectionId);
-                if (TCPConnection.this.targetAddress.isEmpty()) {
-                    TCPConnection.this.socket = TCPSocket.asServer(TCPConnection.this.port);
-                } else {
-                    TCPConnection.this.socket = TCPSocket.asClient(TCPConnection.this.targetAddress,
-                            TCPConnection.this.port);
-                }
+        /**
+         * Make a new socket and its heartbeat monitor respect whether reading is paused, before the socket is attached
+         *
+         * @param newSocket the socket that replaces the old one
+         * @param newHeartBeatMonitor the heartbeat monitor of the new socket
+         */
+        synchronized void socketCreated(final FrameSocket newSocket, final HeartBeatMonitor newHeartBeatMonitor) {
+            if (this.readingPaused) {
+                this.applyReadingPaused(newSocket, newHeartBeatMonitor);
+            }
+        }
 
-                try {
-                    TCPConnection.this.socket.waitUntilConnected();
-                } catch (final Exception e) {
-                    if (this.keepRunning) {
-                        TCPConnection.log.warn("[{}] - Interrupted while waiting for connection to establish",
+        private void applyReadingPaused(final FrameSocket currentSocket, final HeartBeatMonitor monitor) {
+            if (monitor != null) {
+                // Heartbeats are not read either, which does not mean that the remote side is gone
+                monitor.setReadingPaused(this.readingPaused);
+            }
+            if (currentSocket == null) {
+                return;
+            } else if (this.readingPaused) {
+                currentSocket.pauseReading();
+            } else {
+                currentSocket.resumeReading();
+            }
+        }
+
+        /**
+         * Count a received message as handled, continue reading from the socket if enough of the queue was handled,
+         * and grant credits to the remote side if enough messages were handled
+         */
+        void handled() {
+            if (this.queued.decrementAndGet() <= this.resumeThreshold) {
+                synchronized (this) {
+                    if (this.readingPaused && (this.queued.get() <= this.resumeThreshold)) {
+                        TCPConnection.log.debug("[{}] - Handler caught up, resuming socket",
                                 TCPConnection.this.connectionId);
-                        continue;
-                    } else {
-                        break;
+                        this.readingPaused = false;
+                        this.applyReadingPaused(TCPConnection.this.socket, TCPConnection.this.heartBeatMonitor);
                     }
                 }
+            }
+
+            final int grant;
+            synchronized (this) {
+                if (!this.enabled || (++this.ungranted < this.grantThreshold)) {
+                    return;
+                }
+                grant = this.ungranted;
+                this.ungranted = 0;
+            }
 
+            final FrameSocket currentSocket = TCPConnection.this.socket;
+            if (currentSocket != null) {
                 try {
-                    // Create the monitors
-                    TCPConnection.log.debug("[{}] - Creating connection monitors", TCPConnection.this.connectionId);
-                    TCPConnection.this.handShakeMonitor = new HandShakeMonitor(TCPConnection.this.socket,
-                            TCPConnection.this.connectionId);
-                    TCPConnection.this.heartBeatMonitor = new HeartBeatMonitor(TCPConnection.this.socket,
-                            TCPConnection.this.connectionId);
-                } catch (final Exception e) {
-                    if (this.keepRunning) {
-                        TCPConnection.log.warn(
-                                "[{}] - Exception while instantiating connection monitors. Aborting setup",
-                                TCPConnection.this.connectionId);
-                        continue;
-                    } else {
-                        break;
-                    }
+                    TCPConnection.this.lanes.sendControl(currentSocket, CreditFrame.encode(grant));
+                } catch (final IOException e) {
+                    TCPConnection.log.debug("[{}] - Unable to grant credits: {}",
+                            TCPConnection.this.connectionId,
+                            e.getMessage());
                 }
+            }
+        }
 
-                // Now we have a functioning socket, make sure that as soon as there is a handshake, go connected
-                TCPConnection.this.connectionExecutor.submit(() -> {
-                    try {
-                        TCPConnection.log.debug("[{}] - Initiating handshake", TCPConnection.this.connectionId);
-                        TCPConnection.this.handShakeMonitor.sendHandshake(TCPConnection.this.getState());
-                        TCPConnection.this.handShakeMonitor.waitUntilFinished();
-                        TCPConnection.log.debug("[{}] - Handshake confirmed, starting heartbeat",
-                                TCPConnection.this.connectionId);
-                        TCPConnection.this.heartBeatMonitor.start();
-                        TCPConnection.this.goToConnectedState();
-                    } catch (final InterruptedException e) {
-                        if (this.keepRunning) {
-                            TCPConnection.log.warn("[{}] - Interrupted while waiting for TCP socket to initialize",
-                                    TCPConnection.this.connectionId);
-                        }
-                    }
-                });
+    }
 
-                while (this.keepRunning && (TCPConnection.this.socket != null)) {
-                    try {
-                        final byte[] data = TCPConnection.this.socket.read();
+    /**
+     * A message that was sent, and the future to complete once it is written
+     */
+    private static final class OutboundMessage {
 
-                        if ((data == null) || (data.length == 0)) {
-                            continue;
-                        }
+        final Object message;
+        final byte[] serialized;
+        final CompletableFuture<Void> future;
+        final boolean stream;
+        final long sentAt = System.nanoTime();
 
-                        // Check the socket again, since it may have changed since we started read()
-                        if ((TCPConnection.this.socket != null)
-                                && !TCPConnection.this.heartBeatMonitor.handleMessage(data)
-                                && !TCPConnection.this.handShakeMonitor.handleHandShake(data)) {
-                            TCPConnection.this.messageQueue.addMessage(data);
-                        }
-                    } catch (final IOException e) {
-                        // See if this was on purpose
-                        if (TCPConnection.this.isConnected() && this.keepRunning) {
-                            TCPConnection.log.warn("[{}] - IOException while reading from socket: {}",
-                                    TCPConnection.this.connectionId,
-                                    e.getMessage());
-                            TCPConnection.log.trace(e.getMessage(), e);
-                            TCPConnection.this.goToInterruptedState();
+        /**
+         * How long the message may wait for a credit according to the policy when it was sent, or a negative value if
+         * it may wait until it is granted
+         */
+        long creditWaitNanos = -1;
+
+        OutboundMessage(final Object message, final byte[] serialized, final CompletableFuture<Void> future) {
+            this(message, serialized, future, false);
+        }
+
+        OutboundMessage(final Object message,
+                final byte[] serialized,
+                final CompletableFuture<Void> future,
+                final boolean stream) {
+            this.message = message;
+            this.serialized = serialized;
+            this.future = future;
+            this.stream = stream;
+        }
+
+    }
+
+    /**
+     * A message that was received, with the time it was received at
+     */
+    private static final class InboundMessage {
+
+        final Object message;
+        final long receivedAt = System.nanoTime();
+
+        InboundMessage(final Object message) {
+            this.message = message;
+        }
+
+    }
+
+    /**
+     * The MessageWriter takes the messages that were sent from the bounded outbound queue, and writes them one by one,
+     * in order. It runs on the shared connection executor only while there are messages to write, and the remote side
+     * granted the credits to send them; when it runs out of credits it stops, and is scheduled again when more credits
+     * are granted. The future of each message is completed by the writer once it is written, or failed if it could not
+     * be written.
+     */
+    private final class MessageWriter implements Runnable {
+
+        private final BlockingQueue<OutboundMessage> outboundQueue = new LinkedBlockingQueue<>(
+                TCPConnection.SEND_QUEUE_CAPACITY);
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+        private volatile boolean keepRunning = true;
+        private HashedWheelTimer.Timeout expiry;
+
+        MessageWriter() {
+            // Private constructor for TCPConnection
+        }
+
+        /**
+         * @param msg the message to write
+         * @param waitNanos how long to wait for room in the queue when it is full, 0 to fail immediately, or a negative
+         *            value to wait until there is room
+         */
+        void addMessage(final OutboundMessage msg, final long waitNanos) {
+            final long deadline = System.nanoTime() + waitNanos;
+            try {
+                while (this.keepRunning && TCPConnection.this.isConnected()) {
+                    final long remaining = waitNanos < 0 ? TimeUnit.MILLISECONDS.toNanos(100)
+                            : Math.min(TimeUnit.MILLISECONDS.toNanos(100), deadline - System.nanoTime());
+                    if (this.outboundQueue.offer(msg, Math.max(0, remaining), TimeUnit.NANOSECONDS)) {
+                        // Make sure it is not left behind if the writer stopped in the meantime
+                        if (!this.keepRunning && this.outboundQueue.remove(msg)) {
+                            msg.future.completeExceptionally(new ClosedChannelException());
+                        } else {
+                            this.schedule();
                         }
-                        break;
-                    } catch (final Exception e) {
-                        TCPConnection.log.error("[{}] - Unexpected exception while operating on socket: {}",
-                                TCPConnection.this.connectionId,
-                                e.getMessage());
-                        TCPConnection.log.trace(e.getMessage(), e);
-                        TCPConnection.this.goToInterruptedState();
-                        break;
+                        return;
+                    } else if ((waitNanos >= 0) && ((deadline - System.nanoTime()) <= 0)) {
+                        msg.future.completeExceptionally(new FlowControlException(
+                                "Outbound queue of connection " + TCPConnection.this.connectionId + " is full"));
+                        return;
                     }
                 }
+                msg.future.completeExceptionally(new ClosedChannelException());
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                msg.future.completeExceptionally(new InterruptedIOException("Interrupted while sending message"));
+            }
+        }
 
-                // Don't hog the thread...
-                try {
-                    Thread.sleep(10);
-                } catch (final InterruptedException e) {
-                    // It's okay
+        /**
+         * Take a message back that was not taken by the writer yet
+         *
+         * @param msg the message to take back
+         * @return whether the message was taken back, or false if the writer took it already
+         */
+        boolean withdraw(final OutboundMessage msg) {
+            return this.outboundQueue.remove(msg);
+        }
+
+        void schedule() {
+            if (this.scheduled.compareAndSet(false, true)) {
+                TCPConnection.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            do {
+                while (this.keepRunning && this.writeNext()) {
+                    // Write until the queue is empty, or there are no credits
+                }
+                this.scheduled.set(false);
+                // Check if a message was added or credits were granted after the last attempt, but before we were done
+            } while (this.keepRunning && this.canWrite() && this.scheduled.compareAndSet(false, true));
+
+            if (!this.keepRunning) {
+                this.failRemaining();
+            }
+        }
+
+        private boolean canWrite() {
+            return !this.outboundQueue.isEmpty()
+                    && (!TCPConnection.this.isConnected() || TCPConnection.this.flowControl.hasCredits());
+        }
+
+        /**
+         * Write the first message in the queue, if there is a credit for it
+         *
+         * @return whether a message was taken from the queue
+         */
+        private boolean writeNext() {
+            final OutboundMessage msg = this.outboundQueue.peek();
+            if (msg == null) {
+                return false;
+            }
+
+            // When not connected, the message fails when it is written
+            final boolean needsCredit = TCPConnection.this.isConnected();
+            if (needsCredit && !TCPConnection.this.flowControl.tryAcquire()) {
+                this.expireWaiting();
+                return false;
+            }
+
+            if (!this.outboundQueue.remove(msg)) {
+                // It was taken back by the sender in the meantime
+                if (needsCredit) {
+                    TCPConnection.this.flowControl.release();
+                }
+                return true;
+            }
+            this.write(msg);
+            return true;
+        }
+
+        /**
+         * Fail the messages that waited longer for credits than the policy allowed when they were sent, and make sure
+         * the writer runs again when the next one would expire
+         */
+        private void expireWaiting() {
+            long next = Long.MAX_VALUE;
+            for (final OutboundMessage msg : this.outboundQueue) {
+                if (msg.creditWaitNanos < 0) {
+                    continue;
+                }
+                final long remaining = (msg.sentAt + msg.creditWaitNanos) - System.nanoTime();
+                if (remaining > 0) {
+                    next = Math.min(next, remaining);
+                } else if (this.outboundQueue.remove(msg)) {
+                    msg.future.completeExceptionally(new FlowControlException(
+                            "Remote side of connection " + TCPConnection.this.connectionId + " is not receiving"));
+                }
+            }
+            if (next < Long.MAX_VALUE) {
+                this.scheduleExpiry(next);
+            }
+        }
+
+        private synchronized void scheduleExpiry(final long delayNanos) {
+            if (this.expiry != null) {
+                this.expiry.cancel();
+            }
+            this.expiry = HashedWheelTimer.getInstance().schedule(this::schedule, delayNanos, TimeUnit.NANOSECONDS);
+        }
+
+        private void write(final OutboundMessage msg) {
+            try {
+                if (msg.stream) {
+                    TCPConnection.this.writeStream((InputStream) msg.message);
+                } else {
+                    TCPConnection.this.writeMessage(msg.message, msg.serialized);
                 }
+                TCPConnection.this.metrics
+                        .record(ConnectionMetrics.Stage.SEND, msg.message.getClass(), System.nanoTime() - msg.sentAt);
+                msg.future.complete(null);
+            } catch (final IOException e) {
+                msg.future.completeExceptionally(e);
+            } catch (final RuntimeException e) {
+                TCPConnection.log.error("[{}] - Unexpected exception while writing message",
+                        TCPConnection.this.connectionId,
+                        e);
+                msg.future.completeExceptionally(e);
+            }
+        }
 
-                // Retry setting up the connection
+        /**
+         * Everything that is left will never be written
+         */
+        private void failRemaining() {
+            OutboundMessage msg;
+            while ((msg = this.outboundQueue.poll()) != null) {
+                msg.future.completeExceptionally(new ClosedChannelException());
             }
         }
 
         void stop() {
             this.keepRunning = false;
+            synchronized (this) {
+                if (this.expiry != null) {
+                    this.expiry.cancel();
+                    this.expiry = null;
+                }
+            }
+            this.failRemaining();
         }
 
     }
 
+    /**
+     * The MessageQueue keeps the received messages until they are handled, and hands them to the
+     * {@link ConnectionHandler} in order. It runs on the shared connection executor only while there are messages in
+     * the queue.
+     */
     private final class MessageQueue implements Runnable {
 
-        private final BlockingQueue<byte[]> internalQueue = new LinkedBlockingQueue<>();
+        private final Queue<InboundMessage> internalQueue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
         private volatile boolean keepRunning = true;
 
         /**
@@ -643,29 +2341,36 @@ final class TCPConnection implements Connection, Closeable {
             // Protected constructor for TCPConnection
         }
 
-        void addMessage(final byte[] msg) {
-            try {
-                this.internalQueue.put(msg);
-            } catch (final InterruptedException e) {
-                TCPConnection.log.warn("[{}] - Interrupted while adding message to queue",
-                        TCPConnection.this.connectionId);
+        /**
+         * @param msg either a buffer or pooled frame containing a received message, or a message object from a
+         *            process in the same JVM
+         */
+        void addMessage(final Object msg) {
+            // Never blocks, this is called by the thread that reads from the socket
+            TCPConnection.this.flowControl.received();
+            this.internalQueue.add(new InboundMessage(msg));
+            if (this.scheduled.compareAndSet(false, true)) {
+                TCPConnection.execute(this);
             }
         }
 
         @Override
         public void run() {
-            while (this.keepRunning) {
-                try {
-                    final byte[] message = this.internalQueue.poll(100, TimeUnit.MILLISECONDS);
-                    if (message != null) {
-                        TCPConnection.this.handleMessage(message);
+            do {
+                InboundMessage msg;
+                while (this.keepRunning && ((msg = this.internalQueue.poll()) != null)) {
+                    if (msg.message instanceof PooledFrame) {
+                        final PooledFrame frame = (PooledFrame) msg.message;
+                        TCPConnection.this.handleMessage(frame.getData(), frame, msg.receivedAt);
+                    } else if (msg.message instanceof ByteBuffer) {
+                        TCPConnection.this.handleMessage((ByteBuffer) msg.message, null, msg.receivedAt);
+                    } else {
+                        TCPConnection.this.handleObject(msg.message, msg.receivedAt);
                     }
-                } catch (final InterruptedException e) {
-                    TCPConnection.log.trace("[{}] - Message handler interrupted, stopping thread",
-                            TCPConnection.this.connectionId);
-                    break;
                 }
-            }
+                this.scheduled.set(false);
+                // Check if a message was added after the last poll, but before we were done
+            } while (this.keepRunning && !this.internalQueue.isEmpty() && this.scheduled.compareAndSet(false, true));
         }
 
         void stop() {
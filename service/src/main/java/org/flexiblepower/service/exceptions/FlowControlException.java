@@ -0,0 +1,44 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service.exceptions;
+
+import java.io.IOException;
+
+/**
+ * FlowControlException is thrown when a message could not be sent, because the remote side did not grant credits in
+ * time. The connection itself is still healthy, so the message may be sent again later.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+public class FlowControlException extends IOException {
+
+    private static final long serialVersionUID = -2358107463209453171L;
+
+    /**
+     * Create a FlowControlException with a custom message
+     *
+     * @param msg the message to add to the exception {@link Exception#getMessage()}
+     */
+    public FlowControlException(final String msg) {
+        super(msg);
+    }
+
+}
@@ -0,0 +1,81 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.flexiblepower.compression.CompressionCodecs;
+import org.flexiblepower.compression.DeflateCodec;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * CompressedFrameTest
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+@SuppressWarnings({"static-method", "javadoc"})
+public class CompressedFrameTest {
+
+    private static final int MAX_FRAME_SIZE = 128 * 1024;
+
+    private static int deflateIndex() {
+        return CompressionCodecs.getInstance().getNames().indexOf(DeflateCodec.NAME);
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            sb.append("<message><value>").append(i).append("</value></message>");
+        }
+        final byte[] data = sb.toString().getBytes(StandardCharsets.UTF_8);
+        final int index = CompressedFrameTest.deflateIndex();
+
+        final byte[] frame = CompressedFrame.encode(data,
+                index,
+                CompressionCodecs.getInstance().getCodecs().get(index));
+        Assert.assertTrue(CompressedFrame.isCompressed(frame));
+        Assert.assertArrayEquals(data, CompressedFrame.decode(frame, CompressedFrameTest.MAX_FRAME_SIZE));
+    }
+
+    @Test(timeout = 5000)
+    public void hostileLength() {
+        // Seven bytes that claim to decompress to 2 GiB must not make the codec allocate that
+        for (final int length : new int[] {Integer.MAX_VALUE, -1, CompressedFrameTest.MAX_FRAME_SIZE + 1}) {
+            final byte[] frame = ByteBuffer.allocate(7)
+                    .put(BatchFrame.ENVELOPE_MARKER)
+                    .put(CompressedFrame.COMPRESSED_TYPE)
+                    .put((byte) CompressedFrameTest.deflateIndex())
+                    .putInt(length)
+                    .array();
+            try {
+                CompressedFrame.decode(frame, CompressedFrameTest.MAX_FRAME_SIZE);
+                Assert.fail("Expected the length " + length + " to be rejected");
+            } catch (final IOException e) {
+                Assert.assertTrue(e.getMessage(), e.getMessage().contains("exceeds the maximum"));
+            }
+        }
+    }
+
+}
@@ -20,16 +20,42 @@
 
 package org.flexiblepower.service;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
+import javax.activation.UnsupportedDataTypeException;
+
+import org.flexiblepower.commons.FrameListener;
+import org.flexiblepower.commons.LocalSocket;
+import org.flexiblepower.commons.SocketEngine;
+import org.flexiblepower.commons.StreamFrame;
+import org.flexiblepower.commons.TCPSocket;
+import org.flexiblepower.proto.ConnectionProto.ConnectionHandshake;
+import org.flexiblepower.proto.ConnectionProto.ConnectionState;
+import org.flexiblepower.proto.ServiceProto.ErrorMessage;
+import org.flexiblepower.serializers.ProtobufMessageSerializer;
 import org.flexiblepower.service.TestHandler.TestHandlerBuilder;
+import org.flexiblepower.service.exceptions.FlowControlException;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.rules.Timeout;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
@@ -50,6 +76,9 @@ public class ConnectionIntegrationTest {
     @Rule
     public Timeout globalTimeout = Timeout.seconds(5);
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Before
     public void before() throws InterruptedException {
         TestHandler.handlerMap.clear();
@@ -93,6 +122,602 @@ public class ConnectionIntegrationTest {
         TestHandler.stateQueue.poll(100, TimeUnit.MILLISECONDS);
     }
 
+    @Test(timeout = 30000)
+    public void testMulticast() throws Exception {
+        final InterfaceInfo info = TestHandler.class.getAnnotation(InterfaceInfo.class);
+        ConnectionManager.registerConnectionHandlerFactory(TestHandler.class, new TestHandlerBuilder());
+
+        try (
+                final TCPConnection mc1 = new TCPConnection("CIT",
+                        ConnectionIntegrationTest.TEST_PORT,
+                        "",
+                        info,
+                        "",
+                        "",
+                        "");
+                final TCPConnection mc2 = new TCPConnection("CIT",
+                        ConnectionIntegrationTest.TEST_PORT,
+                        "localhost",
+                        info,
+                        "",
+                        "",
+                        "");
+                final TCPConnection unconnected = new TCPConnection("CIT2",
+                        ConnectionIntegrationTest.TEST_PORT + 2,
+                        "localhost",
+                        info,
+                        "",
+                        "",
+                        "")) {
+            Assert.assertEquals("connected", TestHandler.stateQueue.take());
+            Assert.assertEquals("connected", TestHandler.stateQueue.take());
+            Assert.assertEquals("started", TestHandler.messageQueue.take());
+            Assert.assertEquals("started", TestHandler.messageQueue.take());
+            final long serialized = mc2.getMetrics().getLatencies().get("serialize")[0];
+
+            // Both remote sides announced the same type ids, so the message can be shared
+            Assert.assertEquals(Arrays.asList("ErrorMessage"), mc1.localTypeNames());
+            Assert.assertEquals(mc1.serializationKey(), mc2.serializationKey());
+
+            final Map<Connection, CompletableFuture<Void>> results = Multicast
+                    .send(ConnectionIntegrationTest.testMessage("multicast"), Arrays.asList(mc1, unconnected, mc2));
+            Assert.assertEquals(Arrays.asList(mc1, unconnected, mc2), new ArrayList<>(results.keySet()));
+
+            // The failure of one connection does not keep the message from the others
+            results.get(mc1).get();
+            results.get(mc2).get();
+            try {
+                results.get(unconnected).get();
+                Assert.fail("Expected ClosedChannelException");
+            } catch (final ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof ClosedChannelException);
+            }
+            Assert.assertEquals("multicast", TestHandler.messageQueue.take());
+            Assert.assertEquals("multicast", TestHandler.messageQueue.take());
+
+            // The message was serialized once, by the first connection
+            Assert.assertEquals(serialized, mc2.getMetrics().getLatencies().get("serialize")[0]);
+        }
+        TestHandler.stateQueue.poll(100, TimeUnit.MILLISECONDS);
+        TestHandler.stateQueue.poll(100, TimeUnit.MILLISECONDS);
+    }
+
+    @Test(timeout = 30000)
+    public void testStream() throws Exception {
+        final InterfaceInfo info = TestHandler.class.getAnnotation(InterfaceInfo.class);
+        ConnectionManager.registerConnectionHandlerFactory(TestHandler.class, new TestHandlerBuilder());
+
+        try (
+                final TCPConnection mc1 = new TCPConnection("CIT",
+                        ConnectionIntegrationTest.TEST_PORT,
+                        "",
+                        info,
+                        "",
+                        "",
+                        "");
+                final TCPConnection mc2 = new TCPConnection("CIT",
+                        ConnectionIntegrationTest.TEST_PORT,
+                        "localhost",
+                        info,
+                        "",
+                        "",
+                        "")) {
+            Assert.assertEquals("connected", TestHandler.stateQueue.take());
+            Assert.assertEquals("connected", TestHandler.stateQueue.take());
+            Assert.assertEquals("started", TestHandler.messageQueue.take());
+            Assert.assertEquals("started", TestHandler.messageQueue.take());
+
+            // Much more data than fits in the credit window, and more than the maximum frame size
+            mc2.setMaxFrameSize(2 * FragmentFrame.DEFAULT_FRAGMENT_SIZE);
+            final StringBuilder sb = new StringBuilder();
+            final Random random = new Random(42);
+            while (sb.length() < (3 * StreamFrame.WINDOW * StreamFrame.CHUNK_SIZE)) {
+                sb.append(Long.toHexString(random.nextLong()));
+            }
+            final String large = sb.toString();
+
+            mc1.sendStream(new ByteArrayInputStream(large.getBytes(StandardCharsets.UTF_8)));
+            mc1.send(ConnectionIntegrationTest.testMessage("after"));
+            Assert.assertEquals(large, TestHandler.messageQueue.take());
+            Assert.assertEquals("after", TestHandler.messageQueue.take());
+
+            // A stream that fills up the last chunk exactly, and an empty one
+            final byte[] exact = new byte[StreamFrame.CHUNK_SIZE];
+            Arrays.fill(exact, (byte) 'x');
+            mc1.sendStream(new ByteArrayInputStream(exact));
+            mc1.sendStream(new ByteArrayInputStream(new byte[0]));
+            Assert.assertEquals(new String(exact, StandardCharsets.UTF_8), TestHandler.messageQueue.take());
+            Assert.assertEquals("", TestHandler.messageQueue.take());
+        }
+        TestHandler.stateQueue.poll(100, TimeUnit.MILLISECONDS);
+        TestHandler.stateQueue.poll(100, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testCoalescing() throws Exception {
+        final InterfaceInfo info = TestHandler.class.getAnnotation(InterfaceInfo.class);
+        ConnectionManager.registerConnectionHandlerFactory(TestHandler.class, new TestHandlerBuilder());
+
+        try (
+                final TCPConnection mc1 = new TCPConnection("CIT",
+                        ConnectionIntegrationTest.TEST_PORT,
+                        "",
+                        info,
+                        "",
+                        "",
+                        "");
+                final TCPConnection mc2 = new TCPConnection("CIT",
+                        ConnectionIntegrationTest.TEST_PORT,
+                        "localhost",
+                        info,
+                        "",
+                        "",
+                        "")) {
+            Assert.assertEquals("connected", TestHandler.stateQueue.take());
+            Assert.assertEquals("connected", TestHandler.stateQueue.take());
+            Assert.assertEquals("started", TestHandler.messageQueue.take());
+            Assert.assertEquals("started", TestHandler.messageQueue.take());
+
+            // With a long linger time, messages are only sent when the batch is full
+            mc1.setCoalescing(1, TimeUnit.HOURS, 5);
+            for (int i = 0; i < 4; i++) {
+                mc1.send(ConnectionIntegrationTest.testMessage("batch " + i));
+            }
+            Assert.assertNull(TestHandler.messageQueue.poll(200, TimeUnit.MILLISECONDS));
+
+            mc1.send(ConnectionIntegrationTest.testMessage("batch 4"));
+            for (int i = 0; i < 5; i++) {
+                Assert.assertEquals("batch " + i, TestHandler.messageQueue.take());
+            }
+
+            // Disabling coalescing sends whatever is pending
+            mc1.send(ConnectionIntegrationTest.testMessage("batch 5"));
+            Assert.assertNull(TestHandler.messageQueue.poll(200, TimeUnit.MILLISECONDS));
+            mc1.setCoalescing(0, TimeUnit.MILLISECONDS, 1);
+            Assert.assertEquals("batch 5", TestHandler.messageQueue.take());
+        }
+        TestHandler.stateQueue.poll(100, TimeUnit.MILLISECONDS);
+        TestHandler.stateQueue.poll(100, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testCompression() throws Exception {
+        final InterfaceInfo info = TestHandler.class.getAnnotation(InterfaceInfo.class);
+        ConnectionManager.registerConnectionHandlerFactory(TestHandler.class, new TestHandlerBuilder());
+
+        try (
+                final TCPConnection mc1 = new TCPConnection("CIT",
+                        ConnectionIntegrationTest.TEST_PORT,
+                        "",
+                        info,
+                        "",
+                        "",
+                        "");
+                final TCPConnection mc2 = new TCPConnection("CIT",
+                        ConnectionIntegrationTest.TEST_PORT,
+                        "localhost",
+                        info,
+                        "",
+                        "",
+                        "")) {
+            Assert.assertEquals("connected", TestHandler.stateQueue.take());
+            Assert.assertEquals("connected", TestHandler.stateQueue.take());
+            Assert.assertEquals("started", TestHandler.messageQueue.take());
+            Assert.assertEquals("started", TestHandler.messageQueue.take());
+
+            final StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < 1000; i++) {
+                sb.append("compressible ");
+            }
+            final String large = sb.toString();
+
+            // Both sides support deflate, so this large message is compressed
+            mc1.send(ConnectionIntegrationTest.testMessage(large));
+            Assert.assertEquals(large, TestHandler.messageQueue.take());
+
+            // Compressed batches are unpacked as well
+            mc1.setCoalescing(1, TimeUnit.HOURS, 2);
+            mc1.send(ConnectionIntegrationTest.testMessage(large + "1"));
+            mc1.send(ConnectionIntegrationTest.testMessage(large + "2"));
+            Assert.assertEquals(large + "1", TestHandler.messageQueue.take());
+            Assert.assertEquals(large + "2", TestHandler.messageQueue.take());
+            mc1.setCoalescing(0, TimeUnit.MILLISECONDS, 1);
+
+            // And without compression it still arrives
+            mc2.setCompressionThreshold(-1);
+            mc2.send(ConnectionIntegrationTest.testMessage(large));
+            Assert.assertEquals(large, TestHandler.messageQueue.take());
+        }
+        TestHandler.stateQueue.poll(100, TimeUnit.MILLISECONDS);
+        TestHandler.stateQueue.poll(100, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testLargeMessage() throws Exception {
+        final InterfaceInfo info = TestHandler.class.getAnnotation(InterfaceInfo.class);
+        ConnectionManager.registerConnectionHandlerFactory(TestHandler.class, new TestHandlerBuilder());
+
+        try (
+                final TCPConnection mc1 = new TCPConnection("CIT",
+                        ConnectionIntegrationTest.TEST_PORT,
+                        "",
+                        info,
+                        "",
+                        "",
+                        "");
+                final TCPConnection mc2 = new TCPConnection("CIT",
+                        ConnectionIntegrationTest.TEST_PORT,
+                        "localhost",
+                        info,
+                        "",
+                        "",
+                        "")) {
+            Assert.assertEquals("connected", TestHandler.stateQueue.take());
+            Assert.assertEquals("connected", TestHandler.stateQueue.take());
+            Assert.assertEquals("started", TestHandler.messageQueue.take());
+            Assert.assertEquals("started", TestHandler.messageQueue.take());
+
+            final StringBuilder sb = new StringBuilder();
+            final Random random = new Random(42);
+            while (sb.length() < (4 * FragmentFrame.DEFAULT_FRAGMENT_SIZE)) {
+                sb.append(Long.toHexString(random.nextLong()));
+            }
+            final String large = sb.toString();
+
+            // The message is sent in fragments, which are put back together on the other side
+            mc1.setCompressionThreshold(-1);
+            mc1.send(ConnectionIntegrationTest.testMessage(large));
+            mc1.send(ConnectionIntegrationTest.testMessage("small"));
+            Assert.assertEquals(large, TestHandler.messageQueue.take());
+            Assert.assertEquals("small", TestHandler.messageQueue.take());
+        }
+        TestHandler.stateQueue.poll(100, TimeUnit.MILLISECONDS);
+        TestHandler.stateQueue.poll(100, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testSharedMemory() throws Exception {
+        final InterfaceInfo info = TestHandler.class.getAnnotation(InterfaceInfo.class);
+        ConnectionManager.registerConnectionHandlerFactory(TestHandler.class, new TestHandlerBuilder());
+
+        final String shmPath = this.folder.getRoot().getAbsolutePath();
+        try (
+                final TCPConnection mc1 = new TCPConnection("CIT",
+                        ConnectionIntegrationTest.TEST_PORT,
+                        "",
+                        shmPath,
+                        info,
+                        "",
+                        "",
+                        "");
+                final TCPConnection mc2 = new TCPConnection("CIT",
+                        ConnectionIntegrationTest.TEST_PORT,
+                        "localhost",
+                        shmPath,
+                        info,
+                        "",
+                        "",
+                        "")) {
+            Assert.assertEquals("connected", TestHandler.stateQueue.take());
+            Assert.assertEquals("connected", TestHandler.stateQueue.take());
+            Assert.assertEquals("started", TestHandler.messageQueue.take());
+            Assert.assertEquals("started", TestHandler.messageQueue.take());
+
+            mc1.send(ConnectionIntegrationTest.testMessage("over shared memory"));
+            Assert.assertEquals("over shared memory", TestHandler.messageQueue.take());
+
+            // Suspend, and resume over TCP as if one of the processes moved to another host
+            mc1.goToSuspendedState();
+            mc2.goToSuspendedState();
+            Assert.assertEquals("suspended", TestHandler.stateQueue.take());
+            Assert.assertEquals("suspended", TestHandler.stateQueue.take());
+
+            mc1.goToResumedState(5002, "", "");
+            mc2.goToResumedState(5002, "localhost", "");
+            Assert.assertEquals("resumed from suspend", TestHandler.messageQueue.take());
+            Assert.assertEquals("resumed from suspend", TestHandler.messageQueue.take());
+            Assert.assertEquals("resume-suspended", TestHandler.stateQueue.take());
+            Assert.assertEquals("resume-suspended", TestHandler.stateQueue.take());
+
+            mc2.send(ConnectionIntegrationTest.testMessage("over tcp"));
+            Assert.assertEquals("over tcp", TestHandler.messageQueue.take());
+        }
+        TestHandler.stateQueue.poll(100, TimeUnit.MILLISECONDS);
+        TestHandler.stateQueue.poll(100, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testFlowControl() throws Exception {
+        final InterfaceInfo info = TestHandler.class.getAnnotation(InterfaceInfo.class);
+        ConnectionManager.registerConnectionHandlerFactory(TestHandler.class, new TestHandlerBuilder());
+
+        try (
+                final TCPConnection mc1 = new TCPConnection("CIT",
+                        ConnectionIntegrationTest.TEST_PORT,
+                        "",
+                        info,
+                        "",
+                        "",
+                        "");
+                final TCPConnection mc2 = new TCPConnection("CIT",
+                        ConnectionIntegrationTest.TEST_PORT,
+                        "localhost",
+                        info,
+                        "",
+                        "",
+                        "")) {
+            Assert.assertEquals("connected", TestHandler.stateQueue.take());
+            Assert.assertEquals("connected", TestHandler.stateQueue.take());
+            Assert.assertEquals("started", TestHandler.messageQueue.take());
+            Assert.assertEquals("started", TestHandler.messageQueue.take());
+
+            // Stall the handlers, so the remote side does not grant any credits
+            final CountDownLatch stall = new CountDownLatch(1);
+            ServiceExecutor.getInstance().submit(() -> {
+                stall.await();
+                return null;
+            });
+
+            // Send until the credits run out
+            final ErrorMessage message = ConnectionIntegrationTest.testMessage("flow");
+            mc1.setFlowControl(FlowControlPolicy.FAIL_FAST, 0, TimeUnit.MILLISECONDS);
+            int sent = 0;
+            try {
+                while (sent <= TCPConnection.RECEIVE_WINDOW) {
+                    mc1.send(message);
+                    sent++;
+                }
+                Assert.fail("Expected send to fail without credits");
+            } catch (final FlowControlException e) {
+                Assert.assertTrue(sent > 0);
+            }
+            while (mc2.getQueueDepth() < sent) {
+                Thread.sleep(10);
+            }
+
+            mc1.setFlowControl(FlowControlPolicy.TIMEOUT, 50, TimeUnit.MILLISECONDS);
+            final long start = System.currentTimeMillis();
+            try {
+                mc1.send(message);
+                Assert.fail("Expected send to time out without credits");
+            } catch (final FlowControlException e) {
+                Assert.assertTrue((System.currentTimeMillis() - start) >= 50);
+            }
+            Assert.assertTrue(mc1.isConnected());
+            Assert.assertEquals(sent, mc2.getQueueDepth());
+
+            // Without credits, a message that is sent without waiting fails right away with FAIL_FAST
+            mc1.setFlowControl(FlowControlPolicy.FAIL_FAST, 0, TimeUnit.MILLISECONDS);
+            Assert.assertTrue(mc1.sendAsync(message).isCompletedExceptionally());
+
+            // Otherwise it waits in the outbound queue, without holding a thread
+            mc1.setFlowControl(FlowControlPolicy.BLOCK, 0, TimeUnit.MILLISECONDS);
+            final List<CompletableFuture<Void>> waiting = new ArrayList<>();
+            for (int i = 0; i < TCPConnection.SEND_QUEUE_CAPACITY; i++) {
+                waiting.add(mc1.sendAsync(message));
+            }
+            Assert.assertFalse(waiting.get(0).isDone());
+
+            // When the outbound queue is full, the caller does not wait longer than the policy allows either
+            mc1.setFlowControl(FlowControlPolicy.TIMEOUT, 50, TimeUnit.MILLISECONDS);
+            final long queueStart = System.currentTimeMillis();
+            try {
+                mc1.send(message);
+                Assert.fail("Expected send to time out with a full outbound queue");
+            } catch (final FlowControlException e) {
+                Assert.assertTrue((System.currentTimeMillis() - queueStart) >= 50);
+            }
+
+            // Once the handler catches up, credits are granted again
+            stall.countDown();
+            mc1.setFlowControl(FlowControlPolicy.BLOCK, 0, TimeUnit.MILLISECONDS);
+            mc1.send(message);
+            CompletableFuture.allOf(waiting.toArray(new CompletableFuture<?>[0])).get();
+            for (int i = 0; i <= (sent + TCPConnection.SEND_QUEUE_CAPACITY); i++) {
+                Assert.assertEquals("flow", TestHandler.messageQueue.take());
+            }
+            while (mc2.getQueueDepth() > 0) {
+                Thread.sleep(10);
+            }
+        }
+        TestHandler.stateQueue.poll(100, TimeUnit.MILLISECONDS);
+        TestHandler.stateQueue.poll(100, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testReceiveWindowWithoutFlowControl() throws Exception {
+        final InterfaceInfo info = TestHandler.class.getAnnotation(InterfaceInfo.class);
+        ConnectionManager.registerConnectionHandlerFactory(TestHandler.class, new TestHandlerBuilder());
+
+        final List<TCPSocket> others = new ArrayList<>();
+        try (
+                final TCPConnection mc1 = new TCPConnection("CIT",
+                        ConnectionIntegrationTest.TEST_PORT,
+                        "",
+                        info,
+                        "",
+                        "",
+                        "");
+                final TCPSocket peer = TCPSocket.asClient("localhost", ConnectionIntegrationTest.TEST_PORT)) {
+            // An older version does not announce a receive window, and hence does not wait for credits
+            final ProtobufMessageSerializer serializer = new ProtobufMessageSerializer();
+            serializer.addMessageClass(ConnectionHandshake.class);
+            serializer.addMessageClass(ErrorMessage.class);
+            peer.waitUntilConnected();
+            peer.send(serializer.serialize(ConnectionHandshake.newBuilder()
+                    .setConnectionId("CIT")
+                    .setConnectionState(ConnectionState.CONNECTED)
+                    .build()));
+            Assert.assertEquals("connected", TestHandler.stateQueue.take());
+
+            // Stall the handler, and flood it
+            final CountDownLatch stall = new CountDownLatch(1);
+            ServiceExecutor.getInstance().submit(() -> {
+                stall.await();
+                return null;
+            });
+            final byte[] frame = serializer.serialize(ConnectionIntegrationTest.testMessage("flood"));
+            final int total = 4 * TCPConnection.RECEIVE_WINDOW;
+            final Thread sender = new Thread(() -> {
+                try {
+                    for (int i = 0; i < total; i++) {
+                        peer.send(frame);
+                    }
+                } catch (final IOException e) {
+                    peer.close();
+                }
+            });
+            sender.setDaemon(true);
+            sender.start();
+
+            // The connection stops reading once the handler is more than a receive window behind
+            while (mc1.getQueueDepth() <= TCPConnection.RECEIVE_WINDOW) {
+                Thread.sleep(10);
+            }
+            Thread.sleep(100);
+            Assert.assertEquals(TCPConnection.RECEIVE_WINDOW + 1, mc1.getQueueDepth());
+
+            // Meanwhile, the I/O threads keep serving the other sockets, one of which shares the thread of mc1
+            final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+            for (int i = 0; i < SocketEngine.getInstance().getThreadCount(); i++) {
+                final int port = ConnectionIntegrationTest.TEST_PORT + 10 + i;
+                final TCPSocket server = TCPSocket.asServer(port);
+                final TCPSocket client = TCPSocket.asClient("127.0.0.1", port);
+                others.add(server);
+                others.add(client);
+                client.waitUntilConnected(1000);
+                server.waitUntilConnected(1000);
+                server.attach(new FrameListener() {
+
+                    @Override
+                    public void onFrame(final byte[] data) {
+                        received.add(new String(data, StandardCharsets.UTF_8));
+                    }
+
+                    @Override
+                    public void onClose() {
+                        // Closed when the test is done
+                    }
+                });
+                client.send(("other " + i).getBytes(StandardCharsets.UTF_8));
+                Assert.assertEquals("other " + i, received.poll(1, TimeUnit.SECONDS));
+            }
+            Assert.assertTrue(mc1.isConnected());
+
+            // Once the handler catches up, everything is handled in order
+            stall.countDown();
+            for (int i = 0; i < total; i++) {
+                Assert.assertEquals("flood", TestHandler.messageQueue.take());
+            }
+            sender.join();
+            while (mc1.getQueueDepth() > 0) {
+                Thread.sleep(10);
+            }
+        } finally {
+            others.forEach(TCPSocket::close);
+        }
+        TestHandler.stateQueue.poll(100, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testSendAsync() throws Exception {
+        final InterfaceInfo info = TestHandler.class.getAnnotation(InterfaceInfo.class);
+        ConnectionManager.registerConnectionHandlerFactory(TestHandler.class, new TestHandlerBuilder());
+
+        CompletableFuture<Void> afterClose;
+        try (
+                final TCPConnection mc1 = new TCPConnection("CIT",
+                        ConnectionIntegrationTest.TEST_PORT,
+                        "",
+                        info,
+                        "",
+                        "",
+                        "");
+                final TCPConnection mc2 = new TCPConnection("CIT",
+                        ConnectionIntegrationTest.TEST_PORT,
+                        "localhost",
+                        info,
+                        "",
+                        "",
+                        "")) {
+            Assert.assertEquals("connected", TestHandler.stateQueue.take());
+            Assert.assertEquals("connected", TestHandler.stateQueue.take());
+            Assert.assertEquals("started", TestHandler.messageQueue.take());
+            Assert.assertEquals("started", TestHandler.messageQueue.take());
+
+            final List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                futures.add(mc1.sendAsync(ConnectionIntegrationTest.testMessage("async " + i)));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get();
+            for (int i = 0; i < 100; i++) {
+                Assert.assertEquals("async " + i, TestHandler.messageQueue.take());
+            }
+
+            try {
+                mc1.sendAsync("Not a registered type").get();
+                Assert.fail("Expected sending an unregistered type to fail");
+            } catch (final ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof UnsupportedDataTypeException);
+            }
+
+            mc1.close();
+            afterClose = mc1.sendAsync(ConnectionIntegrationTest.testMessage("closed"));
+        }
+
+        try {
+            afterClose.get();
+            Assert.fail("Expected sending after close to fail");
+        } catch (final ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof ClosedChannelException);
+        }
+        TestHandler.stateQueue.poll(100, TimeUnit.MILLISECONDS);
+        TestHandler.stateQueue.poll(100, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testInProcess() throws Exception {
+        final InterfaceInfo info = TestHandler.class.getAnnotation(InterfaceInfo.class);
+        ConnectionManager.registerConnectionHandlerFactory(TestHandler.class, new TestHandlerBuilder());
+
+        LocalSocket.registerLocalProcess("local-process");
+        try (
+                final TCPConnection mc1 = new TCPConnection("CIT",
+                        ConnectionIntegrationTest.TEST_PORT,
+                        "",
+                        info,
+                        "local-process",
+                        "",
+                        "");
+                final TCPConnection mc2 = new TCPConnection("CIT",
+                        ConnectionIntegrationTest.TEST_PORT,
+                        "localhost",
+                        info,
+                        "local-process",
+                        "",
+                        "")) {
+            Assert.assertEquals("connected", TestHandler.stateQueue.take());
+            Assert.assertEquals("connected", TestHandler.stateQueue.take());
+            Assert.assertEquals("started", TestHandler.messageQueue.take());
+            Assert.assertEquals("started", TestHandler.messageQueue.take());
+            Assert.assertTrue(mc1.socket instanceof LocalSocket);
+
+            // The message object is handed over as it is, without serializing it
+            final ErrorMessage message = ConnectionIntegrationTest.testMessage("in process");
+            mc1.send(message);
+            Assert.assertEquals("in process", TestHandler.messageQueue.take());
+            Assert.assertTrue(TestHandler.handlerMap.values().stream().anyMatch(h -> h.lastMessage == message));
+        } finally {
+            LocalSocket.unregisterLocalProcess("local-process");
+        }
+        TestHandler.stateQueue.poll(100, TimeUnit.MILLISECONDS);
+        TestHandler.stateQueue.poll(100, TimeUnit.MILLISECONDS);
+    }
+
+    private static ErrorMessage testMessage(final String value) {
+        return ErrorMessage.newBuilder().setDebugInformation(value).setProcessId("Error process").build();
+    }
+
     @Test
     public void testSuspendAndResume() throws Exception {
         final InterfaceInfo info = TestHandler.class.getAnnotation(InterfaceInfo.class);
@@ -138,6 +763,67 @@ public class ConnectionIntegrationTest {
         TestHandler.stateQueue.poll(100, TimeUnit.MILLISECONDS);
     }
 
+    @Test
+    public void testSessionResumption() throws Exception {
+        final InterfaceInfo info = TestHandler.class.getAnnotation(InterfaceInfo.class);
+        ConnectionManager.registerConnectionHandlerFactory(TestHandler.class, new TestHandlerBuilder());
+
+        try (
+                final TCPConnection mc1 = new TCPConnection("CIT",
+                        ConnectionIntegrationTest.TEST_PORT,
+                        "",
+                        info,
+                        "",
+                        "",
+                        "");
+                final TCPConnection mc2 = new TCPConnection("CIT",
+                        ConnectionIntegrationTest.TEST_PORT,
+                        "localhost",
+                        info,
+                        "",
+                        "",
+                        "")) {
+            Assert.assertEquals("connected", TestHandler.stateQueue.take());
+            Assert.assertEquals("connected", TestHandler.stateQueue.take());
+            Assert.assertEquals("started", TestHandler.messageQueue.take());
+            Assert.assertEquals("started", TestHandler.messageQueue.take());
+
+            // Received frames are acknowledged, so they are not kept
+            mc2.send(ConnectionIntegrationTest.testMessage("before"));
+            Assert.assertEquals("before", TestHandler.messageQueue.take());
+            while ((mc1.replayBuffer.size() > 0) || (mc2.replayBuffer.size() > 0)) {
+                Thread.sleep(10);
+            }
+
+            // Messages that are still in flight when the connection is interrupted are not lost
+            mc2.setCoalescing(1, TimeUnit.HOURS, 100);
+            for (int i = 0; i < 3; i++) {
+                mc2.send(ConnectionIntegrationTest.testMessage("in flight " + i));
+            }
+            mc2.socket.close();
+
+            final List<String> states = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                states.add(TestHandler.stateQueue.take());
+            }
+            Assert.assertEquals(2, Collections.frequency(states, "interrupted"));
+            Assert.assertEquals(2, Collections.frequency(states, "resume-interrupted"));
+            mc2.setCoalescing(0, TimeUnit.MILLISECONDS, 1);
+
+            // The messages arrive exactly once, in order, and before anything sent after the resume
+            final List<String> received = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                received.add(TestHandler.messageQueue.take());
+            }
+            Assert.assertEquals(2, Collections.frequency(received, "resumed from interrupt"));
+            received.removeIf("resumed from interrupt"::equals);
+            Assert.assertEquals(Arrays.asList("in flight 0", "in flight 1", "in flight 2"), received);
+            Assert.assertNull(TestHandler.messageQueue.poll(200, TimeUnit.MILLISECONDS));
+        }
+        TestHandler.stateQueue.poll(100, TimeUnit.MILLISECONDS);
+        TestHandler.stateQueue.poll(100, TimeUnit.MILLISECONDS);
+    }
+
     @Test
     public void testInterruptDetectionAndResume() throws Exception {
         final InterfaceInfo info = TestHandler.class.getAnnotation(InterfaceInfo.class);
@@ -201,4 +887,62 @@ public class ConnectionIntegrationTest {
         TestHandler.stateQueue.poll(100, TimeUnit.MILLISECONDS);
         TestHandler.stateQueue.poll(100, TimeUnit.MILLISECONDS);
     }
+
+    @Test
+    public void testThreadCountIsFlat() throws Exception {
+        final InterfaceInfo info = TestHandler.class.getAnnotation(InterfaceInfo.class);
+        ConnectionManager.registerConnectionHandlerFactory(TestHandler.class, new TestHandlerBuilder());
+
+        final List<TCPConnection> connections = new ArrayList<>();
+        try {
+            // Open 8 connections first, so the shared timer, I/O threads and thread pools are running
+            ConnectionIntegrationTest.openConnections(connections, 4, info);
+            final int threadsBefore = ConnectionIntegrationTest.settledThreadCount();
+
+            ConnectionIntegrationTest.openConnections(connections, 16, info);
+            final int threadsAfter = ConnectionIntegrationTest.settledThreadCount();
+
+            // The connections share the timer and the thread pools, so 32 more connections may add at most 4 threads
+            // altogether, i.e. an eighth of a thread per connection, instead of a thread or more each
+            Assert.assertEquals(40, connections.size());
+            Assert.assertTrue("Went from " + threadsBefore + " to " + threadsAfter + " threads for 32 connections",
+                    (threadsAfter - threadsBefore) <= 4);
+        } finally {
+            connections.forEach(TCPConnection::close);
+            while (TestHandler.stateQueue.poll(100, TimeUnit.MILLISECONDS) != null) {
+                // Make room for the states of the connections that are closing
+            }
+        }
+    }
+
+    /**
+     * @return the number of live threads once it stopped changing, so threads that are still starting or stopping, for
+     *         instance those of an earlier test, are not counted halfway
+     */
+    private static int settledThreadCount() throws InterruptedException {
+        int count = Thread.activeCount();
+        for (int i = 0; i < 50; i++) {
+            Thread.sleep(100);
+            final int next = Thread.activeCount();
+            if (next == count) {
+                return count;
+            }
+            count = next;
+        }
+        return count;
+    }
+
+    private static void openConnections(final List<TCPConnection> connections,
+            final int pairs,
+            final InterfaceInfo info) throws InterruptedException {
+        for (int i = 0; i < pairs; i++) {
+            final int port = ConnectionIntegrationTest.TEST_PORT + 100 + (connections.size() / 2);
+            final String connectionId = "CIT-" + port;
+            connections.add(new TCPConnection(connectionId, port, "", info, "", "", ""));
+            connections.add(new TCPConnection(connectionId, port, "localhost", info, "", "", ""));
+            Assert.assertEquals("connected", TestHandler.stateQueue.take());
+            Assert.assertEquals("connected", TestHandler.stateQueue.take());
+        }
+    }
+
 }
@@ -0,0 +1,119 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+import org.flexiblepower.proto.ServiceProto.ConnectionMetricsSnapshot;
+import org.flexiblepower.proto.ServiceProto.ErrorMessage;
+import org.flexiblepower.proto.ServiceProto.LatencySnapshot;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * ConnectionMetricsTest
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+@SuppressWarnings({"static-method", "javadoc"})
+public class ConnectionMetricsTest {
+
+    @Test
+    public void testHistogram() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(0, histogram.percentile(0.5));
+
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        Assert.assertEquals(100, histogram.count());
+        Assert.assertEquals(TimeUnit.MICROSECONDS.toNanos(100), histogram.max());
+
+        // Percentiles are never below the actual value, and never more than twice as high
+        final long median = histogram.percentile(0.5);
+        Assert.assertTrue(median >= TimeUnit.MICROSECONDS.toNanos(50));
+        Assert.assertTrue(median < TimeUnit.MICROSECONDS.toNanos(100));
+        Assert.assertEquals(histogram.max(), histogram.percentile(1));
+
+        Assert.assertEquals(0, LatencyHistogram.bucketOf(0));
+        Assert.assertEquals(1, LatencyHistogram.bucketOf(1));
+        Assert.assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testSnapshot() {
+        final ConnectionMetrics metrics = new ConnectionMetrics("test", true, () -> 3, () -> 4);
+        metrics.messageSent(ErrorMessage.class, 10);
+        metrics.messageSent(ErrorMessage.class, 20);
+        metrics.messageReceived(String.class, 5);
+        metrics.record(ConnectionMetrics.Stage.DISPATCH, String.class, 1000);
+
+        final ConnectionMetricsSnapshot snapshot = metrics.toSnapshot();
+        Assert.assertEquals("test", snapshot.getConnectionId());
+        Assert.assertEquals(2, snapshot.getMessagesSent());
+        Assert.assertEquals(30, snapshot.getBytesSent());
+        Assert.assertEquals(1, snapshot.getMessagesReceived());
+        Assert.assertEquals(5, snapshot.getBytesReceived());
+        Assert.assertEquals(3, snapshot.getSendQueueDepth());
+        Assert.assertEquals(4, snapshot.getReceiveQueueDepth());
+        Assert.assertEquals(2, snapshot.getMessageTypesCount());
+
+        // One total per stage, and only the stages that were timed per message type
+        Assert.assertEquals(ConnectionMetrics.Stage.values().length + 1, snapshot.getLatenciesCount());
+        final LatencySnapshot dispatch = snapshot.getLatenciesList()
+                .stream()
+                .filter(l -> l.getStage().equals("dispatch") && l.getMessageType().equals("String"))
+                .findFirst()
+                .get();
+        Assert.assertEquals(1, dispatch.getCount());
+        Assert.assertEquals(1000, dispatch.getMaxNanos());
+        Assert.assertEquals(1, dispatch.getBuckets(LatencyHistogram.bucketOf(1000)));
+    }
+
+    @Test
+    public void testMXBean() throws Exception {
+        final ConnectionMetrics metrics = new ConnectionMetrics("mxbean-test", false, () -> 0, () -> 0);
+        metrics.register();
+        try {
+            metrics.messageSent(ErrorMessage.class, 10);
+            metrics.record(ConnectionMetrics.Stage.SEND, ErrorMessage.class, 1000);
+
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName name = new ObjectName(
+                    "org.flexiblepower.service:type=Connection,id=\"mxbean-test\",endpoint=client");
+            Assert.assertEquals(1L, server.getAttribute(name, "MessagesSent"));
+            Assert.assertEquals(10L, server.getAttribute(name, "BytesSent"));
+            final TabularData latencies = (TabularData) server.getAttribute(name, "Latencies");
+            Assert.assertNotNull(latencies.get(new Object[] {"send/ErrorMessage"}));
+
+            metrics.unregister();
+            Assert.assertFalse(server.isRegistered(name));
+        } finally {
+            metrics.unregister();
+        }
+    }
+
+}
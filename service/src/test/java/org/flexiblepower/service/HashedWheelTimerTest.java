@@ -0,0 +1,92 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * HashedWheelTimerTest
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+@SuppressWarnings({"static-method", "javadoc"})
+public class HashedWheelTimerTest {
+
+    @Test(timeout = 10000)
+    public void testDeadlines() throws InterruptedException {
+        final HashedWheelTimer timer = HashedWheelTimer.getInstance();
+        final List<Integer> order = new CopyOnWriteArrayList<>();
+        final CountDownLatch done = new CountDownLatch(3);
+
+        final long start = System.nanoTime();
+        timer.schedule(() -> {
+            order.add(3);
+            done.countDown();
+        }, 300, TimeUnit.MILLISECONDS);
+        timer.schedule(() -> {
+            order.add(1);
+            done.countDown();
+        }, 0, TimeUnit.MILLISECONDS);
+        timer.schedule(() -> {
+            order.add(2);
+            done.countDown();
+        }, 100, TimeUnit.MILLISECONDS);
+
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(300));
+        Assert.assertEquals(3, order.size());
+        Assert.assertEquals(1, order.get(0).intValue());
+        Assert.assertEquals(2, order.get(1).intValue());
+        Assert.assertEquals(3, order.get(2).intValue());
+    }
+
+    @Test(timeout = 10000)
+    public void testLongDelay() throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(1);
+        final long start = System.nanoTime();
+
+        // Longer than a full turn of the wheel, so it is skipped the first time its bucket comes by
+        HashedWheelTimer.getInstance().schedule(done::countDown, 5200, TimeUnit.MILLISECONDS);
+        Assert.assertFalse(done.await(5000, TimeUnit.MILLISECONDS));
+        Assert.assertTrue(done.await(4, TimeUnit.SECONDS));
+        Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(5200));
+    }
+
+    @Test(timeout = 10000)
+    public void testCancel() throws InterruptedException {
+        final HashedWheelTimer timer = HashedWheelTimer.getInstance();
+        final CountDownLatch cancelled = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+
+        timer.schedule(cancelled::countDown, 50, TimeUnit.MILLISECONDS).cancel();
+        timer.schedule(done::countDown, 100, TimeUnit.MILLISECONDS);
+
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assert.assertFalse(cancelled.await(100, TimeUnit.MILLISECONDS));
+    }
+
+}
@@ -0,0 +1,163 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.flexiblepower.commons.FrameListener;
+import org.flexiblepower.commons.FrameSocket;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * HeartBeatMonitorTest
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+@SuppressWarnings({"static-method", "javadoc"})
+public class HeartBeatMonitorTest {
+
+    private static final byte[] PING = new byte[] {(byte) 0xA};
+    private static final byte[] PONG = new byte[] {(byte) 0xB};
+
+    @Test(timeout = 10000)
+    public void testRoundTripTime() throws InterruptedException {
+        final RecordingSocket socket = new RecordingSocket();
+        final AtomicLong roundTrip = new AtomicLong(-1);
+        final HeartBeatMonitor monitor = new HeartBeatMonitor(socket, "test", Runnable::run, roundTrip::set);
+        monitor.configure(TimeUnit.MILLISECONDS.toNanos(50), 2);
+        monitor.start();
+
+        // An idle connection sends heartbeats, and times them
+        Assert.assertArrayEquals(HeartBeatMonitorTest.PING, socket.sent.take());
+        Thread.sleep(20);
+        Assert.assertTrue(monitor.handleMessage(HeartBeatMonitorTest.PONG));
+        Assert.assertTrue(roundTrip.get() >= TimeUnit.MILLISECONDS.toNanos(20));
+        Assert.assertArrayEquals(HeartBeatMonitorTest.PING, socket.sent.take());
+
+        // A ping is answered right away
+        socket.sent.clear();
+        Assert.assertTrue(monitor.handleMessage(HeartBeatMonitorTest.PING));
+        Assert.assertArrayEquals(HeartBeatMonitorTest.PONG, socket.sent.poll());
+        monitor.stop();
+    }
+
+    @Test(timeout = 10000)
+    public void testBusyConnection() throws InterruptedException {
+        final RecordingSocket socket = new RecordingSocket();
+        final HeartBeatMonitor monitor = new HeartBeatMonitor(socket, "test", Runnable::run, rtt -> {
+            // Not used
+        });
+        monitor.configure(TimeUnit.MILLISECONDS.toNanos(50), 1);
+        monitor.start();
+
+        // As long as other frames are received, no heartbeats are needed, nor missed
+        for (int i = 0; i < 30; i++) {
+            monitor.trafficReceived();
+            Thread.sleep(10);
+        }
+        Assert.assertTrue(socket.sent.isEmpty());
+        Assert.assertFalse(socket.isClosed());
+        monitor.stop();
+    }
+
+    @Test(timeout = 10000)
+    public void testMissedHeartBeats() throws InterruptedException {
+        final RecordingSocket socket = new RecordingSocket();
+        final HeartBeatMonitor monitor = new HeartBeatMonitor(socket, "test", Runnable::run, rtt -> {
+            // Not used
+        });
+        monitor.configure(TimeUnit.MILLISECONDS.toNanos(50), 2);
+        monitor.start();
+
+        // The first heartbeat, and two more that are missed
+        for (int i = 0; i < 3; i++) {
+            Assert.assertArrayEquals(HeartBeatMonitorTest.PING, socket.sent.take());
+            Assert.assertFalse(socket.isClosed());
+        }
+
+        // The third miss is one too many
+        while (!socket.isClosed()) {
+            Thread.sleep(10);
+        }
+        Assert.assertTrue(socket.sent.isEmpty());
+    }
+
+    private static class RecordingSocket implements FrameSocket {
+
+        final BlockingQueue<byte[]> sent = new LinkedBlockingQueue<>();
+        private volatile boolean closed = false;
+
+        RecordingSocket() {
+            // Private class
+        }
+
+        @Override
+        public boolean isConnected() {
+            return !this.closed;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return this.closed;
+        }
+
+        @Override
+        public void waitUntilConnected() {
+            // Always connected
+        }
+
+        @Override
+        public boolean waitUntilConnected(final long millis) {
+            return true;
+        }
+
+        @Override
+        public void attach(final FrameListener frameListener) {
+            // Not used
+        }
+
+        @Override
+        public void pauseReading() {
+            // Not used
+        }
+
+        @Override
+        public void resumeReading() {
+            // Not used
+        }
+
+        @Override
+        public void send(final byte[] data) {
+            this.sent.add(data);
+        }
+
+        @Override
+        public void close() {
+            this.closed = true;
+        }
+
+    }
+
+}
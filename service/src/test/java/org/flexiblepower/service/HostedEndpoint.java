@@ -0,0 +1,131 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.flexiblepower.serializers.JavaIOSerializer;
+import org.flexiblepower.service.shared.SharedMessage;
+
+/**
+ * One end of a connection in a hosted process. The ServiceHostTest loads this class in the class loader of every
+ * process, and calls it with reflection, so its methods only use types that the processes share with the test.
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+@SuppressWarnings("javadoc")
+public final class HostedEndpoint {
+
+    private static final int PORT = 5011;
+    private static final BlockingQueue<Object> received = new LinkedBlockingQueue<>();
+
+    private HostedEndpoint() {
+        // Only the static methods are used
+    }
+
+    public static Closeable connect(final String connectionId,
+            final String targetAddress,
+            final String remoteProcessId) {
+        ConnectionManager.registerConnectionHandlerFactory(Handler.class, new HandlerManager());
+        return new TCPConnection(connectionId,
+                HostedEndpoint.PORT,
+                targetAddress,
+                Handler.class.getAnnotation(InterfaceInfo.class),
+                remoteProcessId,
+                "",
+                "");
+    }
+
+    public static boolean isConnected(final Closeable connection) {
+        return ((TCPConnection) connection).isConnected();
+    }
+
+    public static void send(final Closeable connection, final Object message) throws IOException {
+        ((TCPConnection) connection).send(message);
+    }
+
+    public static Object createMessage(final String value) {
+        return new SharedMessage(value);
+    }
+
+    public static Object take() throws InterruptedException {
+        return HostedEndpoint.received.poll(5, TimeUnit.SECONDS);
+    }
+
+    public static void stop(final Closeable connection) throws IOException {
+        connection.close();
+        ServiceExecutor.getInstance().shutDown();
+    }
+
+    @InterfaceInfo(name = "Hosted",
+                   version = "1",
+                   serializer = JavaIOSerializer.class,
+                   receivesHash = "hosted",
+                   receiveTypes = {SharedMessage.class},
+                   sendsHash = "hosted",
+                   sendTypes = {SharedMessage.class})
+    public static class Handler implements ConnectionHandler {
+
+        public void handleSharedMessage(final SharedMessage message) {
+            HostedEndpoint.received.add(message);
+        }
+
+        @Override
+        public void onSuspend() {
+            // Not used in the test
+        }
+
+        @Override
+        public void resumeAfterSuspend() {
+            // Not used in the test
+        }
+
+        @Override
+        public void onInterrupt() {
+            // Not used in the test
+        }
+
+        @Override
+        public void resumeAfterInterrupt() {
+            // Not used in the test
+        }
+
+        @Override
+        public void terminated() {
+            // Not used in the test
+        }
+
+    }
+
+    public static class HandlerManager implements ConnectionHandlerManager {
+
+        @SuppressWarnings("static-method")
+        public Handler build1(final Connection connection) {
+            return new Handler();
+        }
+
+    }
+
+}
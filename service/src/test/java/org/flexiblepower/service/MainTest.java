@@ -19,6 +19,10 @@
  */
 package org.flexiblepower.service;
 
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
 import org.flexiblepower.proto.ConnectionProto.ConnectionState;
 import org.flexiblepower.serializers.ProtobufMessageSerializer;
 import org.junit.Assert;
@@ -147,6 +151,60 @@ public class MainTest {
 
         }
 
+        @Override
+        public void setCoalescing(final long lingerTime, final TimeUnit unit, final int maxBatchSize) {
+            // Auto-generated method stub
+
+        }
+
+        @Override
+        public CompletableFuture<Void> sendAsync(final Object message) {
+            // Auto-generated method stub
+            return null;
+        }
+
+        @Override
+        public void sendStream(final InputStream data) {
+            // Auto-generated method stub
+
+        }
+
+        @Override
+        public void setCompressionThreshold(final int minimumSize) {
+            // Auto-generated method stub
+
+        }
+
+        @Override
+        public void setMaxFrameSize(final int maxFrameSize) {
+            // Auto-generated method stub
+
+        }
+
+        @Override
+        public void setFlowControl(final FlowControlPolicy policy, final long timeout, final TimeUnit unit) {
+            // Auto-generated method stub
+
+        }
+
+        @Override
+        public int getQueueDepth() {
+            // Auto-generated method stub
+            return 0;
+        }
+
+        @Override
+        public void setHeartBeat(final long period, final TimeUnit unit, final int maxMissed) {
+            // Auto-generated method stub
+
+        }
+
+        @Override
+        public long getRoundTripTime(final TimeUnit unit) {
+            // Auto-generated method stub
+            return -1;
+        }
+
         @Override
         public boolean isConnected() {
             // Auto-generated method stub
@@ -0,0 +1,97 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import org.flexiblepower.proto.ServiceProto.ErrorMessage;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * MessageDispatcherTest
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+@SuppressWarnings({"static-method", "javadoc"})
+public class MessageDispatcherTest {
+
+    @Test
+    public void testDispatch() throws Throwable {
+        final MessageDispatcher dispatcher = MessageDispatcher.forHandler(PrivateHandler.class);
+        Assert.assertSame(dispatcher, MessageDispatcher.forHandler(PrivateHandler.class));
+
+        final PrivateHandler handler = new PrivateHandler();
+        final MessageDispatcher.HandlerMethod method = dispatcher.get(ErrorMessage.class);
+        Assert.assertEquals("handleErrorMessageMessage", method.getName());
+        method.invoke(handler, ErrorMessage.newBuilder().setDebugInformation("test").buildPartial());
+        Assert.assertEquals("test", handler.received);
+
+        dispatcher.get(String.class).invoke(handler, "string");
+        Assert.assertEquals("string", handler.received);
+
+        // Only exact types, and only methods that match the naming convention
+        Assert.assertNull(dispatcher.get(Object.class));
+        Assert.assertNull(dispatcher.get(Integer.class));
+    }
+
+    private static class PrivateHandler implements ConnectionHandler {
+
+        String received;
+
+        public void handleErrorMessageMessage(final ErrorMessage message) {
+            this.received = message.getDebugInformation();
+        }
+
+        public void handleStringMessage(final String message) {
+            this.received = message;
+        }
+
+        public void processInteger(final Integer message) {
+            this.received = message.toString();
+        }
+
+        @Override
+        public void onSuspend() {
+            // Not used
+        }
+
+        @Override
+        public void resumeAfterSuspend() {
+            // Not used
+        }
+
+        @Override
+        public void onInterrupt() {
+            // Not used
+        }
+
+        @Override
+        public void resumeAfterInterrupt() {
+            // Not used
+        }
+
+        @Override
+        public void terminated() {
+            // Not used
+        }
+
+    }
+
+}
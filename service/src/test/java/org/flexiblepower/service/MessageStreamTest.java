@@ -0,0 +1,142 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.flexiblepower.commons.StreamFrame;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * MessageStreamTest
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+@SuppressWarnings({"static-method", "javadoc"})
+public class MessageStreamTest {
+
+    @Test
+    public void testChunkFrames() {
+        final byte[] data = new byte[] {1, 2, 3, 4, 5};
+        final byte[] chunk = StreamFrame.encodeChunk(data, 3, false);
+        Assert.assertTrue(StreamFrame.isChunk(chunk));
+        Assert.assertFalse(StreamFrame.isLast(chunk));
+        Assert.assertFalse(StreamFrame.isAborted(chunk));
+        Assert.assertArrayEquals(new byte[] {1, 2, 3}, StreamFrame.decodeChunk(chunk));
+
+        final byte[] last = StreamFrame.encodeChunk(data, 0, true);
+        Assert.assertTrue(StreamFrame.isLast(last));
+        Assert.assertEquals(0, StreamFrame.decodeChunk(last).length);
+
+        Assert.assertTrue(StreamFrame.isAborted(StreamFrame.encodeAbort()));
+        Assert.assertFalse(StreamFrame.isCredit(chunk));
+
+        final byte[] credit = StreamFrame.encodeCredit(1234567890123L);
+        Assert.assertTrue(StreamFrame.isCredit(credit));
+        Assert.assertFalse(StreamFrame.isChunk(credit));
+        Assert.assertEquals(1234567890123L, StreamFrame.decodeCredit(credit));
+    }
+
+    @Test
+    public void testReadAcrossChunks() throws IOException {
+        final AtomicLong credits = new AtomicLong();
+        try (final MessageStream stream = new MessageStream(credits::set)) {
+            stream.add(new byte[] {1, 2, 3});
+            stream.add(new byte[0]);
+            stream.add(new byte[] {4, 5});
+            stream.end();
+
+            final byte[] buffer = new byte[10];
+            int length = 0;
+            int n;
+            while ((n = stream.read(buffer, length, buffer.length - length)) >= 0) {
+                length += n;
+            }
+            Assert.assertArrayEquals(new byte[] {1, 2, 3, 4, 5}, Arrays.copyOf(buffer, length));
+            Assert.assertEquals(-1, stream.read());
+            Assert.assertEquals(3, stream.consumed());
+        }
+    }
+
+    @Test
+    public void testCredits() throws IOException {
+        final AtomicLong credits = new AtomicLong();
+        try (final MessageStream stream = new MessageStream(credits::set)) {
+            for (int i = 0; i < StreamFrame.WINDOW; i++) {
+                stream.add(new byte[] {(byte) i});
+            }
+            Assert.assertEquals(0, credits.get());
+
+            // Credits are granted in batches, with the total number of chunks that were read
+            for (int i = 0; i < StreamFrame.WINDOW; i++) {
+                Assert.assertEquals(i, stream.read());
+            }
+            Assert.assertEquals(StreamFrame.WINDOW, credits.get());
+        }
+    }
+
+    @Test
+    public void testCloseDiscards() throws IOException {
+        final AtomicLong credits = new AtomicLong();
+        final MessageStream stream = new MessageStream(credits::set);
+        for (int i = 0; i < StreamFrame.WINDOW; i++) {
+            stream.add(new byte[] {(byte) i});
+        }
+        Assert.assertEquals(0, stream.read());
+        stream.close();
+
+        // The sender must be able to finish, even though nobody reads the rest
+        Assert.assertEquals(StreamFrame.WINDOW, credits.get());
+        for (int i = 0; i < StreamFrame.WINDOW; i++) {
+            stream.add(new byte[] {(byte) i});
+        }
+        Assert.assertEquals(2 * StreamFrame.WINDOW, credits.get());
+
+        try {
+            stream.read();
+            Assert.fail("Expected IOException");
+        } catch (final IOException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testAbort() throws IOException {
+        try (final MessageStream stream = new MessageStream(total -> {
+            // No credits needed
+        })) {
+            stream.add(new byte[] {1});
+            stream.abort();
+            Assert.assertEquals(1, stream.read());
+            try {
+                stream.read();
+                Assert.fail("Expected IOException");
+            } catch (final IOException e) {
+                Assert.assertTrue(e.getMessage().contains("aborted"));
+            }
+        }
+    }
+
+}
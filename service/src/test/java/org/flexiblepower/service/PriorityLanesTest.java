@@ -0,0 +1,186 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.flexiblepower.commons.FrameListener;
+import org.flexiblepower.commons.FrameSocket;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * PriorityLanesTest
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+@SuppressWarnings({"static-method", "javadoc"})
+public class PriorityLanesTest {
+
+    private static final byte[] CONTROL = new byte[] {(byte) 0xB};
+
+    @Test
+    public void testFragments() {
+        final byte[] data = new byte[(3 * FragmentFrame.DEFAULT_FRAGMENT_SIZE) + 17];
+        new Random(42).nextBytes(data);
+
+        final List<byte[]> fragments = FragmentFrame.encode(data, FragmentFrame.DEFAULT_FRAGMENT_SIZE);
+        Assert.assertEquals(4, fragments.size());
+
+        final ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        for (int i = 0; i < fragments.size(); i++) {
+            final byte[] fragment = fragments.get(i);
+            Assert.assertTrue(FragmentFrame.isFragment(fragment));
+            Assert.assertEquals(i == (fragments.size() - 1), FragmentFrame.isLast(fragment));
+            FragmentFrame.decode(fragment, frame);
+        }
+        Assert.assertArrayEquals(data, frame.toByteArray());
+
+        // Small frames are sent as they are
+        final byte[] small = Arrays.copyOf(data, 100);
+        Assert.assertSame(small, FragmentFrame.encode(small, FragmentFrame.DEFAULT_FRAGMENT_SIZE).get(0));
+        Assert.assertFalse(FragmentFrame.isFragment(small));
+    }
+
+    @Test(timeout = 10000)
+    public void testControlGoesFirst() throws Exception {
+        final BlockingSocket socket = new BlockingSocket();
+        final PriorityLanes lanes = new PriorityLanes();
+        final byte[] data = new byte[(3 * FragmentFrame.DEFAULT_FRAGMENT_SIZE)];
+
+        final Thread dataSender = new Thread(() -> {
+            try {
+                lanes.sendData(socket, data, FragmentFrame.DEFAULT_FRAGMENT_SIZE);
+            } catch (final IOException e) {
+                Assert.fail(e.getMessage());
+            }
+        });
+        dataSender.start();
+
+        // While the first fragment is being written, a control frame arrives
+        final byte[] first = socket.sent.take();
+        Assert.assertTrue(FragmentFrame.isFragment(first));
+        final Thread controlSender = new Thread(() -> {
+            try {
+                lanes.controlLane(socket).send(PriorityLanesTest.CONTROL);
+            } catch (final IOException e) {
+                Assert.fail(e.getMessage());
+            }
+        });
+        controlSender.start();
+        while (controlSender.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        socket.release.countDown();
+
+        // It is written before the rest of the data
+        Assert.assertArrayEquals(PriorityLanesTest.CONTROL, socket.sent.take());
+        Assert.assertFalse(FragmentFrame.isLast(socket.sent.take()));
+        Assert.assertTrue(FragmentFrame.isLast(socket.sent.take()));
+        dataSender.join();
+        controlSender.join();
+        Assert.assertNull(socket.sent.poll(10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testNoFragmentsWithoutSupport() throws IOException {
+        final BlockingSocket socket = new BlockingSocket();
+        socket.release.countDown();
+        final byte[] data = new byte[(2 * FragmentFrame.DEFAULT_FRAGMENT_SIZE)];
+        new PriorityLanes().sendData(socket, data, 0);
+        Assert.assertSame(data, socket.sent.poll());
+        Assert.assertTrue(socket.sent.isEmpty());
+    }
+
+    /**
+     * A socket that records what is sent, and blocks while writing the first frame until it is released
+     */
+    private static final class BlockingSocket implements FrameSocket {
+
+        final BlockingQueue<byte[]> sent = new LinkedBlockingQueue<>();
+        final CountDownLatch release = new CountDownLatch(1);
+
+        BlockingSocket() {
+            // Only visible in the test
+        }
+
+        @Override
+        public boolean isConnected() {
+            return true;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return false;
+        }
+
+        @Override
+        public void waitUntilConnected() {
+            // Always connected
+        }
+
+        @Override
+        public boolean waitUntilConnected(final long millis) {
+            return true;
+        }
+
+        @Override
+        public void attach(final FrameListener frameListener) throws ClosedChannelException {
+            // Nothing is received
+        }
+
+        @Override
+        public void pauseReading() {
+            // Nothing is received
+        }
+
+        @Override
+        public void resumeReading() {
+            // Nothing is received
+        }
+
+        @Override
+        public void send(final byte[] frame) throws IOException {
+            this.sent.add(frame);
+            try {
+                this.release.await();
+            } catch (final InterruptedException e) {
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public void close() {
+            // Nothing to close
+        }
+
+    }
+
+}
@@ -0,0 +1,151 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.util.List;
+
+import org.flexiblepower.proto.ConnectionProto.ConnectionHandshake;
+import org.flexiblepower.proto.ConnectionProto.ConnectionState;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * ReplayBufferTest
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+@SuppressWarnings({"static-method", "javadoc"})
+public class ReplayBufferTest {
+
+    private static ConnectionHandshake handshake(final ReplayBuffer from) {
+        return ConnectionHandshake.newBuilder()
+                .setConnectionId("RBT")
+                .setConnectionState(ConnectionState.CONNECTED)
+                .setSessionId(from.sessionId())
+                .setResumeSessionId(from.remoteSessionId())
+                .setReceivedFrames(from.receivedFrames())
+                .build();
+    }
+
+    private static void connect(final ReplayBuffer a, final ReplayBuffer b) {
+        // Like the handshake monitors, both sides send a handshake, and respond to the one they receive
+        final ConnectionHandshake fromA = ReplayBufferTest.handshake(a);
+        final ConnectionHandshake fromB = ReplayBufferTest.handshake(b);
+        b.onHandshake(fromA);
+        a.onHandshake(fromB);
+        b.onHandshake(ReplayBufferTest.handshake(a));
+        a.onHandshake(ReplayBufferTest.handshake(b));
+    }
+
+    private static byte[] frame(final int i) {
+        return new byte[] {(byte) i};
+    }
+
+    @Test
+    public void testAcknowledgeAndReplay() {
+        final ReplayBuffer a = new ReplayBuffer("RBT", 8, 1024);
+        final ReplayBuffer b = new ReplayBuffer("RBT", 8, 1024);
+        ReplayBufferTest.connect(a, b);
+        Assert.assertTrue(a.isEnabled());
+
+        for (int i = 0; i < 5; i++) {
+            a.record(ReplayBufferTest.frame(i));
+        }
+        // Only the first three arrive, and only the first two are acknowledged
+        for (int i = 0; i < 2; i++) {
+            b.frameReceived();
+        }
+        a.acknowledge(b.acknowledgement());
+        Assert.assertEquals(3, a.size());
+        b.frameReceived();
+
+        // After reconnecting, the last two frames are resent
+        ReplayBufferTest.connect(a, b);
+        Assert.assertEquals(3, b.receivedFrames());
+        final List<byte[]> replay = a.replay(b.receivedFrames());
+        Assert.assertEquals(2, replay.size());
+        Assert.assertArrayEquals(ReplayBufferTest.frame(3), replay.get(0));
+        Assert.assertArrayEquals(ReplayBufferTest.frame(4), replay.get(1));
+
+        // Both sides keep counting alike
+        b.frameReceived();
+        b.frameReceived();
+        a.acknowledge(b.acknowledgement());
+        Assert.assertEquals(0, a.size());
+    }
+
+    @Test
+    public void testNewRemoteSession() {
+        final ReplayBuffer a = new ReplayBuffer("RBT", 8, 1024);
+        final ReplayBuffer b = new ReplayBuffer("RBT", 8, 1024);
+        ReplayBufferTest.connect(a, b);
+        a.record(ReplayBufferTest.frame(0));
+        b.record(ReplayBufferTest.frame(0));
+        b.frameReceived();
+
+        // The remote process was restarted, nothing is resent to it and counting starts over
+        final ReplayBuffer c = new ReplayBuffer("RBT", 8, 1024);
+        ReplayBufferTest.connect(b, c);
+        Assert.assertEquals(0, b.size());
+        Assert.assertEquals(0, b.receivedFrames());
+        Assert.assertTrue(b.replay(c.receivedFrames()).isEmpty());
+
+        // An older version does not send a session id, so nothing is kept
+        b.onHandshake(ConnectionHandshake.newBuilder()
+                .setConnectionId("RBT")
+                .setConnectionState(ConnectionState.CONNECTED)
+                .build());
+        Assert.assertFalse(b.isEnabled());
+        b.record(ReplayBufferTest.frame(1));
+        Assert.assertEquals(0, b.size());
+        Assert.assertFalse(b.frameReceived());
+    }
+
+    @Test
+    public void testBounded() {
+        final ReplayBuffer a = new ReplayBuffer("RBT", 4, 10);
+        final ReplayBuffer b = new ReplayBuffer("RBT", 4, 10);
+        ReplayBufferTest.connect(a, b);
+
+        for (int i = 0; i < 6; i++) {
+            a.record(ReplayBufferTest.frame(i));
+        }
+        Assert.assertEquals(4, a.size());
+        // The buffer is limited in bytes as well
+        a.record(new byte[8]);
+        Assert.assertEquals(3, a.size());
+
+        // Frames 1 to 3 were dropped before they were received, so the others are renumbered
+        b.frameReceived();
+        final List<byte[]> replay = a.replay(b.receivedFrames());
+        Assert.assertEquals(3, replay.size());
+        Assert.assertArrayEquals(ReplayBufferTest.frame(4), replay.get(0));
+        for (int i = 0; i < 3; i++) {
+            // An acknowledgement is due once a quarter of the window is received
+            Assert.assertTrue(b.frameReceived());
+        }
+        Assert.assertEquals(4, b.acknowledgement());
+        a.acknowledge(4);
+        Assert.assertEquals(0, a.size());
+        Assert.assertEquals(-1, b.acknowledgement());
+    }
+
+}
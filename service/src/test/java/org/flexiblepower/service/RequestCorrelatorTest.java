@@ -0,0 +1,137 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.lang.reflect.Proxy;
+import java.nio.channels.ClosedChannelException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.flexiblepower.service.exceptions.FlowControlException;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * RequestCorrelatorTest
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+@SuppressWarnings({"static-method", "javadoc"})
+public class RequestCorrelatorTest {
+
+    private final List<Object> sent = new CopyOnWriteArrayList<>();
+    private volatile CompletableFuture<Void> sendResult = CompletableFuture.completedFuture(null);
+
+    private final Connection connection = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("sendAsync")) {
+                    this.sent.add(args[0]);
+                    return this.sendResult;
+                } else if (method.getName().equals("remoteProcessId")) {
+                    return "remote";
+                }
+                return null;
+            });
+
+    @Test
+    public void testPipelinedRequests() throws Exception {
+        final RequestCorrelator<String> requests = new RequestCorrelator<>(this.connection, 10, TimeUnit.SECONDS);
+        final int id1 = requests.nextId();
+        final int id2 = requests.nextId();
+        Assert.assertNotEquals(id1, id2);
+
+        final CompletableFuture<String> f1 = requests.request(id1, "request 1");
+        final CompletableFuture<String> f2 = requests.request(id2, "request 2");
+        Assert.assertEquals(2, this.sent.size());
+        Assert.assertEquals(2, requests.pending());
+
+        // Responses may arrive in any order
+        Assert.assertTrue(requests.complete(id2, "response 2"));
+        Assert.assertTrue(requests.complete(id1, "response 1"));
+        Assert.assertEquals("response 1", f1.get());
+        Assert.assertEquals("response 2", f2.get());
+        Assert.assertEquals(0, requests.pending());
+
+        // A late or unknown response is ignored
+        Assert.assertFalse(requests.complete(id1, "again"));
+    }
+
+    @Test(timeout = 5000)
+    public void testTimeout() throws Exception {
+        final RequestCorrelator<String> requests = new RequestCorrelator<>(this.connection, 10, TimeUnit.SECONDS);
+        final CompletableFuture<String> future = requests.request(1, "request", 50, TimeUnit.MILLISECONDS);
+        final CompletableFuture<String> completingThread = future
+                .handle((response, error) -> Thread.currentThread().getName());
+        try {
+            future.get();
+            Assert.fail("Expected TimeoutException");
+        } catch (final ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        // Whatever is chained to the future must not block the timer
+        Assert.assertTrue(completingThread.get(), completingThread.get().startsWith("dEF-Pi connThread"));
+        Assert.assertEquals(0, requests.pending());
+        Assert.assertFalse(requests.complete(1, "too late"));
+    }
+
+    @Test
+    public void testBounded() throws Exception {
+        final RequestCorrelator<String> requests = new RequestCorrelator<>(this.connection, 2, 10, TimeUnit.SECONDS);
+        requests.request(1, "request 1");
+        requests.request(2, "request 2");
+        try {
+            requests.request(3, "request 3").get();
+            Assert.fail("Expected FlowControlException");
+        } catch (final ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof FlowControlException);
+        }
+
+        // The same id can not be used twice at the same time
+        requests.complete(2, "response 2");
+        Assert.assertTrue(requests.request(1, "request 1").isCompletedExceptionally());
+        Assert.assertEquals(1, requests.pending());
+
+        requests.failAll(new ClosedChannelException());
+        Assert.assertEquals(0, requests.pending());
+    }
+
+    @Test
+    public void testSendFailure() throws Exception {
+        final CompletableFuture<Void> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new ClosedChannelException());
+        this.sendResult = failed;
+
+        final RequestCorrelator<String> requests = new RequestCorrelator<>(this.connection, 10, TimeUnit.SECONDS);
+        try {
+            requests.request(1, "request").get();
+            Assert.fail("Expected ClosedChannelException");
+        } catch (final ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof ClosedChannelException);
+        }
+        Assert.assertEquals(0, requests.pending());
+    }
+
+}
@@ -0,0 +1,136 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * ServiceExecutorTest
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+@SuppressWarnings({"static-method", "javadoc"})
+public class ServiceExecutorTest {
+
+    private static final int TASKS = 1000;
+
+    private ServiceExecutor executor;
+
+    @Before
+    public void init() {
+        ServiceExecutor.configure(4);
+        this.executor = ServiceExecutor.getInstance();
+    }
+
+    @After
+    public void cleanup() {
+        this.executor.shutDown();
+        ServiceExecutor.configure(0);
+    }
+
+    @Test(timeout = 10000)
+    public void testBlockedConnection() throws InterruptedException {
+        final ServiceExecutor.OrderedExecutor slow = this.executor.newOrderedExecutor();
+        final ServiceExecutor.OrderedExecutor fast = this.executor.newOrderedExecutor();
+
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+        slow.submit(() -> {
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // The other connection is not held up by the slow one
+        fast.submit(done::countDown);
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    @Test(timeout = 10000)
+    public void testOrderPerConnection() throws InterruptedException {
+        final List<List<Integer>> results = new ArrayList<>();
+        final CountDownLatch done = new CountDownLatch(3 * ServiceExecutorTest.TASKS);
+        for (int c = 0; c < 3; c++) {
+            final List<Integer> result = Collections.synchronizedList(new ArrayList<>());
+            results.add(result);
+            final ServiceExecutor.OrderedExecutor connection = this.executor.newOrderedExecutor();
+            for (int i = 0; i < ServiceExecutorTest.TASKS; i++) {
+                final int n = i;
+                connection.submit(() -> {
+                    result.add(n);
+                    done.countDown();
+                });
+            }
+        }
+
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (final List<Integer> result : results) {
+            Assert.assertEquals(ServiceExecutorTest.TASKS, result.size());
+            for (int i = 0; i < ServiceExecutorTest.TASKS; i++) {
+                Assert.assertEquals(i, result.get(i).intValue());
+            }
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testExclusiveServiceTask() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ServiceExecutor.OrderedExecutor connection = this.executor.newOrderedExecutor();
+        connection.submit(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // The service task waits until the connection task is done
+        final AtomicBoolean released = new AtomicBoolean(false);
+        final AtomicBoolean exclusive = new AtomicBoolean(false);
+        final CountDownLatch done = new CountDownLatch(1);
+        this.executor.submit(() -> {
+            exclusive.set(released.get());
+            done.countDown();
+        });
+        Assert.assertFalse(done.await(200, TimeUnit.MILLISECONDS));
+        released.set(true);
+        release.countDown();
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(exclusive.get());
+    }
+
+}
@@ -0,0 +1,190 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service;
+
+import java.io.Closeable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Properties;
+
+import org.flexiblepower.commons.LocalSocket;
+import org.flexiblepower.commons.TCPSocket;
+import org.flexiblepower.proto.ConnectionProto.ConnectionMessage;
+import org.flexiblepower.proto.DefPiParams;
+import org.flexiblepower.proto.ServiceProto.GoToProcessStateMessage;
+import org.flexiblepower.proto.ServiceProto.ProcessState;
+import org.flexiblepower.service.ServiceHost.Slot;
+import org.flexiblepower.service.exceptions.ServiceInvocationException;
+import org.flexiblepower.service.shared.SharedMessage;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * ServiceHostTest
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+@SuppressWarnings({"static-method", "javadoc"})
+public class ServiceHostTest {
+
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(5);
+
+    @Test
+    public void testClassLoaderIsolation() throws Exception {
+        try (final ServiceClassLoader loader = new ServiceClassLoader("", ServiceHostTest.class.getClassLoader())) {
+            // Every service has its own service library, but they share the sockets
+            final Class<?> executorClass = loader.loadClass(ServiceExecutor.class.getName());
+            Assert.assertNotSame(ServiceExecutor.class, executorClass);
+            Assert.assertSame(loader, executorClass.getClassLoader());
+            Assert.assertSame(TCPSocket.class, loader.loadClass(TCPSocket.class.getName()));
+            Assert.assertSame(String.class, loader.loadClass(String.class.getName()));
+        }
+    }
+
+    @Test
+    public void testEnvironment() {
+        final Properties config = ServiceHostTest.createConfig();
+        final Map<String, String> env = ServiceHost.getEnvironment(config, "process1");
+        Assert.assertEquals("process1", env.get(DefPiParams.PROCESS_ID.name()));
+        Assert.assertEquals("org.example", env.get("SERVICE_PACKAGE"));
+        Assert.assertEquals("/tmp/process1", env.get("classpath"));
+
+        final Map<String, String> env2 = ServiceHost.getEnvironment(config, "process2");
+        Assert.assertEquals("other-id", env2.get(DefPiParams.PROCESS_ID.name()));
+        Assert.assertEquals(System.getenv("SERVICE_PACKAGE"), env2.get("SERVICE_PACKAGE"));
+    }
+
+    @Test
+    public void testRouting() throws Exception {
+        final ServiceHost host = new ServiceHost(ServiceHostTest.createConfig());
+
+        final Slot slot = host.route(GoToProcessStateMessage.newBuilder()
+                .setProcessId("other-id")
+                .setTargetState(ProcessState.RUNNING)
+                .buildPartial(), null);
+        Assert.assertEquals("other-id", slot.processId);
+
+        // Connection messages go to the process that the management connection is bound to
+        final ConnectionMessage connectionMessage = ConnectionMessage.newBuilder().setConnectionId("c").buildPartial();
+        Assert.assertSame(slot, host.route(connectionMessage, slot));
+
+        try {
+            host.route(GoToProcessStateMessage.newBuilder().setProcessId("unknown").buildPartial(), null);
+            Assert.fail("Expected exception for unknown process");
+        } catch (final ServiceInvocationException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testSharedMessagesAreHandedOver() throws Exception {
+        final Properties config = new Properties();
+        config.setProperty("processes", "hosted-1, hosted-2");
+        config.setProperty("sharedPackages", SharedMessage.class.getPackage().getName() + ".");
+        final ServiceHost host = new ServiceHost(config);
+
+        final Object[] messages = ServiceHostTest.exchangeMessage(host, "shared");
+        Assert.assertSame(SharedMessage.class, messages[0].getClass());
+        // The receiving process got the very object that was sent, so it was not serialized
+        Assert.assertSame(messages[0], messages[1]);
+    }
+
+    @Test
+    public void testIsolatedMessagesAreSerialized() throws Exception {
+        final Properties config = new Properties();
+        config.setProperty("processes", "hosted-1, hosted-2");
+        final ServiceHost host = new ServiceHost(config);
+
+        final Object[] messages = ServiceHostTest.exchangeMessage(host, "isolated");
+        Assert.assertNotSame(messages[0].getClass(), messages[1].getClass());
+        Assert.assertEquals("hello", messages[1].getClass().getField("value").get(messages[1]));
+    }
+
+    /**
+     * Connect two processes that are loaded like the host loads them, and send a message from one to the other
+     *
+     * @return the message that was sent and the message that was received
+     */
+    private static Object[] exchangeMessage(final ServiceHost host, final String connectionId) throws Exception {
+        LocalSocket.registerLocalProcess("hosted-1");
+        LocalSocket.registerLocalProcess("hosted-2");
+        try (
+                final ServiceClassLoader loader1 = new ServiceClassLoader("",
+                        host.createSharedClassLoader(),
+                        host.getSharedPackages());
+                final ServiceClassLoader loader2 = new ServiceClassLoader("",
+                        host.createSharedClassLoader(),
+                        host.getSharedPackages())) {
+            final Closeable server = (Closeable) ServiceHostTest.call(loader1, "connect", connectionId, "", "hosted-2");
+            final Closeable client = (Closeable) ServiceHostTest
+                    .call(loader2, "connect", connectionId, "localhost", "hosted-1");
+            try {
+                while (!((Boolean) ServiceHostTest.call(loader1, "isConnected", server))
+                        || !((Boolean) ServiceHostTest.call(loader2, "isConnected", client))) {
+                    Thread.sleep(10);
+                }
+
+                final Object message = ServiceHostTest.call(loader1, "createMessage", "hello");
+                ServiceHostTest.call(loader1, "send", server, message);
+                final Object received = ServiceHostTest.call(loader2, "take");
+                Assert.assertNotNull(received);
+                return new Object[] {message, received};
+            } finally {
+                ServiceHostTest.call(loader1, "stop", server);
+                ServiceHostTest.call(loader2, "stop", client);
+            }
+        } finally {
+            LocalSocket.unregisterLocalProcess("hosted-1");
+            LocalSocket.unregisterLocalProcess("hosted-2");
+        }
+    }
+
+    /**
+     * Call a static method of the HostedEndpoint that was loaded by the class loader of a process
+     */
+    private static Object call(final ClassLoader loader, final String methodName, final Object... args)
+            throws Exception {
+        for (final Method method : loader.loadClass(HostedEndpoint.class.getName()).getMethods()) {
+            if (method.getName().equals(methodName)) {
+                try {
+                    return method.invoke(null, args);
+                } catch (final InvocationTargetException e) {
+                    throw (Exception) e.getTargetException();
+                }
+            }
+        }
+        throw new NoSuchMethodException(methodName);
+    }
+
+    private static Properties createConfig() {
+        final Properties config = new Properties();
+        config.setProperty("processes", "process1, process2");
+        config.setProperty("process1.classpath", "/tmp/process1");
+        config.setProperty("process1.SERVICE_PACKAGE", "org.example");
+        config.setProperty("process2.PROCESS_ID", "other-id");
+        return config;
+    }
+
+}
@@ -19,10 +19,13 @@
  */
 package org.flexiblepower.service;
 
+import java.io.InputStream;
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.List;
 
+import org.flexiblepower.commons.ChunkInputStream;
+import org.flexiblepower.commons.ChunkOutputStream;
 import org.flexiblepower.commons.TCPSocket;
 import org.flexiblepower.proto.ServiceProto.ErrorMessage;
 import org.flexiblepower.proto.ServiceProto.GoToProcessStateMessage;
@@ -128,6 +131,44 @@ public class ServiceTest {
         this.runTerminate();
     }
 
+    @Test(timeout = 60000)
+    public void runStreamedSuspend() throws Exception {
+        this.runConfigure();
+
+        this.managementSocket.send(this.pbSerializer.serialize(GoToProcessStateMessage.newBuilder()
+                .setProcessId(ServiceTest.PROCESS_ID)
+                .setTargetState(ProcessState.SUSPENDED)
+                .setStreamState(true)
+                .build()));
+
+        // The state precedes the response
+        try (final InputStream in = new ChunkInputStream(this.managementSocket, 0)) {
+            Assert.assertEquals(TestService.class, new JavaIOSerializer().deserializeCompressed(in));
+        }
+        final ProcessStateUpdateMessage response = (ProcessStateUpdateMessage) this.pbSerializer
+                .deserialize(this.managementSocket.read());
+        Assert.assertEquals(ProcessState.SUSPENDED, response.getState());
+        Assert.assertTrue(response.getStateData().isEmpty());
+        Assert.assertEquals("suspend", this.testService.stateQueue.take());
+    }
+
+    @Test(timeout = 60000)
+    public void runStreamedResume() throws Exception {
+        this.managementSocket.send(this.pbSerializer.serialize(ResumeProcessMessage.newBuilder()
+                .setProcessId(ServiceTest.PROCESS_ID)
+                .setStateData(ByteString.EMPTY)
+                .setStateFollows(true)
+                .build()));
+        try (final ChunkOutputStream out = new ChunkOutputStream(this.managementSocket)) {
+            new JavaIOSerializer().serializeCompressed(TestService.class, out);
+        }
+
+        final ProcessStateUpdateMessage response = (ProcessStateUpdateMessage) this.pbSerializer
+                .deserialize(this.managementSocket.read());
+        Assert.assertEquals(ProcessState.RUNNING, response.getState());
+        Assert.assertEquals("resumed", this.testService.stateQueue.take());
+    }
+
     public void runResume() throws Exception {
         final byte[] data = this.pbSerializer.serialize(ResumeProcessMessage.newBuilder()
                 .setProcessId(ServiceTest.PROCESS_ID)
@@ -194,12 +235,12 @@ public class ServiceTest {
                 .setProcessId(ServiceTest.PROCESS_ID)
                 .setTargetState(ProcessState.SUSPENDED)
                 .build()));
-        final byte[] barr = this.managementSocket.read();
-        Assert.assertArrayEquals(this.pbSerializer.serialize(ProcessStateUpdateMessage.newBuilder()
-                .setProcessId(ServiceTest.PROCESS_ID)
-                .setState(ProcessState.SUSPENDED)
-                .setStateData(ByteString.copyFrom(this.serializer.serialize(TestService.class)))
-                .build()), barr);
+        final ProcessStateUpdateMessage response = (ProcessStateUpdateMessage) this.pbSerializer
+                .deserialize(this.managementSocket.read());
+        Assert.assertEquals(ServiceTest.PROCESS_ID, response.getProcessId());
+        Assert.assertEquals(ProcessState.SUSPENDED, response.getState());
+        Assert.assertEquals(TestService.class,
+                new JavaIOSerializer().deserializeCompressed(response.getStateData().newInput()));
         Assert.assertEquals("suspend", this.testService.stateQueue.take());
     }
 
@@ -19,7 +19,10 @@
  */
 package org.flexiblepower.service;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
@@ -145,4 +148,15 @@ public class TestHandler implements ConnectionHandler {
         TestHandler.messageQueue.add(o.getDebugInformation());
     }
 
+    public void handleStreamMessage(final InputStream in) throws IOException {
+        final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[4096];
+        int n;
+        while ((n = in.read(buffer)) >= 0) {
+            data.write(buffer, 0, n);
+        }
+        System.out.println(this.name + ": received stream of " + data.size() + " bytes");
+        TestHandler.messageQueue.add(new String(data.toByteArray(), StandardCharsets.UTF_8));
+    }
+
 }
@@ -0,0 +1,42 @@
+/*-
+ * #%L
+ * dEF-Pi service managing library
+ * %%
+ * Copyright (C) 2017 - 2018 Flexible Power Alliance Network
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.flexiblepower.service.shared;
+
+import java.io.Serializable;
+
+/**
+ * A message class in a package that the {@link org.flexiblepower.service.ServiceHost ServiceHost} of the tests shares
+ * between the hosted processes
+ *
+ * @version 0.1
+ * @since Oct 18, 2018
+ */
+@SuppressWarnings("javadoc")
+public class SharedMessage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public final String value;
+
+    public SharedMessage(final String value) {
+        this.value = value;
+    }
+
+}